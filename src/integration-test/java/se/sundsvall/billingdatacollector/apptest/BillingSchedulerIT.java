@@ -10,7 +10,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.jdbc.Sql;
 import se.sundsvall.billingdatacollector.Application;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
 import se.sundsvall.billingdatacollector.service.scheduling.BillingScheduler;
+import se.sundsvall.billingdatacollector.service.scheduling.relation.RelationOutboxScheduler;
 import se.sundsvall.dept44.test.AbstractAppTest;
 import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
 
@@ -25,16 +27,23 @@ class BillingSchedulerIT extends AbstractAppTest {
 	@Autowired
 	private BillingScheduler billingScheduler;
 
+	@Autowired
+	private RelationOutboxScheduler relationOutboxScheduler;
+
 	@Autowired
 	private HistoryRepository historyRepository;
 
+	@Autowired
+	private RelationOutboxRepository relationOutboxRepository;
+
 	@Test
 	void test1_createBillingRecords() {
 		// Setup wiremock
 		setupCall();
 
-		// Trigger the "scheduled" job
+		// Trigger the "scheduled" jobs
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		var historyEntities = historyRepository.findAll();
 
@@ -49,6 +58,9 @@ class BillingSchedulerIT extends AbstractAppTest {
 			.orElseThrow(() -> new AssertionError("Expected history entity not found"));
 
 		assertThat(newHistoryEntity.getCreated()).isCloseTo(OffsetDateTime.now(), within(2, ChronoUnit.SECONDS));
+
+		// The relation has been created and removed from the outbox
+		assertThat(relationOutboxRepository.findAll()).isEmpty();
 		verifyAllStubs();
 	}
 }
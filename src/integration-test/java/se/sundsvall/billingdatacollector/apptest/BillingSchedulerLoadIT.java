@@ -0,0 +1,325 @@
+package se.sundsvall.billingdatacollector.apptest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.billingdatacollector.Application;
+import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingScheduler;
+import se.sundsvall.billingdatacollector.service.scheduling.relation.RelationOutboxScheduler;
+import se.sundsvall.dept44.test.AbstractAppTest;
+import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
+
+/**
+ * Load test of the scheduled billing. Seeds {@code loadtest.billings} due
+ * {@code scheduled_billing} rows for contracts, runs one tick of
+ * {@link BillingScheduler#createBillingRecords()} followed by one run of the
+ * relation outbox, and logs a report with the throughput, the latency
+ * percentiles of the billings and the number of database statements.
+ *
+ * <p>
+ * Contract, Party, SCB, BillingPreprocessor and Relation are stubbed
+ * programmatically and answer after a fixed delay, so that the report shows
+ * how the service behaves against slow downstreams rather than against
+ * WireMock. OpenE is not called by the scheduled billing; like every other
+ * integration it points at WireMock through {@code application-it.yml}.
+ *
+ * <p>
+ * The test is skipped unless the {@code loadtest} system property is set,
+ * so it never runs as part of the ordinary build. Run it with e.g.
+ *
+ * <pre>
+ * mvn verify -Dit.test=BillingSchedulerLoadIT -Dloadtest=true -Dloadtest.billings=2000 -Dloadtest.latency-ms=100
+ * </pre>
+ *
+ * <ul>
+ * <li>{@code loadtest.billings} - number of due scheduled billings (default 500)</li>
+ * <li>{@code loadtest.latency-ms} - delay of every downstream (default 50)</li>
+ * <li>{@code loadtest.<contract|party|scb|bpp|relation>-latency-ms} - delay
+ * of a single downstream, overriding {@code loadtest.latency-ms}</li>
+ * </ul>
+ *
+ * The settings of the scheduler itself, e.g.
+ * {@code scheduler.billing.parallel.enabled} and
+ * {@code scheduler.billing.page-size}, can be given the same way.
+ */
+@WireMockAppTestSuite(files = "classpath:/BillingSchedulerLoadIT/", classes = Application.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql({
+	"/db/truncate.sql",
+	"/db/testdata.sql"
+})
+@Import({
+	NoOpShedlockTestConfig.class, BillingSchedulerLoadIT.LatencyRecorderConfig.class
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class BillingSchedulerLoadIT extends AbstractAppTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BillingSchedulerLoadIT.class);
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String ACCESS_TOKEN_BODY = "{\"access_token\":\"MTQ0NjJkZmQ5OTM2NDE1ZTZjNGZmZjI3\","
+		+ "\"not-before-policy\":0,\"session_state\":\"88bbf486\",\"token_type\":\"bearer\"}";
+	private static final String SCB_KPI_BODY = "{\"version\":\"2.0\",\"class\":\"dataset\",\"value\":[355.91]}";
+	private static final String INSERT_SCHEDULED_BILLING = """
+		INSERT INTO scheduled_billing (id, municipality_id, external_id, source, billing_days_of_month, billing_months, next_scheduled_billing, paused)
+		VALUES (?, ?, ?, 'CONTRACT', '1', '1,4,7,10', ?, false)
+		""";
+
+	@Value("${loadtest.billings:500}")
+	private int billings;
+
+	@Value("${loadtest.contract-latency-ms:${loadtest.latency-ms:50}}")
+	private int contractLatency;
+
+	@Value("${loadtest.party-latency-ms:${loadtest.latency-ms:50}}")
+	private int partyLatency;
+
+	@Value("${loadtest.scb-latency-ms:${loadtest.latency-ms:50}}")
+	private int scbLatency;
+
+	@Value("${loadtest.bpp-latency-ms:${loadtest.latency-ms:50}}")
+	private int bppLatency;
+
+	@Value("${loadtest.relation-latency-ms:${loadtest.latency-ms:50}}")
+	private int relationLatency;
+
+	@Autowired
+	private BillingScheduler billingScheduler;
+
+	@Autowired
+	private RelationOutboxScheduler relationOutboxScheduler;
+
+	@Autowired
+	private HistoryRepository historyRepository;
+
+	@Autowired
+	private RelationOutboxRepository relationOutboxRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private HandlerLatencyRecorder latencyRecorder;
+
+	@BeforeEach
+	void setUp() {
+		stubDownstreams();
+		seedScheduledBillings();
+		latencyRecorder.clear();
+	}
+
+	@Test
+	void createBillingRecords() {
+		final var historyBaseline = historyRepository.count();
+		final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Billing tick
+		statistics.clear();
+		final var billingStartedAt = System.nanoTime();
+		billingScheduler.createBillingRecords();
+		final var billingDuration = Duration.ofNanos(System.nanoTime() - billingStartedAt);
+		final var billingStatements = StatementCounts.of(statistics);
+
+		// Relation outbox run
+		statistics.clear();
+		final var relationStartedAt = System.nanoTime();
+		relationOutboxScheduler.createRelations();
+		final var relationDuration = Duration.ofNanos(System.nanoTime() - relationStartedAt);
+		final var relationStatements = StatementCounts.of(statistics);
+
+		LOG.info(report(billingDuration, billingStatements, relationDuration, relationStatements));
+
+		// Every billing was sent and has ended up in the history, and every relation was created
+		assertThat(wiremock.findAll(postRequestedFor(urlPathEqualTo("/bpp/" + MUNICIPALITY_ID + "/billingrecords")))).hasSize(billings);
+		assertThat(historyRepository.count() - historyBaseline).isEqualTo(billings);
+		assertThat(relationOutboxRepository.count()).isZero();
+	}
+
+	private String report(Duration billingDuration, StatementCounts billingStatements, Duration relationDuration, StatementCounts relationStatements) {
+		final var latencies = latencyRecorder.sortedLatencies();
+		final var report = new StringBuilder()
+			.append("%n%nScheduled billing load test%n".formatted())
+			.append("  scheduled billings:     %d%n".formatted(billings))
+			.append("  downstream latency:     contract %d ms, party %d ms, scb %d ms, bpp %d ms, relation %d ms%n"
+				.formatted(contractLatency, partyLatency, scbLatency, bppLatency, relationLatency))
+			.append("%nBilling tick%n".formatted())
+			.append("  duration:               %d ms%n".formatted(billingDuration.toMillis()))
+			.append(String.format(Locale.ROOT, "  throughput:             %.1f billings/s, %.0f billings/min%n",
+				perSecond(billings, billingDuration), perSecond(billings, billingDuration) * 60))
+			.append("  billing latency:        p50 %d ms, p90 %d ms, p95 %d ms, p99 %d ms, max %d ms (%d samples)%n".formatted(
+				percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 95), percentile(latencies, 99),
+				percentile(latencies, 100), latencies.size()))
+			.append(billingStatements.format(billings))
+			.append("%nRelation outbox run%n".formatted())
+			.append("  duration:               %d ms%n".formatted(relationDuration.toMillis()))
+			.append(String.format(Locale.ROOT, "  throughput:             %.1f relations/s%n", perSecond(billings, relationDuration)))
+			.append(relationStatements.format(billings));
+		return report.toString();
+	}
+
+	private static double perSecond(int count, Duration duration) {
+		return count * 1_000_000_000d / Math.max(duration.toNanos(), 1);
+	}
+
+	/**
+	 * The latency in ms below which the given percentage of the (sorted)
+	 * latencies fall, by the nearest-rank method.
+	 */
+	private static long percentile(List<Long> sortedLatencies, int percentage) {
+		if (sortedLatencies.isEmpty()) {
+			return 0;
+		}
+		final var rank = (int) Math.ceil(percentage / 100d * sortedLatencies.size());
+		return Duration.ofNanos(sortedLatencies.get(Math.max(rank, 1) - 1)).toMillis();
+	}
+
+	private void seedScheduledBillings() {
+		final var dueDate = LocalDate.now(ZoneId.systemDefault()).minusDays(1);
+		final var rows = new ArrayList<Object[]>(billings);
+		for (var i = 0; i < billings; i++) {
+			rows.add(new Object[] {
+				UUID.randomUUID().toString(), MUNICIPALITY_ID, "LOAD-%06d".formatted(i), dueDate
+			});
+		}
+		jdbcTemplate.batchUpdate(INSERT_SCHEDULED_BILLING, rows);
+	}
+
+	private void stubDownstreams() {
+		wiremock.stubFor(post(urlEqualTo("/token"))
+			.willReturn(aResponse()
+				.withHeader("Content-Type", "application/json")
+				.withBody(ACCESS_TOKEN_BODY)));
+
+		// The same contract is returned for every contract id
+		wiremock.stubFor(get(urlPathMatching("/contract/" + MUNICIPALITY_ID + "/contracts/.*"))
+			.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Content-Type", "application/json")
+				.withBodyFile("contract.json")
+				.withFixedDelay(contractLatency)));
+
+		wiremock.stubFor(get(urlPathMatching("/party/" + MUNICIPALITY_ID + "/.*/legalId"))
+			.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Content-Type", "text/plain")
+				.withBody("199001012385")
+				.withFixedDelay(partyLatency)));
+
+		wiremock.stubFor(post(urlPathMatching("/scb/tables/.*/data"))
+			.willReturn(aResponse()
+				.withStatus(200)
+				.withHeader("Content-Type", "application/json")
+				.withBody(SCB_KPI_BODY)
+				.withFixedDelay(scbLatency)));
+
+		wiremock.stubFor(post(urlPathEqualTo("/bpp/" + MUNICIPALITY_ID + "/billingrecords"))
+			.willReturn(aResponse()
+				.withStatus(201)
+				.withHeader("Location", "/billingrecords/a13607c3-1cba-44b8-904e-49f9b968acfe")
+				.withHeader("Content-Type", "*/*")
+				.withFixedDelay(bppLatency)));
+
+		wiremock.stubFor(post(urlPathEqualTo("/relation/" + MUNICIPALITY_ID + "/relations"))
+			.willReturn(aResponse()
+				.withStatus(201)
+				.withHeader("Location", "/" + MUNICIPALITY_ID + "/relations/699c593c-84cd-4863-a3a2-7a230079de6c")
+				.withHeader("Content-Type", "*/*")
+				.withFixedDelay(relationLatency)));
+	}
+
+	/**
+	 * The statements Hibernate sent to the database during a run. Statements
+	 * sent through JDBC directly, e.g. by ShedLock, are not included.
+	 */
+	private record StatementCounts(long prepared, long queries, long inserts, long updates, long deletes, long transactions) {
+
+		static StatementCounts of(Statistics statistics) {
+			return new StatementCounts(statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(),
+				statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount(),
+				statistics.getTransactionCount());
+		}
+
+		String format(int billings) {
+			return String.format(Locale.ROOT, "  db statements:          %d prepared (%.1f per billing), %d queries, %d inserts, %d updates, %d deletes, %d transactions%n",
+				prepared, (double) prepared / Math.max(billings, 1), queries, inserts, updates, deletes, transactions);
+		}
+	}
+
+	@TestConfiguration
+	static class LatencyRecorderConfig {
+
+		@Bean
+		HandlerLatencyRecorder handlerLatencyRecorder() {
+			return new HandlerLatencyRecorder();
+		}
+	}
+
+	/**
+	 * Records how long each billing takes, from the call of the source handler
+	 * until its transaction has been committed.
+	 */
+	@Aspect
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	static class HandlerLatencyRecorder {
+
+		private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+		@Around("execution(* se.sundsvall.billingdatacollector.service.source.BillingSourceHandler.sendBillingRecords(..))")
+		public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+			final var startedAt = System.nanoTime();
+			try {
+				return joinPoint.proceed();
+			} finally {
+				latencies.add(System.nanoTime() - startedAt);
+			}
+		}
+
+		List<Long> sortedLatencies() {
+			return latencies.stream().sorted().toList();
+		}
+
+		void clear() {
+			latencies.clear();
+		}
+	}
+}
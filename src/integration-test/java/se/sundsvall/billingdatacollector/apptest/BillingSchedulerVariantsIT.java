@@ -12,6 +12,7 @@ import se.sundsvall.billingdatacollector.api.model.BillingSource;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
 import se.sundsvall.billingdatacollector.integration.db.ScheduledBillingRepository;
 import se.sundsvall.billingdatacollector.service.scheduling.BillingScheduler;
+import se.sundsvall.billingdatacollector.service.scheduling.relation.RelationOutboxScheduler;
 import se.sundsvall.dept44.test.AbstractAppTest;
 import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
 
@@ -57,6 +58,9 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 	@Autowired
 	private BillingScheduler billingScheduler;
 
+	@Autowired
+	private RelationOutboxScheduler relationOutboxScheduler;
+
 	@Autowired
 	private HistoryRepository historyRepository;
 
@@ -83,6 +87,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00010", LocalDate.of(2020, 3, 1));
 		assertHistoryHasContract("2026-00010 (REF-MONTHLY-A)");
@@ -95,6 +100,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00011", LocalDate.of(2020, 3, 1));
 		assertHistoryHasContract("2026-00011 (REF-MONTHLY-R)");
@@ -107,6 +113,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00012", LocalDate.of(2020, 6, 1));
 		assertHistoryHasContract("2026-00012 (REF-QUARTERLY-R)");
@@ -119,6 +126,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00013", LocalDate.of(2020, 12, 1));
 		assertHistoryHasContract("2026-00013 (REF-HALFYEARLY-A)");
@@ -131,6 +139,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00014", LocalDate.of(2020, 12, 1));
 		assertHistoryHasContract("2026-00014 (REF-HALFYEARLY-R)");
@@ -143,6 +152,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00015", LocalDate.of(2021, 12, 1));
 		assertHistoryHasContract("2026-00015 (REF-YEARLY-A)");
@@ -155,6 +165,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00016", LocalDate.of(2021, 12, 1));
 		assertHistoryHasContract("2026-00016 (REF-YEARLY-R)");
@@ -172,6 +183,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertScheduleAdvancedTo("2026-00017", LocalDate.of(2021, 6, 1));
 		assertHistoryHasContract("2026-00017 (REF-YEARLY-LLR)");
@@ -195,6 +207,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00018", BillingSource.CONTRACT))
@@ -215,6 +228,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00019", BillingSource.CONTRACT))
@@ -236,6 +250,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		// only on persistence state.
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00020", BillingSource.CONTRACT))
@@ -261,6 +276,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00021", BillingSource.CONTRACT))
@@ -285,6 +301,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00022", BillingSource.CONTRACT))
@@ -304,6 +321,7 @@ class BillingSchedulerVariantsIT extends AbstractAppTest {
 		setupCall();
 
 		billingScheduler.createBillingRecords();
+		relationOutboxScheduler.createRelations();
 
 		assertThat(scheduledBillingRepository.findByMunicipalityIdAndExternalIdAndSource(
 			MUNICIPALITY_ID, "2026-00023", BillingSource.CONTRACT))
@@ -39,4 +39,14 @@ class ScbKpiIT extends AbstractAppTest {
 			.withExpectedResponse(RESPONSE_FILE)
 			.sendRequestAndVerifyResponse();
 	}
+
+	@Test
+	void test3_getKpiRange() {
+		setupCall()
+			.withServicePath(SERVICE_PATH + "/range?baseYear=KPI_80&fromPeriod=2024-08&toPeriod=2024-10")
+			.withHttpMethod(GET)
+			.withExpectedResponseStatus(OK)
+			.withExpectedResponse(RESPONSE_FILE)
+			.sendRequestAndVerifyResponse();
+	}
 }
@@ -0,0 +1,61 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
+
+import static se.sundsvall.billingdatacollector.TestDataFactory.createKundfakturaBillingRecordWrapper;
+
+/**
+ * Cost of converting a BillingRecordWrapper to and from its database column, which is done for every history and
+ * fallout record that is saved or read, with and without compression of the stored value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillingRecordWrapperConverterBenchmark {
+
+	@Param({
+		"false", "true"
+	})
+	private boolean compress;
+
+	private BillingRecordWrapperConverter converter;
+	private BillingRecordWrapper wrapper;
+	private String column;
+
+	@Setup
+	public void setUp() {
+		converter = new BillingRecordWrapperConverter(compress);
+		wrapper = createKundfakturaBillingRecordWrapper(false);
+		column = converter.convertToDatabaseColumn(wrapper);
+	}
+
+	@Benchmark
+	public String convertToDatabaseColumn() {
+		return converter.convertToDatabaseColumn(wrapper);
+	}
+
+	@Benchmark
+	public BillingRecordWrapper convertToEntityAttribute() {
+		return converter.convertToEntityAttribute(column);
+	}
+
+	@Benchmark
+	public BillingRecordWrapper roundTrip() {
+		return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(wrapper));
+	}
+}
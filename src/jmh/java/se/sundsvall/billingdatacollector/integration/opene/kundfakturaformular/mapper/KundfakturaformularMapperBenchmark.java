@@ -0,0 +1,67 @@
+package se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.mapper;
+
+import ch.qos.logback.classic.Level;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import se.sundsvall.billingdatacollector.integration.opene.util.ListUtil;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
+import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
+
+/**
+ * Cost of mapping the OpenE sample errands in src/test/resources/open-e to a BillingRecordWrapper, i.e. the per-errand
+ * cost of a billing run apart from the calls to OpenE and BillingPreprocessor. "mapToBillingRecordWrapperFromBytes"
+ * includes parsing the errand. The mapper logs every mapping, so logging is turned down to keep it out of the
+ * measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KundfakturaformularMapperBenchmark {
+
+	@Param({
+		"flow-instance.external.person.xml", "flow-instance.external.organization.xml", "flow-instance.internal.organization.xml"
+	})
+	private String fileName;
+
+	private final KundfakturaformularMapper mapper = new KundfakturaformularMapper(null, new ListUtil());
+	private byte[] xml;
+	private OpenEDocument document;
+
+	@Setup
+	public void setUp() {
+		((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+		try (var inputStream = getClass().getClassLoader().getResourceAsStream("open-e/" + fileName)) {
+			xml = inputStream.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		document = OpenEDocument.parse(xml);
+	}
+
+	@Benchmark
+	public BillingRecordWrapper mapToBillingRecordWrapper() {
+		return mapper.mapToBillingRecordWrapper(document);
+	}
+
+	@Benchmark
+	public BillingRecordWrapper mapToBillingRecordWrapperFromBytes() {
+		return mapper.mapToBillingRecordWrapper(xml);
+	}
+}
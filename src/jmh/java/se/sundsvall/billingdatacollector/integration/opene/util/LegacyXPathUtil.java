@@ -0,0 +1,176 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.springframework.core.annotation.AnnotationUtils;
+import se.sundsvall.billingdatacollector.integration.opene.util.annotation.XPath;
+import us.codecraft.xsoup.Xsoup;
+
+import static java.lang.reflect.Modifier.isAbstract;
+import static java.lang.reflect.Modifier.isInterface;
+import static java.util.Optional.ofNullable;
+import static java.util.function.Predicate.not;
+import static org.jsoup.Jsoup.parse;
+import static org.jsoup.parser.Parser.xmlParser;
+
+/**
+ * XPathUtil as it was before the extraction plans and compiled expressions were cached, kept verbatim as the baseline
+ * of {@link XPathUtilBenchmark}. Every call looks up the annotations of the target class, recursing into nested types,
+ * and compiles each xpath expression again.
+ */
+final class LegacyXPathUtil {
+
+	private LegacyXPathUtil() {}
+
+	public static <T> T extractValue(final byte[] xml, final Class<T> targetClass) {
+		return extractValue(parseXmlDocument(xml), targetClass);
+	}
+
+	public static <T> T extractValue(final Element element, final Class<T> targetClass) {
+		// Check if objects of the given target class can be instantiated
+		if (isAbstract(targetClass.getModifiers()) || isInterface(targetClass.getModifiers())) {
+			throw new XPathException("%s must be a concrete class or a record".formatted(targetClass.getName()));
+		}
+
+		// Get the fields on the target class
+		var fields = targetClass.getDeclaredFields();
+		// Use arrays to ensure proper parameter ordering for records
+		var parameters = new Parameter[fields.length];
+		// Process the fields
+		for (var i = 0; i < fields.length; i++) {
+			var field = fields[i];
+			// Get the path annotation for the field
+			var pathAnnotation = AnnotationUtils.getAnnotation(field, XPath.class);
+			// We can't do anything with the field if the annotation is missing - bail out
+			if (pathAnnotation == null) {
+				continue;
+			}
+
+			var type = field.getType();
+			var path = pathAnnotation.value();
+
+			var value = getValue(element, path, type);
+
+			parameters[i] = new Parameter(field, type, value);
+		}
+
+		try {
+			if (targetClass.isRecord()) {
+				var parameterTypes = new Class[parameters.length];
+				var parameterValues = new Object[parameters.length];
+				for (var i = 0; i < parameters.length; i++) {
+					parameterTypes[i] = parameters[i].type;
+					parameterValues[i] = parameters[i].value;
+				}
+
+				var constructor = targetClass.getDeclaredConstructor(parameterTypes);
+				constructor.setAccessible(true);
+				return constructor.newInstance(parameterValues);
+			} else {
+				var constructor = targetClass.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				var result = constructor.newInstance();
+
+				for (var parameter : parameters) {
+					if (parameter != null) {
+						parameter.field.setAccessible(true);
+						parameter.field.set(result, parameter.value);
+					}
+				}
+
+				return result;
+			}
+		} catch (Exception e) {
+			throw new XPathException("Unable to extract value", e);
+		}
+	}
+
+	public static <T> T getValue(final byte[] xml, final String path, final Class<T> type) {
+		return getValue(parseXmlDocument(xml), path, type);
+	}
+
+	public static <T> T getValue(final Element element, final String path, final Class<T> type) {
+		Object value;
+
+		if (type.equals(String.class)) {
+			value = getString(element, path);
+		} else if (type.equals(Integer.class)) {
+			value = getInteger(element, path);
+		} else if (type.equals(Boolean.class)) {
+			value = getBoolean(element, path);
+		} else if (type.equals(Double.class)) {
+			value = getDouble(element, path);
+		} else if (type.equals(Float.class)) {
+			value = getFloat(element, path);
+		} else {
+			value = extractValue(element, type);
+		}
+
+		return type.cast(value);
+	}
+
+	public static String getString(final byte[] xml, final String xPath) {
+		return getString(parseXmlDocument(xml), xPath);
+	}
+
+	public static String getString(final Element element, final String xPath) {
+		return getValue(element, xPath).orElse(null);
+	}
+
+	public static Integer getInteger(final byte[] xml, final String xPath) {
+		return getInteger(parseXmlDocument(xml), xPath);
+	}
+
+	public static Integer getInteger(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Integer::valueOf).orElse(null);
+	}
+
+	public static Boolean getBoolean(final byte[] xml, final String xPath) {
+		return getBoolean(parseXmlDocument(xml), xPath);
+	}
+
+	public static Boolean getBoolean(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Boolean::valueOf).orElse(null);
+	}
+
+	public static Double getDouble(final byte[] xml, final String xPath) {
+		return getDouble(parseXmlDocument(xml), xPath);
+	}
+
+	public static Double getDouble(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Double::valueOf).orElse(null);
+	}
+
+	public static Float getFloat(final byte[] xml, final String xPath) {
+		return getFloat(parseXmlDocument(xml), xPath);
+	}
+
+	public static Float getFloat(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Float::valueOf).orElse(null);
+	}
+
+	private static Optional<String> getValue(final Element element, final String path) {
+		return ofNullable(evaluateXPath(element, path))
+			.filter(not(Elements::isEmpty))
+			.map(Elements::getFirst)
+			.map(Element::wholeText);   // Don't trim spaces, get it all.
+	}
+
+	public static Document parseXmlDocument(final byte[] xml) {
+		return parse(new String(xml, StandardCharsets.ISO_8859_1), xmlParser());
+	}
+
+	public static Elements evaluateXPath(final byte[] xml, final String expression) {
+		return evaluateXPath(parseXmlDocument(xml), expression);
+	}
+
+	public static Elements evaluateXPath(final Element element, final String expression) {
+		return Xsoup.compile(expression).evaluate(element).getElements();
+	}
+
+	record Parameter(Field field, Class<?> type, Object value) {}
+}
@@ -0,0 +1,82 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.OpeneCollections;
+
+/**
+ * Cost of parsing the OpenE "lists" in the sample errands in src/test/resources/open-e.
+ * "parseListsLegacy" does what ListUtil used to do for each node and property, i.e. regex replacements and a reflective
+ * lookup and invocation of the setter. The bean lookup is approximated with a reflective constructor call, which is
+ * cheaper than getting a prototype bean from the context. "parseLists" uses the precomputed bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListUtilBenchmark {
+
+	private static final String ENDING_WITH_NUMBER_REGEX = "\\d$";
+	private static final String MODEL_PACKAGE = "se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.";
+
+	@Param({
+		"flow-instance.external.person.xml", "flow-instance.external.organization.xml", "flow-instance.internal.organization.xml"
+	})
+	private String fileName;
+
+	private final ListUtil listUtil = new ListUtil();
+	private OpenEDocument document;
+
+	@Setup
+	public void setUp() {
+		try (var inputStream = getClass().getClassLoader().getResourceAsStream("open-e/" + fileName)) {
+			document = OpenEDocument.parse(inputStream.readAllBytes());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Benchmark
+	public OpeneCollections parseLists() {
+		return listUtil.parseLists(document);
+	}
+
+	@Benchmark
+	public OpeneCollections parseListsLegacy() throws ReflectiveOperationException {
+		final var openeCollections = new OpeneCollections();
+		final var values = document.document().getElementsByTag("Values").first();
+
+		for (var element : values.children()) {
+			final var nodeName = element.tagName();
+			if (nodeName.matches(".*" + ENDING_WITH_NUMBER_REGEX)) {
+				final var id = nodeName.substring(nodeName.length() - 1);
+				final var className = nodeName.replaceAll(ENDING_WITH_NUMBER_REGEX, "");
+				final var type = Class.forName(MODEL_PACKAGE + (className.endsWith("Extern") ? "external." : "internal.") + className);
+				final var object = type.getDeclaredConstructor().newInstance();
+
+				for (var valueElement : element.children()) {
+					final var setterName = ("set" + StringUtils.capitalize(valueElement.tagName())).replaceAll(ENDING_WITH_NUMBER_REGEX, "");
+					type.getMethod(setterName, String.class).invoke(object, valueElement.wholeText());
+				}
+				openeCollections.add(Integer.parseInt(id), object);
+			}
+		}
+
+		return openeCollections;
+	}
+}
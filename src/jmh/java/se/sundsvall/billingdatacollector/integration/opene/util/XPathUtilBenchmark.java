@@ -0,0 +1,75 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.ExternFaktura;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.InternFaktura;
+
+/**
+ * Cost of mapping the OpenE sample errands in src/test/resources/open-e to ExternFaktura/InternFaktura.
+ * "extractValueLegacy" runs the code XPathUtil had before caching (see {@link LegacyXPathUtil}), which parses the errand
+ * and builds the object, looking up the annotations and compiling the xpath expressions as it goes. "extractValueFromBytes"
+ * does the same work with the cached extraction plan and compiled expressions, and "extractValue" uses them on an
+ * already parsed document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XPathUtilBenchmark {
+
+	@Param({
+		"flow-instance.external.person.xml", "flow-instance.external.organization.xml", "flow-instance.internal.organization.xml"
+	})
+	private String fileName;
+
+	private byte[] xml;
+	private Document document;
+	private Class<?> targetClass;
+
+	@Setup
+	public void setUp() {
+		try (var inputStream = getClass().getClassLoader().getResourceAsStream("open-e/" + fileName)) {
+			xml = inputStream.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		document = XPathUtil.parseXmlDocument(xml);
+		targetClass = fileName.contains("external") ? ExternFaktura.class : InternFaktura.class;
+	}
+
+	@Benchmark
+	public Object extractValue() {
+		return XPathUtil.extractValue(document, targetClass);
+	}
+
+	@Benchmark
+	public Object extractValueFromBytes() {
+		return XPathUtil.extractValue(xml, targetClass);
+	}
+
+	@Benchmark
+	public Object extractValueLegacy() {
+		return LegacyXPathUtil.extractValue(xml, targetClass);
+	}
+
+	@Benchmark
+	public Object parseDocument() {
+		return XPathUtil.parseXmlDocument(xml);
+	}
+}
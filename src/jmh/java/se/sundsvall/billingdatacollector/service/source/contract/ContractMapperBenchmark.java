@@ -0,0 +1,120 @@
+package se.sundsvall.billingdatacollector.service.source.contract;
+
+import generated.se.sundsvall.billingpreprocessor.BillingRecord;
+import generated.se.sundsvall.contract.Address;
+import generated.se.sundsvall.contract.Contract;
+import generated.se.sundsvall.contract.ExtraParameterGroup;
+import generated.se.sundsvall.contract.Fees;
+import generated.se.sundsvall.contract.IntervalType;
+import generated.se.sundsvall.contract.InvoicedIn;
+import generated.se.sundsvall.contract.Invoicing;
+import generated.se.sundsvall.contract.PropertyDesignation;
+import generated.se.sundsvall.contract.Stakeholder;
+import generated.se.sundsvall.contract.StakeholderType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.billingdatacollector.integration.scb.ScbIntegration;
+import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+
+import static generated.se.sundsvall.contract.LeaseType.SITE_LEASE_COMMERCIAL;
+import static generated.se.sundsvall.contract.StakeholderRole.PRIMARY_BILLING_PARTY;
+
+/**
+ * Cost of mapping a contract to a billing record, i.e. the per-contract cost of a contract billing run apart from the
+ * calls to Contract, Party, SCB and BillingPreprocessor. The KPI and the counterpart are returned as fixed values, as
+ * they are cached in a real run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractMapperBenchmark {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final LocalDate SCHEDULED_DATE = LocalDate.of(2026, 1, 1);
+
+	@Param({
+		"true", "false"
+	})
+	private boolean indexed;
+
+	@Param({
+		"YEARLY", "QUARTERLY", "MONTHLY"
+	})
+	private IntervalType interval;
+
+	private ContractMapper contractMapper;
+	private Contract contract;
+
+	@Setup
+	public void setUp() {
+		final var scbIntegration = new ScbIntegration(null, null, null, null) {
+			@Override
+			public BigDecimal getKPI(KPIBaseYear kpiBase, YearMonth period) {
+				return BigDecimal.valueOf(200);
+			}
+		};
+		final var counterpartMappingService = new CounterpartMappingService(null, null) {
+			@Override
+			public String findCounterpart(String municipalityId, String partyId, String stakeholderType) {
+				return "counterpart";
+			}
+		};
+		contractMapper = new ContractMapper(scbIntegration, new SettingsProvider(), counterpartMappingService);
+		contract = createContract();
+	}
+
+	@Benchmark
+	public BillingRecord createBillingRecord() {
+		return contractMapper.createBillingRecord(MUNICIPALITY_ID, contract, SCHEDULED_DATE);
+	}
+
+	private Contract createContract() {
+		final var fees = new Fees()
+			.yearly(BigDecimal.valueOf(12000))
+			.additionalInformation(List.of("Arrende", "Avser del av fastighet"));
+		if (indexed) {
+			fees.indexType("KPI 80")
+				.indexNumber(BigDecimal.valueOf(100))
+				.indexationRate(BigDecimal.ONE);
+		}
+
+		return new Contract()
+			.contractId("2024-12345")
+			.externalReferenceId("external-reference")
+			.leaseType(SITE_LEASE_COMMERCIAL)
+			.fees(fees)
+			.invoicing(new Invoicing().invoiceInterval(interval).invoicedIn(InvoicedIn.ADVANCE))
+			.startDate(LocalDate.of(2020, 1, 1))
+			.propertyDesignations(List.of(new PropertyDesignation().name("SUNDSVALL GRANLO 3:187")))
+			.extraParameters(List.of(new ExtraParameterGroup().name("InvoiceInfo").parameters(Map.of("markup", "Markup", "detailedDescription01", "Description"))))
+			.stakeholders(List.of(new Stakeholder()
+				.roles(List.of(PRIMARY_BILLING_PARTY))
+				.type(StakeholderType.PERSON)
+				.firstName("Test")
+				.lastName("Testsson")
+				.partyId("f1c7a6e4-52c5-4e2d-9a23-52d8e9d1c0a1")
+				.address(new Address()
+					.careOf("c/o Test")
+					.streetAddress("Testgatan 1")
+					.town("Sundsvall")
+					.postalCode("85000"))));
+	}
+}
@@ -0,0 +1,62 @@
+package se.sundsvall.billingdatacollector.service.source.contract.util;
+
+import generated.se.sundsvall.contract.Contract;
+import generated.se.sundsvall.contract.Fees;
+import generated.se.sundsvall.contract.IntervalType;
+import generated.se.sundsvall.contract.Invoicing;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of calculating the cost per invoice of a contract, with and without KPI indexation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationUtilBenchmark {
+
+	private static final BigDecimal CURRENT_KPI = BigDecimal.valueOf(200);
+
+	@Param({
+		"YEARLY", "HALF_YEARLY", "QUARTERLY", "MONTHLY"
+	})
+	private IntervalType interval;
+
+	private Contract contract;
+
+	@Setup
+	public void setUp() {
+		contract = new Contract()
+			.contractId("2024-12345")
+			.fees(new Fees()
+				.yearly(BigDecimal.valueOf(12000))
+				.indexType("KPI 80")
+				.indexNumber(BigDecimal.valueOf(100))
+				.indexationRate(BigDecimal.valueOf(0.5)))
+			.invoicing(new Invoicing().invoiceInterval(interval));
+	}
+
+	@Benchmark
+	public BigDecimal calculateIndexedCost() {
+		return CalculationUtil.calculateIndexedCost(contract, CURRENT_KPI);
+	}
+
+	@Benchmark
+	public BigDecimal calculateNonIndexedCost() {
+		return CalculationUtil.calculateNonIndexedCost(contract);
+	}
+}
@@ -0,0 +1,46 @@
+package se.sundsvall.billingdatacollector.service.util;
+
+import generated.se.sundsvall.contract.IntervalType;
+import generated.se.sundsvall.contract.InvoicedIn;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.billingdatacollector.service.util.BillingPeriodCalculator.BillingPeriod;
+
+/**
+ * Cost of computing the period an invoice covers, for each invoice interval, billed in advance and in arrears.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillingPeriodCalculatorBenchmark {
+
+	private static final LocalDate SCHEDULED_DATE = LocalDate.of(2026, 4, 1);
+
+	@Param({
+		"YEARLY", "HALF_YEARLY", "QUARTERLY", "MONTHLY"
+	})
+	private IntervalType interval;
+
+	@Param({
+		"ADVANCE", "ARREARS"
+	})
+	private InvoicedIn invoicedIn;
+
+	@Benchmark
+	public BillingPeriod computePeriod() {
+		return BillingPeriodCalculator.computePeriod(SCHEDULED_DATE, interval, invoicedIn);
+	}
+}
@@ -0,0 +1,54 @@
+package se.sundsvall.billingdatacollector.service.util;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of calculating the next billing date of a scheduled billing, from the start of a year, for a monthly, a
+ * quarterly and a yearly schedule. The yearly schedule has to look furthest ahead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduledBillingUtilBenchmark {
+
+	private static final LocalDate START_FROM = LocalDate.of(2026, 1, 2);
+
+	@Param({
+		"MONTHLY", "QUARTERLY", "YEARLY"
+	})
+	private String schedule;
+
+	private Set<Integer> billingDaysOfMonth;
+	private Set<Integer> billingMonths;
+
+	@Setup
+	public void setUp() {
+		billingDaysOfMonth = Set.of(1);
+		billingMonths = switch (schedule) {
+			case "MONTHLY" -> Set.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+			case "QUARTERLY" -> Set.of(1, 4, 7, 10);
+			default -> Set.of(1);
+		};
+	}
+
+	@Benchmark
+	public LocalDate calculateNextScheduledBilling() {
+		return ScheduledBillingUtil.calculateNextScheduledBilling(billingDaysOfMonth, billingMonths, START_FROM);
+	}
+}
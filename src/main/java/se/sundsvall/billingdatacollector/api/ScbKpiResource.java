@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.YearMonth;
+import java.util.List;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -22,6 +23,8 @@ import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
 
+import static java.time.temporal.ChronoUnit.MONTHS;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.ok;
@@ -52,6 +55,9 @@ import static org.springframework.http.ResponseEntity.ok;
 		schema = @Schema(implementation = Problem.class)))
 class ScbKpiResource {
 
+	// Roughly the length of the longest KPI series published by SCB (KPI_80 starts in 1980)
+	private static final int MAX_RANGE_MONTHS = 600;
+
 	private final ScbIntegration scbIntegration;
 
 	ScbKpiResource(ScbIntegration scbIntegration) {
@@ -84,4 +90,54 @@ class ScbKpiResource {
 			.withValue(scbIntegration.getKPI(baseYear, period))
 			.build());
 	}
+
+	@Operation(
+		summary = "Look up SCB KPI values for a given base year and range of periods",
+		description = "Periods not yet published by SCB are left out of the response",
+		responses = {
+			@ApiResponse(
+				responseCode = "200",
+				description = "Successful",
+				useReturnTypeSchema = true),
+			@ApiResponse(
+				responseCode = "404",
+				description = "Not Found",
+				content = @Content(
+					mediaType = APPLICATION_PROBLEM_JSON_VALUE,
+					schema = @Schema(implementation = Problem.class)))
+		})
+	@GetMapping(path = "/range", produces = APPLICATION_JSON_VALUE)
+	ResponseEntity<List<ScbKpiResponse>> getKpiRange(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "baseYear", description = "KPI base year", example = "KPI_80") @RequestParam final KPIBaseYear baseYear,
+		@Parameter(name = "fromPeriod", description = "First period (year-month) to look up", example = "2020-10") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") final YearMonth fromPeriod,
+		@Parameter(name = "toPeriod", description = "Last period (year-month) to look up", example = "2024-10") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") final YearMonth toPeriod) {
+
+		validatePeriodRange(fromPeriod, toPeriod);
+
+		return ok(scbIntegration.getKPIs(baseYear, fromPeriod, toPeriod).entrySet().stream()
+			.map(entry -> ScbKpiResponse.builder()
+				.withBaseYear(baseYear)
+				.withPeriod(entry.getKey())
+				.withValue(entry.getValue())
+				.build())
+			.toList());
+	}
+
+	private void validatePeriodRange(YearMonth fromPeriod, YearMonth toPeriod) {
+		if (fromPeriod.isAfter(toPeriod)) {
+			throw Problem.builder()
+				.withStatus(BAD_REQUEST)
+				.withTitle("Invalid period range")
+				.withDetail("fromPeriod must be before or equal to toPeriod")
+				.build();
+		}
+		if (fromPeriod.until(toPeriod, MONTHS) >= MAX_RANGE_MONTHS) {
+			throw Problem.builder()
+				.withStatus(BAD_REQUEST)
+				.withTitle("Invalid period range")
+				.withDetail("The range can't span more than %d months".formatted(MAX_RANGE_MONTHS))
+				.build();
+		}
+	}
 }
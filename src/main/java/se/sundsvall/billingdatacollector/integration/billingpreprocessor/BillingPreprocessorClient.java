@@ -1,7 +1,9 @@
 package se.sundsvall.billingdatacollector.integration.billingpreprocessor;
 
 import generated.se.sundsvall.billingpreprocessor.BillingRecord;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +19,7 @@ import static se.sundsvall.billingdatacollector.integration.billingpreprocessor.
 	url = "${integration.billing-preprocessor.base-url}",
 	configuration = BillingPreprocessorIntegrationConfiguration.class)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface BillingPreprocessorClient {
 
 	@PostMapping(
@@ -24,4 +27,17 @@ public interface BillingPreprocessorClient {
 		consumes = APPLICATION_JSON_VALUE,
 		produces = ALL_VALUE)
 	ResponseEntity<Void> createBillingRecord(@PathVariable String municipalityId, @RequestBody BillingRecord billingRecord);
+
+	/**
+	 * Creates several billing records in one call.
+	 *
+	 * @param  municipalityId the municipality id
+	 * @param  billingRecords the billing records to create
+	 * @return                the locations of the created billing records, in the same order as the billing records
+	 */
+	@PostMapping(
+		path = "/{municipalityId}/billingrecords/batch",
+		consumes = APPLICATION_JSON_VALUE,
+		produces = ALL_VALUE)
+	ResponseEntity<List<String>> createBillingRecords(@PathVariable String municipalityId, @RequestBody List<BillingRecord> billingRecords);
 }
@@ -0,0 +1,176 @@
+package se.sundsvall.billingdatacollector.integration.billingpreprocessor;
+
+import feign.FeignException;
+import generated.se.sundsvall.billingpreprocessor.BillingRecord;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.dept44.requestid.RequestId;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+
+/**
+ * Sends billing records to BillingPreprocessor. If batching is enabled, records submitted at the same time for the
+ * same municipality are collected and sent in one call, which saves both round trips and token handling on large runs.
+ * A batch is sent when it is full or when its first record has waited for {@code maxWait}, whichever comes first. The
+ * caller still gets the outcome of its own record, so history, fallout and relations are handled per record as before.
+ *
+ * If BillingPreprocessor rejects a batch with a client error, its records are sent one at a time so that only the
+ * faulty ones fail. Any other failure fails every record of the batch without sending them again, since they may
+ * already have been created. Those records end up as fallout, and the history check keeps a later run from billing an
+ * instance twice.
+ */
+@Component
+public class BillingPreprocessorIntegration {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BillingPreprocessorIntegration.class);
+	private static final Executor BATCH_EXECUTOR = runnable -> Thread.ofVirtual().name("billing-record-batch").start(runnable);
+
+	private final BillingPreprocessorClient client;
+	private final boolean batching;
+	private final int maxSize;
+	private final Duration maxWait;
+
+	// Records waiting to be sent, per municipality. Guarded by the map itself
+	private final Map<String, List<Submission>> pending = new HashMap<>();
+
+	BillingPreprocessorIntegration(BillingPreprocessorClient client, BillingPreprocessorIntegrationProperties properties) {
+		this.client = client;
+		this.batching = properties.batch().enabled();
+		this.maxSize = properties.batch().maxSize();
+		this.maxWait = properties.batch().maxWait();
+	}
+
+	/**
+	 * Creates a billing record in BillingPreprocessor. When batching, the call blocks until the batch holding the record
+	 * has been sent.
+	 *
+	 * @param  municipalityId the municipality id
+	 * @param  billingRecord  the billing record to create
+	 * @return                the response of creating the record, with the location of the created record
+	 */
+	public ResponseEntity<Void> createBillingRecord(String municipalityId, BillingRecord billingRecord) {
+		if (!batching) {
+			return client.createBillingRecord(municipalityId, billingRecord);
+		}
+
+		final var submission = new Submission(billingRecord, RequestId.get(), new CompletableFuture<>());
+		List<Submission> full = null;
+		synchronized (pending) {
+			final var batch = pending.computeIfAbsent(municipalityId, _ -> new ArrayList<>(maxSize));
+			batch.add(submission);
+			if (batch.size() == 1) {
+				// First record of the batch, make sure it doesn't wait longer than maxWait
+				CompletableFuture.runAsync(() -> sendPending(municipalityId, batch), CompletableFuture.delayedExecutor(maxWait.toMillis(), MILLISECONDS, BATCH_EXECUTOR));
+			}
+			if (batch.size() >= maxSize) {
+				full = pending.remove(municipalityId);
+			}
+		}
+		if (full != null) {
+			send(municipalityId, full);
+		}
+
+		try {
+			return submission.result().join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof final RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private void sendPending(String municipalityId, List<Submission> batch) {
+		synchronized (pending) {
+			// The batch may already have been sent because it got full
+			if (!pending.remove(municipalityId, batch)) {
+				return;
+			}
+		}
+
+		try {
+			RequestId.init(batch.getFirst().requestId());
+			send(municipalityId, batch);
+		} finally {
+			RequestId.reset();
+		}
+	}
+
+	private void send(String municipalityId, List<Submission> batch) {
+		try {
+			sendBatch(municipalityId, batch);
+		} catch (final RuntimeException e) {
+			batch.forEach(submission -> submission.result().completeExceptionally(e));
+		}
+	}
+
+	private void sendBatch(String municipalityId, List<Submission> batch) {
+		final List<String> locations;
+		try {
+			LOG.info("Sending batch of {} billing record(s) to billing preprocessor", batch.size());
+			locations = ofNullable(client.createBillingRecords(municipalityId, batch.stream().map(Submission::billingRecord).toList()).getBody())
+				.orElse(emptyList());
+		} catch (final RuntimeException e) {
+			if (!isRejected(e)) {
+				// The records may or may not have been created, so they are not sent again
+				throw e;
+			}
+			// The batch was rejected as a whole, send the records one at a time so that only the faulty ones fail
+			LOG.warn("Sending batch of {} billing record(s) was rejected, sending them one at a time: {}", batch.size(), e.getMessage());
+			batch.forEach(submission -> sendOne(municipalityId, submission));
+			return;
+		}
+
+		if (locations.size() != batch.size()) {
+			// Some records may have been created, but there is no telling which, so they are not sent again
+			throw Problem.valueOf(BAD_GATEWAY, "Expected %d billing record locations from billing preprocessor but got %d".formatted(batch.size(), locations.size()));
+		}
+		for (var i = 0; i < batch.size(); i++) {
+			batch.get(i).result().complete(ResponseEntity.created(toLocation(municipalityId, locations.get(i))).build());
+		}
+	}
+
+	private void sendOne(String municipalityId, Submission submission) {
+		try {
+			submission.result().complete(client.createBillingRecord(municipalityId, submission.billingRecord()));
+		} catch (final RuntimeException e) {
+			submission.result().completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Only a client error (4xx) means that BillingPreprocessor refused the batch without creating any of its records. On
+	 * a server error, a timeout or anything else the records may or may not have been created.
+	 */
+	private static boolean isRejected(RuntimeException e) {
+		return switch (e) {
+			case final ThrowableProblem problem -> ofNullable(problem.getStatus()).map(HttpStatusCode::is4xxClientError).orElse(false);
+			case final FeignException feignException -> feignException.status() >= 400 && feignException.status() < 500;
+			default -> false;
+		};
+	}
+
+	// The batch endpoint returns either the location or the id of each created record
+	private static URI toLocation(String municipalityId, String location) {
+		return URI.create(location.contains("/") ? location : "/%s/billingrecords/%s".formatted(municipalityId, location));
+	}
+
+	private record Submission(BillingRecord billingRecord, String requestId, CompletableFuture<ResponseEntity<Void>> result) {}
+}
@@ -1,8 +1,10 @@
 package se.sundsvall.billingdatacollector.integration.billingpreprocessor;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
@@ -18,4 +20,22 @@ record BillingPreprocessorIntegrationProperties(
 
 	@DefaultValue("5") int connectTimeout,
 
-	@DefaultValue("30") int readTimeout) {}
+	@DefaultValue("30") int readTimeout,
+
+	@Valid @DefaultValue Batch batch) {
+
+	/**
+	 * Settings for sending billing records to BillingPreprocessor in batches.
+	 *
+	 * @param enabled if false (default), every billing record is sent in a call of its own
+	 * @param maxSize max number of billing records sent in one call
+	 * @param maxWait max time a billing record waits for more records to send it together with
+	 */
+	record Batch(
+
+		@DefaultValue("false") boolean enabled,
+
+		@Min(1) @DefaultValue("50") int maxSize,
+
+		@NotNull @DefaultValue("PT0.2S") Duration maxWait) {}
+}
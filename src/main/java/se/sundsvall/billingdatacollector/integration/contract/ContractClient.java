@@ -1,6 +1,7 @@
 package se.sundsvall.billingdatacollector.integration.contract;
 
 import generated.se.sundsvall.contract.Contract;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import java.util.Optional;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -16,6 +17,7 @@ import static se.sundsvall.billingdatacollector.integration.contract.ContractCon
 	configuration = ContractConfiguration.class,
 	dismiss404 = true)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface ContractClient {
 
 	@GetMapping(path = "/{municipalityId}/contracts/{contractId}", produces = APPLICATION_JSON_VALUE)
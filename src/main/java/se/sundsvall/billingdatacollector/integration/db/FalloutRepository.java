@@ -1,9 +1,18 @@
 package se.sundsvall.billingdatacollector.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
+import se.sundsvall.billingdatacollector.integration.db.model.StoredText;
 
 @CircuitBreaker(name = "falloutRepository")
 public interface FalloutRepository extends JpaRepository<FalloutEntity, String> {
@@ -29,12 +38,12 @@ public interface FalloutRepository extends JpaRepository<FalloutEntity, String>
 	boolean existsByFamilyIdAndFlowInstanceIdAndOpenEInstanceIsNotNull(String familyId, String flowInstanceId);
 
 	/**
-	 * Find all fallout records for the given flowinstanceIds
+	 * Find all fallout records for the given flowinstanceIds, without reading their payload
 	 * 
 	 * @param  flowInstanceIds the flowInstanceIds
-	 * @return                 a list of FalloutEntity's
+	 * @return                 a list of FalloutSummary's
 	 */
-	List<FalloutEntity> findAllByFlowInstanceIdIn(List<String> flowInstanceIds);
+	List<FalloutSummary> findSummariesByFlowInstanceIdIn(List<String> flowInstanceIds);
 
 	/**
 	 * Check if a fallout record already exists for the given familyId and flowInstanceId
@@ -46,9 +55,84 @@ public interface FalloutRepository extends JpaRepository<FalloutEntity, String>
 	boolean existsByFamilyIdAndFlowInstanceId(String familyId, String flowInstanceId);
 
 	/**
-	 * Find all fallout records that have not been reported
-	 * 
-	 * @return a list of unreported FalloutEntity's
+	 * Find the municipalities that have fallout records that have not been reported
+	 *
+	 * @return the municipality ids
+	 */
+	@Query("SELECT DISTINCT f.municipalityId FROM FalloutEntity f WHERE f.reported = false ORDER BY f.municipalityId")
+	List<String> findMunicipalityIdsByReportedIsFalse();
+
+	/**
+	 * Find a page of fallout records for a municipality that have not been reported, ordered by id and without reading
+	 * their payload
+	 *
+	 * @param  municipalityId the municipality id
+	 * @param  id             the id to start after, use an empty string to start from the beginning
+	 * @param  limit          the maximum number of records to return
+	 * @return                a list of unreported FalloutSummary's
+	 */
+	List<FalloutSummary> findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc(String municipalityId, String id, Limit limit);
+
+	/**
+	 * Mark the given fallout records as reported, in one statement. Only the given records are updated, so records stored
+	 * after the ids were read are left unreported, and records already reported are left as they are.
+	 *
+	 * @param  ids      the ids of the fallout records
+	 * @param  modified the modification timestamp to set, as entity listeners don't run for bulk updates
+	 * @return          the number of records that were marked as reported
+	 */
+	@Modifying
+	@Query("UPDATE FalloutEntity f SET f.reported = true, f.modified = :modified WHERE f.id IN :ids AND f.reported = false")
+	int markAsReported(@Param("ids") Collection<String> ids, @Param("modified") OffsetDateTime modified);
+
+	/**
+	 * Find which of the given flow instance ids that has a fallout record for the given family id
+	 *
+	 * @param  familyId        the family id
+	 * @param  flowInstanceIds the flow instance ids to look for
+	 * @return                 the flow instance ids that has a fallout record
+	 */
+	@Query("SELECT DISTINCT f.flowInstanceId FROM FalloutEntity f WHERE f.familyId = :familyId AND f.flowInstanceId IN :flowInstanceIds")
+	Set<String> findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(@Param("familyId") String familyId, @Param("flowInstanceIds") Collection<String> flowInstanceIds);
+
+	/**
+	 * Find which of the given flowInstanceIds that already have a BillingRecord fallout record for the given familyId, in
+	 * one query
+	 *
+	 * @param  familyId        the familyId
+	 * @param  flowInstanceIds the flowInstanceIds to check
+	 * @return                 the flowInstanceIds that already have a BillingRecord fallout record
+	 */
+	@Query("SELECT DISTINCT f.flowInstanceId FROM FalloutEntity f WHERE f.familyId = :familyId AND f.flowInstanceId IN :flowInstanceIds AND f.billingRecordWrapper IS NOT NULL")
+	Set<String> findFlowInstanceIdsWithBillingRecordWrapper(@Param("familyId") String familyId, @Param("flowInstanceIds") Collection<String> flowInstanceIds);
+
+	/**
+	 * Find fallout records, ordered by id, whose billing record wrapper is stored uncompressed
+	 *
+	 * @param  lastId the id to start after, use an empty string to start from the beginning
+	 * @param  limit  the maximum number of records to return
+	 * @return        the ids and stored billing record wrappers
+	 */
+	@Query(value = """
+		SELECT id, billing_record_wrapper AS content FROM fallout
+		WHERE id > :lastId
+		AND billing_record_wrapper NOT LIKE 'gz1:%'
+		ORDER BY id
+		LIMIT :limit""", nativeQuery = true)
+	List<StoredText> findUncompressedBillingRecordWrappers(@Param("lastId") String lastId, @Param("limit") int limit);
+
+	/**
+	 * Find fallout records, ordered by id, whose OpenE-instance is stored uncompressed
+	 *
+	 * @param  lastId the id to start after, use an empty string to start from the beginning
+	 * @param  limit  the maximum number of records to return
+	 * @return        the ids and stored OpenE-instances
 	 */
-	List<FalloutEntity> findAllByReportedIsFalse();
+	@Query(value = """
+		SELECT id, opene_instance AS content FROM fallout
+		WHERE id > :lastId
+		AND opene_instance NOT LIKE 'gz1:%'
+		ORDER BY id
+		LIMIT :limit""", nativeQuery = true)
+	List<StoredText> findUncompressedOpenEInstances(@Param("lastId") String lastId, @Param("limit") int limit);
 }
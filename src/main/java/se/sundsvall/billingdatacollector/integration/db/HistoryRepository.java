@@ -1,9 +1,15 @@
 package se.sundsvall.billingdatacollector.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.HistorySummary;
+import se.sundsvall.billingdatacollector.integration.db.model.StoredText;
 
 @CircuitBreaker(name = "historyRepository")
 public interface HistoryRepository extends JpaRepository<HistoryEntity, String> {
@@ -17,10 +23,35 @@ public interface HistoryRepository extends JpaRepository<HistoryEntity, String>
 	boolean existsByFamilyIdAndFlowInstanceId(String familyId, String flowInstanceId);
 
 	/**
-	 * Find all history entities by flow instance ids
+	 * Find all history records by flow instance ids, without reading their billing record wrappers
 	 * 
 	 * @param  flowInstanceIds the flow instance ids
-	 * @return                 List of history entities
+	 * @return                 List of history summaries
 	 */
-	List<HistoryEntity> findAllByFlowInstanceIdIn(List<String> flowInstanceIds);
+	List<HistorySummary> findSummariesByFlowInstanceIdIn(List<String> flowInstanceIds);
+
+	/**
+	 * Find which of the given flow instance ids that has a history record for the given family id
+	 *
+	 * @param  familyId        the family id
+	 * @param  flowInstanceIds the flow instance ids to look for
+	 * @return                 the flow instance ids that has a history record
+	 */
+	@Query("SELECT DISTINCT h.flowInstanceId FROM HistoryEntity h WHERE h.familyId = :familyId AND h.flowInstanceId IN :flowInstanceIds")
+	Set<String> findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(@Param("familyId") String familyId, @Param("flowInstanceIds") Collection<String> flowInstanceIds);
+
+	/**
+	 * Find history records, ordered by id, whose billing record wrapper is stored uncompressed
+	 *
+	 * @param  lastId the id to start after, use an empty string to start from the beginning
+	 * @param  limit  the maximum number of records to return
+	 * @return        the ids and stored billing record wrappers
+	 */
+	@Query(value = """
+		SELECT id, billing_record_wrapper AS content FROM history
+		WHERE id > :lastId
+		AND billing_record_wrapper NOT LIKE 'gz1:%'
+		ORDER BY id
+		LIMIT :limit""", nativeQuery = true)
+	List<StoredText> findUncompressedBillingRecordWrappers(@Param("lastId") String lastId, @Param("limit") int limit);
 }
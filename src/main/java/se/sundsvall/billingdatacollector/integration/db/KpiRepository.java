@@ -0,0 +1,32 @@
+package se.sundsvall.billingdatacollector.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.KpiEntity;
+import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+
+@CircuitBreaker(name = "kpiRepository")
+public interface KpiRepository extends JpaRepository<KpiEntity, String> {
+
+	/**
+	 * Find a stored KPI value.
+	 *
+	 * @param  baseYear the base year of the KPI
+	 * @param  period   the period of the KPI value
+	 * @return          the KPI value if stored
+	 */
+	Optional<KpiEntity> findByBaseYearAndPeriod(KPIBaseYear baseYear, YearMonth period);
+
+	/**
+	 * Find the stored KPI values for a range of periods.
+	 *
+	 * @param  baseYear   the base year of the KPI
+	 * @param  fromPeriod the first period of the range (inclusive)
+	 * @param  toPeriod   the last period of the range (inclusive)
+	 * @return            the stored KPI values within the range
+	 */
+	List<KpiEntity> findByBaseYearAndPeriodBetween(KPIBaseYear baseYear, YearMonth fromPeriod, YearMonth toPeriod);
+}
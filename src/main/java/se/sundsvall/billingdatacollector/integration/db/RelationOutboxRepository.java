@@ -0,0 +1,28 @@
+package se.sundsvall.billingdatacollector.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
+
+@CircuitBreaker(name = "relationOutboxRepository")
+public interface RelationOutboxRepository extends JpaRepository<RelationOutboxEntity, String> {
+
+	/**
+	 * Find the relations that are due to be created, oldest first. Parked relations are never due.
+	 *
+	 * @param  now   the current time
+	 * @param  limit max number of rows to return
+	 * @return       the relations that aren't parked and whose next attempt is at or before {@code now}
+	 */
+	List<RelationOutboxEntity> findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(OffsetDateTime now, Limit limit);
+
+	/**
+	 * Count the relations that have been parked.
+	 *
+	 * @return the number of parked relations
+	 */
+	long countByParkedTrue();
+}
@@ -1,11 +1,18 @@
 package se.sundsvall.billingdatacollector.integration.db;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import se.sundsvall.billingdatacollector.api.model.BillingSource;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
 
@@ -15,7 +22,28 @@ public interface ScheduledBillingRepository extends JpaRepository<ScheduledBilli
 
 	Optional<ScheduledBillingEntity> findByMunicipalityIdAndExternalIdAndSource(String municipalityId, String externalId, BillingSource source);
 
-	List<ScheduledBillingEntity> findAllByPausedFalseAndNextScheduledBillingLessThanEqual(LocalDate date);
+	long countByPausedFalseAndNextScheduledBillingLessThanEqual(LocalDate date);
+
+	List<ScheduledBillingEntity> findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(LocalDate date, String id, Limit limit);
+
+	/**
+	 * Locks and returns the ids of due rows that aren't claimed by anyone, or whose claim has expired. Rows locked by
+	 * another transaction are skipped, so concurrent callers never get the same ids. Must be called in the same
+	 * transaction as {@link #claim(Collection, String, OffsetDateTime)}.
+	 */
+	@Query(value = """
+		SELECT id FROM scheduled_billing
+		WHERE paused = false
+		AND next_scheduled_billing <= :date
+		AND (claimed_until IS NULL OR claimed_until < :now)
+		ORDER BY id
+		LIMIT :limit
+		FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+	List<String> findClaimableIds(@Param("date") LocalDate date, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+	@Modifying
+	@Query("UPDATE ScheduledBillingEntity s SET s.claimedBy = :claimedBy, s.claimedUntil = :claimedUntil WHERE s.id IN :ids")
+	int claim(@Param("ids") Collection<String> ids, @Param("claimedBy") String claimedBy, @Param("claimedUntil") OffsetDateTime claimedUntil);
 
 	Page<ScheduledBillingEntity> findAllByMunicipalityId(String municipalityId, Pageable pageable);
 
@@ -4,24 +4,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 import static java.util.Optional.ofNullable;
 import static java.util.function.Predicate.not;
 
 /**
- * Convert {@link BillingRecordWrapper} to and from JSON.
+ * Convert {@link BillingRecordWrapper} to and from JSON. The JSON is stored compressed when
+ * {@code storage.compression.enabled} is set, see {@link CompressedText}. Both compressed and uncompressed JSON is read.
  **/
 public class BillingRecordWrapperConverter implements AttributeConverter<BillingRecordWrapper, String> {
 
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
 
+	private final boolean compress;
+
+	public BillingRecordWrapperConverter() {
+		this(false);
+	}
+
+	@Autowired
+	public BillingRecordWrapperConverter(@Value("${storage.compression.enabled:false}") final boolean compress) {
+		this.compress = compress;
+	}
+
 	@Override
 	public String convertToDatabaseColumn(final BillingRecordWrapper billingRecordWrapper) {
 		return ofNullable(billingRecordWrapper)
 			.map(wrapper -> {
 				try {
-					return OBJECT_MAPPER.writeValueAsString(wrapper);
+					final var json = OBJECT_MAPPER.writeValueAsString(wrapper);
+					return compress ? CompressedText.compress(json) : json;
 				} catch (Exception e) {
 					throw new PersistenceException("Unable to serialize billing data wrapper", e);
 				}
@@ -33,6 +48,7 @@ public class BillingRecordWrapperConverter implements AttributeConverter<Billing
 	public BillingRecordWrapper convertToEntityAttribute(final String json) {
 		return ofNullable(json)
 			.filter(not(String::isBlank))
+			.map(CompressedText::decompress)
 			.map(s -> {
 				try {
 					return OBJECT_MAPPER.readValue(s, BillingRecordWrapper.class);
@@ -0,0 +1,58 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import jakarta.persistence.PersistenceException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compressed encoding of text columns. A compressed value is stored as the format marker {@value #PREFIX} followed by
+ * the gzipped text in base64, so it fits in the same text column as an uncompressed value. Values without the marker
+ * are returned as they are, which keeps rows stored before compression was enabled readable.
+ *
+ * Base64 makes the gzipped bytes a third larger. It is kept anyway, since the column type, and with it the tables,
+ * then stays as it is, uncompressed and compressed values can live side by side while the old rows are migrated, and
+ * the marker can be matched with LIKE to find what is left to migrate. The JSON and XML stored compress well enough
+ * that the value still ends up a fraction of its original size.
+ */
+public final class CompressedText {
+
+	public static final String PREFIX = "gz1:";
+
+	private CompressedText() {}
+
+	public static boolean isCompressed(final String value) {
+		return value != null && value.startsWith(PREFIX);
+	}
+
+	public static String compress(final String value) {
+		if (value == null || isCompressed(value)) {
+			return value;
+		}
+
+		final var bytes = new ByteArrayOutputStream();
+		try (final var gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(value.getBytes(UTF_8));
+		} catch (final IOException e) {
+			throw new PersistenceException("Unable to compress value", e);
+		}
+		return PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	public static String decompress(final String value) {
+		if (!isCompressed(value)) {
+			return value;
+		}
+
+		try (final var gzip = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value.substring(PREFIX.length()))))) {
+			return new String(gzip.readAllBytes(), UTF_8);
+		} catch (final IOException | IllegalArgumentException e) {
+			throw new PersistenceException("Unable to decompress value", e);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import jakarta.persistence.AttributeConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Stores text compressed when {@code storage.compression.enabled} is set, see {@link CompressedText}. Both compressed
+ * and uncompressed values are read.
+ **/
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+	private final boolean compress;
+
+	public CompressedTextConverter() {
+		this(false);
+	}
+
+	@Autowired
+	public CompressedTextConverter(@Value("${storage.compression.enabled:false}") final boolean compress) {
+		this.compress = compress;
+	}
+
+	@Override
+	public String convertToDatabaseColumn(final String attribute) {
+		return compress ? CompressedText.compress(attribute) : attribute;
+	}
+
+	@Override
+	public String convertToEntityAttribute(final String dbData) {
+		return CompressedText.decompress(dbData);
+	}
+}
@@ -0,0 +1,22 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.time.YearMonth;
+
+/**
+ * Stores a YearMonth in its ISO format, e.g. "2024-10".
+ */
+@Converter
+public class YearMonthConverter implements AttributeConverter<YearMonth, String> {
+
+	@Override
+	public String convertToDatabaseColumn(YearMonth attribute) {
+		return attribute == null ? null : attribute.toString();
+	}
+
+	@Override
+	public YearMonth convertToEntityAttribute(String dbData) {
+		return dbData == null ? null : YearMonth.parse(dbData);
+	}
+}
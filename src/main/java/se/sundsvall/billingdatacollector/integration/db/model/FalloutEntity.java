@@ -20,6 +20,7 @@ import org.hibernate.Length;
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.UuidGenerator;
 import se.sundsvall.billingdatacollector.integration.db.converter.BillingRecordWrapperConverter;
+import se.sundsvall.billingdatacollector.integration.db.converter.CompressedTextConverter;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
@@ -33,9 +34,10 @@ import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 @Table(
 	name = "fallout",
 	indexes = {
-		@Index(name = "idx_family_id", columnList = "family_id"),
+		@Index(name = "idx_family_id_flow_instance_id", columnList = "family_id, flow_instance_id"),
 		@Index(name = "idx_flow_instance_id", columnList = "flow_instance_id"),
-		@Index(name = "idx_municipality_id", columnList = "municipality_id")
+		@Index(name = "idx_municipality_id", columnList = "municipality_id"),
+		@Index(name = "idx_reported_municipality_id", columnList = "reported, municipality_id")
 	})
 public class FalloutEntity {
 
@@ -55,6 +57,7 @@ public class FalloutEntity {
 	private BillingRecordWrapper billingRecordWrapper;
 
 	@Column(name = "opene_instance", length = Length.LONG)
+	@Convert(converter = CompressedTextConverter.class)
 	private String openEInstance;
 
 	@Column(name = "family_id")
@@ -0,0 +1,26 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A fallout record without its billing record wrapper and OpenE-instance, for listings and reports that don't need to
+ * read the stored payload.
+ */
+public interface FalloutSummary {
+
+	String getId();
+
+	String getMunicipalityId();
+
+	String getRequestId();
+
+	String getFamilyId();
+
+	String getFlowInstanceId();
+
+	String getErrorMessage();
+
+	boolean isReported();
+
+	OffsetDateTime getCreated();
+}
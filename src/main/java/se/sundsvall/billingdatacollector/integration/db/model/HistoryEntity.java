@@ -29,7 +29,7 @@ import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 @Table(
 	name = "history",
 	indexes = {
-		@Index(name = "idx_family_id", columnList = "family_id"),
+		@Index(name = "idx_family_id_flow_instance_id", columnList = "family_id, flow_instance_id"),
 		@Index(name = "idx_flow_instance_id", columnList = "flow_instance_id"),
 		@Index(name = "idx_contract_id", columnList = "contract_id"),
 		@Index(name = "idx_municipality_id", columnList = "municipality_id")
@@ -0,0 +1,25 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A history record without its billing record wrapper, for listings that don't need to read the stored payload.
+ */
+public interface HistorySummary {
+
+	String getId();
+
+	String getMunicipalityId();
+
+	String getRequestId();
+
+	String getFamilyId();
+
+	String getFlowInstanceId();
+
+	String getContractId();
+
+	String getLocation();
+
+	OffsetDateTime getCreated();
+}
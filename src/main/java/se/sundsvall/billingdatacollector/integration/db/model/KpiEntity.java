@@ -0,0 +1,100 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.TimeZoneStorage;
+import org.hibernate.annotations.UuidGenerator;
+import se.sundsvall.billingdatacollector.integration.db.converter.YearMonthConverter;
+import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * A KPI value fetched from SCB. The KPI for a month never changes once published, so it is stored the first time it is
+ * fetched and read from here after that.
+ */
+@Getter
+@Setter
+@Builder(setterPrefix = "with")
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+	name = "kpi",
+	uniqueConstraints = {
+		@UniqueConstraint(
+			name = "uq_base_year_period",
+			columnNames = {
+				"base_year", "period"
+			})
+	})
+public class KpiEntity {
+
+	@Id
+	@UuidGenerator
+	@Column(name = "id")
+	private String id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "base_year", nullable = false)
+	private KPIBaseYear baseYear;
+
+	@Convert(converter = YearMonthConverter.class)
+	@Column(name = "period", nullable = false, length = 7)
+	private YearMonth period;
+
+	@Column(name = "kpi_value", nullable = false, precision = 6, scale = 2)
+	private BigDecimal kpiValue;
+
+	@Column(name = "created")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	@PrePersist
+	public void prePersist() {
+		if (created == null) {
+			created = OffsetDateTime.now(ZoneId.systemDefault());
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(baseYear, created, id, kpiValue, period);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final KpiEntity other)) { return false; }
+		return baseYear == other.baseYear && Objects.equals(created, other.created) && Objects.equals(id, other.id)
+			&& Objects.equals(kpiValue, other.kpiValue) && Objects.equals(period, other.period);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("KpiEntity [id=").append(id)
+			.append(", baseYear=").append(baseYear)
+			.append(", period=").append(period)
+			.append(", kpiValue=").append(kpiValue)
+			.append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,109 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.TimeZoneStorage;
+import org.hibernate.annotations.UuidGenerator;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * A relation between a contract and a billing record that is yet to be created in the relation service. The row is
+ * written in the same transaction as the history of the billing, and removed once the relation has been created. A
+ * relation that can't be created within the max number of attempts is parked, and kept for investigation.
+ */
+@Getter
+@Setter
+@Builder(setterPrefix = "with")
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+	name = "relation_outbox",
+	indexes = {
+		@Index(name = "idx_parked_next_attempt_at", columnList = "parked,next_attempt_at")
+	})
+public class RelationOutboxEntity {
+
+	@Id
+	@UuidGenerator
+	@Column(name = "id")
+	private String id;
+
+	@Column(name = "municipality_id", nullable = false, length = 4)
+	private String municipalityId;
+
+	@Column(name = "contract_id", nullable = false)
+	private String contractId;
+
+	@Column(name = "billing_record_id", nullable = false)
+	private String billingRecordId;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime nextAttemptAt;
+
+	@Column(name = "parked", nullable = false)
+	private boolean parked;
+
+	@Column(name = "last_error", length = 1024)
+	private String lastError;
+
+	@Column(name = "created")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	@PrePersist
+	public void prePersist() {
+		if (created == null) {
+			created = OffsetDateTime.now(ZoneId.systemDefault());
+		}
+		if (nextAttemptAt == null) {
+			nextAttemptAt = created;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(attempts, billingRecordId, contractId, created, id, lastError, municipalityId, nextAttemptAt, parked);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final RelationOutboxEntity other)) { return false; }
+		return attempts == other.attempts && Objects.equals(billingRecordId, other.billingRecordId) && Objects.equals(contractId, other.contractId)
+			&& Objects.equals(created, other.created) && Objects.equals(id, other.id) && Objects.equals(lastError, other.lastError)
+			&& Objects.equals(municipalityId, other.municipalityId) && Objects.equals(nextAttemptAt, other.nextAttemptAt) && parked == other.parked;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("RelationOutboxEntity [id=").append(id)
+			.append(", municipalityId=").append(municipalityId)
+			.append(", contractId=").append(contractId)
+			.append(", billingRecordId=").append(billingRecordId)
+			.append(", attempts=").append(attempts)
+			.append(", nextAttemptAt=").append(nextAttemptAt)
+			.append(", parked=").append(parked)
+			.append(", lastError=").append(lastError)
+			.append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
@@ -89,4 +89,16 @@ public class ScheduledBillingEntity {
 	@Enumerated(EnumType.STRING)
 	@Column(name = "invoiced_in", length = 32)
 	private InvoicedIn invoicedIn;
+
+	/**
+	 * Instance that has claimed this row for the current billing tick, and
+	 * until when. A claimed row is not picked up by any other instance until
+	 * the claim has expired. Both are cleared when the row is advanced.
+	 */
+	@Column(name = "claimed_by")
+	private String claimedBy;
+
+	@Column(name = "claimed_until")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime claimedUntil;
 }
@@ -29,7 +29,8 @@ import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 @Table(
 	name = "scheduled_job_log",
 	indexes = {
-		@Index(name = "idx_municipality_id", columnList = "municipality_id")
+		@Index(name = "idx_municipality_id", columnList = "municipality_id"),
+		@Index(name = "idx_fetched_end_date", columnList = "fetched_end_date")
 	})
 public class ScheduledJobEntity {
 
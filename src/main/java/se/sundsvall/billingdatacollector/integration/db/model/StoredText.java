@@ -0,0 +1,11 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+/**
+ * The id of a row together with the value of one of its text columns, exactly as it is stored.
+ */
+public interface StoredText {
+
+	String getId();
+
+	String getContent();
+}
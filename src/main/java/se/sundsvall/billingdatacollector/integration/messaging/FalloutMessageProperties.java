@@ -2,13 +2,15 @@ package se.sundsvall.billingdatacollector.integration.messaging;
 
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 @ConfigurationProperties("falloutreport")
 public record FalloutMessageProperties(
 	FalloutMailTemplate falloutMailTemplate,
 	List<String> recipients,
 	String sender,
-	String senderName) {
+	String senderName,
+	@DefaultValue("500") int maxRowsPerMail) {
 
 	public record FalloutMailTemplate(
 		String subject,
@@ -1,5 +1,6 @@
 package se.sundsvall.billingdatacollector.integration.opene;
 
+import feign.Response;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,6 +24,15 @@ interface OpenEClient {
 		@RequestParam final String fromDate,
 		@RequestParam final String toDate);
 
+	/**
+	 * Same as {@link #getErrands(String, String, String)}, but the response body is not read. The caller is responsible
+	 * for checking the status and closing the response.
+	 */
+	@GetMapping(path = "/api/instanceapi/getinstances/family/{familyId}", consumes = TEXT_XML_CHARSET_ISO_8859_1, produces = TEXT_XML_CHARSET_ISO_8859_1)
+	Response getErrandsAsStream(@PathVariable final String familyId,
+		@RequestParam final String fromDate,
+		@RequestParam final String toDate);
+
 	@GetMapping(path = "/api/instanceapi/getinstance/{flowInstanceId}/xml", consumes = TEXT_XML_CHARSET_ISO_8859_1, produces = TEXT_XML_CHARSET_ISO_8859_1)
 	byte[] getErrand(@PathVariable final String flowInstanceId);
 }
@@ -1,24 +1,30 @@
 package se.sundsvall.billingdatacollector.integration.opene;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
+import se.sundsvall.billingdatacollector.integration.opene.util.FlowInstanceIdStreamReader;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 import se.sundsvall.billingdatacollector.service.DbService;
 import se.sundsvall.dept44.problem.Problem;
 
 import static java.util.stream.Collectors.toMap;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.BillingRecordConstants.SUNDSVALLS_MUNICIPALITY_ID;
 import static se.sundsvall.billingdatacollector.integration.opene.util.XPathUtil.evaluateXPath;
-import static se.sundsvall.billingdatacollector.integration.opene.util.XPathUtil.getString;
 
 @Component
 public class OpenEIntegration {
@@ -50,6 +56,43 @@ public class OpenEIntegration {
 			.toList();
 	}
 
+	/**
+	 * Stream the flowInstanceIds for a familyId from OpenE. Each id is handed to the consumer as soon as it has been read
+	 * from the response, i.e. before the whole response has arrived, and the response is never held in memory.
+	 *
+	 * @param familyId The familyId to get flowInstanceIds for
+	 * @param fromDate The from date
+	 * @param toDate   The to date
+	 * @param consumer Consumer of the flowInstanceIds
+	 */
+	public void streamFlowInstanceIds(final String familyId, final String fromDate, final String toDate, final Consumer<String> consumer) {
+		try (final var response = client.getErrandsAsStream(familyId, fromDate, toDate)) {
+			// Same as for the non streaming variant, a 404 means there's nothing to get
+			if (response.status() == NOT_FOUND.value() || response.body() == null) {
+				LOG.info("No flowInstanceIds found for familyId: {}", familyId);
+				return;
+			}
+
+			if (!HttpStatusCode.valueOf(response.status()).is2xxSuccessful()) {
+				throw Problem.builder()
+					.withTitle("Couldn't get flowInstanceIds from OpenE")
+					.withDetail("OpenE responded with status: " + response.status())
+					.withStatus(BAD_GATEWAY)
+					.build();
+			}
+
+			try (final var inputStream = response.body().asInputStream()) {
+				FlowInstanceIdStreamReader.read(inputStream, consumer);
+			}
+		} catch (final IOException e) {
+			throw Problem.builder()
+				.withTitle("Couldn't get flowInstanceIds from OpenE")
+				.withDetail(e.getMessage())
+				.withStatus(BAD_GATEWAY)
+				.build();
+		}
+	}
+
 	/**
 	 * Get a billing record from OpenE.
 	 * If the familyId is not supported or if the familyId is not found in the XML, a Problem will be thrown.
@@ -59,17 +102,18 @@ public class OpenEIntegration {
 	 * @return                a {@link BillingRecordWrapper} with the billing record
 	 */
 	public Optional<BillingRecordWrapper> getBillingRecord(final String flowInstanceId) {
-		// Get the XML from OpenE...
+		// Get the XML from OpenE and parse it once, the parsed document is shared by everything reading from it
 		final var xml = client.getErrand(flowInstanceId);
+		final var document = OpenEDocument.parse(xml);
 
 		// Validate and extract the familyId
-		final var familyId = validateResponseAndExtractFamilyId(xml);
+		final var familyId = validateResponseAndExtractFamilyId(document);
 
 		BillingRecordWrapper billingRecordWrapper = null;
 
 		try {
 			// If we got a sane response and a mapper for the familyId, map the XML to a BillingRecordWrapper
-			billingRecordWrapper = mappers.get(familyId).mapToBillingRecordWrapper(xml);
+			billingRecordWrapper = mappers.get(familyId).mapToBillingRecordWrapper(document);
 			// Set the familyId to make it possible to apply decorator
 			billingRecordWrapper.setFamilyId(familyId);
 			// Set default municipalityId
@@ -85,9 +129,9 @@ public class OpenEIntegration {
 		return Optional.ofNullable(billingRecordWrapper);
 	}
 
-	private String validateResponseAndExtractFamilyId(byte[] xml) {
+	private String validateResponseAndExtractFamilyId(OpenEDocument document) {
 		// Extract the familyId
-		final var familyId = getString(xml, "/FlowInstance/Header/Flow/FamilyID");
+		final var familyId = document.getString("/FlowInstance/Header/Flow/FamilyID");
 
 		// If no familyId is found, throw a Problem
 		Optional.ofNullable(familyId)
@@ -1,10 +1,15 @@
 package se.sundsvall.billingdatacollector.integration.opene;
 
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 public interface OpenEMapper {
 
 	String getSupportedFamilyId();
 
-	BillingRecordWrapper mapToBillingRecordWrapper(byte[] xml);
+	BillingRecordWrapper mapToBillingRecordWrapper(OpenEDocument document);
+
+	default BillingRecordWrapper mapToBillingRecordWrapper(byte[] xml) {
+		return mapToBillingRecordWrapper(OpenEDocument.parse(xml));
+	}
 }
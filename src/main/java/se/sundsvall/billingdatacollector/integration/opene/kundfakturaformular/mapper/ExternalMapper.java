@@ -24,6 +24,7 @@ import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.m
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.SummeringExtern;
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.UnderkontoExtern;
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.VerksamhetExtern;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 import static java.util.Optional.ofNullable;
@@ -35,7 +36,6 @@ import static se.sundsvall.billingdatacollector.integration.opene.kundfakturafor
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.mapper.KundfakturaformularMapper.MAX_DESCRIPTION_LENGTH;
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.mapper.MapperHelper.getCustomerIdFromCounterPart;
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.mapper.MapperHelper.getExternalCounterPartNumbers;
-import static se.sundsvall.billingdatacollector.integration.opene.util.XPathUtil.extractValue;
 
 final class ExternalMapper {
 
@@ -46,9 +46,9 @@ final class ExternalMapper {
 		// Not meant to be instantiated
 	}
 
-	static BillingRecordWrapper mapToExternalBillingRecord(final byte[] xml, OpeneCollections collections) {
+	static BillingRecordWrapper mapToExternalBillingRecord(final OpenEDocument document, OpeneCollections collections) {
 		LOGGER.info("Mapping to external billing record");
-		var result = extractValue(xml, ExternFaktura.class);
+		var result = document.extractValue(ExternFaktura.class);
 
 		// Check if it's a private person or organization
 		if (result.sendInvoiceTo().contains(PRIVATE_PERSON)) {
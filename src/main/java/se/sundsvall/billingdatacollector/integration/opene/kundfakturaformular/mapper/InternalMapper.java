@@ -20,6 +20,7 @@ import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.m
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.SummeringIntern;
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.UnderkontoIntern;
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.VerksamhetIntern;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 import static java.util.Optional.ofNullable;
@@ -29,7 +30,6 @@ import static se.sundsvall.billingdatacollector.integration.opene.kundfakturafor
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.mapper.KundfakturaformularMapper.MAX_DESCRIPTION_LENGTH;
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.BillingRecordConstants.SUNDSVALLS_MUNICIPALITY;
 import static se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.BillingRecordConstants.SUNDSVALLS_MUNICIPALITY_ORGANIZATION_NUMBER;
-import static se.sundsvall.billingdatacollector.integration.opene.util.XPathUtil.extractValue;
 
 final class InternalMapper {
 
@@ -39,9 +39,9 @@ final class InternalMapper {
 		// Not meant to be instantiated
 	}
 
-	static BillingRecordWrapper mapToInternalBillingRecord(final byte[] xml, OpeneCollections collections) {
+	static BillingRecordWrapper mapToInternalBillingRecord(final OpenEDocument document, OpeneCollections collections) {
 		LOGGER.info("Mapping to internal billing record");
-		var result = extractValue(xml, InternFaktura.class);
+		var result = document.extractValue(InternFaktura.class);
 
 		// Get the customerId, we will reuse this and add a "1" in front of it to create the counterpart
 		var customerId = MapperHelper.getLeadingDigitsFromString(result.payingAdministration());
@@ -6,10 +6,9 @@ import org.springframework.stereotype.Component;
 import se.sundsvall.billingdatacollector.integration.opene.OpenEIntegrationProperties;
 import se.sundsvall.billingdatacollector.integration.opene.OpenEMapper;
 import se.sundsvall.billingdatacollector.integration.opene.util.ListUtil;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
-import static se.sundsvall.billingdatacollector.integration.opene.util.XPathUtil.getString;
-
 @Component
 class KundfakturaformularMapper implements OpenEMapper {
 
@@ -35,15 +34,15 @@ class KundfakturaformularMapper implements OpenEMapper {
 	}
 
 	@Override
-	public BillingRecordWrapper mapToBillingRecordWrapper(final byte[] xml) {
+	public BillingRecordWrapper mapToBillingRecordWrapper(final OpenEDocument document) {
 		LOGGER.info("Mapping xml to BillingRecordWrapper");
-		var openeCollections = listUtil.parseLists(xml);
+		var openeCollections = listUtil.parseLists(document);
 
 		// Check what kind of invoice it is and map accordingly
-		if (getString(xml, IS_EXTERNAL_INVOICE) == null) {
-			return InternalMapper.mapToInternalBillingRecord(xml, openeCollections);
+		if (document.getString(IS_EXTERNAL_INVOICE) == null) {
+			return InternalMapper.mapToInternalBillingRecord(document, openeCollections);
 		}
 
-		return ExternalMapper.mapToExternalBillingRecord(xml, openeCollections);
+		return ExternalMapper.mapToExternalBillingRecord(document, openeCollections);
 	}
 }
@@ -0,0 +1,169 @@
+package se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.AktivitetskontoExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.AnsvarExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.BarakningarExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.BerakningExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.BerakningarExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.MomssatsExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.ObjektkontoExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.ProjektkontoExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.SummeringExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.UnderkontoExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.VerksamhetExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.AktivitetskontoIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.AnsvarIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.BerakningIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.BerakningarIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.ProjektkontoIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.SummeringIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.UnderkontoIntern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.VerksamhetIntern;
+
+import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+/**
+ * Binding table for the OpenE "list" objects, i.e. how to create an object for an xml-node (without the trailing
+ * index) and how to set each of its properties.
+ * The table is built once, so binding a node needs no bean lookups, reflection or regular expressions.
+ */
+public final class OpeneBindings {
+
+	private static final String QUERY_ID = "QueryID";
+	private static final String NAME = "Name";
+	private static final String VALUE = "Value";
+
+	private static final Map<String, Binding<?>> BINDINGS = Stream.<Binding<?>>of(
+		// Internal
+		binding(AktivitetskontoIntern.class, AktivitetskontoIntern::new, AktivitetskontoIntern::setQueryID, AktivitetskontoIntern::setName)
+			.with(VALUE, AktivitetskontoIntern::setValue),
+		binding(AnsvarIntern.class, AnsvarIntern::new, AnsvarIntern::setQueryID, AnsvarIntern::setName)
+			.with(VALUE, AnsvarIntern::setValue),
+		binding(BerakningarIntern.class, BerakningarIntern::new, BerakningarIntern::setQueryID, BerakningarIntern::setName)
+			.with("FakturatextIntern", BerakningarIntern::setFakturatextIntern)
+			.with("AntalIntern", BerakningarIntern::setAntalIntern)
+			.with("APrisIntern", BerakningarIntern::setAPrisIntern),
+		binding(BerakningIntern.class, BerakningIntern::new, BerakningIntern::setQueryID, BerakningIntern::setName)
+			.with("FakturatextIntern", BerakningIntern::setFakturatextIntern)
+			.with("AntalIntern", BerakningIntern::setAntalIntern)
+			.with("APrisIntern", BerakningIntern::setAPrisIntern),
+		binding(ProjektkontoIntern.class, ProjektkontoIntern::new, ProjektkontoIntern::setQueryID, ProjektkontoIntern::setName)
+			.with(VALUE, ProjektkontoIntern::setValue),
+		binding(SummeringIntern.class, SummeringIntern::new, SummeringIntern::setQueryID, SummeringIntern::setName)
+			.with("TotSummeringIntern", SummeringIntern::setTotSummeringIntern),
+		binding(UnderkontoIntern.class, UnderkontoIntern::new, UnderkontoIntern::setQueryID, UnderkontoIntern::setName)
+			.with(VALUE, UnderkontoIntern::setValue),
+		binding(VerksamhetIntern.class, VerksamhetIntern::new, VerksamhetIntern::setQueryID, VerksamhetIntern::setName)
+			.with(VALUE, VerksamhetIntern::setValue),
+
+		// External
+		binding(AktivitetskontoExtern.class, AktivitetskontoExtern::new, AktivitetskontoExtern::setQueryID, AktivitetskontoExtern::setName)
+			.with(VALUE, AktivitetskontoExtern::setValue),
+		binding(AnsvarExtern.class, AnsvarExtern::new, AnsvarExtern::setQueryID, AnsvarExtern::setName)
+			.with(VALUE, AnsvarExtern::setValue),
+		binding(BarakningarExtern.class, BarakningarExtern::new, BarakningarExtern::setQueryID, BarakningarExtern::setName)
+			.with("FakturatextExtern", BarakningarExtern::setFakturatextExtern)
+			.with("AntalExtern", BarakningarExtern::setAntalExtern)
+			.with("APrisExtern", BarakningarExtern::setAPrisExtern),
+		binding(BerakningarExtern.class, BerakningarExtern::new, BerakningarExtern::setQueryID, BerakningarExtern::setName)
+			.with("FakturatextExtern", BerakningarExtern::setFakturatextExtern)
+			.with("AntalExtern", BerakningarExtern::setAntalExtern)
+			.with("APrisExtern", BerakningarExtern::setAPrisExtern),
+		binding(BerakningExtern.class, BerakningExtern::new, BerakningExtern::setQueryID, BerakningExtern::setName)
+			.with("FakturatextExtern", BerakningExtern::setFakturatextExtern)
+			.with("AntalExtern", BerakningExtern::setAntalExtern)
+			.with("APrisExtern", BerakningExtern::setAPrisExtern),
+		binding(MomssatsExtern.class, MomssatsExtern::new, MomssatsExtern::setQueryID, MomssatsExtern::setName)
+			.with(VALUE, MomssatsExtern::setValue),
+		binding(ObjektkontoExtern.class, ObjektkontoExtern::new, ObjektkontoExtern::setQueryID, ObjektkontoExtern::setName)
+			.with(VALUE, ObjektkontoExtern::setValue),
+		binding(ProjektkontoExtern.class, ProjektkontoExtern::new, ProjektkontoExtern::setQueryID, ProjektkontoExtern::setName)
+			.with(VALUE, ProjektkontoExtern::setValue),
+		binding(SummeringExtern.class, SummeringExtern::new, SummeringExtern::setQueryID, SummeringExtern::setName)
+			.with("TotSummeringExtern", SummeringExtern::setTotSummeringExtern),
+		binding(UnderkontoExtern.class, UnderkontoExtern::new, UnderkontoExtern::setQueryID, UnderkontoExtern::setName)
+			.with(VALUE, UnderkontoExtern::setValue),
+		binding(VerksamhetExtern.class, VerksamhetExtern::new, VerksamhetExtern::setQueryID, VerksamhetExtern::setName)
+			.with(VALUE, VerksamhetExtern::setValue))
+		.collect(toUnmodifiableMap(Binding::name, identity()));
+
+	private OpeneBindings() {}
+
+	/**
+	 * Get the binding for an xml-node.
+	 *
+	 * @param  nodeName the name of the node without the trailing index, e.g. "BarakningarExtern"
+	 * @return          the binding, or empty if the node isn't one of the OpenE list objects
+	 */
+	public static Optional<Binding<?>> forNode(final String nodeName) {
+		return ofNullable(BINDINGS.get(nodeName));
+	}
+
+	static Map<String, Binding<?>> getBindings() {
+		return BINDINGS;
+	}
+
+	private static <T> Binding<T> binding(final Class<T> type, final Supplier<T> factory, final BiConsumer<T, String> queryIdSetter, final BiConsumer<T, String> nameSetter) {
+		return new Binding<>(type, factory)
+			.with(QUERY_ID, queryIdSetter)
+			.with(NAME, nameSetter);
+	}
+
+	public static final class Binding<T> {
+
+		private final Class<T> type;
+		private final Supplier<T> factory;
+		private final Map<String, BiConsumer<T, String>> setters = new HashMap<>();
+
+		private Binding(final Class<T> type, final Supplier<T> factory) {
+			this.type = type;
+			this.factory = factory;
+		}
+
+		private Binding<T> with(final String propertyName, final BiConsumer<T, String> setter) {
+			setters.put(propertyName, setter);
+			return this;
+		}
+
+		public String name() {
+			return type.getSimpleName();
+		}
+
+		public Class<T> type() {
+			return type;
+		}
+
+		public T newInstance() {
+			return factory.get();
+		}
+
+		/**
+		 * Set a property on an object created by this binding.
+		 *
+		 * @param  object        the object to set the property on
+		 * @param  propertyName  the name of the property without the trailing index, e.g. "APrisExtern"
+		 * @param  propertyValue the value to set
+		 * @return               true if the property was set, false if there is no such property
+		 */
+		public boolean set(final T object, final String propertyName, final String propertyValue) {
+			final var setter = setters.get(propertyName);
+			if (setter == null) {
+				return false;
+			}
+			setter.accept(object, propertyValue);
+			return true;
+		}
+
+		Map<String, BiConsumer<T, String>> getSetters() {
+			return setters;
+		}
+	}
+}
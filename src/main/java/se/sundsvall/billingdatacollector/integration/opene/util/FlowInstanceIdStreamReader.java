@@ -0,0 +1,82 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Reads the flowInstanceIDs (/FlowInstances/FlowInstance/flowInstanceID) from an OpenE list of flow instances with a
+ * pull parser, handing each id to the consumer as soon as it has been read. Nothing but the current element is kept
+ * in memory.
+ */
+public final class FlowInstanceIdStreamReader {
+
+	private static final List<String> FLOW_INSTANCE_ID_PATH = List.of("FlowInstances", "FlowInstance", "flowInstanceID");
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+	private FlowInstanceIdStreamReader() {}
+
+	public static void read(final InputStream inputStream, final Consumer<String> consumer) {
+		XMLStreamReader reader = null;
+		try {
+			reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream, StandardCharsets.ISO_8859_1.name());
+
+			var depth = 0;  // Depth of the current element
+			var matched = 0; // Number of elements in the path to the flowInstanceID that the current element is in
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					case START_ELEMENT -> {
+						depth++;
+						if (matched == depth - 1 && depth <= FLOW_INSTANCE_ID_PATH.size() && FLOW_INSTANCE_ID_PATH.get(depth - 1).equals(reader.getLocalName())) {
+							matched = depth;
+						}
+						if (matched == FLOW_INSTANCE_ID_PATH.size()) {
+							// Reading the text moves the reader to the end of the element
+							consumer.accept(reader.getElementText().trim());
+							matched--;
+							depth--;
+						}
+					}
+					case END_ELEMENT -> {
+						if (matched == depth) {
+							matched--;
+						}
+						depth--;
+					}
+					default -> {
+						// Nothing else is of interest
+					}
+				}
+			}
+		} catch (final XMLStreamException e) {
+			throw new IllegalStateException("Error parsing xml", e);
+		} finally {
+			close(reader);
+		}
+	}
+
+	private static void close(final XMLStreamReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (final XMLStreamException ignored) {
+				// Nothing to do, the underlying stream is closed by the caller
+			}
+		}
+	}
+
+	private static XMLInputFactory createXmlInputFactory() {
+		final var factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+}
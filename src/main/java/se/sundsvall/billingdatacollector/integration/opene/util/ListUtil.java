@@ -1,21 +1,16 @@
 package se.sundsvall.billingdatacollector.integration.opene.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.Optional;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeansException;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.OpeneBindings;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.OpeneBindings.Binding;
 import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.OpeneCollections;
 
 import static java.util.Optional.ofNullable;
@@ -25,7 +20,7 @@ import static java.util.Optional.ofNullable;
  * The XML contains no lists but instead each item in the list is a separate object suffixed an ID, e.g.
  * "BarakningarExtern1" to indicate that it is the first item in the list.
  * Each xml-object contains a number of properties (which may also be suffixed with an ID) that are mapped to fields in
- * a bean in the context.
+ * an object, using the precomputed bindings in {@link OpeneBindings}.
  */
 @Component
 @ToString
@@ -35,122 +30,87 @@ public class ListUtil {
 
 	private static final String OEP_NAMESPACE_URI = "http://www.oeplatform.org/version/2.0/schemas/flowinstance";
 	private static final String VALUES_NODE_NAME = "Values";
-	private static final String ENDING_WITH_NUMBER_REGEX = "\\d$"; // Regex to match tags ending with a number
-	private static final Pattern ENDING_WITH_NUMBER_PATTERN = Pattern.compile(ENDING_WITH_NUMBER_REGEX); // Pattern to match tags ending with a number
 
-	private final ApplicationContext context;
-
-	public ListUtil(ApplicationContext context) {
-		this.context = context;
-	}
-
-	public OpeneCollections parseLists(byte[] xml) {
+	public OpeneCollections parseLists(OpenEDocument openEDocument) {
 		LOGGER.info("Parsing xml from OpenE into lists");
 		var openeCollections = new OpeneCollections();
-		try {
-			var nodeList = getNodeList(xml);
-
-			if (nodeList.getLength() > 0) {
-				var valuesNode = nodeList.item(0);
-
-				// Get all child nodes of <Values> from the XML
-				var childNodes = valuesNode.getChildNodes();
-
-				// Iterate through the child nodes
-				for (int childCounter = 0; childCounter < childNodes.getLength(); childCounter++) {
-					var node = childNodes.item(childCounter);
-					if (node.getNodeType() == Node.ELEMENT_NODE) {
-						var nodeName = node.getLocalName(); // Get the node name without the namespace
-						if (ENDING_WITH_NUMBER_PATTERN.matcher(nodeName).find()) { // Check if it ends with a number
-							// Remove the number from the node name and make into camelCase
-							// so we can match it against the bean name in the context
-							addOpeneObject(nodeName, node, openeCollections);
-						}
-					}
-				}
+
+		// Get the <Values> element where all data we want is located and iterate through its child elements
+		getValuesElement(openEDocument.document()).ifPresent(valuesElement -> valuesElement.children().forEach(element -> {
+			var nodeName = getLocalName(element); // Get the node name without the namespace
+			if (endsWithDigit(nodeName)) {
+				addOpeneObject(nodeName, element, openeCollections);
 			}
-		} catch (ParserConfigurationException | SAXException | IOException e) {
-			throw new IllegalStateException("Error parsing xml", e);
-		}
+		}));
 
 		return openeCollections;
 	}
 
-	private void addOpeneObject(String nodeName, Node node, OpeneCollections openeCollections) {
-		var id = nodeName.substring(nodeName.length() - 1);   // Get the id of the object, we will use this as the index in the map
-		nodeName = nodeName.replaceAll(ENDING_WITH_NUMBER_REGEX, ""); // Remove the number from the node name so we can find the bean in the context
-		final var nodeNameToUse = StringUtils.uncapitalize(nodeName); // Make sure the first letter is lowercase
+	private void addOpeneObject(String nodeName, Element element, OpeneCollections openeCollections) {
+		var id = Character.getNumericValue(nodeName.charAt(nodeName.length() - 1)); // Get the id of the object, we will use this as the index in the map
+		var nameWithoutId = removeLastCharacter(nodeName); // Remove the number from the node name so we can find the binding
 
-		var beanToUse = getBean(nodeNameToUse);
-
-		ofNullable(beanToUse).ifPresentOrElse(bean -> {
-			var mappedBean = setProperties(bean, node.getChildNodes());
-			openeCollections.add(Integer.parseInt(id), mappedBean);
-		}, () -> LOGGER.warn("No bean found for xml-node: <{}>", nodeNameToUse));
+		OpeneBindings.forNode(StringUtils.capitalize(nameWithoutId)).ifPresentOrElse(
+			binding -> openeCollections.add(id, bind(binding, element.children())),
+			() -> LOGGER.warn("No binding found for xml-node: <{}>", nameWithoutId));
 	}
 
-	private NodeList getNodeList(byte[] xml) throws ParserConfigurationException, SAXException, IOException {
-		// Convert xml string to InputStream
-		var inputStream = new ByteArrayInputStream(xml);
-
-		var documentBuilderFactory = DocumentBuilderFactory.newDefaultInstance();
-		documentBuilderFactory.setNamespaceAware(true); // Needed to parse namespaces
-		var documentBuilder = documentBuilderFactory.newDocumentBuilder();
-		var document = documentBuilder.parse(inputStream, StandardCharsets.ISO_8859_1.name());
-
-		// Normalize the document
-		document.getDocumentElement().normalize();
+	private Optional<Element> getValuesElement(Document document) {
+		var rootElement = ofNullable(document.children().first())
+			.orElseThrow(() -> new IllegalStateException("Error parsing xml, no root element found"));
 
 		// Check that we have the correct namespace, otherwise we won't be able to parse anything
-		var rootNamespace = document.getDocumentElement().getNamespaceURI();
+		var rootNamespace = getNamespaceUri(rootElement);
 		if (!OEP_NAMESPACE_URI.equals(rootNamespace)) {
 			throw new IllegalStateException("Namespace mismatch: expected " + OEP_NAMESPACE_URI + " but found " + rootNamespace);
 		}
 
-		// Get the <Values> node where all data we want is located
-		return document.getElementsByTagNameNS(OEP_NAMESPACE_URI, VALUES_NODE_NAME);
+		// Only a <Values> element in the OpenE namespace counts, wherever it is declared
+		return rootElement.getAllElements().stream()
+			.filter(element -> VALUES_NODE_NAME.equals(getLocalName(element)) && OEP_NAMESPACE_URI.equals(getNamespaceUri(element)))
+			.findFirst();
 	}
 
-	private void setProperty(Object obj, String propertyName, String propertyValue) {
-		try {
-			// Capitalize the first letter of the property name and prepend "set"
-			var setterName = "set" + StringUtils.capitalize(propertyName);
-
-			// Remove any trailing numbers from the property name
-			setterName = setterName.replaceAll(ENDING_WITH_NUMBER_REGEX, "");
+	// Resolve the namespace of the element from the closest declaration of its prefix, itself or an ancestor
+	private static String getNamespaceUri(Element element) {
+		var tagName = element.tagName();
+		var prefixIndex = tagName.indexOf(':');
+		var namespaceAttribute = prefixIndex < 0 ? "xmlns" : "xmlns:" + tagName.substring(0, prefixIndex);
 
-			// Find the setter method
-			var setterMethod = obj.getClass().getMethod(setterName, String.class);
-
-			// Invoke the setter method
-			setterMethod.invoke(obj, propertyValue);
-		} catch (Exception e) {
-			// No biggie
-			LOGGER.warn("Couldn't set property {} on object {}", propertyName, obj.getClass().getName(), e);
+		for (var current = element; current != null; current = current.parent()) {
+			if (current.hasAttr(namespaceAttribute)) {
+				return current.attr(namespaceAttribute);
+			}
 		}
+		return null;
+	}
+
+	private static String getLocalName(Element element) {
+		var tagName = element.tagName();
+		return tagName.substring(tagName.indexOf(':') + 1);
 	}
 
-	private <T> T setProperties(T object, NodeList nodeChildren) {
-		for (int childCounter = 0; childCounter < nodeChildren.getLength(); childCounter++) {
-			Node valueNode = nodeChildren.item(childCounter);
-			if (valueNode.getNodeType() == Node.ELEMENT_NODE) {
-				var nodeName = valueNode.getLocalName();
-				var nodeValue = valueNode.getTextContent();
+	private static <T> T bind(Binding<T> binding, Elements children) {
+		var object = binding.newInstance();
+		children.forEach(valueElement -> {
+			var propertyName = getLocalName(valueElement);
+			// Remove any trailing number from the property name
+			var propertyNameToUse = StringUtils.capitalize(endsWithDigit(propertyName) ? removeLastCharacter(propertyName) : propertyName);
 
-				setProperty(object, nodeName, nodeValue);
+			if (!binding.set(object, propertyNameToUse, valueElement.wholeText())) {
+				// No biggie
+				LOGGER.warn("Couldn't set property {} on object {}", propertyName, binding.name());
 			}
-		}
+		});
 
 		return object;
 	}
 
-	private Object getBean(String name) {
-		try {
-			return context.getBean(name);
-		} catch (BeansException e) {
-			LOGGER.warn("No bean found for name: {}", name);
-		}
+	private static boolean endsWithDigit(String name) {
+		return !name.isEmpty() && Character.isDigit(name.charAt(name.length() - 1));
+	}
 
-		return null;
+	private static String removeLastCharacter(String name) {
+		return name.substring(0, name.length() - 1);
 	}
 }
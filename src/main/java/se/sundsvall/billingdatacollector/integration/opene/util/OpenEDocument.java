@@ -0,0 +1,38 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * An errand from OpenE, parsed once and shared by everything that needs to read from it.
+ * The raw xml is kept as well, e.g. to be able to save it as a fallout.
+ */
+public final class OpenEDocument {
+
+	private final byte[] xml;
+	private final Document document;
+
+	private OpenEDocument(final byte[] xml) {
+		this.xml = xml;
+		this.document = XPathUtil.parseXmlDocument(xml);
+	}
+
+	public static OpenEDocument parse(final byte[] xml) {
+		return new OpenEDocument(xml);
+	}
+
+	public byte[] xml() {
+		return xml;
+	}
+
+	public Document document() {
+		return document;
+	}
+
+	public String getString(final String xPath) {
+		return XPathUtil.getString(document, xPath);
+	}
+
+	public <T> T extractValue(final Class<T> targetClass) {
+		return XPathUtil.extractValue(document, targetClass);
+	}
+}
@@ -1,17 +1,23 @@
 package se.sundsvall.billingdatacollector.integration.opene.util;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.core.annotation.AnnotationUtils;
 import se.sundsvall.billingdatacollector.integration.opene.util.annotation.XPath;
+import us.codecraft.xsoup.XPathEvaluator;
 import us.codecraft.xsoup.Xsoup;
 
 import static java.lang.reflect.Modifier.isAbstract;
 import static java.lang.reflect.Modifier.isInterface;
+import static java.util.Arrays.stream;
 import static java.util.Optional.ofNullable;
 import static java.util.function.Predicate.not;
 import static org.jsoup.Jsoup.parse;
@@ -19,109 +25,113 @@ import static org.jsoup.parser.Parser.xmlParser;
 
 public final class XPathUtil {
 
+	// Compiled xpath expressions, per expression
+	private static final Map<String, XPathEvaluator> EVALUATORS = new ConcurrentHashMap<>();
+
+	// Extraction plans, per target class
+	private static final ClassValue<ExtractionPlan<?>> EXTRACTION_PLANS = new ClassValue<>() {
+		@Override
+		protected ExtractionPlan<?> computeValue(final Class<?> type) {
+			return ExtractionPlan.of(type);
+		}
+	};
+
 	private XPathUtil() {}
 
 	public static <T> T extractValue(final byte[] xml, final Class<T> targetClass) {
-		// Check if objects of the given target class can be instantiated
-		if (isAbstract(targetClass.getModifiers()) || isInterface(targetClass.getModifiers())) {
-			throw new XPathException("%s must be a concrete class or a record".formatted(targetClass.getName()));
-		}
+		return extractValue(parseXmlDocument(xml), targetClass);
+	}
+
+	public static <T> T extractValue(final Element element, final Class<T> targetClass) {
+		// Get the (cached) plan for how to extract values into the target class
+		@SuppressWarnings("unchecked")
+		var plan = (ExtractionPlan<T>) EXTRACTION_PLANS.get(targetClass);
 
-		// Get the fields on the target class
-		var fields = targetClass.getDeclaredFields();
 		// Use arrays to ensure proper parameter ordering for records
-		var parameters = new Parameter[fields.length];
+		var parameters = new Parameter[plan.fields().length];
 		// Process the fields
-		for (var i = 0; i < fields.length; i++) {
-			var field = fields[i];
-			// Get the path annotation for the field
-			var pathAnnotation = AnnotationUtils.getAnnotation(field, XPath.class);
-			// We can't do anything with the field if the annotation is missing - bail out
-			if (pathAnnotation == null) {
+		for (var i = 0; i < parameters.length; i++) {
+			var field = plan.fields()[i];
+			// We can't do anything with the field if the annotation is missing - skip it
+			if (field == null) {
 				continue;
 			}
 
 			var type = field.getType();
-			var path = pathAnnotation.value();
-
-			var value = getValue(xml, path, type);
+			var value = getValue(element, plan.paths()[i], type);
 
 			parameters[i] = new Parameter(field, type, value);
 		}
 
-		try {
-			if (targetClass.isRecord()) {
-				var parameterTypes = new Class[parameters.length];
-				var parameterValues = new Object[parameters.length];
-				for (var i = 0; i < parameters.length; i++) {
-					parameterTypes[i] = parameters[i].type;
-					parameterValues[i] = parameters[i].value;
-				}
-
-				var constructor = targetClass.getDeclaredConstructor(parameterTypes);
-				constructor.setAccessible(true);
-				return constructor.newInstance(parameterValues);
-			} else {
-				var constructor = targetClass.getDeclaredConstructor();
-				constructor.setAccessible(true);
-				var result = constructor.newInstance();
-
-				for (var parameter : parameters) {
-					if (parameter != null) {
-						parameter.field.setAccessible(true);
-						parameter.field.set(result, parameter.value);
-					}
-				}
-
-				return result;
-			}
-		} catch (Exception e) {
-			throw new XPathException("Unable to extract value", e);
-		}
+		return plan.newInstance(parameters);
 	}
 
 	public static <T> T getValue(final byte[] xml, final String path, final Class<T> type) {
+		return getValue(parseXmlDocument(xml), path, type);
+	}
+
+	public static <T> T getValue(final Element element, final String path, final Class<T> type) {
 		Object value;
 
 		if (type.equals(String.class)) {
-			value = getString(xml, path);
+			value = getString(element, path);
 		} else if (type.equals(Integer.class)) {
-			value = getInteger(xml, path);
+			value = getInteger(element, path);
 		} else if (type.equals(Boolean.class)) {
-			value = getBoolean(xml, path);
+			value = getBoolean(element, path);
 		} else if (type.equals(Double.class)) {
-			value = getDouble(xml, path);
+			value = getDouble(element, path);
 		} else if (type.equals(Float.class)) {
-			value = getFloat(xml, path);
+			value = getFloat(element, path);
 		} else {
-			value = extractValue(xml, type);
+			value = extractValue(element, type);
 		}
 
 		return type.cast(value);
 	}
 
 	public static String getString(final byte[] xml, final String xPath) {
-		return getValue(xml, xPath).orElse(null);
+		return getString(parseXmlDocument(xml), xPath);
+	}
+
+	public static String getString(final Element element, final String xPath) {
+		return getValue(element, xPath).orElse(null);
 	}
 
 	public static Integer getInteger(final byte[] xml, final String xPath) {
-		return getValue(xml, xPath).map(Integer::valueOf).orElse(null);
+		return getInteger(parseXmlDocument(xml), xPath);
+	}
+
+	public static Integer getInteger(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Integer::valueOf).orElse(null);
 	}
 
 	public static Boolean getBoolean(final byte[] xml, final String xPath) {
-		return getValue(xml, xPath).map(Boolean::valueOf).orElse(null);
+		return getBoolean(parseXmlDocument(xml), xPath);
+	}
+
+	public static Boolean getBoolean(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Boolean::valueOf).orElse(null);
 	}
 
 	public static Double getDouble(final byte[] xml, final String xPath) {
-		return getValue(xml, xPath).map(Double::valueOf).orElse(null);
+		return getDouble(parseXmlDocument(xml), xPath);
+	}
+
+	public static Double getDouble(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Double::valueOf).orElse(null);
 	}
 
 	public static Float getFloat(final byte[] xml, final String xPath) {
-		return getValue(xml, xPath).map(Float::valueOf).orElse(null);
+		return getFloat(parseXmlDocument(xml), xPath);
 	}
 
-	private static Optional<String> getValue(final byte[] xml, final String path) {
-		return ofNullable(evaluateXPath(xml, path))
+	public static Float getFloat(final Element element, final String xPath) {
+		return getValue(element, xPath).map(Float::valueOf).orElse(null);
+	}
+
+	private static Optional<String> getValue(final Element element, final String path) {
+		return ofNullable(evaluateXPath(element, path))
 			.filter(not(Elements::isEmpty))
 			.map(Elements::getFirst)
 			.map(Element::wholeText);   // Don't trim spaces, get it all.
@@ -132,14 +142,83 @@ public final class XPathUtil {
 	}
 
 	public static Elements evaluateXPath(final byte[] xml, final String expression) {
-		var doc = parseXmlDocument(xml);
-
-		return Xsoup.compile(expression).evaluate(doc).getElements();
+		return evaluateXPath(parseXmlDocument(xml), expression);
 	}
 
 	public static Elements evaluateXPath(final Element element, final String expression) {
-		return Xsoup.compile(expression).evaluate(element).getElements();
+		return EVALUATORS.computeIfAbsent(expression, Xsoup::compile).evaluate(element).getElements();
 	}
 
 	record Parameter(Field field, Class<?> type, Object value) {}
+
+	/**
+	 * How to create an instance of a class from xml, i.e. the annotated fields (null if not annotated), their paths and
+	 * the constructor to use. Built once per class.
+	 */
+	record ExtractionPlan<T>(Class<T> targetClass, Constructor<T> constructor, Field[] fields, String[] paths) {
+
+		static <T> ExtractionPlan<T> of(final Class<T> targetClass) {
+			// Check if objects of the given target class can be instantiated
+			if (isAbstract(targetClass.getModifiers()) || isInterface(targetClass.getModifiers())) {
+				throw new XPathException("%s must be a concrete class or a record".formatted(targetClass.getName()));
+			}
+
+			try {
+				// Get the fields on the target class, for records in the order of the canonical constructor
+				var declaredFields = targetClass.isRecord() ? getRecordComponentFields(targetClass) : targetClass.getDeclaredFields();
+				var fields = new Field[declaredFields.length];
+				var paths = new String[declaredFields.length];
+				for (var i = 0; i < declaredFields.length; i++) {
+					var pathAnnotation = AnnotationUtils.getAnnotation(declaredFields[i], XPath.class);
+					if (pathAnnotation != null) {
+						declaredFields[i].setAccessible(true);
+						fields[i] = declaredFields[i];
+						paths[i] = pathAnnotation.value();
+					}
+				}
+
+				var constructor = targetClass.isRecord()
+					? targetClass.getDeclaredConstructor(stream(targetClass.getRecordComponents()).map(RecordComponent::getType).toArray(Class<?>[]::new))
+					: targetClass.getDeclaredConstructor();
+				constructor.setAccessible(true);
+
+				return new ExtractionPlan<>(targetClass, constructor, fields, paths);
+			} catch (Exception e) {
+				throw new XPathException("Unable to extract value", e);
+			}
+		}
+
+		private static Field[] getRecordComponentFields(final Class<?> recordClass) throws NoSuchFieldException {
+			var components = recordClass.getRecordComponents();
+			var fields = new Field[components.length];
+			for (var i = 0; i < components.length; i++) {
+				fields[i] = recordClass.getDeclaredField(components[i].getName());
+			}
+			return fields;
+		}
+
+		T newInstance(final Parameter[] parameters) {
+			try {
+				if (targetClass.isRecord()) {
+					var parameterValues = new Object[parameters.length];
+					for (var i = 0; i < parameters.length; i++) {
+						parameterValues[i] = parameters[i] != null ? parameters[i].value() : null;
+					}
+
+					return constructor.newInstance(parameterValues);
+				}
+
+				var result = constructor.newInstance();
+				for (var parameter : parameters) {
+					if (parameter != null) {
+						parameter.field().set(result, parameter.value());
+					}
+				}
+
+				return result;
+			} catch (Exception e) {
+				throw new XPathException("Unable to extract value", e);
+			}
+		}
+	}
 }
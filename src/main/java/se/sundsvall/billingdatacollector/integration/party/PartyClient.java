@@ -1,6 +1,7 @@
 package se.sundsvall.billingdatacollector.integration.party;
 
 import generated.se.sundsvall.party.PartyType;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import java.util.Optional;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -17,6 +18,7 @@ import static se.sundsvall.billingdatacollector.integration.party.PartyIntegrati
 	url = "${integration.party.base-url}",
 	dismiss404 = true)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 interface PartyClient {
 
 	@GetMapping(
@@ -4,6 +4,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Component;
 import se.sundsvall.billingdatacollector.service.util.LegalIdUtil;
 import se.sundsvall.dept44.problem.Problem;
@@ -43,12 +44,18 @@ public class PartyIntegration {
 
 	/**
 	 * Fetch legalId by partyId.
+	 * Found legalIds are cached in "legalId" and parties without a legalId in "legalIdNotFound", which is meant to
+	 * expire sooner, see spring.cache.caffeine.spec-overrides.
 	 *
 	 * @param  municipalityId The municipalityId
 	 * @param  partyId        The partyId
-	 *                        param type The stakeholder type
+	 * @param  type           The stakeholder type
 	 * @return                The legalId
 	 */
+	@Caching(cacheable = {
+		@Cacheable(cacheNames = "legalId", unless = "#result == null"),
+		@Cacheable(cacheNames = "legalIdNotFound", unless = "#result != null")
+	})
 	public Optional<String> getLegalId(final String municipalityId, final String partyId, final String type) {
 		return switch (type) {
 			case "ORGANIZATION", "MUNICIPALITY", "ASSOCIATION" -> partyClient.getLegalId(municipalityId, ENTERPRISE, partyId);
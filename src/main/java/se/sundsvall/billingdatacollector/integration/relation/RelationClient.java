@@ -1,6 +1,7 @@
 package se.sundsvall.billingdatacollector.integration.relation;
 
 import generated.se.sundsvall.relation.Relation;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ import static se.sundsvall.billingdatacollector.integration.relation.RelationCon
 	configuration = RelationConfiguration.class,
 	dismiss404 = true)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface RelationClient {
 
 	/**
@@ -2,6 +2,7 @@ package se.sundsvall.billingdatacollector.integration.scb;
 
 import generated.se.sundsvall.scb.Dataset;
 import generated.se.sundsvall.scb.VariablesSelection;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,6 +19,7 @@ import static se.sundsvall.billingdatacollector.integration.scb.ScbConfiguration
 	configuration = ScbConfiguration.class,
 	dismiss404 = true)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface ScbClient {
 
 	@PostMapping(path = "/tables/{id}/data", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
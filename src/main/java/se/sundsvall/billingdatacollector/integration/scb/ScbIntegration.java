@@ -4,30 +4,125 @@ import generated.se.sundsvall.scb.Dataset;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.billingdatacollector.integration.db.KpiRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.KpiEntity;
 import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_NOT_SUPPORTED;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
 import static se.sundsvall.billingdatacollector.integration.scb.ScbMapper.toVariablesSelection;
 
 @Component
 public class ScbIntegration {
+	private static final Logger LOG = LoggerFactory.getLogger(ScbIntegration.class);
 	private static final String CACHE_NAME = "kpiData";
 	private static final String LANGUAGE = "sv";
 	private static final String FORMAT = "json-stat2";
 
 	private final ScbClient client;
+	private final KpiRepository kpiRepository;
+	private final CacheManager cacheManager;
+	private final TransactionTemplate kpiReadTransaction;
+	private final TransactionTemplate kpiWriteTransaction;
 
-	public ScbIntegration(ScbClient client) {
+	public ScbIntegration(ScbClient client, KpiRepository kpiRepository, CacheManager cacheManager, PlatformTransactionManager transactionManager) {
 		this.client = client;
+		this.kpiRepository = kpiRepository;
+		this.cacheManager = cacheManager;
+
+		// The KPI is often looked up during a billing. Neither reading nor storing it joins a transaction of the caller, so
+		// a failure, e.g. a conflicting insert, can't roll back the billing. The read runs without a transaction and the
+		// insert in a short one of its own. A suspended transaction keeps its connection, so the billing doesn't hold a
+		// transaction while looking up the KPI, or every worker would use two pooled connections at a time
+		this.kpiReadTransaction = new TransactionTemplate(transactionManager);
+		this.kpiReadTransaction.setPropagationBehavior(PROPAGATION_NOT_SUPPORTED);
+		this.kpiReadTransaction.setReadOnly(true);
+		this.kpiWriteTransaction = new TransactionTemplate(transactionManager);
+		this.kpiWriteTransaction.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
 	}
 
-	@Cacheable(CACHE_NAME)
+	/**
+	 * Fetch a KPI value. Concurrent calls for the same base year and period share a single lookup.
+	 * A KPI value never changes once published, so it is read from the database if stored there, otherwise it is fetched
+	 * from SCB and stored. This keeps lookups fast after a restart and lets stored values be used while SCB is unavailable.
+	 *
+	 * @param  kpiBase the base year of the KPI
+	 * @param  period  the period to fetch the KPI value for
+	 * @return         the KPI value
+	 */
+	@Cacheable(cacheNames = CACHE_NAME, sync = true)
 	public BigDecimal getKPI(KPIBaseYear kpiBase, YearMonth period) {
+		return findStoredKPI(kpiBase, period)
+			.orElseGet(() -> storeKPI(kpiBase, period, fetchKPI(kpiBase, period)));
+	}
+
+	/**
+	 * Fetch the KPI values for a range of periods. Values are read from the kpiData cache and the database first, the
+	 * remaining periods are fetched from SCB in one request. Every value found is put in the kpiData cache, so that
+	 * following calls to {@link #getKPI(KPIBaseYear, YearMonth)} don't have to fetch them again.
+	 *
+	 * SCB rejects a request for a period it doesn't know, so the current and future months, which can't have been
+	 * published, are never asked for. If SCB still rejects the request, e.g. because last month isn't published yet, the
+	 * periods are fetched one at a time instead, leaving out the ones SCB rejects.
+	 *
+	 * @param  kpiBase    the base year of the KPI
+	 * @param  fromPeriod the first period of the range (inclusive)
+	 * @param  toPeriod   the last period of the range (inclusive)
+	 * @return            the KPI values sorted by period, periods not yet published by SCB are left out
+	 */
+	public NavigableMap<YearMonth, BigDecimal> getKPIs(KPIBaseYear kpiBase, YearMonth fromPeriod, YearMonth toPeriod) {
+		final var cache = ofNullable(cacheManager.getCache(CACHE_NAME));
+		final var periods = Stream.iterate(fromPeriod, period -> !period.isAfter(toPeriod), period -> period.plusMonths(1)).toList();
+		final var result = new TreeMap<YearMonth, BigDecimal>();
+
+		periods.forEach(period -> cache.map(c -> c.get(SimpleKeyGenerator.generateKey(kpiBase, period), BigDecimal.class))
+			.ifPresent(value -> result.put(period, value)));
+
+		if (result.size() < periods.size()) {
+			findStoredKPIs(kpiBase, fromPeriod, toPeriod).forEach(result::putIfAbsent);
+
+			final var lastPublishable = YearMonth.now(ZoneId.systemDefault()).minusMonths(1);
+			final var missing = periods.stream()
+				.filter(period -> !result.containsKey(period))
+				.filter(period -> !period.isAfter(lastPublishable))
+				.toList();
+			if (!missing.isEmpty()) {
+				final var fetched = fetchKPIs(kpiBase, missing);
+				storeKPIs(kpiBase, fetched);
+				result.putAll(fetched);
+			}
+			cache.ifPresent(c -> result.forEach((period, value) -> c.put(SimpleKeyGenerator.generateKey(kpiBase, period), value)));
+		}
+
+		if (result.isEmpty()) {
+			throw Problem.valueOf(NOT_FOUND, "KPI based on %s for periods %s to %s was not found".formatted(kpiBase.name(), fromPeriod, toPeriod));
+		}
+		return result;
+	}
+
+	private BigDecimal fetchKPI(KPIBaseYear kpiBase, YearMonth period) {
 		final var response = client.getKPI(kpiBase.getTableIdReference(), LANGUAGE, FORMAT, toVariablesSelection(period));
 
 		return ofNullable(response)
@@ -37,4 +132,118 @@ public class ScbIntegration {
 			.findFirst()
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, "KPI based on %s for period %s was not found".formatted(kpiBase.name(), period)));
 	}
+
+	private NavigableMap<YearMonth, BigDecimal> fetchKPIs(KPIBaseYear kpiBase, List<YearMonth> periods) {
+		final Dataset response;
+		try {
+			response = client.getKPI(kpiBase.getTableIdReference(), LANGUAGE, FORMAT, toVariablesSelection(periods));
+		} catch (final ThrowableProblem e) {
+			if (!isClientError(e) || periods.size() == 1) {
+				throw e;
+			}
+			LOG.info("SCB rejected the KPI periods {} based on {}, fetching them one at a time: {}", periods, kpiBase.name(), e.getMessage());
+			return fetchKPIsOneAtATime(kpiBase, periods);
+		}
+
+		// A 404 is returned as no response
+		if (response == null && periods.size() > 1) {
+			LOG.info("SCB found no KPI for the periods {} based on {}, fetching them one at a time", periods, kpiBase.name());
+			return fetchKPIsOneAtATime(kpiBase, periods);
+		}
+
+		final var values = ofNullable(response)
+			.map(Dataset::getValue)
+			.orElse(emptyList());
+
+		if (!values.isEmpty() && values.size() != periods.size()) {
+			throw Problem.valueOf(BAD_GATEWAY, "Expected %d KPI values from SCB but got %d".formatted(periods.size(), values.size()));
+		}
+
+		// The values are returned in period order, a null value means that the period isn't published yet
+		final var sortedPeriods = periods.stream().sorted().toList();
+		final var result = new TreeMap<YearMonth, BigDecimal>();
+		for (var i = 0; i < values.size(); i++) {
+			final var index = i;
+			ofNullable(values.get(i))
+				.map(value -> BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_EVEN))
+				.ifPresent(value -> result.put(sortedPeriods.get(index), value));
+		}
+		return result;
+	}
+
+	private NavigableMap<YearMonth, BigDecimal> fetchKPIsOneAtATime(KPIBaseYear kpiBase, List<YearMonth> periods) {
+		final var result = new TreeMap<YearMonth, BigDecimal>();
+		periods.forEach(period -> {
+			try {
+				result.putAll(fetchKPIs(kpiBase, List.of(period)));
+			} catch (final ThrowableProblem e) {
+				if (!isClientError(e)) {
+					throw e;
+				}
+				LOG.info("SCB rejected the KPI period {} based on {}, leaving it out: {}", period, kpiBase.name(), e.getMessage());
+			}
+		});
+		return result;
+	}
+
+	private static boolean isClientError(ThrowableProblem problem) {
+		return ofNullable(problem.getStatus()).map(HttpStatusCode::is4xxClientError).orElse(false);
+	}
+
+	// The database is only a faster and more available source than SCB, so failing to use it is never fatal
+
+	private Optional<BigDecimal> findStoredKPI(KPIBaseYear kpiBase, YearMonth period) {
+		try {
+			return kpiReadTransaction.execute(_ -> kpiRepository.findByBaseYearAndPeriod(kpiBase, period)
+				.map(KpiEntity::getKpiValue));
+		} catch (final Exception e) {
+			LOG.warn("Failed to read stored KPI based on {} for period {}, fetching it from SCB", kpiBase.name(), period, e);
+			return Optional.empty();
+		}
+	}
+
+	private NavigableMap<YearMonth, BigDecimal> findStoredKPIs(KPIBaseYear kpiBase, YearMonth fromPeriod, YearMonth toPeriod) {
+		final var result = new TreeMap<YearMonth, BigDecimal>();
+		try {
+			kpiReadTransaction.execute(_ -> kpiRepository.findByBaseYearAndPeriodBetween(kpiBase, fromPeriod, toPeriod))
+				.forEach(entity -> result.put(entity.getPeriod(), entity.getKpiValue()));
+		} catch (final Exception e) {
+			LOG.warn("Failed to read stored KPIs based on {} for periods {} to {}, fetching them from SCB", kpiBase.name(), fromPeriod, toPeriod, e);
+		}
+		return result;
+	}
+
+	private void storeKPIs(KPIBaseYear kpiBase, NavigableMap<YearMonth, BigDecimal> values) {
+		if (values.isEmpty()) {
+			return;
+		}
+
+		final var entities = new ArrayList<KpiEntity>();
+		values.forEach((period, value) -> entities.add(KpiEntity.builder()
+			.withBaseYear(kpiBase)
+			.withPeriod(period)
+			.withKpiValue(value)
+			.build()));
+
+		try {
+			// Flushed, so that a conflicting insert fails here and not when the transaction commits
+			kpiWriteTransaction.executeWithoutResult(_ -> kpiRepository.saveAllAndFlush(entities));
+		} catch (final Exception e) {
+			LOG.warn("Failed to store KPIs based on {} for periods {}", kpiBase.name(), values.keySet(), e);
+		}
+	}
+
+	private BigDecimal storeKPI(KPIBaseYear kpiBase, YearMonth period, BigDecimal value) {
+		try {
+			kpiWriteTransaction.executeWithoutResult(_ -> kpiRepository.saveAndFlush(KpiEntity.builder()
+				.withBaseYear(kpiBase)
+				.withPeriod(period)
+				.withKpiValue(value)
+				.build()));
+		} catch (final Exception e) {
+			// E.g. another instance stored the same value at the same time
+			LOG.warn("Failed to store KPI based on {} for period {}", kpiBase.name(), period, e);
+		}
+		return value;
+	}
 }
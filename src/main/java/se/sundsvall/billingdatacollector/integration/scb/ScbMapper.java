@@ -4,6 +4,8 @@ import generated.se.sundsvall.scb.VariableSelection;
 import generated.se.sundsvall.scb.VariablesSelection;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
 import se.sundsvall.dept44.problem.Problem;
 
 import static java.util.Optional.ofNullable;
@@ -21,9 +23,20 @@ public final class ScbMapper {
 
 	public static VariablesSelection toVariablesSelection(YearMonth period) {
 		return ofNullable(period)
+			.map(p -> toVariablesSelection(List.of(p)))
+			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "Period must be provided"));
+	}
+
+	/**
+	 * Selects several periods in one request. SCB returns the values in the order of the time dimension, i.e. sorted by
+	 * period, regardless of the order the periods are selected in.
+	 */
+	public static VariablesSelection toVariablesSelection(Collection<YearMonth> periods) {
+		return ofNullable(periods)
+			.filter(p -> !p.isEmpty())
 			.map(p -> new VariablesSelection()
-				.addSelectionItem(new VariableSelection().variableCode(TIME).addValueCodesItem(PERIOD_FORMAT.format(p)))
+				.addSelectionItem(new VariableSelection().variableCode(TIME).valueCodes(p.stream().sorted().map(PERIOD_FORMAT::format).toList()))
 				.addSelectionItem(new VariableSelection().variableCode(CONTENTS_CODE).addValueCodesItem(CONTENTS_CODE_VALUE)))
-			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "Period must be provided"));
+			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "Periods must be provided"));
 	}
 }
@@ -0,0 +1,62 @@
+package se.sundsvall.billingdatacollector.service;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "collector")
+public record CollectorProperties(
+
+	@Valid @DefaultValue Parallel parallel,
+
+	@Valid @DefaultValue Streaming streaming,
+
+	@Valid @DefaultValue WriteBehind writeBehind) {
+
+	/**
+	 * Settings for processing flowInstanceIds in parallel when triggering billing between dates.
+	 *
+	 * @param enabled             if false (default), flowInstanceIds are processed one at a time
+	 * @param openE               max number of concurrent calls towards OpenE
+	 * @param party               max number of concurrent decorations (i.e. calls towards Party)
+	 * @param billingPreprocessor max number of concurrent calls towards BillingPreprocessor
+	 */
+	public record Parallel(
+
+		@DefaultValue("false") boolean enabled,
+
+		@Min(1) @DefaultValue("4") int openE,
+
+		@Min(1) @DefaultValue("4") int party,
+
+		@Min(1) @DefaultValue("4") int billingPreprocessor) {}
+
+	/**
+	 * Settings for streaming flowInstanceIds from OpenE when triggering billing between dates.
+	 *
+	 * @param enabled   if false (default), the whole list of flowInstanceIds is read before any billing is triggered
+	 * @param chunkSize number of flowInstanceIds to check and trigger at a time when streaming
+	 */
+	public record Streaming(
+
+		@DefaultValue("false") boolean enabled,
+
+		@Min(1) @DefaultValue("500") int chunkSize) {}
+
+	/**
+	 * Settings for saving history and fallout when triggering billing between dates.
+	 *
+	 * @param enabled   if false (default), each history or fallout record is saved as soon as the billing record has been
+	 *                  handled
+	 * @param batchSize number of buffered history and fallout records that makes them be saved, in one transaction and in
+	 *                  JDBC batches, before the chunk being billed is done
+	 */
+	public record WriteBehind(
+
+		@DefaultValue("false") boolean enabled,
+
+		@Min(1) @DefaultValue("100") int batchSize) {}
+}
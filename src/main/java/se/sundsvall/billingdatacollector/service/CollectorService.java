@@ -3,22 +3,34 @@ package se.sundsvall.billingdatacollector.service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorClient;
+import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorIntegration;
 import se.sundsvall.billingdatacollector.integration.opene.OpenEIntegration;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 import se.sundsvall.billingdatacollector.service.decorator.BillingRecordDecorator;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.dept44.util.LogUtils;
 
+import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toSet;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
@@ -28,18 +40,46 @@ public class CollectorService {
 
 	private static final Logger LOG = LoggerFactory.getLogger(CollectorService.class);
 
+	// Number of chunks of flowInstanceIds read ahead of the one being billed when streaming
+	private static final int STREAMING_CHUNKS_AHEAD = 4;
+
 	private final DbService dbService;
 	private final OpenEIntegration openEIntegration;
-	private final BillingPreprocessorClient preprocessorIntegration;
+	private final BillingPreprocessorIntegration preprocessorIntegration;
 	private final Map<String, BillingRecordDecorator> decorators;
+	private final boolean parallel;
+	private final int maxInFlight;
+	private final boolean streaming;
+	private final int streamingChunkSize;
+	private final boolean writeBehind;
+	private final int writeBehindBatchSize;
+
+	// Limits the number of concurrent calls towards each integration when running in parallel
+	private final Semaphore openEPermits;
+	private final Semaphore partyPermits;
+	private final Semaphore preprocessorPermits;
 
-	public CollectorService(DbService dbService, OpenEIntegration openEIntegration, BillingPreprocessorClient preProcessorClient, List<BillingRecordDecorator> decorators) {
+	public CollectorService(DbService dbService, OpenEIntegration openEIntegration, BillingPreprocessorIntegration preprocessorIntegration, List<BillingRecordDecorator> decorators,
+		CollectorProperties properties) {
 		this.dbService = dbService;
 		this.openEIntegration = openEIntegration;
-		this.preprocessorIntegration = preProcessorClient;
+		this.preprocessorIntegration = preprocessorIntegration;
 
 		// Get all Decorators and add them to the map with their corresponding familyId.
 		this.decorators = decorators.stream().collect(Collectors.toMap(BillingRecordDecorator::getSupportedFamilyId, Function.identity()));
+
+		final var parallelProperties = properties.parallel();
+		this.parallel = parallelProperties.enabled();
+		this.maxInFlight = Math.max(parallelProperties.openE(), Math.max(parallelProperties.party(), parallelProperties.billingPreprocessor()));
+		this.openEPermits = new Semaphore(parallelProperties.openE(), true);
+		this.partyPermits = new Semaphore(parallelProperties.party(), true);
+		this.preprocessorPermits = new Semaphore(parallelProperties.billingPreprocessor(), true);
+
+		this.streaming = properties.streaming().enabled();
+		this.streamingChunkSize = properties.streaming().chunkSize();
+
+		this.writeBehind = properties.writeBehind().enabled();
+		this.writeBehindBatchSize = properties.writeBehind().batchSize();
 	}
 
 	/**
@@ -48,36 +88,46 @@ public class CollectorService {
 	 * @param flowInstanceId The flowInstanceId to trigger billing for
 	 */
 	public void triggerBilling(String flowInstanceId) {
+		triggerBilling(flowInstanceId, new HistoryWriter(dbService, false, 1));
+	}
 
+	private void triggerBilling(String flowInstanceId, HistoryWriter historyWriter) {
 		LOG.info("Triggering billing for flowInstanceId: {}", sanitizeForLogging(flowInstanceId));
 
-		final var possibleWrapper = openEIntegration.getBillingRecord(flowInstanceId);
+		final var possibleWrapper = withPermit(openEPermits, () -> openEIntegration.getBillingRecord(flowInstanceId));
 
 		// If we have a BillingRecordWrapper, decorate it and send it to the preprocessor
 		possibleWrapper.ifPresentOrElse(
-			this::createBillingRecord,
+			billingRecordWrapper -> createBillingRecord(billingRecordWrapper, historyWriter),
 			() -> LOG.warn("No record found for flowInstanceId: {}", sanitizeForLogging(flowInstanceId)));
 	}
 
-	private void createBillingRecord(BillingRecordWrapper billingRecordWrapper) {
+	private void createBillingRecord(BillingRecordWrapper billingRecordWrapper, HistoryWriter historyWriter) {
 		try {
 			LOG.info("Decorating and sending record to preprocessor for flowInstanceId: {}", billingRecordWrapper.getFlowInstanceId());
 			// Try to decorate
-			decorate(billingRecordWrapper);
+			withPermit(partyPermits, () -> decorate(billingRecordWrapper));
 			// Try to create billing record and save to history
-			final var response = preprocessorIntegration.createBillingRecord(billingRecordWrapper.getMunicipalityId(), billingRecordWrapper.getBillingRecord());
+			final var response = withPermit(preprocessorPermits, () -> preprocessorIntegration.createBillingRecord(billingRecordWrapper.getMunicipalityId(), billingRecordWrapper.getBillingRecord()));
 			LOG.info("Successfully sent record to preprocessor for flowInstanceId: {}", billingRecordWrapper.getFlowInstanceId());
-			dbService.saveToHistory(billingRecordWrapper, response);
+			historyWriter.saveToHistory(billingRecordWrapper, response);
 		} catch (final Exception e) {
 			// Save the BillingRecordWrapper if we failed to decorate or send it to the preprocessor
 			LOG.warn("Failed to create a record for flowInstanceId: {}", billingRecordWrapper.getFlowInstanceId(), e);
-			dbService.saveFailedBillingRecord(billingRecordWrapper, e.getMessage());
+			historyWriter.saveFailedBillingRecord(billingRecordWrapper, e.getMessage());
 		}
 	}
 
 	/**
 	 * Trigger billing for all supported familyIds between the provided dates.
 	 * Will check which flowInstanceIds that have already been processed and only trigger billing for the unprocessed ones.
+	 * If parallel processing is enabled, billing is triggered on virtual threads, limited by the configured number of
+	 * concurrent calls per integration. Already processed flowInstanceIds are filtered out, per familyId, before anything
+	 * is triggered and the remaining ones are triggered once each, in the order received from OpenE. If streaming is
+	 * enabled, the flowInstanceIds are read from the OpenE response as it arrives and are checked and triggered in chunks,
+	 * still triggering each flowInstanceId only once.
+	 * If write-behind is enabled, the history and fallout records are buffered and saved together in batches, when a
+	 * chunk is done or when the buffer is full.
 	 *
 	 * @param  startDate The start date
 	 * @param  endDate   The end date
@@ -87,34 +137,160 @@ public class CollectorService {
 	public List<String> triggerBillingBetweenDates(LocalDate startDate, LocalDate endDate, Set<String> familyIds) {
 		final var supportedFamilyIds = getSupportedFamilyIds(familyIds);
 
-		LOG.info("Triggering billing for familyIds: {}", supportedFamilyIds);
+		LOG.info("Triggering billing for familyIds: {} (parallel: {})", supportedFamilyIds, parallel);
 
+		// Closing the history writer saves what is left in its buffer
+		try (final var historyWriter = new HistoryWriter(dbService, writeBehind, writeBehindBatchSize)) {
+			if (!parallel) {
+				return triggerUnprocessed(supportedFamilyIds, startDate, endDate, historyWriter,
+					(supportedFamilyId, flowInstanceId) -> triggerBilling(supportedFamilyId, flowInstanceId, historyWriter));
+			}
+
+			final var requestId = RequestId.get();
+			final var inFlight = new Semaphore(maxInFlight);
+
+			// Closing the executor waits for all submitted tasks to finish
+			try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				return triggerUnprocessed(supportedFamilyIds, startDate, endDate, historyWriter, (supportedFamilyId, flowInstanceId) -> {
+					inFlight.acquireUninterruptibly();
+					executor.execute(() -> {
+						try {
+							RequestId.init(requestId);
+							triggerBilling(supportedFamilyId, flowInstanceId, historyWriter);
+						} finally {
+							RequestId.reset();
+							inFlight.release();
+						}
+					});
+				});
+			}
+		}
+	}
+
+	private List<String> triggerUnprocessed(Set<String> supportedFamilyIds, LocalDate startDate, LocalDate endDate, HistoryWriter historyWriter, BiConsumer<String, String> trigger) {
 		final List<String> idsToReturn = new ArrayList<>();
 
-		// For each supported familyId, get all flowInstanceIds and trigger billing for them
+		// For each supported familyId, get all flowInstanceIds and trigger billing for the unprocessed ones. The history of
+		// what has been billed is saved after each chunk, so that the next chunk, and later runs, see it
 		supportedFamilyIds
 			.forEach(supportedFamilyId -> {
-				LOG.info("Getting flowInstanceIds for familyId: {}", supportedFamilyId);
-				final var receivedFlowInstanceIds = openEIntegration.getFlowInstanceIds(supportedFamilyId, startDate.toString(), endDate.toString());
+				LOG.info("Getting flowInstanceIds for familyId: {} (streaming: {})", supportedFamilyId, streaming);
 
-				// Trigger billing for the unprocessed flowInstanceIds
-				receivedFlowInstanceIds.forEach(flowInstanceId -> checkIfAlreadyProcessed(supportedFamilyId, flowInstanceId, idsToReturn));
+				if (streaming) {
+					// The history of an earlier chunk may not have been saved yet, so the ids triggered are remembered for the
+					// whole run to not trigger an id twice if it occurs in more than one chunk
+					final Set<String> triggeredFlowInstanceIds = ConcurrentHashMap.newKeySet();
+					streamFlowInstanceIds(supportedFamilyId, startDate, endDate, chunk -> {
+						triggerUnprocessed(supportedFamilyId, chunk, triggeredFlowInstanceIds, trigger, idsToReturn);
+						historyWriter.flush();
+					});
+				} else {
+					final var receivedFlowInstanceIds = withPermit(openEPermits, () -> openEIntegration.getFlowInstanceIds(supportedFamilyId, startDate.toString(), endDate.toString()));
+					triggerUnprocessed(supportedFamilyId, receivedFlowInstanceIds, new HashSet<>(), trigger, idsToReturn);
+					historyWriter.flush();
+				}
 			});
 
 		return idsToReturn;
 	}
 
-	private void checkIfAlreadyProcessed(String supportedFamilyId, String flowInstanceId, List<String> idsToReturn) {
-		// Check if it's already been processed, if so skip it
-		if (!dbService.hasAlreadyBeenProcessed(supportedFamilyId, flowInstanceId)) {
+	/**
+	 * Stream flowInstanceIds from OpenE and hand them over in chunks, so that billing of the first ones can start before
+	 * the whole list has been received. The ids are read on a thread of their own, at most a few chunks ahead, so the
+	 * response is read while the chunks are billed. If reading fails, the chunks already read are still billed and the
+	 * remaining flowInstanceIds are left for a later run. No permit is held while streaming, since billing the chunks
+	 * needs them.
+	 */
+	private void streamFlowInstanceIds(String supportedFamilyId, LocalDate startDate, LocalDate endDate, Consumer<List<String>> chunkConsumer) {
+		final var chunks = new ArrayBlockingQueue<List<String>>(STREAMING_CHUNKS_AHEAD);
+		final var readFailure = new AtomicReference<Exception>();
+		final var requestId = RequestId.get();
+
+		final var reader = Thread.ofVirtual().name("flow-instance-id-reader").start(() -> {
 			try {
-				idsToReturn.add(flowInstanceId);
-				triggerBilling(flowInstanceId);
+				RequestId.init(requestId);
+				final List<String> chunk = new ArrayList<>(streamingChunkSize);
+				openEIntegration.streamFlowInstanceIds(supportedFamilyId, startDate.toString(), endDate.toString(), flowInstanceId -> {
+					chunk.add(flowInstanceId);
+					if (chunk.size() >= streamingChunkSize) {
+						putChunk(chunks, List.copyOf(chunk));
+						chunk.clear();
+					}
+				});
+				if (!chunk.isEmpty()) {
+					putChunk(chunks, List.copyOf(chunk));
+				}
 			} catch (final Exception e) {
-				LOG.warn("Failed to trigger billing for familyId: {} and flowInstanceId: {}", supportedFamilyId, flowInstanceId, e);
+				readFailure.set(e);
+			} finally {
+				RequestId.reset();
+				// An empty chunk marks the end of the stream, unless billing has been aborted and nobody is waiting for it
+				if (!Thread.currentThread().isInterrupted()) {
+					putChunk(chunks, List.of());
+				}
 			}
-		} else {
-			LOG.info("Billing for familyId: {} and flowInstanceId: {} has already been processed", supportedFamilyId, flowInstanceId);
+		});
+
+		try {
+			for (var chunk = takeChunk(chunks); !chunk.isEmpty(); chunk = takeChunk(chunks)) {
+				chunkConsumer.accept(chunk);
+			}
+		} finally {
+			// Stops the reader if billing a chunk failed
+			reader.interrupt();
+		}
+
+		Optional.ofNullable(readFailure.get())
+			.ifPresent(e -> LOG.warn("Failed to read all flowInstanceIds for familyId: {}, the remaining ones are left for a later run", supportedFamilyId, e));
+	}
+
+	private static void putChunk(BlockingQueue<List<String>> chunks, List<String> chunk) {
+		try {
+			chunks.put(chunk);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading flowInstanceIds", e);
+		}
+	}
+
+	private static List<String> takeChunk(BlockingQueue<List<String>> chunks) {
+		try {
+			return chunks.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for flowInstanceIds", e);
+		}
+	}
+
+	private void triggerUnprocessed(String supportedFamilyId, List<String> receivedFlowInstanceIds, Set<String> triggeredFlowInstanceIds, BiConsumer<String, String> trigger,
+		List<String> idsToReturn) {
+
+		// Remove duplicates, already triggered and already processed flowInstanceIds but keep the order received from OpenE
+		final var distinctFlowInstanceIds = new LinkedHashSet<>(receivedFlowInstanceIds).stream()
+			.filter(not(triggeredFlowInstanceIds::contains))
+			.toList();
+		if (distinctFlowInstanceIds.isEmpty()) {
+			return;
+		}
+
+		final var alreadyProcessed = dbService.findAlreadyProcessed(supportedFamilyId, distinctFlowInstanceIds);
+		final var unprocessedFlowInstanceIds = distinctFlowInstanceIds.stream()
+			.filter(not(alreadyProcessed::contains))
+			.toList();
+		LOG.info("Found {} unprocessed and {} already processed flowInstanceIds for familyId: {}", unprocessedFlowInstanceIds.size(), alreadyProcessed.size(), supportedFamilyId);
+
+		unprocessedFlowInstanceIds.forEach(flowInstanceId -> {
+			triggeredFlowInstanceIds.add(flowInstanceId);
+			idsToReturn.add(flowInstanceId);
+			trigger.accept(supportedFamilyId, flowInstanceId);
+		});
+	}
+
+	private void triggerBilling(String supportedFamilyId, String flowInstanceId, HistoryWriter historyWriter) {
+		try {
+			triggerBilling(flowInstanceId, historyWriter);
+		} catch (final Exception e) {
+			LOG.warn("Failed to trigger billing for familyId: {} and flowInstanceId: {}", supportedFamilyId, flowInstanceId, e);
 		}
 	}
 
@@ -160,4 +336,20 @@ public class CollectorService {
 		Optional.ofNullable(decorators.get(recordWrapper.getFamilyId()))
 			.ifPresent(decorator -> decorator.decorate(recordWrapper));
 	}
+
+	private static void withPermit(Semaphore permits, Runnable runnable) {
+		withPermit(permits, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+
+	private static <T> T withPermit(Semaphore permits, Supplier<T> supplier) {
+		permits.acquireUninterruptibly();
+		try {
+			return supplier.get();
+		} finally {
+			permits.release();
+		}
+	}
 }
@@ -2,10 +2,21 @@ package se.sundsvall.billingdatacollector.service;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -14,10 +25,15 @@ import se.sundsvall.billingdatacollector.integration.db.FalloutRepository;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
 import se.sundsvall.billingdatacollector.integration.db.ScheduledJobRepository;
 import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
 import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.HistorySummary;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledJobEntity;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toSet;
 import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
 
 @Service
@@ -26,6 +42,9 @@ public class DbService {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DbService.class);
 
+	// Max number of flowInstanceIds sent in each IN-clause
+	static final int PROCESSED_CHECK_CHUNK_SIZE = 1000;
+
 	private final FalloutRepository falloutRepository;
 	private final HistoryRepository historyRepository;
 	private final ScheduledJobRepository scheduledJobRepository;
@@ -65,11 +84,60 @@ public class DbService {
 		LOG.info("Saved record to history for familyId: {} and flowInstanceId: {}", wrapper.getFamilyId(), wrapper.getFlowInstanceId());
 	}
 
-	public boolean hasAlreadyBeenProcessed(String familyId, String flowInstanceId) {
-		final var existInHistory = historyRepository.existsByFamilyIdAndFlowInstanceId(familyId, flowInstanceId);
-		final var existInFallout = falloutRepository.existsByFamilyIdAndFlowInstanceId(familyId, flowInstanceId);
+	/**
+	 * Save several history and fallout records in one transaction. The records are inserted in JDBC batches, instead of
+	 * one flush and round trip per record. Only the first record per familyId and flowInstanceId is saved, and a fallout
+	 * record is only saved if there isn't one for the same familyId and flowInstanceId already. That is checked with one
+	 * query per familyId, not one per record.
+	 *
+	 * @param historyEntities the history records to save
+	 * @param falloutEntities the fallout records to save
+	 */
+	public void saveAll(List<HistoryEntity> historyEntities, List<FalloutEntity> falloutEntities) {
+		final var history = distinctByFlowInstance(historyEntities, HistoryEntity::getFamilyId, HistoryEntity::getFlowInstanceId);
+		final var distinctFallouts = distinctByFlowInstance(falloutEntities, FalloutEntity::getFamilyId, FalloutEntity::getFlowInstanceId);
+
+		final Map<String, Set<String>> existingFallouts = new HashMap<>();
+		distinctFallouts.stream()
+			.collect(groupingBy(FalloutEntity::getFamilyId, mapping(FalloutEntity::getFlowInstanceId, toSet())))
+			.forEach((familyId, flowInstanceIds) -> existingFallouts.put(familyId, falloutRepository.findFlowInstanceIdsWithBillingRecordWrapper(familyId, flowInstanceIds)));
+		final var fallouts = distinctFallouts.stream()
+			.filter(fallout -> !existingFallouts.get(fallout.getFamilyId()).contains(fallout.getFlowInstanceId()))
+			.toList();
+
+		historyRepository.saveAll(history);
+		falloutRepository.saveAll(fallouts);
+
+		LOG.info("Saved {} record(s) to history and {} fallout record(s)", history.size(), fallouts.size());
+	}
+
+	private static <T> List<T> distinctByFlowInstance(List<T> entities, Function<T, String> familyId, Function<T, String> flowInstanceId) {
+		final Set<List<String>> seen = new HashSet<>();
+		return entities.stream()
+			.filter(entity -> seen.add(Arrays.asList(familyId.apply(entity), flowInstanceId.apply(entity))))
+			.toList();
+	}
+
+	/**
+	 * Find which of the given flowInstanceIds that already have been processed, i.e. exists in either history or fallout,
+	 * for the given familyId. The ids are checked in chunks, two queries per chunk.
+	 *
+	 * @param  familyId        the familyId
+	 * @param  flowInstanceIds the flowInstanceIds to check
+	 * @return                 the flowInstanceIds that already have been processed
+	 */
+	@Transactional(readOnly = true)
+	public Set<String> findAlreadyProcessed(String familyId, Collection<String> flowInstanceIds) {
+		final Set<String> alreadyProcessed = new HashSet<>();
+		final var ids = new ArrayList<>(flowInstanceIds);
+
+		for (var i = 0; i < ids.size(); i += PROCESSED_CHECK_CHUNK_SIZE) {
+			final var chunk = ids.subList(i, Math.min(i + PROCESSED_CHECK_CHUNK_SIZE, ids.size()));
+			alreadyProcessed.addAll(historyRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(familyId, chunk));
+			alreadyProcessed.addAll(falloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(familyId, chunk));
+		}
 
-		return existInHistory || existInFallout;
+		return alreadyProcessed;
 	}
 
 	public void saveScheduledJob(LocalDate startDate, LocalDate endDate) {
@@ -80,22 +148,34 @@ public class DbService {
 		return scheduledJobRepository.findFirstByOrderByFetchedEndDateDesc();
 	}
 
-	public List<HistoryEntity> getHistory(List<String> flowInstanceIds) {
-		return historyRepository.findAllByFlowInstanceIdIn(flowInstanceIds);
+	public List<HistorySummary> getHistory(List<String> flowInstanceIds) {
+		return historyRepository.findSummariesByFlowInstanceIdIn(flowInstanceIds);
 	}
 
-	public List<FalloutEntity> getFallouts(List<String> flowInstanceIds) {
-		return falloutRepository.findAllByFlowInstanceIdIn(flowInstanceIds);
+	public List<FalloutSummary> getFallouts(List<String> flowInstanceIds) {
+		return falloutRepository.findSummariesByFlowInstanceIdIn(flowInstanceIds);
 	}
 
-	public List<FalloutEntity> getUnreportedFallouts() {
-		return falloutRepository.findAllByReportedIsFalse();
+	@Transactional(readOnly = true)
+	public List<String> getMunicipalityIdsWithUnreportedFallouts() {
+		return falloutRepository.findMunicipalityIdsByReportedIsFalse();
 	}
 
-	public void markAllFalloutsAsReported() {
-		final var entities = falloutRepository.findAllByReportedIsFalse();
-		entities.forEach(fallout -> fallout.setReported(true));
+	@Transactional(readOnly = true)
+	public List<FalloutSummary> getUnreportedFallouts(String municipalityId, String afterId, int limit) {
+		return falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc(municipalityId, afterId, Limit.of(limit));
+	}
 
-		falloutRepository.saveAllAndFlush(entities);
+	/**
+	 * Marks exactly the given fallouts as reported.
+	 *
+	 * @param  ids the ids of the reported fallouts
+	 * @return     the number of fallouts that were marked, fallouts already marked as reported are not counted
+	 */
+	public int markFalloutsAsReported(Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		return falloutRepository.markAsReported(ids, OffsetDateTime.now(ZoneId.systemDefault()));
 	}
 }
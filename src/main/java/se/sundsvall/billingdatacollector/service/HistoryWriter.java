@@ -0,0 +1,133 @@
+package se.sundsvall.billingdatacollector.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
+
+/**
+ * Saves the history and fallout records of a billing run. If buffering, the records are kept until the chunk being
+ * billed is done ({@link #flush()}), or until {@code batchSize} records have been collected, and are then saved together,
+ * in one transaction and in JDBC batches. Otherwise each record is saved at once, as before.
+ *
+ * A buffered record has been accepted by BillingPreprocessor but has no history yet. The flowInstanceIds triggered are
+ * remembered for the whole run, so nothing is billed twice within the run, but if the service stops before a flush, the
+ * buffered records, at most about {@code batchSize} of them, are billed again by a later run.
+ *
+ * If saving a batch fails, its records are saved one at a time instead, so that one faulty record doesn't cost the
+ * history of the others. A history record that can't be saved is saved as fallout, just like when saving it at once.
+ */
+class HistoryWriter implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(HistoryWriter.class);
+
+	private final DbService dbService;
+	private final boolean buffering;
+	private final int batchSize;
+
+	// Records waiting to be saved, in the order handed over. Guarded by this
+	private List<Buffered> buffer = new ArrayList<>();
+
+	HistoryWriter(DbService dbService, boolean buffering, int batchSize) {
+		this.dbService = dbService;
+		this.buffering = buffering;
+		this.batchSize = batchSize;
+	}
+
+	void saveToHistory(BillingRecordWrapper wrapper, ResponseEntity<Void> response) {
+		if (!buffering) {
+			dbService.saveToHistory(wrapper, response);
+			return;
+		}
+
+		add(new Buffered(EntityMapper.mapToHistoryEntity(wrapper, getLocation(response)), wrapper));
+	}
+
+	void saveFailedBillingRecord(BillingRecordWrapper wrapper, String message) {
+		if (!buffering) {
+			dbService.saveFailedBillingRecord(wrapper, message);
+			return;
+		}
+
+		add(new Buffered(EntityMapper.mapToBillingRecordFalloutEntity(wrapper, message), wrapper));
+	}
+
+	/**
+	 * Saves the records buffered so far.
+	 */
+	void flush() {
+		save(takeBuffered(0));
+	}
+
+	@Override
+	public void close() {
+		flush();
+	}
+
+	private void add(Buffered buffered) {
+		final List<Buffered> full;
+		synchronized (this) {
+			buffer.add(buffered);
+			full = takeBuffered(batchSize);
+		}
+		save(full);
+	}
+
+	// Takes the buffered records if there are at least minSize of them
+	private synchronized List<Buffered> takeBuffered(int minSize) {
+		if (buffer.isEmpty() || buffer.size() < minSize) {
+			return List.of();
+		}
+		final var taken = buffer;
+		buffer = new ArrayList<>();
+		return taken;
+	}
+
+	private void save(List<Buffered> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		final var history = batch.stream().map(Buffered::entity).filter(HistoryEntity.class::isInstance).map(HistoryEntity.class::cast).toList();
+		final var fallouts = batch.stream().map(Buffered::entity).filter(FalloutEntity.class::isInstance).map(FalloutEntity.class::cast).toList();
+		try {
+			dbService.saveAll(history, fallouts);
+		} catch (final Exception e) {
+			LOG.warn("Saving {} history and {} fallout record(s) failed, saving them one at a time: {}", history.size(), fallouts.size(), e.getMessage());
+			batch.forEach(this::saveOne);
+		}
+	}
+
+	private void saveOne(Buffered buffered) {
+		try {
+			if (buffered.entity() instanceof final HistoryEntity entity) {
+				try {
+					dbService.saveAll(List.of(entity), List.of());
+				} catch (final Exception e) {
+					LOG.warn("Failed to save record to history for flowInstanceId: {}", buffered.wrapper().getFlowInstanceId(), e);
+					dbService.saveFailedBillingRecord(buffered.wrapper(), e.getMessage());
+				}
+			} else if (buffered.entity() instanceof final FalloutEntity entity) {
+				dbService.saveAll(List.of(), List.of(entity));
+			}
+		} catch (final Exception e) {
+			LOG.error("Failed to save fallout record for flowInstanceId: {}", buffered.wrapper().getFlowInstanceId(), e);
+		}
+	}
+
+	private static String getLocation(ResponseEntity<Void> response) {
+		return Optional.of(response.getHeaders())
+			.map(HttpHeaders::getLocation)
+			.map(URI::toString)
+			.orElse(null);
+	}
+
+	private record Buffered(Object entity, BillingRecordWrapper wrapper) {}
+}
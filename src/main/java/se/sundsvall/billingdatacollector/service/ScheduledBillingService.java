@@ -1,6 +1,8 @@
 package se.sundsvall.billingdatacollector.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +10,7 @@ import java.util.Set;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -253,7 +256,53 @@ public class ScheduledBillingService {
 			.ifPresent(repository::delete);
 	}
 
-	public List<ScheduledBillingEntity> getDueScheduledBillings() {
-		return repository.findAllByPausedFalseAndNextScheduledBillingLessThanEqual(LocalDate.now(ZoneId.systemDefault()));
+	@Transactional(readOnly = true)
+	public long countDueScheduledBillings(LocalDate date) {
+		return repository.countByPausedFalseAndNextScheduledBillingLessThanEqual(date);
+	}
+
+	/**
+	 * Returns one page of the scheduled billings that are due on the given
+	 * date, ordered by id. Pages are keyed on the id of the last row of the
+	 * previous page rather than an offset, so rows that are advanced or
+	 * deleted while paging don't make the next page skip any rows.
+	 *
+	 * @param  date     the date the scheduled billings should be due on
+	 * @param  afterId  id of the last row of the previous page, or null for
+	 *                  the first page
+	 * @param  pageSize max number of rows to return
+	 * @return          the page, empty when there are no more due rows
+	 */
+	@Transactional(readOnly = true)
+	public List<ScheduledBillingEntity> getDueScheduledBillings(LocalDate date, String afterId, int pageSize) {
+		return repository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(
+			date, Optional.ofNullable(afterId).orElse(""), Limit.of(pageSize));
+	}
+
+	/**
+	 * Claims up to {@code limit} of the scheduled billings that are due on the
+	 * given date for the calling instance, and returns them. Rows claimed by
+	 * another instance are skipped until their claim has expired, and rows
+	 * being claimed concurrently are skipped as well, so two instances never
+	 * get the same row.
+	 *
+	 * @param  date      the date the scheduled billings should be due on
+	 * @param  claimedBy id of the calling instance
+	 * @param  lease     how long the claim is valid
+	 * @param  limit     max number of rows to claim
+	 * @return           the claimed rows, empty when there are no more due
+	 *                   rows to claim
+	 */
+	public List<ScheduledBillingEntity> claimDueScheduledBillings(LocalDate date, String claimedBy, Duration lease, int limit) {
+		final var now = OffsetDateTime.now(ZoneId.systemDefault());
+		final var ids = repository.findClaimableIds(date, now.toLocalDateTime(), limit);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+
+		repository.claim(ids, claimedBy, now.plus(lease));
+		LOG.info("Claimed {} due scheduled billing(s) for {}", ids.size(), sanitizeForLogging(claimedBy));
+
+		return repository.findAllById(ids);
 	}
 }
@@ -1,11 +1,23 @@
 package se.sundsvall.billingdatacollector.service.scheduling;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
 import se.sundsvall.billingdatacollector.service.ScheduledBillingService;
@@ -14,11 +26,13 @@ import se.sundsvall.billingdatacollector.service.source.BillingResult.Failed;
 import se.sundsvall.billingdatacollector.service.source.BillingResult.Sent;
 import se.sundsvall.billingdatacollector.service.source.BillingResult.Skipped;
 import se.sundsvall.billingdatacollector.service.source.BillingSourceHandler;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.dept44.scheduling.Dept44Scheduled;
 import se.sundsvall.dept44.scheduling.health.Dept44HealthUtility;
 
 import static java.time.OffsetDateTime.now;
 import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.groupingBy;
 import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
 
 /**
@@ -27,32 +41,95 @@ import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
  * (e.g. {@code "contract"}). The handler performs the actual billing and
  * returns a {@link BillingResult} that tells this scheduler whether to
  * advance the row, delete it, or report a failure.
+ *
+ * <p>
+ * The due rows are read and processed one page at a time, keyed on id, so
+ * memory use doesn't grow with the number of rows falling due on the same
+ * date. Every row is saved in a transaction of its own.
+ *
+ * <p>
+ * If parallel processing is enabled, the due rows are processed on virtual
+ * threads by at most {@code scheduler.billing.parallel.workers} workers at a
+ * time, one page at a time. The outcome of every row is still tallied, so
+ * the tick health accounting is the same as when processing the rows one at
+ * a time.
+ *
+ * <p>
+ * If claiming is enabled, each page is claimed for this instance before it
+ * is processed, so several instances can share the due rows of a tick
+ * without billing any row twice. The tick is then run by every instance,
+ * without the ShedLock lock on the job name.
+ *
+ * <p>
+ * Before a page is processed, each handler is given the chance to start
+ * fetching the source records of its rows ahead of time (see
+ * {@link BillingSourceHandler#prefetch}). Whatever was prefetched but not
+ * used is dropped at the end of the tick.
  */
 @Service
 public class BillingScheduler {
 
 	private static final Logger LOG = LoggerFactory.getLogger(BillingScheduler.class);
 
+	// Only one of the entry points is scheduled, depending on whether claiming is enabled
+	static final String LOCKED_CRON = "#{${scheduler.billing.claim.enabled:false} ? '-' : '${scheduler.billing.cron}'}";
+	static final String CLAIMING_CRON = "#{${scheduler.billing.claim.enabled:false} ? '${scheduler.billing.cron}' : '-'}";
+
 	@Value("${scheduler.billing.name}")
 	private String jobName;
 
 	private final Dept44HealthUtility dept44HealthUtility;
 	private final ScheduledBillingService scheduledBillingService;
 	private final Map<String, BillingSourceHandler> billingSourceHandlerMap;
+	private final int pageSize;
+	private final Duration maximumExecutionTime;
+	private final boolean parallel;
+	private final int workers;
+	private final boolean claiming;
+	private final String instanceId;
+	private final Duration lease;
 
 	public BillingScheduler(final Dept44HealthUtility dept44HealthUtility,
 		final ScheduledBillingService scheduledBillingService,
-		final Map<String, BillingSourceHandler> billingSourceHandlerMap) {
+		final Map<String, BillingSourceHandler> billingSourceHandlerMap,
+		final BillingSchedulerProperties properties) {
 		this.dept44HealthUtility = dept44HealthUtility;
 		this.scheduledBillingService = scheduledBillingService;
 		this.billingSourceHandlerMap = billingSourceHandlerMap;
+		this.pageSize = properties.pageSize();
+		this.maximumExecutionTime = properties.maximumExecutionTime();
+		this.parallel = properties.parallel().enabled();
+		this.workers = properties.parallel().workers();
+		this.claiming = properties.claim().enabled();
+		this.instanceId = Optional.ofNullable(properties.claim().instanceId())
+			.filter(StringUtils::isNotBlank)
+			.orElseGet(() -> UUID.randomUUID().toString());
+		this.lease = properties.claim().lease();
 	}
 
-	@Dept44Scheduled(cron = "${scheduler.billing.cron}",
+	/**
+	 * Runs the tick when claiming is disabled. The tick is locked on the job name, so only one instance runs it.
+	 */
+	@Dept44Scheduled(cron = LOCKED_CRON,
 		name = "${scheduler.billing.name}",
 		lockAtMostFor = "${scheduler.billing.shedlock-lock-at-most-for}",
 		maximumExecutionTime = "${scheduler.billing.maximum-execution-time}")
 	public void createBillingRecords() {
+		runTick();
+	}
+
+	/**
+	 * Runs the tick when claiming is enabled. The tick is not locked, since the claims keep the instances from billing
+	 * the same rows, so every instance takes part. The tick doesn't run through the dept44 scheduling aspect, so the
+	 * health indicator of the job is only set by the tick itself: unhealthy when a row fails or the tick runs past the
+	 * maximum execution time, healthy again after a tick without either. A tick that hangs in a call is not detected.
+	 */
+	@Scheduled(cron = CLAIMING_CRON)
+	public void createClaimedBillingRecords() {
+		runTick();
+	}
+
+	private void runTick() {
 		// A matching "completed" line is logged at the end of every tick. If a
 		// "started" line ever appears without its "completed" counterpart, the
 		// tick hung (e.g. an integration call without a read timeout blocking
@@ -60,21 +137,48 @@ public class BillingScheduler {
 		// indicator gets stuck unhealthy until a restart, since the scheduling
 		// aspect can only reset the indicator on a tick that actually returns.
 		final var startedAt = now(ZoneId.systemDefault());
+		// Without the scheduling aspect, the claiming tick enforces its maximum execution time itself
+		final var deadline = startedAt.plus(maximumExecutionTime);
+		var timedOut = false;
 		var sent = 0;
 		var skipped = 0;
 		var failed = 0;
 		var processed = 0;
+		final Set<BillingSourceHandler> prefetchingHandlers = new HashSet<>();
 		try {
-			final var dueBillings = scheduledBillingService.getDueScheduledBillings();
-			processed = dueBillings.size();
-			LOG.info("Billing tick started — {} due scheduled billing(s) to process", processed);
+			// The date is fixed for the whole tick so that paging sees a stable set of due rows
+			final var today = LocalDate.now(ZoneId.systemDefault());
+			LOG.info("Billing tick started — {} due scheduled billing(s) to process (page size: {}, parallel: {}, claiming: {})",
+				scheduledBillingService.countDueScheduledBillings(today), pageSize, parallel, claiming);
 
-			for (final var entity : dueBillings) {
-				switch (processEntity(entity)) {
-					case SENT -> sent++;
-					case SKIPPED -> skipped++;
-					case FAILED -> failed++;
+			String lastId = null;
+			List<ScheduledBillingEntity> page;
+			do {
+				// Claimed rows are no longer claimable, so there is no need to page past them
+				page = claiming
+					? scheduledBillingService.claimDueScheduledBillings(today, instanceId, lease, pageSize)
+					: scheduledBillingService.getDueScheduledBillings(today, lastId, pageSize);
+				processed += page.size();
+				prefetch(page, prefetchingHandlers);
+
+				final var outcomes = parallel ? processConcurrently(page) : page.stream().map(this::processEntity).toList();
+				for (final var outcome : outcomes) {
+					switch (outcome) {
+						case SENT -> sent++;
+						case SKIPPED -> skipped++;
+						case FAILED -> failed++;
+					}
+				}
+				if (!page.isEmpty()) {
+					lastId = page.getLast().getId();
 				}
+				// The deadline is checked between pages, so no rows are claimed that won't be processed
+				timedOut = claiming && page.size() == pageSize && !now(ZoneId.systemDefault()).isBefore(deadline);
+			} while (page.size() == pageSize && !timedOut);
+
+			if (timedOut) {
+				markUnhealthy("Billing tick stopped after exceeding the maximum execution time of %s, the remaining due rows are left to the next tick"
+					.formatted(maximumExecutionTime));
 			}
 		} catch (final Error e) {
 			// The dept44 scheduling aspect only catches Exception, and it has
@@ -85,10 +189,12 @@ public class BillingScheduler {
 			// unhealthy, then rethrow so the platform still observes the Error.
 			markUnhealthy("Fatal error during billing tick: " + e);
 			throw e;
+		} finally {
+			prefetchingHandlers.forEach(BillingSourceHandler::clearPrefetched);
 		}
 
 		final var durationMs = Duration.between(startedAt, now(ZoneId.systemDefault())).toMillis();
-		if (failed == 0) {
+		if (failed == 0 && !timedOut) {
 			// Heal the indicator explicitly instead of relying solely on the
 			// dept44 scheduling aspect's finally-block. The aspect only resets
 			// the indicator when this method runs through the Spring proxy; an
@@ -108,6 +214,72 @@ public class BillingScheduler {
 		}
 	}
 
+	/**
+	 * Hands the entities of the page to their handlers for prefetching, grouped
+	 * by source. Entities without a handler are left to processEntity to
+	 * report. Prefetching is only an optimization, so a failure is logged and
+	 * the handler fetches what it needs when processing the entities instead.
+	 */
+	private void prefetch(List<ScheduledBillingEntity> page, Set<BillingSourceHandler> prefetchingHandlers) {
+		page.stream()
+			.collect(groupingBy(entity -> entity.getSource().name().toLowerCase()))
+			.forEach((sourceKey, entities) -> Optional.ofNullable(billingSourceHandlerMap.get(sourceKey))
+				.ifPresent(handler -> {
+					prefetchingHandlers.add(handler);
+					try {
+						handler.prefetch(entities);
+					} catch (final Exception e) {
+						LOG.warn("Prefetching for source '{}' failed, continuing without it", sourceKey, e);
+					}
+				}));
+	}
+
+	/**
+	 * Processes the entities on virtual threads, at most {@code workers} at a
+	 * time, and returns the outcome of each once all of them are done. An
+	 * unexpected exception in a worker (e.g. when saving the entity) counts as
+	 * a failure, while an Error is rethrown so the tick is marked unhealthy.
+	 */
+	private List<Outcome> processConcurrently(List<ScheduledBillingEntity> dueBillings) {
+		final var requestId = RequestId.get();
+		final var workerPermits = new Semaphore(workers);
+		final var futures = new ArrayList<Future<Outcome>>(dueBillings.size());
+
+		// Closing the executor waits for all submitted tasks to finish
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (final var entity : dueBillings) {
+				workerPermits.acquireUninterruptibly();
+				futures.add(executor.submit(() -> {
+					try {
+						RequestId.init(requestId);
+						return processEntity(entity);
+					} finally {
+						RequestId.reset();
+						workerPermits.release();
+					}
+				}));
+			}
+		}
+
+		return futures.stream()
+			.map(this::toOutcome)
+			.toList();
+	}
+
+	private Outcome toOutcome(Future<Outcome> future) {
+		if (future.state() == Future.State.SUCCESS) {
+			return future.resultNow();
+		}
+
+		final var cause = future.exceptionNow();
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		LOG.error("Unexpected exception when processing scheduled billing", cause);
+		markUnhealthy("Unexpected error during billing tick: " + cause);
+		return Outcome.FAILED;
+	}
+
 	private Outcome processEntity(ScheduledBillingEntity entity) {
 		final var source = entity.getSource().name();
 		final var sourceKey = source.toLowerCase();
@@ -160,6 +332,8 @@ public class BillingScheduler {
 
 	private void handleSent(ScheduledBillingEntity entity, Sent sent) {
 		entity.setLastBilled(now(ZoneId.systemDefault()));
+		entity.setClaimedBy(null);
+		entity.setClaimedUntil(null);
 		if (isNull(sent.nextSlot())) {
 			// Last billing for this contract — drop the schedule.
 			scheduledBillingService.deleteScheduledBillingEntity(entity);
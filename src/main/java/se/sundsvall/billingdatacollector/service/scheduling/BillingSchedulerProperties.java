@@ -0,0 +1,64 @@
+package se.sundsvall.billingdatacollector.service.scheduling;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the scheduled billing tick. The cron expression, name and lock settings of the tick are read directly
+ * by the scheduling annotation.
+ *
+ * @param pageSize             number of due scheduled billings read and processed at a time
+ * @param maximumExecutionTime how long a tick may run. When claiming, no more pages are claimed after this, and the
+ *                             tick is reported unhealthy. Otherwise it is enforced by the scheduling annotation
+ * @param parallel             settings for processing due scheduled billings concurrently
+ * @param claim                settings for sharing the due scheduled billings between several instances
+ */
+@Validated
+@ConfigurationProperties(prefix = "scheduler.billing")
+public record BillingSchedulerProperties(
+
+	@Min(1) @DefaultValue("500") int pageSize,
+
+	@NotNull @DefaultValue("PT30M") Duration maximumExecutionTime,
+
+	@Valid @DefaultValue Parallel parallel,
+
+	@Valid @DefaultValue Claim claim) {
+
+	/**
+	 * Settings for processing due scheduled billings concurrently. The number of concurrent calls towards each
+	 * downstream service (Contract, SCB, Party, BillingPreprocessor and Relation) is limited by the resilience4j
+	 * bulkhead of the corresponding client.
+	 *
+	 * @param enabled if false (default), due scheduled billings are processed one at a time
+	 * @param workers max number of scheduled billings processed at the same time
+	 */
+	public record Parallel(
+
+		@DefaultValue("false") boolean enabled,
+
+		@Min(1) @DefaultValue("8") int workers) {}
+
+	/**
+	 * Settings for sharing the due scheduled billings between several instances. Each instance claims a page of due rows
+	 * at a time, using {@code SELECT ... FOR UPDATE SKIP LOCKED}, so no row is billed by more than one instance. The tick
+	 * is then not locked on the job name, so every instance takes part in it.
+	 *
+	 * @param enabled    if false (default), the instance running the tick processes all due rows
+	 * @param instanceId id of this instance, stored on the rows it claims. A random id is used if not set
+	 * @param lease      how long a claim is valid. A row that isn't advanced, e.g. because the billing failed, can be
+	 *                   claimed again when its claim has expired
+	 */
+	public record Claim(
+
+		@DefaultValue("false") boolean enabled,
+
+		String instanceId,
+
+		@DefaultValue("PT30M") Duration lease) {}
+}
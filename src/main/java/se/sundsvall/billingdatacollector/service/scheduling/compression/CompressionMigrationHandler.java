@@ -0,0 +1,89 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.billingdatacollector.integration.db.FalloutRepository;
+import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.StoredText;
+
+import static se.sundsvall.billingdatacollector.integration.db.converter.CompressedText.compress;
+
+/**
+ * Compresses the text columns of rows stored before compression was enabled, one batch at a time. The rows are read
+ * with native queries and rewritten with one JDBC batch update per batch, so the entities, and their modified
+ * timestamps, are left as they are.
+ */
+@Component
+public class CompressionMigrationHandler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CompressionMigrationHandler.class);
+
+	/**
+	 * The columns that are stored compressed.
+	 */
+	public enum CompressedColumn {
+		HISTORY_BILLING_RECORD_WRAPPER("UPDATE history SET billing_record_wrapper = ? WHERE id = ?"),
+		FALLOUT_BILLING_RECORD_WRAPPER("UPDATE fallout SET billing_record_wrapper = ? WHERE id = ?"),
+		FALLOUT_OPENE_INSTANCE("UPDATE fallout SET opene_instance = ? WHERE id = ?");
+
+		private final String updateSql;
+
+		CompressedColumn(String updateSql) {
+			this.updateSql = updateSql;
+		}
+
+		/**
+		 * @return the statement replacing the stored value of one row, with the value and the id as parameters
+		 */
+		public String getUpdateSql() {
+			return updateSql;
+		}
+	}
+
+	private final HistoryRepository historyRepository;
+	private final FalloutRepository falloutRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	public CompressionMigrationHandler(HistoryRepository historyRepository, FalloutRepository falloutRepository, JdbcTemplate jdbcTemplate) {
+		this.historyRepository = historyRepository;
+		this.falloutRepository = falloutRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Compresses the next batch of uncompressed values of the given column.
+	 *
+	 * @param  column    the column to compress
+	 * @param  lastId    the id of the last row of the previous batch, or an empty string for the first batch
+	 * @param  batchSize the maximum number of rows to compress
+	 * @return           the id of the last compressed row, or empty when there is nothing left to compress
+	 */
+	@Transactional
+	public Optional<String> compressNextBatch(CompressedColumn column, String lastId, int batchSize) {
+		final var batch = findUncompressed(column, lastId, batchSize);
+		if (batch.isEmpty()) {
+			return Optional.empty();
+		}
+
+		jdbcTemplate.batchUpdate(column.getUpdateSql(), batch.stream()
+			.map(row -> new Object[] {
+				compress(row.getContent()), row.getId()
+			})
+			.toList());
+		LOG.info("Compressed {} value(s) of {}", batch.size(), column);
+		return Optional.of(batch.getLast().getId());
+	}
+
+	private List<StoredText> findUncompressed(CompressedColumn column, String lastId, int batchSize) {
+		return switch (column) {
+			case HISTORY_BILLING_RECORD_WRAPPER -> historyRepository.findUncompressedBillingRecordWrappers(lastId, batchSize);
+			case FALLOUT_BILLING_RECORD_WRAPPER -> falloutRepository.findUncompressedBillingRecordWrappers(lastId, batchSize);
+			case FALLOUT_OPENE_INSTANCE -> falloutRepository.findUncompressedOpenEInstances(lastId, batchSize);
+		};
+	}
+}
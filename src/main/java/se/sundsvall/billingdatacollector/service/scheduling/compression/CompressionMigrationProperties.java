@@ -0,0 +1,18 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for compressing the text columns stored before compression was enabled. The cron expression, name and lock
+ * settings of the job are read directly by the scheduling annotation.
+ *
+ * @param batchSize number of rows read and compressed in each transaction
+ */
+@Validated
+@ConfigurationProperties(prefix = "scheduler.compression-migration")
+public record CompressionMigrationProperties(
+
+	@Min(1) @DefaultValue("200") int batchSize) {}
@@ -0,0 +1,48 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.dept44.scheduling.Dept44Scheduled;
+
+@Service
+public class CompressionMigrationScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CompressionMigrationScheduler.class);
+
+	private final CompressionMigrationHandler compressionMigrationHandler;
+	private final CompressionMigrationProperties properties;
+	private final boolean compressionEnabled;
+
+	public CompressionMigrationScheduler(final CompressionMigrationHandler compressionMigrationHandler, final CompressionMigrationProperties properties,
+		@Value("${storage.compression.enabled:false}") final boolean compressionEnabled) {
+		this.compressionMigrationHandler = compressionMigrationHandler;
+		this.properties = properties;
+		this.compressionEnabled = compressionEnabled;
+	}
+
+	@Dept44Scheduled(
+		cron = "${scheduler.compression-migration.cron:-}",
+		name = "${scheduler.compression-migration.name}",
+		lockAtMostFor = "${scheduler.compression-migration.lock-at-most-for}",
+		maximumExecutionTime = "${scheduler.compression-migration.maximum-execution-time}")
+	public void compressStoredValues() {
+		if (!compressionEnabled) {
+			LOG.info("Storage compression is not enabled, skipping compression migration job.");
+			return;
+		}
+
+		LOG.info("Scheduled task is starting compression migration job.");
+		RequestId.init();
+		for (final var column : CompressedColumn.values()) {
+			Optional<String> lastId = Optional.of("");
+			while (lastId.isPresent()) {
+				lastId = compressionMigrationHandler.compressNextBatch(column, lastId.get(), properties.batchSize());
+			}
+		}
+	}
+}
@@ -6,13 +6,15 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
 import se.sundsvall.billingdatacollector.integration.messaging.FalloutMessageProperties;
 import se.sundsvall.billingdatacollector.integration.messaging.MessagingClient;
 import se.sundsvall.billingdatacollector.model.Fallout;
 import se.sundsvall.billingdatacollector.service.DbService;
+import se.sundsvall.dept44.problem.Problem;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 @Component
@@ -33,33 +35,62 @@ public class FalloutJobHandler {
 		this.dbService = dbService;
 	}
 
-	@Transactional
+	/**
+	 * Reports all unreported fallouts by email, one municipality at a time and at most maxRowsPerMail fallouts per email.
+	 * The fallouts of an email are marked as reported as soon as it has been sent, so only one page of fallouts is held
+	 * in memory and a failing email leaves only its own, and the following, fallouts of the municipality unreported. The
+	 * other municipalities are still reported, after which the job fails.
+	 */
 	public void handleFallout() {
 		if (isBlank(properties.sender()) || isEmpty(properties.recipients())) {
 			LOG.warn("Report of billing errors will not be sent as sender or receiver has not been defined in properties.");
 			return;
 		}
 
-		// Get all unreported fallouts and map them to a Fallout list
-		final var unreportedFallouts = dbService.getUnreportedFallouts()
-			.stream()
-			.map(falloutEntity -> new Fallout(falloutEntity.getFamilyId(), falloutEntity.getFlowInstanceId(), falloutEntity.getMunicipalityId(), falloutEntity.getRequestId()))
-			.collect(Collectors.toCollection(ArrayList::new));  // We want a mutable list
-
-		// Send email if there are any unreported fallouts
-		if (isEmpty(unreportedFallouts)) {
+		final var municipalityIds = dbService.getMunicipalityIdsWithUnreportedFallouts();
+		if (isEmpty(municipalityIds)) {
 			LOG.info("No unreported fallouts found.");
-		} else {
-			LOG.info("Found {} unreported fallouts, will send email", unreportedFallouts.size());
-			composeAndSendMail(unreportedFallouts);
-			// Mark all fallouts as reported
-			dbService.markAllFalloutsAsReported();
+			return;
 		}
+
+		// A municipality that can't be reported doesn't stop the others, but the job still fails so that it's noticed
+		final List<String> failedMunicipalityIds = new ArrayList<>();
+		municipalityIds.forEach(municipalityId -> {
+			try {
+				reportFallouts(municipalityId);
+			} catch (final Exception e) {
+				LOG.error("Failed to report fallouts for municipality {}, continuing with the next one", municipalityId, e);
+				failedMunicipalityIds.add(municipalityId);
+			}
+		});
+
+		if (!failedMunicipalityIds.isEmpty()) {
+			throw Problem.valueOf(INTERNAL_SERVER_ERROR, "Failed to report fallouts for municipalities: " + failedMunicipalityIds);
+		}
+	}
+
+	private void reportFallouts(String municipalityId) {
+		var lastId = "";
+		List<FalloutSummary> page;
+		do {
+			page = dbService.getUnreportedFallouts(municipalityId, lastId, properties.maxRowsPerMail());
+			if (!page.isEmpty()) {
+				LOG.info("Found {} unreported fallouts for municipality {}, will send email", page.size(), municipalityId);
+				composeAndSendMail(municipalityId, page);
+				final var marked = dbService.markFalloutsAsReported(page.stream().map(FalloutSummary::getId).toList());
+				if (marked != page.size()) {
+					LOG.warn("Sent {} fallouts for municipality {} but only {} were still unreported", page.size(), municipalityId, marked);
+				}
+				lastId = page.getLast().getId();
+			}
+		} while (page.size() == properties.maxRowsPerMail());
 	}
 
-	private void composeAndSendMail(List<Fallout> fallouts) {
-		final var emailBatchRequest = falloutMapper.createEmailBatchRequest(fallouts);
+	private void composeAndSendMail(String municipalityId, List<FalloutSummary> page) {
+		final var fallouts = page.stream()
+			.map(summary -> new Fallout(summary.getFamilyId(), summary.getFlowInstanceId(), summary.getMunicipalityId(), summary.getRequestId()))
+			.collect(Collectors.toCollection(ArrayList::new));  // We want a mutable list
 
-		messagingClient.sendEmailBatch(fallouts.getFirst().municipalityId(), emailBatchRequest);
+		messagingClient.sendEmailBatch(municipalityId, falloutMapper.createEmailBatchRequest(fallouts));
 	}
 }
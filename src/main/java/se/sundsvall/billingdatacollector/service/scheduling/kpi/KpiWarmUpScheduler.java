@@ -0,0 +1,55 @@
+package se.sundsvall.billingdatacollector.service.scheduling.kpi;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.billingdatacollector.integration.scb.ScbIntegration;
+import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+
+import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getIndexPeriod;
+
+/**
+ * Loads the KPI values needed by the coming billing runs, i.e. october of last year for every base year, into the
+ * kpiData cache, so that billing indexed contracts doesn't have to wait for SCB.
+ *
+ * The cache is local to each instance, so the warm-up isn't locked with ShedLock like the other schedulers.
+ */
+@Component
+public class KpiWarmUpScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KpiWarmUpScheduler.class);
+
+	private final ScbIntegration scbIntegration;
+	private final boolean onStartup;
+
+	public KpiWarmUpScheduler(ScbIntegration scbIntegration, @Value("${scheduler.kpi-warm-up.on-startup}") boolean onStartup) {
+		this.scbIntegration = scbIntegration;
+		this.onStartup = onStartup;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	void warmUpOnStartup() {
+		if (onStartup) {
+			warmUp();
+		}
+	}
+
+	@Scheduled(cron = "${scheduler.kpi-warm-up.cron:-}")
+	void warmUp() {
+		final var period = getIndexPeriod(LocalDate.now(ZoneId.systemDefault()));
+		for (final var kpiBase : KPIBaseYear.values()) {
+			try {
+				LOG.info("Loaded KPI based on {} for period {}: {}", kpiBase, period, scbIntegration.getKPI(kpiBase, period));
+			} catch (final Exception e) {
+				// Not fatal, the value is fetched when first needed instead
+				LOG.warn("Failed to load KPI based on {} for period {}", kpiBase, period, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import generated.se.sundsvall.relation.Relation;
+import generated.se.sundsvall.relation.ResourceIdentifier;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
+import se.sundsvall.billingdatacollector.integration.relation.RelationClient;
+import se.sundsvall.dept44.scheduling.health.Dept44HealthUtility;
+
+import static org.apache.commons.lang3.StringUtils.abbreviate;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Creates the relations waiting in the relation outbox. The relation service has no endpoint for creating several
+ * relations at once, so the due relations are read a batch at a time and created one by one. A relation that is
+ * created is removed from the outbox, one that fails is kept and retried with an exponential backoff, so no relation is
+ * lost because the relation service is unavailable for a while.
+ *
+ * A relation that still fails after the max number of attempts, or that has no billing record id, is parked instead. A
+ * parked relation is no longer retried, and the job is reported unhealthy for as long as there are parked relations.
+ */
+@Component
+public class RelationOutboxHandler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RelationOutboxHandler.class);
+	private static final String CONTRACT = "contract";
+	private static final String BILLING_PREPROCESSOR_SERVICE = "billingpreprocessor";
+	private static final int MAX_ERROR_LENGTH = 1024;
+
+	private final RelationOutboxRepository relationOutboxRepository;
+	private final RelationClient relationClient;
+	private final RelationOutboxProperties properties;
+	private final Dept44HealthUtility dept44HealthUtility;
+
+	@Value("${scheduler.relation-outbox.name}")
+	private String jobName;
+
+	public RelationOutboxHandler(RelationOutboxRepository relationOutboxRepository, RelationClient relationClient, RelationOutboxProperties properties,
+		Dept44HealthUtility dept44HealthUtility) {
+		this.relationOutboxRepository = relationOutboxRepository;
+		this.relationClient = relationClient;
+		this.properties = properties;
+		this.dept44HealthUtility = dept44HealthUtility;
+	}
+
+	/**
+	 * Creates all relations that are due. Relations that fail are given a later attempt, so they are not read again by
+	 * the same run. Reports the job unhealthy if there are parked relations when done.
+	 */
+	public void createDueRelations() {
+		final var now = OffsetDateTime.now(ZoneId.systemDefault());
+		List<RelationOutboxEntity> batch;
+		do {
+			batch = relationOutboxRepository.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(now, Limit.of(properties.batchSize()));
+			createRelations(batch);
+		} while (batch.size() == properties.batchSize());
+
+		reportParked();
+	}
+
+	private void createRelations(List<RelationOutboxEntity> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		LOG.info("Creating {} relation(s) from the relation outbox", batch.size());
+
+		final var created = new ArrayList<String>();
+		final var failed = new ArrayList<RelationOutboxEntity>();
+		for (final var entity : batch) {
+			if (isBlank(entity.getBillingRecordId())) {
+				// Retrying can't help, the relation service rejects a relation without a target
+				LOG.error("Parking relation for contract {}, it has no billing record id", entity.getContractId());
+				entity.setParked(true);
+				entity.setLastError("No billing record id");
+				failed.add(entity);
+				continue;
+			}
+
+			try {
+				relationClient.createRelation(entity.getMunicipalityId(), toRelation(entity));
+				created.add(entity.getId());
+			} catch (final Exception e) {
+				final var attempts = entity.getAttempts() + 1;
+				entity.setAttempts(attempts);
+				entity.setLastError(abbreviate(e.getMessage(), MAX_ERROR_LENGTH));
+				if (attempts >= properties.maxAttempts()) {
+					LOG.error("Creating relation for contract {} failed on attempt {}, parking it: {}", entity.getContractId(), attempts, e.getMessage());
+					entity.setParked(true);
+				} else {
+					final var backoff = backoff(attempts);
+					LOG.warn("Creating relation for contract {} failed on attempt {}, retrying in {}: {}", entity.getContractId(), attempts, backoff, e.getMessage());
+					entity.setNextAttemptAt(OffsetDateTime.now(ZoneId.systemDefault()).plus(backoff));
+				}
+				failed.add(entity);
+			}
+		}
+
+		if (!created.isEmpty()) {
+			relationOutboxRepository.deleteAllByIdInBatch(created);
+		}
+		if (!failed.isEmpty()) {
+			relationOutboxRepository.saveAll(failed);
+		}
+	}
+
+	private void reportParked() {
+		final var parked = relationOutboxRepository.countByParkedTrue();
+		if (parked > 0) {
+			LOG.warn("There are {} parked relation(s) in the relation outbox, marking health indicator '{}' unhealthy", parked, jobName);
+			dept44HealthUtility.setHealthIndicatorUnhealthy(jobName, "%d relation(s) could not be created and have been parked".formatted(parked));
+		} else {
+			dept44HealthUtility.setHealthIndicatorHealthy(jobName);
+		}
+	}
+
+	private Duration backoff(int attempts) {
+		var backoff = properties.initialBackoff();
+		for (var i = 1; i < attempts && backoff.compareTo(properties.maxBackoff()) < 0; i++) {
+			backoff = backoff.multipliedBy(2);
+		}
+		return backoff.compareTo(properties.maxBackoff()) < 0 ? backoff : properties.maxBackoff();
+	}
+
+	private static Relation toRelation(RelationOutboxEntity entity) {
+		final var relation = new Relation();
+		relation.setType("LINK");
+		relation.setSource(createResourceIdentifier(CONTRACT, CONTRACT, entity.getContractId()));
+		relation.setTarget(createResourceIdentifier(BILLING_PREPROCESSOR_SERVICE, "billing-record", entity.getBillingRecordId()));
+		return relation;
+	}
+
+	private static ResourceIdentifier createResourceIdentifier(String service, String type, String id) {
+		final var resource = new ResourceIdentifier();
+		resource.setService(service);
+		resource.setType(type);
+		resource.setResourceId(id);
+		return resource;
+	}
+}
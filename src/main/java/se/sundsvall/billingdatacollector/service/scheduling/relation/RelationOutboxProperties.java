@@ -0,0 +1,30 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for creating the relations of the relation outbox. The cron expression, name and lock settings of the job
+ * are read directly by the scheduling annotation.
+ *
+ * @param batchSize      number of due relations read and created at a time
+ * @param initialBackoff how long to wait before retrying a relation that failed for the first time. The wait is doubled
+ *                       for every following failure
+ * @param maxBackoff     the longest wait between two attempts of the same relation
+ * @param maxAttempts    number of attempts after which a relation that still fails is parked, and no longer retried
+ */
+@Validated
+@ConfigurationProperties(prefix = "scheduler.relation-outbox")
+public record RelationOutboxProperties(
+
+	@Min(1) @DefaultValue("100") int batchSize,
+
+	@NotNull @DefaultValue("PT1M") Duration initialBackoff,
+
+	@NotNull @DefaultValue("PT6H") Duration maxBackoff,
+
+	@Min(1) @DefaultValue("20") int maxAttempts) {}
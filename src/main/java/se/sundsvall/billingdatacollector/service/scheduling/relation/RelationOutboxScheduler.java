@@ -0,0 +1,30 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.dept44.scheduling.Dept44Scheduled;
+
+@Service
+public class RelationOutboxScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RelationOutboxScheduler.class);
+
+	private final RelationOutboxHandler relationOutboxHandler;
+
+	public RelationOutboxScheduler(final RelationOutboxHandler relationOutboxHandler) {
+		this.relationOutboxHandler = relationOutboxHandler;
+	}
+
+	@Dept44Scheduled(
+		cron = "${scheduler.relation-outbox.cron:-}",
+		name = "${scheduler.relation-outbox.name}",
+		lockAtMostFor = "${scheduler.relation-outbox.lock-at-most-for}",
+		maximumExecutionTime = "${scheduler.relation-outbox.maximum-execution-time}")
+	public void createRelations() {
+		LOG.info("Scheduled task is starting relation outbox job.");
+		RequestId.init();
+		relationOutboxHandler.createDueRelations();
+	}
+}
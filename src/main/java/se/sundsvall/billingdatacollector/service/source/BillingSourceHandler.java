@@ -1,5 +1,6 @@
 package se.sundsvall.billingdatacollector.service.source;
 
+import java.util.Collection;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
 
 /**
@@ -28,4 +29,22 @@ public interface BillingSourceHandler {
 	 * @return        the outcome — see {@link BillingResult}.
 	 */
 	BillingResult sendBillingRecords(ScheduledBillingEntity entity);
+
+	/**
+	 * Start fetching the source records for a page of due entities ahead of
+	 * time, so that {@link #sendBillingRecords(ScheduledBillingEntity)} can
+	 * read them from memory instead of fetching them one at a time. Called by
+	 * the scheduler before the page is processed; must not block until the
+	 * records are fetched. Does nothing by default.
+	 *
+	 * @param entities the entities of the page that are handled by this handler
+	 */
+	default void prefetch(Collection<ScheduledBillingEntity> entities) {}
+
+	/**
+	 * Drop whatever {@link #prefetch(Collection)} fetched but was never used.
+	 * Called by the scheduler at the end of every tick in which it prefetched.
+	 * Does nothing by default.
+	 */
+	default void clearPrefetched() {}
 }
@@ -1,20 +1,30 @@
 package se.sundsvall.billingdatacollector.service.source.contract;
 
 import generated.se.sundsvall.billingpreprocessor.BillingRecord;
-import generated.se.sundsvall.relation.Relation;
-import generated.se.sundsvall.relation.ResourceIdentifier;
+import generated.se.sundsvall.contract.Contract;
 import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorIntegration;
 import se.sundsvall.billingdatacollector.integration.contract.ContractIntegration;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
-import se.sundsvall.billingdatacollector.integration.relation.RelationClient;
 import se.sundsvall.billingdatacollector.service.EntityMapper;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties;
 import se.sundsvall.billingdatacollector.service.source.AbstractHandler;
 import se.sundsvall.billingdatacollector.service.source.BillingResult;
 import se.sundsvall.billingdatacollector.service.source.BillingResult.Failed;
@@ -22,35 +32,47 @@ import se.sundsvall.billingdatacollector.service.source.BillingResult.Sent;
 import se.sundsvall.billingdatacollector.service.source.BillingResult.Skipped;
 import se.sundsvall.billingdatacollector.service.util.BillingPeriodCalculator;
 import se.sundsvall.billingdatacollector.service.util.ScheduledBillingUtil;
+import se.sundsvall.dept44.requestid.RequestId;
 
 import static java.util.Collections.emptyList;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.springframework.http.HttpHeaders.LOCATION;
 
 @Component("contract")
 public class ContractBillingHandler extends AbstractHandler {
 
-	private static final String CONTRACT = "contract";
-	private static final String BILLING_PREPROCESSOR_SERVICE = "billingpreprocessor";
+	private static final Executor PREFETCH_EXECUTOR = runnable -> Thread.ofVirtual().name("contract-prefetch").start(runnable);
 
 	private final ContractIntegration contractIntegration;
 	private final ContractMapper contractMapper;
-	private final BillingPreprocessorClient billingPreprocessorClient;
+	private final BillingPreprocessorIntegration billingPreprocessorIntegration;
 	private final HistoryRepository historyRepository;
-	private final RelationClient relationClient;
+	private final RelationOutboxRepository relationOutboxRepository;
+	private final TransactionTemplate saveTransaction;
+	private final int prefetchWindow;
+
+	// Entities of the current tick whose contracts are yet to be prefetched, in the order they are processed, and the
+	// contracts prefetched but not yet used. Both keyed on municipality id and contract id, and guarded by this
+	private final Map<String, ScheduledBillingEntity> pendingPrefetches = new LinkedHashMap<>();
+	private final Map<String, CompletableFuture<Optional<Contract>>> prefetchedContracts = new HashMap<>();
 
 	ContractBillingHandler(
 		ContractIntegration contractIntegration,
 		ContractMapper contractMapper,
-		BillingPreprocessorClient billingPreprocessorClient,
+		BillingPreprocessorIntegration billingPreprocessorIntegration,
 		HistoryRepository historyRepository,
-		RelationClient relationClient) {
+		RelationOutboxRepository relationOutboxRepository,
+		BillingSchedulerProperties billingSchedulerProperties,
+		PlatformTransactionManager transactionManager) {
 
 		this.contractIntegration = contractIntegration;
 		this.contractMapper = contractMapper;
-		this.billingPreprocessorClient = billingPreprocessorClient;
+		this.billingPreprocessorIntegration = billingPreprocessorIntegration;
 		this.historyRepository = historyRepository;
-		this.relationClient = relationClient;
+		this.relationOutboxRepository = relationOutboxRepository;
+		this.saveTransaction = new TransactionTemplate(transactionManager);
+		this.prefetchWindow = billingSchedulerProperties.parallel().workers() * 2;
 	}
 
 	/**
@@ -63,8 +85,13 @@ public class ContractBillingHandler extends AbstractHandler {
 	 * {@code Sent(null)} when that period would extend past the contract's
 	 * end date — the scheduler then deletes the entity after the last
 	 * valid billing without needing access to the contract itself.
+	 *
+	 * <p>
+	 * Only the history and relation outbox rows are saved in a transaction.
+	 * Fetching the contract, looking up KPI values when mapping it and
+	 * sending the billing record are done before, so no connection is held
+	 * during the calls to other services.
 	 */
-	@Transactional
 	@Override
 	public BillingResult sendBillingRecords(ScheduledBillingEntity entity) {
 		var municipalityId = entity.getMunicipalityId();
@@ -72,7 +99,7 @@ public class ContractBillingHandler extends AbstractHandler {
 		var scheduledDate = entity.getNextScheduledBilling();
 		logInfo("Processing contract with id {} in municipality {}", externalId, municipalityId);
 
-		var contractOpt = contractIntegration.getContract(municipalityId, externalId);
+		var contractOpt = getContract(municipalityId, externalId);
 		if (contractOpt.isEmpty()) {
 			// 404 is treated as an inconsistency, not a normal cleanup path:
 			// the legitimate way to stop billing is a TERMINATED event, which
@@ -127,22 +154,104 @@ public class ContractBillingHandler extends AbstractHandler {
 		return new Sent(nextSlot);
 	}
 
+	/**
+	 * Starts fetching the contracts of the entities on virtual threads and
+	 * returns at once, so the requests towards the contract service overlap
+	 * with the processing of the page. At most twice as many contracts as
+	 * there are workers are fetched ahead of the ones being processed, and a
+	 * new fetch is started each time a prefetched contract is used. Fetching
+	 * the whole page at once would only queue the requests in the bulkhead of
+	 * the contract client, where they could time out before their turn. The
+	 * contract service has no endpoint for fetching several contracts by id,
+	 * hence one request per contract.
+	 */
+	@Override
+	public void prefetch(Collection<ScheduledBillingEntity> entities) {
+		synchronized (this) {
+			entities.forEach(entity -> pendingPrefetches.putIfAbsent(prefetchKey(entity.getMunicipalityId(), entity.getExternalId()), entity));
+		}
+		startPrefetches();
+	}
+
+	@Override
+	public synchronized void clearPrefetched() {
+		pendingPrefetches.clear();
+		prefetchedContracts.clear();
+	}
+
+	private synchronized void startPrefetches() {
+		final var requestId = RequestId.get();
+		final var pending = pendingPrefetches.entrySet().iterator();
+		while (prefetchedContracts.size() < prefetchWindow && pending.hasNext()) {
+			final var next = pending.next();
+			pending.remove();
+			final var entity = next.getValue();
+			prefetchedContracts.computeIfAbsent(next.getKey(), key -> CompletableFuture.supplyAsync(() -> {
+				try {
+					RequestId.init(requestId);
+					return contractIntegration.getContract(entity.getMunicipalityId(), entity.getExternalId());
+				} finally {
+					RequestId.reset();
+				}
+			}, PREFETCH_EXECUTOR));
+		}
+	}
+
+	/**
+	 * Takes the contract from the prefetched ones if there, otherwise (or if
+	 * prefetching it failed) fetches it from the contract service. A
+	 * prefetched contract is used only once, so a later tick always sees the
+	 * current version of the contract.
+	 */
+	private Optional<Contract> getContract(String municipalityId, String contractId) {
+		final var key = prefetchKey(municipalityId, contractId);
+		final CompletableFuture<Optional<Contract>> prefetched;
+		synchronized (this) {
+			pendingPrefetches.remove(key);
+			prefetched = prefetchedContracts.remove(key);
+		}
+		// Keep the window full
+		startPrefetches();
+
+		if (prefetched != null) {
+			try {
+				return prefetched.join();
+			} catch (CancellationException | CompletionException e) {
+				logWarning("Prefetching contract {} failed, fetching it again: {}", contractId, e.getMessage());
+			}
+		}
+		return contractIntegration.getContract(municipalityId, contractId);
+	}
+
+	private static String prefetchKey(String municipalityId, String contractId) {
+		return municipalityId + "/" + contractId;
+	}
+
 	private void sendAndSave(String municipalityId, BillingRecord billingRecord, String contractId) {
 		logInfo("Sending billing record to billing preprocessor");
-		final var response = billingPreprocessorClient.createBillingRecord(municipalityId, billingRecord);
+		final var response = billingPreprocessorIntegration.createBillingRecord(municipalityId, billingRecord);
 		logInfo("Billing record sent successfully with response status: {}", response.getStatusCode());
 
-		// Save to history
-		historyRepository.saveAndFlush(EntityMapper.mapToHistoryEntity(municipalityId, billingRecord, getLocation(response)));
-
-		// Relation creation is best-effort — failure does not roll back the
-		// billing. Caller (scheduler) reports relation issues via the
-		// health indicator on the next tick.
-		try {
-			relationClient.createRelation(municipalityId, createRelation(contractId, extractIdFromLocationHeader(response)));
-		} catch (Exception e) {
-			logWarning("Error creating relation for contract {}: {}", contractId, e.getMessage());
+		// The relation is created by the relation outbox job. Saving it in the
+		// same transaction as the history means it can't be lost, and a relation
+		// service that is down doesn't slow down or fail the billing. Without a
+		// billing record id there is nothing to relate to, and the billing
+		// record has already been created, so it is only logged.
+		final var billingRecordId = extractIdFromLocationHeader(response);
+		if (isBlank(billingRecordId)) {
+			logError("No billing record id in the response for contract {}, no relation is created", contractId);
 		}
+
+		saveTransaction.executeWithoutResult(_ -> {
+			historyRepository.save(EntityMapper.mapToHistoryEntity(municipalityId, billingRecord, getLocation(response)));
+			if (!isBlank(billingRecordId)) {
+				relationOutboxRepository.save(RelationOutboxEntity.builder()
+					.withMunicipalityId(municipalityId)
+					.withContractId(contractId)
+					.withBillingRecordId(billingRecordId)
+					.build());
+			}
+		});
 	}
 
 	private String extractIdFromLocationHeader(final ResponseEntity<Void> response) {
@@ -151,22 +260,6 @@ public class ContractBillingHandler extends AbstractHandler {
 		return locationValue.map(string -> string.substring(string.lastIndexOf('/') + 1)).orElse(EMPTY);
 	}
 
-	private Relation createRelation(String contractId, String billingRecordId) {
-		var relation = new Relation();
-		relation.setType("LINK");
-		relation.setSource(createResourceIdentifier(CONTRACT, CONTRACT, contractId));
-		relation.setTarget(createResourceIdentifier(BILLING_PREPROCESSOR_SERVICE, "billing-record", billingRecordId));
-		return relation;
-	}
-
-	private ResourceIdentifier createResourceIdentifier(String service, String type, String id) {
-		var resource = new ResourceIdentifier();
-		resource.setService(service);
-		resource.setType(type);
-		resource.setResourceId(id);
-		return resource;
-	}
-
 	private String getLocation(ResponseEntity<Void> response) {
 		return Optional.of(response.getHeaders())
 			.map(HttpHeaders::getLocation)
@@ -31,7 +31,6 @@ import se.sundsvall.dept44.problem.Problem;
 
 import static generated.se.sundsvall.billingpreprocessor.Status.APPROVED;
 import static generated.se.sundsvall.billingpreprocessor.Type.EXTERNAL;
-import static java.time.Month.OCTOBER;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.trimToNull;
@@ -42,6 +41,7 @@ import static se.sundsvall.billingdatacollector.service.source.contract.util.Con
 import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getContractId;
 import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getDetailedDescriptions;
 import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getExtraParameter;
+import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getIndexPeriod;
 import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.getKPIBaseYear;
 import static se.sundsvall.billingdatacollector.service.source.contract.util.ContractUtil.isIndexed;
 
@@ -53,7 +53,6 @@ public class ContractMapper {
 	private static final String PARAMETER_KEY_CONTRACT_ID = "contractId";
 	private static final String PARAMETER_KEY_KPI = "index";
 	private static final String NOT_APPLICABLE = "N/A";
-	private static final int INDEX_MONTH = OCTOBER.getValue(); // Month to use when fetching KPI is always october
 	private static final BigDecimal QUANTITY = BigDecimal.ONE; // Quantity is always one for periodical invoicing
 	private static final String[] SWEDISH_MONTH_NAMES = {
 		"januari", "februari", "mars", "april", "maj", "juni",
@@ -107,10 +106,6 @@ public class ContractMapper {
 		return billingRecord;
 	}
 
-	private YearMonth getIndexPeriod(LocalDate scheduledDate) {
-		return YearMonth.from(scheduledDate.minusYears(1).withMonth(INDEX_MONTH));
-	}
-
 	private Invoice toInvoice(String municipalityId, Contract contract, LocalDate scheduledDate, LocalDate transferDate) {
 		return new Invoice()
 			.ourReference(getContractId(contract))
@@ -0,0 +1,143 @@
+package se.sundsvall.billingdatacollector.service.source.contract;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import se.sundsvall.billingdatacollector.integration.db.CounterpartMappingRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.CounterpartMappingEntity;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * In-memory index of the counterpart mappings, so that finding the counterpart for a legalId needs no database access.
+ * The legalId patterns are kept in a prefix trie, which makes finding the longest matching pattern a single walk along
+ * the legalId.
+ *
+ * The mappings are maintained directly in the database, so the index is reloaded once it is older than
+ * counterpart-mapping.index.time-to-live.
+ */
+@Component
+class CounterpartMappingIndex {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CounterpartMappingIndex.class);
+
+	private final CounterpartMappingRepository repository;
+	private final Duration timeToLive;
+
+	private volatile Snapshot snapshot;
+
+	CounterpartMappingIndex(CounterpartMappingRepository repository, @Value("${counterpart-mapping.index.time-to-live}") Duration timeToLive) {
+		this.repository = repository;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Find the counterpart of the longest legalId pattern that the legalId starts with. Dashes in the legalId are ignored.
+	 *
+	 * @param  legalId the legalId to match
+	 * @return         the counterpart, or empty if no pattern matches
+	 */
+	Optional<String> findByLegalId(String legalId) {
+		return current().findByLegalId(legalId);
+	}
+
+	/**
+	 * Find the counterpart mapped to a stakeholder type.
+	 *
+	 * @param  stakeholderType the stakeholder type to match
+	 * @return                 the counterpart, or empty if there is no mapping for the stakeholder type
+	 */
+	Optional<String> findByStakeholderType(String stakeholderType) {
+		return ofNullable(current().byStakeholderType().get(stakeholderType));
+	}
+
+	private Snapshot current() {
+		final var current = snapshot;
+		if (current == null || current.isOlderThan(timeToLive)) {
+			return reload();
+		}
+		return current;
+	}
+
+	private synchronized Snapshot reload() {
+		final var current = snapshot;
+		if (current != null && !current.isOlderThan(timeToLive)) {
+			// Already reloaded by another thread
+			return current;
+		}
+
+		try {
+			snapshot = Snapshot.of(repository.findAll());
+		} catch (final RuntimeException e) {
+			if (current == null) {
+				throw e;
+			}
+			// Better to keep using the mappings we have than to fail every lookup, try again when they expire next time
+			LOG.warn("Failed to reload counterpart mappings, keeping the ones loaded at {}", current.loadedAt(), e);
+			snapshot = new Snapshot(current.root(), current.byStakeholderType(), Instant.now());
+		}
+		return snapshot;
+	}
+
+	private record Snapshot(Node root, Map<String, String> byStakeholderType, Instant loadedAt) {
+
+		static Snapshot of(List<CounterpartMappingEntity> entities) {
+			final var root = new Node();
+			final var byStakeholderType = new HashMap<String, String>();
+			entities.stream()
+				.filter(Objects::nonNull)
+				.forEach(entity -> {
+					if (entity.getLegalIdPattern() != null) {
+						root.add(entity.getLegalIdPattern(), entity.getCounterpart());
+					}
+					if (entity.getStakeholderType() != null) {
+						byStakeholderType.putIfAbsent(entity.getStakeholderType(), entity.getCounterpart());
+					}
+				});
+			return new Snapshot(root, byStakeholderType, Instant.now());
+		}
+
+		boolean isOlderThan(Duration age) {
+			return !loadedAt.plus(age).isAfter(Instant.now());
+		}
+
+		Optional<String> findByLegalId(String legalId) {
+			var node = root;
+			var counterpart = node.counterpart;
+			for (var i = 0; i < legalId.length() && node != null; i++) {
+				final var character = legalId.charAt(i);
+				if (character == '-') {
+					continue;
+				}
+				node = node.children.get(character);
+				if (node != null && node.counterpart != null) {
+					// A longer pattern matches, i.e. a more specific one
+					counterpart = node.counterpart;
+				}
+			}
+			return ofNullable(counterpart);
+		}
+	}
+
+	private static final class Node {
+
+		private final Map<Character, Node> children = new HashMap<>();
+		private String counterpart;
+
+		void add(String pattern, String counterpart) {
+			var node = this;
+			for (var i = 0; i < pattern.length(); i++) {
+				node = node.children.computeIfAbsent(pattern.charAt(i), key -> new Node());
+			}
+			node.counterpart = counterpart;
+		}
+	}
+}
@@ -1,32 +1,24 @@
 package se.sundsvall.billingdatacollector.service.source.contract;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import se.sundsvall.billingdatacollector.integration.db.CounterpartMappingRepository;
-import se.sundsvall.billingdatacollector.integration.db.model.CounterpartMappingEntity;
 import se.sundsvall.billingdatacollector.integration.party.PartyIntegration;
 import se.sundsvall.dept44.problem.Problem;
 
-import static java.util.function.Predicate.not;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
 
 @Service
-@Transactional(readOnly = true)
 public class CounterpartMappingService {
 
 	private static final Logger LOG = LoggerFactory.getLogger(CounterpartMappingService.class);
 
-	private final CounterpartMappingRepository repository;
+	private final CounterpartMappingIndex counterpartMappingIndex;
 	private final PartyIntegration partyIntegration;
 
-	public CounterpartMappingService(CounterpartMappingRepository repository, PartyIntegration partyIntegration) {
-		this.repository = repository;
+	public CounterpartMappingService(CounterpartMappingIndex counterpartMappingIndex, PartyIntegration partyIntegration) {
+		this.counterpartMappingIndex = counterpartMappingIndex;
 		this.partyIntegration = partyIntegration;
 	}
 
@@ -50,17 +42,17 @@ public class CounterpartMappingService {
 		final var legalId = partyIntegration.getLegalId(municipalityId, partyId, stakeholderType);
 
 		if (legalId.isPresent()) {
-			var counterpartMappingMatch = findBestMatch(legalId.get(), repository.findAll());
-			if (counterpartMappingMatch != null) {
-				return counterpartMappingMatch.getCounterpart();
+			var counterpartMappingMatch = counterpartMappingIndex.findByLegalId(legalId.get());
+			if (counterpartMappingMatch.isPresent()) {
+				return counterpartMappingMatch.get();
 			}
 		}
 
 		// Fall back to stakeholder type
 		if (stakeholderType != null) {
-			var typeMatch = repository.findByStakeholderType(stakeholderType);
+			var typeMatch = counterpartMappingIndex.findByStakeholderType(stakeholderType);
 			if (typeMatch.isPresent()) {
-				return typeMatch.get().getCounterpart();
+				return typeMatch.get();
 			}
 		}
 
@@ -71,16 +63,4 @@ public class CounterpartMappingService {
 			.withDetail("No counterpart found for partyId: " + partyId + " or stakeholderType: " + stakeholderType)
 			.build();
 	}
-
-	private CounterpartMappingEntity findBestMatch(String legalId, List<CounterpartMappingEntity> mappingEntities) {
-		String cleanLegalId = legalId.replace("-", "");
-
-		return mappingEntities.stream()
-			.filter(Objects::nonNull)
-			.filter(not(mappingEntity -> mappingEntity.getLegalIdPattern() == null))
-			.filter(mappingEntity -> cleanLegalId.startsWith(mappingEntity.getLegalIdPattern()))
-			// If multiple patterns match, select the one with the longest match (most specific)
-			.max(Comparator.comparingInt(mappingEntity -> mappingEntity.getLegalIdPattern().length()))
-			.orElse(null);
-	}
 }
@@ -4,6 +4,8 @@ import generated.se.sundsvall.contract.Contract;
 import generated.se.sundsvall.contract.ExtraParameterGroup;
 import generated.se.sundsvall.contract.Fees;
 import generated.se.sundsvall.contract.Invoicing;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -14,6 +16,7 @@ import se.sundsvall.billingdatacollector.service.source.contract.model.Interval;
 import se.sundsvall.dept44.problem.Problem;
 
 import static generated.se.sundsvall.contract.InvoicedIn.ADVANCE;
+import static java.time.Month.OCTOBER;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
@@ -62,6 +65,16 @@ public final class ContractUtil {
 		};
 	}
 
+	/**
+	 * The KPI period to use for a billing, which is always october of the year before the billing.
+	 *
+	 * @param  scheduledDate the date of the billing
+	 * @return               the KPI period
+	 */
+	public static YearMonth getIndexPeriod(LocalDate scheduledDate) {
+		return YearMonth.of(scheduledDate.getYear() - 1, OCTOBER);
+	}
+
 	public static List<String> getDetailedDescriptions(Contract contract) {
 		if (isNull(contract)) {
 			throw Problem.valueOf(NOT_FOUND, MESSAGE_CONTRACT_CAN_NOT_BE_NULL);
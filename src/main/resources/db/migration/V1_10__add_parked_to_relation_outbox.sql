@@ -0,0 +1,6 @@
+-- A relation that still fails after the max number of attempts is parked, and no longer read by the relation outbox
+-- job. The index replaces the single-column next_attempt_at index, since the due relations are read by both columns
+ALTER TABLE relation_outbox ADD COLUMN parked BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_parked_next_attempt_at ON relation_outbox (parked, next_attempt_at);
+DROP INDEX idx_next_attempt_at ON relation_outbox;
@@ -0,0 +1,5 @@
+ALTER TABLE scheduled_billing
+    ADD COLUMN claimed_by VARCHAR(255) NULL;
+
+ALTER TABLE scheduled_billing
+    ADD COLUMN claimed_until DATETIME(6) NULL;
@@ -0,0 +1,9 @@
+CREATE TABLE kpi (
+    id          VARCHAR(255) NOT NULL,
+    base_year   VARCHAR(255) NOT NULL,
+    period      VARCHAR(7) NOT NULL,
+    kpi_value   DECIMAL(6, 2) NOT NULL,
+    created     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uq_base_year_period UNIQUE (base_year, period)
+) ENGINE=InnoDB;
@@ -0,0 +1,13 @@
+CREATE TABLE relation_outbox (
+    id                VARCHAR(255) NOT NULL,
+    municipality_id   VARCHAR(4) NOT NULL,
+    contract_id       VARCHAR(255) NOT NULL,
+    billing_record_id VARCHAR(255) NOT NULL,
+    attempts          INTEGER NOT NULL,
+    next_attempt_at   DATETIME(6),
+    last_error        VARCHAR(1024),
+    created           DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_next_attempt_at ON relation_outbox (next_attempt_at);
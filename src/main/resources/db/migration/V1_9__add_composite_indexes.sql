@@ -0,0 +1,13 @@
+-- Duplicate checks look up family_id and flow_instance_id together. The composite index replaces the single-column
+-- family_id index, which is a prefix of it
+CREATE INDEX idx_family_id_flow_instance_id ON history (family_id, flow_instance_id);
+DROP INDEX idx_family_id ON history;
+
+CREATE INDEX idx_family_id_flow_instance_id ON fallout (family_id, flow_instance_id);
+DROP INDEX idx_family_id ON fallout;
+
+-- The fallout report reads the unreported fallouts per municipality, in id order
+CREATE INDEX idx_reported_municipality_id ON fallout (reported, municipality_id);
+
+-- The latest job is found by the highest fetched_end_date
+CREATE INDEX idx_fetched_end_date ON scheduled_job_log (fetched_end_date);
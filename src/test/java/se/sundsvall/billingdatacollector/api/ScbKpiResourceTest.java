@@ -2,10 +2,13 @@ package se.sundsvall.billingdatacollector.api;
 
 import java.math.BigDecimal;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -33,6 +36,7 @@ import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 class ScbKpiResourceTest {
 
 	private static final String PATH = "/{municipalityId}/scb/kpi";
+	private static final String RANGE_PATH = "/{municipalityId}/scb/kpi/range";
 	private static final String MUNICIPALITY_ID = "2281";
 	private static final KPIBaseYear BASE_YEAR = KPIBaseYear.KPI_80;
 	private static final YearMonth PERIOD = YearMonth.of(2024, 10);
@@ -242,4 +246,109 @@ class ScbKpiResourceTest {
 		verify(mockScbIntegration).getKPI(KPIBaseYear.KPI_2020, altPeriod);
 		verifyNoMoreInteractions(mockScbIntegration);
 	}
+
+	@Test
+	void testGetKpiRange() {
+		// Arrange
+		final var fromPeriod = YearMonth.of(2024, 9);
+		final var values = new TreeMap<YearMonth, BigDecimal>();
+		values.put(fromPeriod, new BigDecimal("354.12"));
+		values.put(PERIOD, new BigDecimal("355.91"));
+		when(mockScbIntegration.getKPIs(BASE_YEAR, fromPeriod, PERIOD)).thenReturn(values);
+
+		// Act
+		final var result = webTestClient.get()
+			.uri(uriBuilder -> uriBuilder.path(RANGE_PATH)
+				.queryParam("baseYear", BASE_YEAR.name())
+				.queryParam("fromPeriod", fromPeriod.toString())
+				.queryParam("toPeriod", PERIOD.toString())
+				.build(MUNICIPALITY_ID))
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody(new ParameterizedTypeReference<List<ScbKpiResponse>>() {})
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(result).isNotNull()
+			.extracting(ScbKpiResponse::getBaseYear, ScbKpiResponse::getPeriod, response -> response.getValue().toPlainString())
+			.containsExactly(
+				tuple(BASE_YEAR, fromPeriod, "354.12"),
+				tuple(BASE_YEAR, PERIOD, "355.91"));
+
+		verify(mockScbIntegration).getKPIs(BASE_YEAR, fromPeriod, PERIOD);
+		verifyNoMoreInteractions(mockScbIntegration);
+	}
+
+	@Test
+	void testGetKpiRangeWithFromPeriodAfterToPeriod() {
+		// Arrange & Act
+		final var responseBody = webTestClient.get()
+			.uri(uriBuilder -> uriBuilder.path(RANGE_PATH)
+				.queryParam("baseYear", BASE_YEAR.name())
+				.queryParam("fromPeriod", PERIOD.plusMonths(1).toString())
+				.queryParam("toPeriod", PERIOD.toString())
+				.build(MUNICIPALITY_ID))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(responseBody).isNotNull();
+		assertThat(responseBody.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(responseBody.getTitle()).isEqualTo("Invalid period range");
+		assertThat(responseBody.getDetail()).isEqualTo("fromPeriod must be before or equal to toPeriod");
+
+		verifyNoInteractions(mockScbIntegration);
+	}
+
+	@Test
+	void testGetKpiRangeTooLong() {
+		// Arrange & Act
+		final var responseBody = webTestClient.get()
+			.uri(uriBuilder -> uriBuilder.path(RANGE_PATH)
+				.queryParam("baseYear", BASE_YEAR.name())
+				.queryParam("fromPeriod", PERIOD.minusMonths(600).toString())
+				.queryParam("toPeriod", PERIOD.toString())
+				.build(MUNICIPALITY_ID))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(responseBody).isNotNull();
+		assertThat(responseBody.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(responseBody.getDetail()).isEqualTo("The range can't span more than 600 months");
+
+		verifyNoInteractions(mockScbIntegration);
+	}
+
+	@Test
+	void testGetKpiRangeMissingToPeriod() {
+		// Arrange & Act
+		final var responseBody = webTestClient.get()
+			.uri(uriBuilder -> uriBuilder.path(RANGE_PATH)
+				.queryParam("baseYear", BASE_YEAR.name())
+				.queryParam("fromPeriod", PERIOD.toString())
+				.build(MUNICIPALITY_ID))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(responseBody).isNotNull();
+		assertThat(responseBody.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(responseBody.getDetail()).isEqualTo("Required parameter 'toPeriod' is not present.");
+
+		verifyNoInteractions(mockScbIntegration);
+	}
 }
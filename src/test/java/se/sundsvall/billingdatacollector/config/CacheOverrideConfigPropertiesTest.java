@@ -18,7 +18,13 @@ class CacheOverrideConfigPropertiesTest {
 	@Test
 	void testPropertyValues() {
 		assertThat(properties).isNotNull();
-		assertThat(properties.getSpecOverrides()).hasSize(1).satisfiesExactly(cacheSetting -> {
+		assertThat(properties.getSpecOverrides()).hasSize(3).satisfiesExactly(cacheSetting -> {
+			assertThat(cacheSetting.getCacheName()).isEqualTo("legalId");
+			assertThat(cacheSetting.getSpec()).isEqualTo("maximumSize=2000, expireAfterWrite=1h");
+		}, cacheSetting -> {
+			assertThat(cacheSetting.getCacheName()).isEqualTo("legalIdNotFound");
+			assertThat(cacheSetting.getSpec()).isEqualTo("maximumSize=500, expireAfterWrite=1m");
+		}, cacheSetting -> {
 			assertThat(cacheSetting.getCacheName()).isEqualTo("kpiData");
 			assertThat(cacheSetting.getSpec()).isEqualTo("maximumSize=100, expireAfterWrite=30d");
 		});
@@ -1,5 +1,6 @@
 package se.sundsvall.billingdatacollector.integration.billingpreprocessor;
 
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -26,5 +27,10 @@ class BillingPreprocessorIntegrationPropertiesTest {
 		});
 		assertThat(properties.connectTimeout()).isEqualTo(98);
 		assertThat(properties.readTimeout()).isEqualTo(76);
+		assertThat(properties.batch()).isNotNull().satisfies(batch -> {
+			assertThat(batch.enabled()).isFalse();
+			assertThat(batch.maxSize()).isEqualTo(10);
+			assertThat(batch.maxWait()).isEqualTo(Duration.ofMillis(50));
+		});
 	}
 }
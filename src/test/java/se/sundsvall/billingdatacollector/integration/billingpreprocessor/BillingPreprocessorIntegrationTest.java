@@ -0,0 +1,198 @@
+package se.sundsvall.billingdatacollector.integration.billingpreprocessor;
+
+import feign.FeignException;
+import feign.RetryableException;
+import generated.se.sundsvall.billingpreprocessor.BillingRecord;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import se.sundsvall.billingdatacollector.integration.Oauth2;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+@ExtendWith(MockitoExtension.class)
+class BillingPreprocessorIntegrationTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Mock
+	private BillingPreprocessorClient clientMock;
+
+	@Mock
+	private BillingRecord billingRecordMock;
+
+	@Mock
+	private BillingRecord otherBillingRecordMock;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(clientMock);
+	}
+
+	@Test
+	void createBillingRecordWhenNotBatching() {
+		// Arrange
+		final var integration = createIntegration(false, 10, Duration.ofSeconds(5));
+		final ResponseEntity<Void> response = ResponseEntity.created(URI.create("/2281/billingrecords/id")).build();
+		when(clientMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).thenReturn(response);
+
+		// Act
+		final var result = integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+
+		// Assert & verify
+		assertThat(result).isSameAs(response);
+		verify(clientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+	}
+
+	@Test
+	void createBillingRecordSendsFullBatch() throws Exception {
+		// Arrange
+		final var integration = createIntegration(true, 2, Duration.ofSeconds(5));
+		when(clientMock.createBillingRecords(eq(MUNICIPALITY_ID), anyList())).thenAnswer(invocation -> {
+			final List<BillingRecord> billingRecords = invocation.getArgument(1);
+			return ResponseEntity.ok(billingRecords.stream()
+				.map(billingRecord -> billingRecord == billingRecordMock ? "/2281/billingrecords/id1" : "id2")
+				.toList());
+		});
+
+		// Act
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var result1 = executor.submit(() -> integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock));
+			final var result2 = executor.submit(() -> integration.createBillingRecord(MUNICIPALITY_ID, otherBillingRecordMock));
+
+			// Assert & verify
+			assertThat(result1.get(5, SECONDS).getHeaders().getLocation()).hasToString("/2281/billingrecords/id1");
+			assertThat(result2.get(5, SECONDS).getHeaders().getLocation()).hasToString("/2281/billingrecords/id2");
+		}
+		verify(clientMock).createBillingRecords(eq(MUNICIPALITY_ID), anyList());
+	}
+
+	@Test
+	void createBillingRecordSendsBatchWhenMaxWaitHasPassed() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenReturn(ResponseEntity.ok(List.of("id")));
+
+		// Act
+		final var result = integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+
+		// Assert & verify
+		assertThat(result.getHeaders().getLocation()).hasToString("/2281/billingrecords/id");
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+	}
+
+	@Test
+	void createBillingRecordSendsRecordsOneAtATimeWhenBatchIsRejected() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		final ResponseEntity<Void> response = ResponseEntity.created(URI.create("/2281/billingrecords/id")).build();
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenThrow(Problem.valueOf(BAD_REQUEST, "Invalid billing record"));
+		when(clientMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).thenReturn(response);
+
+		// Act
+		final var result = integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+
+		// Assert & verify
+		assertThat(result).isSameAs(response);
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+		verify(clientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+	}
+
+	@Test
+	void createBillingRecordDoesNotResendWhenBatchOutcomeIsUnknown() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		final var exception = mock(RetryableException.class);
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenThrow(exception);
+
+		// Act & Assert
+		assertThatThrownBy(() -> integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).isSameAs(exception);
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+	}
+
+	@Test
+	void createBillingRecordDoesNotResendWhenBatchFailsWithServerError() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		final var problem = Problem.valueOf(INTERNAL_SERVER_ERROR, "Something went wrong");
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenThrow(problem);
+
+		// Act & Assert
+		assertThatThrownBy(() -> integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).isSameAs(problem);
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+	}
+
+	@Test
+	void createBillingRecordSendsRecordsOneAtATimeWhenBatchIsRejectedByFeign() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		final ResponseEntity<Void> response = ResponseEntity.created(URI.create("/2281/billingrecords/id")).build();
+		final var exception = mock(FeignException.class);
+		when(exception.status()).thenReturn(400);
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenThrow(exception);
+		when(clientMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).thenReturn(response);
+
+		// Act
+		final var result = integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+
+		// Assert & verify
+		assertThat(result).isSameAs(response);
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+		verify(clientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+	}
+
+	@Test
+	void createBillingRecordDoesNotResendWhenBatchFailsWithFeignServerError() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		final var exception = mock(FeignException.class);
+		when(exception.status()).thenReturn(503);
+		when(clientMock.createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock))).thenThrow(exception);
+
+		// Act & Assert
+		assertThatThrownBy(() -> integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock)).isSameAs(exception);
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+	}
+
+	@Test
+	void createBillingRecordWhenLocationsAreMissing() {
+		// Arrange
+		final var integration = createIntegration(true, 10, Duration.ofMillis(50));
+		when(clientMock.createBillingRecords(eq(MUNICIPALITY_ID), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act & Assert
+		assertThatThrownBy(() -> integration.createBillingRecord(MUNICIPALITY_ID, billingRecordMock))
+			.isInstanceOf(ThrowableProblem.class)
+			.hasFieldOrPropertyWithValue("status", BAD_GATEWAY)
+			.hasMessageContaining("Expected 1 billing record locations from billing preprocessor but got 0");
+		verify(clientMock).createBillingRecords(MUNICIPALITY_ID, List.of(billingRecordMock));
+	}
+
+	private BillingPreprocessorIntegration createIntegration(boolean batching, int maxSize, Duration maxWait) {
+		final var properties = new BillingPreprocessorIntegrationProperties("http://bpp.nosuchhost.com",
+			new Oauth2("http://token.nosuchhost.com", "clientId", "clientSecret", "client_credentials"), 5, 30,
+			new BillingPreprocessorIntegrationProperties.Batch(batching, maxSize, maxWait));
+		return new BillingPreprocessorIntegration(clientMock, properties);
+	}
+}
@@ -1,17 +1,29 @@
 package se.sundsvall.billingdatacollector.integration.db;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.billingdatacollector.integration.db.converter.CompressedText.compress;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_BILLING_RECORD_WRAPPER;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_OPENE_INSTANCE;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = NONE)
@@ -25,6 +37,9 @@ class FalloutRepositoryTest {
 	@Autowired
 	private FalloutRepository falloutRepository;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	@ParameterizedTest
 	@MethodSource("testValues")
 	void testExistsByFamilyIdAndFlowInstanceId(String familyId, String flowInstanceId, boolean expected) {
@@ -40,4 +55,111 @@ class FalloutRepositoryTest {
 			Arguments.of("012", "185376", false)    // Only flowInstanceId exists
 		);
 	}
+
+	@Test
+	void testFindSummariesByFlowInstanceIdIn() {
+		assertThat(falloutRepository.findSummariesByFlowInstanceIdIn(List.of("185375", "185376", "doesnt_exist"))).singleElement().satisfies(summary -> {
+			assertThat(summary.getId()).isEqualTo("b14f84dc-ec63-4c0d-b65c-070bfe57295e");
+			assertThat(summary.getFamilyId()).isEqualTo("358");
+			assertThat(summary.getFlowInstanceId()).isEqualTo("185376");
+			assertThat(summary.getMunicipalityId()).isEqualTo("2281");
+			assertThat(summary.getErrorMessage()).startsWith("Bad Gateway");
+		});
+	}
+
+	@Test
+	void testFindMunicipalityIdsByReportedIsFalse() {
+		assertThat(falloutRepository.findMunicipalityIdsByReportedIsFalse()).containsExactly("2281");
+	}
+
+	@Test
+	void testFindSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc() {
+		assertThat(falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "", Limit.of(10))).singleElement().satisfies(summary -> {
+			assertThat(summary.getId()).isEqualTo("b14f84dc-ec63-4c0d-b65c-070bfe57295e");
+			assertThat(summary.getFlowInstanceId()).isEqualTo("185376");
+			assertThat(summary.getRequestId()).isEqualTo("83f2ba1f-8b9c-4df9-b05f-c27b40985eee");
+			assertThat(summary.isReported()).isFalse();
+		});
+		assertThat(falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "b14f84dc-ec63-4c0d-b65c-070bfe57295e", Limit.of(10))).isEmpty();
+		assertThat(falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("1984", "", Limit.of(10))).isEmpty();
+	}
+
+	@Test
+	void testMarkAsReported() {
+		final var id = "b14f84dc-ec63-4c0d-b65c-070bfe57295e";
+		final var modified = OffsetDateTime.now(ZoneId.systemDefault()).truncatedTo(ChronoUnit.MILLIS);
+		final var unlisted = falloutRepository.saveAndFlush(FalloutEntity.builder()
+			.withMunicipalityId("2281")
+			.withFamilyId("358")
+			.withFlowInstanceId("185378")
+			.build());
+
+		assertThat(falloutRepository.markAsReported(List.of(id, "doesnt_exist"), modified)).isOne();
+		// Already reported
+		assertThat(falloutRepository.markAsReported(List.of(id), modified)).isZero();
+
+		// Only the listed record is marked
+		assertThat(falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "", Limit.of(10)))
+			.extracting(FalloutSummary::getId).containsExactly(unlisted.getId());
+		assertThat(falloutRepository.findById(id)).hasValueSatisfying(entity -> {
+			assertThat(entity.isReported()).isTrue();
+			assertThat(entity.getModified()).isAtSameInstantAs(modified);
+		});
+	}
+
+	@Test
+	void testFindFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn() {
+		final var flowInstanceIds = falloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("358", List.of("185375", "185376", "doesnt_exist"));
+		assertThat(flowInstanceIds).containsExactly("185376");
+	}
+
+	@Test
+	void testFindFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn_otherFamilyId() {
+		final var flowInstanceIds = falloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("012", List.of("185376"));
+		assertThat(flowInstanceIds).isEmpty();
+	}
+
+	@Test
+	void testFindFlowInstanceIdsWithBillingRecordWrapper() {
+		final var flowInstanceIds = falloutRepository.findFlowInstanceIdsWithBillingRecordWrapper("358", List.of("185375", "185376", "doesnt_exist"));
+		assertThat(flowInstanceIds).containsExactly("185376");
+	}
+
+	@Test
+	void testFindFlowInstanceIdsWithBillingRecordWrapper_otherFamilyId() {
+		final var flowInstanceIds = falloutRepository.findFlowInstanceIdsWithBillingRecordWrapper("012", List.of("185376"));
+		assertThat(flowInstanceIds).isEmpty();
+	}
+
+	@Test
+	void testFindUncompressedBillingRecordWrappers() {
+		assertThat(falloutRepository.findUncompressedBillingRecordWrappers("", 10)).singleElement().satisfies(row -> {
+			assertThat(row.getId()).isEqualTo("b14f84dc-ec63-4c0d-b65c-070bfe57295e");
+			assertThat(row.getContent()).startsWith("{\"billingRecord\"");
+		});
+		assertThat(falloutRepository.findUncompressedBillingRecordWrappers("b14f84dc-ec63-4c0d-b65c-070bfe57295e", 10)).isEmpty();
+	}
+
+	@Test
+	void testFindUncompressedOpenEInstances() {
+		// The only fallout record has no OpenE-instance
+		assertThat(falloutRepository.findUncompressedOpenEInstances("", 10)).isEmpty();
+	}
+
+	@Test
+	void testCompressBillingRecordWrapperAndOpenEInstance() {
+		final var id = "b14f84dc-ec63-4c0d-b65c-070bfe57295e";
+		final var content = falloutRepository.findUncompressedBillingRecordWrappers("", 1).getFirst().getContent();
+
+		assertThat(jdbcTemplate.update(FALLOUT_BILLING_RECORD_WRAPPER.getUpdateSql(), compress(content), id)).isOne();
+		assertThat(jdbcTemplate.update(FALLOUT_OPENE_INSTANCE.getUpdateSql(), compress("<FlowInstance/>"), id)).isOne();
+
+		// The compressed row is no longer found, but still read as before
+		assertThat(falloutRepository.findUncompressedBillingRecordWrappers("", 10)).isEmpty();
+		assertThat(falloutRepository.findUncompressedOpenEInstances("", 10)).isEmpty();
+		assertThat(falloutRepository.findById(id)).hasValueSatisfying(entity -> {
+			assertThat(entity.getBillingRecordWrapper().getFlowInstanceId()).isEqualTo("185376");
+			assertThat(entity.getOpenEInstance()).isEqualTo("<FlowInstance/>");
+		});
+	}
 }
@@ -9,11 +9,16 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.billingdatacollector.integration.db.model.HistorySummary;
+import se.sundsvall.billingdatacollector.integration.db.model.StoredText;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.billingdatacollector.integration.db.converter.CompressedText.compress;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.HISTORY_BILLING_RECORD_WRAPPER;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = NONE)
@@ -27,6 +32,9 @@ class HistoryRepositoryTest {
 	@Autowired
 	private HistoryRepository historyRepository;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	@ParameterizedTest
 	@MethodSource("testValues")
 	void testExistsByFamilyIdAndFlowInstanceId(String familyId, String flowInstanceId, boolean expected) {
@@ -44,11 +52,52 @@ class HistoryRepositoryTest {
 	}
 
 	@Test
-	void testFindAllByFlowInstanceIdIn() {
-		// Only verifying that it finds the correct entities, not the content
-		final var historyEntities = historyRepository.findAllByFlowInstanceIdIn(List.of("185375", "185377", "doesnt_exist"));
-		assertThat(historyEntities).hasSize(2);
-		historyEntities.forEach(historyEntity -> assertThat(historyEntity.getFamilyId()).isEqualTo("358"));
-		historyEntities.forEach(historyEntity -> assertThat(historyEntity.getFlowInstanceId()).isIn("185375", "185377"));
+	void testFindSummariesByFlowInstanceIdIn() {
+		final var summaries = historyRepository.findSummariesByFlowInstanceIdIn(List.of("185375", "185377", "doesnt_exist"));
+		assertThat(summaries).hasSize(2);
+		summaries.forEach(summary -> assertThat(summary.getFamilyId()).isEqualTo("358"));
+		summaries.forEach(summary -> assertThat(summary.getMunicipalityId()).isEqualTo("2281"));
+		assertThat(summaries).extracting(HistorySummary::getFlowInstanceId).containsExactlyInAnyOrder("185375", "185377");
+		assertThat(summaries).extracting(HistorySummary::getLocation)
+			.containsExactlyInAnyOrder("/billingrecords/9945f909-068e-4bce-b485-a4a563f8d0d7", "/billingrecords/9945f909-068e-4bce-b485-a4a563f8d0d8");
+	}
+
+	@Test
+	void testFindFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn() {
+		final var flowInstanceIds = historyRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("358", List.of("185375", "185376", "185377", "doesnt_exist"));
+		assertThat(flowInstanceIds).containsExactlyInAnyOrder("185375", "185377");
+	}
+
+	@Test
+	void testFindFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn_otherFamilyId() {
+		final var flowInstanceIds = historyRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("012", List.of("185375", "185377"));
+		assertThat(flowInstanceIds).isEmpty();
+	}
+
+	@Test
+	void testFindUncompressedBillingRecordWrappers() {
+		final var firstBatch = historyRepository.findUncompressedBillingRecordWrappers("", 1);
+		assertThat(firstBatch).singleElement().satisfies(row -> {
+			assertThat(row.getId()).isEqualTo("b193283a-0f8b-491e-83d1-e5d806610f4b");
+			assertThat(row.getContent()).startsWith("{\"billingRecord\"");
+		});
+
+		final var secondBatch = historyRepository.findUncompressedBillingRecordWrappers(firstBatch.getFirst().getId(), 10);
+		assertThat(secondBatch).extracting(StoredText::getId).containsExactly("b193283a-0f8b-491e-83d1-e5d806610f4c");
+	}
+
+	@Test
+	void testCompressBillingRecordWrapper() {
+		final var id = "b193283a-0f8b-491e-83d1-e5d806610f4b";
+		final var content = historyRepository.findUncompressedBillingRecordWrappers("", 1).getFirst().getContent();
+
+		assertThat(jdbcTemplate.update(HISTORY_BILLING_RECORD_WRAPPER.getUpdateSql(), compress(content), id)).isOne();
+
+		// The compressed row is no longer found, but still read as before
+		assertThat(historyRepository.findUncompressedBillingRecordWrappers("", 10)).extracting(StoredText::getId).doesNotContain(id);
+		assertThat(historyRepository.findById(id)).hasValueSatisfying(entity -> {
+			assertThat(entity.getBillingRecordWrapper().getFlowInstanceId()).isEqualTo("185375");
+			assertThat(entity.getBillingRecordWrapper().getBillingRecord().getCategory()).isEqualTo("KUNDFAKTURA");
+		});
 	}
 }
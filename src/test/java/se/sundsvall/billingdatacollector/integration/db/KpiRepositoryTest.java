@@ -0,0 +1,101 @@
+package se.sundsvall.billingdatacollector.integration.db;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.billingdatacollector.integration.db.model.KpiEntity;
+import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_2020;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_80;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/truncate.sql",
+	"/db/testdata.sql"
+})
+class KpiRepositoryTest {
+
+	private static final YearMonth PERIOD = YearMonth.of(2025, 10);
+
+	@Autowired
+	private KpiRepository repository;
+
+	@Test
+	void saveAndFindByBaseYearAndPeriod() {
+		repository.saveAndFlush(KpiEntity.builder()
+			.withBaseYear(KPI_2020)
+			.withPeriod(PERIOD)
+			.withKpiValue(new BigDecimal("412.34"))
+			.build());
+
+		final var result = repository.findByBaseYearAndPeriod(KPI_2020, PERIOD);
+
+		assertThat(result).hasValueSatisfying(entity -> {
+			assertThat(entity.getId()).isNotNull();
+			assertThat(entity.getBaseYear()).isEqualTo(KPI_2020);
+			assertThat(entity.getPeriod()).isEqualTo(PERIOD);
+			assertThat(entity.getKpiValue()).isEqualByComparingTo("412.34");
+			assertThat(entity.getCreated()).isNotNull();
+		});
+		assertThat(repository.findByBaseYearAndPeriod(KPI_80, PERIOD)).isEmpty();
+		assertThat(repository.findByBaseYearAndPeriod(KPI_2020, PERIOD.minusMonths(1))).isEmpty();
+	}
+
+	@Test
+	void saveDuplicateBaseYearAndPeriod() {
+		repository.saveAndFlush(KpiEntity.builder()
+			.withBaseYear(KPI_2020)
+			.withPeriod(PERIOD)
+			.withKpiValue(new BigDecimal("412.34"))
+			.build());
+
+		final var duplicate = KpiEntity.builder()
+			.withBaseYear(KPI_2020)
+			.withPeriod(PERIOD)
+			.withKpiValue(new BigDecimal("412.34"))
+			.build();
+
+		assertThatThrownBy(() -> repository.saveAndFlush(duplicate))
+			.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void findByBaseYearAndPeriodBetween() {
+		repository.saveAllAndFlush(List.of(
+			kpi(KPI_2020, PERIOD.minusMonths(1)),
+			kpi(KPI_2020, PERIOD),
+			kpi(KPI_2020, PERIOD.plusMonths(3)),
+			kpi(KPI_2020, PERIOD.plusMonths(4)),
+			kpi(KPI_80, PERIOD)));
+
+		final var result = repository.findByBaseYearAndPeriodBetween(KPI_2020, PERIOD, PERIOD.plusMonths(3));
+
+		assertThat(result)
+			.extracting(KpiEntity::getBaseYear, KpiEntity::getPeriod)
+			.containsExactlyInAnyOrder(
+				tuple(KPI_2020, PERIOD),
+				tuple(KPI_2020, PERIOD.plusMonths(3)));
+	}
+
+	private static KpiEntity kpi(KPIBaseYear baseYear, YearMonth period) {
+		return KpiEntity.builder()
+			.withBaseYear(baseYear)
+			.withPeriod(period)
+			.withKpiValue(new BigDecimal("412.34"))
+			.build();
+	}
+}
@@ -0,0 +1,193 @@
+package se.sundsvall.billingdatacollector.integration.db;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * Verifies that the hot queries are answered through their indexes, by asking MariaDB for the query plans. The SQL
+ * explained is the SQL Hibernate sends for the repository call, captured with a statement inspector, so the plans
+ * follow the generated predicates, IN-lists included. The parameters are bound in the order they appear in the SQL.
+ *
+ * The tables are filled with enough rows, and analyzed, for the optimizer to prefer an index over a table scan. ANALYZE
+ * TABLE commits, so the test runs outside of a transaction and truncates the tables afterwards.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=se.sundsvall.billingdatacollector.integration.db.QueryPlanTest$StatementRecorder")
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Transactional(propagation = NOT_SUPPORTED)
+@Sql(scripts = {
+	"/db/truncate.sql",
+	"/db/queryplan.sql"
+})
+@Sql(scripts = "/db/truncate.sql", executionPhase = AFTER_TEST_METHOD)
+class QueryPlanTest {
+
+	private static final LocalDate DUE_DATE = LocalDate.of(2020, 1, 20);
+	private static final LocalDateTime NOW = LocalDateTime.of(2020, 1, 20, 12, 0);
+
+	@Autowired
+	private HistoryRepository historyRepository;
+
+	@Autowired
+	private FalloutRepository falloutRepository;
+
+	@Autowired
+	private ScheduledJobRepository scheduledJobRepository;
+
+	@Autowired
+	private ScheduledBillingRepository scheduledBillingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void existsHistoryByFamilyIdAndFlowInstanceId() {
+		final var sql = capture(() -> historyRepository.existsByFamilyIdAndFlowInstanceId("family-1", "flow-1"));
+
+		assertThat(explain(sql, "family-1", "flow-1", 1)).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void existsFalloutByFamilyIdAndFlowInstanceId() {
+		final var sql = capture(() -> falloutRepository.existsByFamilyIdAndFlowInstanceId("family-1", "flow-1"));
+
+		assertThat(explain(sql, "family-1", "flow-1", 1)).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void existsFalloutByFamilyIdAndFlowInstanceIdAndBillingRecordWrapperIsNotNull() {
+		final var sql = capture(() -> falloutRepository.existsByFamilyIdAndFlowInstanceIdAndBillingRecordWrapperIsNotNull("family-1", "flow-1"));
+
+		assertThat(explain(sql, "family-1", "flow-1", 1)).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void findHistoryFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn() {
+		final var sql = capture(() -> historyRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("family-1", List.of("flow-1", "flow-11", "flow-21")));
+
+		assertThat(explain(sql, "family-1", "flow-1", "flow-11", "flow-21")).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void findFalloutFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn() {
+		final var sql = capture(() -> falloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn("family-1", List.of("flow-1", "flow-11", "flow-21")));
+
+		assertThat(explain(sql, "family-1", "flow-1", "flow-11", "flow-21")).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void findFalloutFlowInstanceIdsWithBillingRecordWrapper() {
+		final var sql = capture(() -> falloutRepository.findFlowInstanceIdsWithBillingRecordWrapper("family-1", List.of("flow-1", "flow-11", "flow-21")));
+
+		assertThat(explain(sql, "family-1", "flow-1", "flow-11", "flow-21")).containsExactly("idx_family_id_flow_instance_id");
+	}
+
+	@Test
+	void findMunicipalityIdsByReportedIsFalse() {
+		final var sql = capture(() -> falloutRepository.findMunicipalityIdsByReportedIsFalse());
+
+		assertThat(explain(sql)).containsExactly("idx_reported_municipality_id");
+	}
+
+	@Test
+	void findUnreportedFalloutsByMunicipalityId() {
+		final var sql = capture(() -> falloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "", Limit.of(10)));
+
+		assertThat(explain(sql, "2281", "", 10)).containsExactly("idx_reported_municipality_id");
+	}
+
+	@Test
+	void findFirstScheduledJobByOrderByFetchedEndDateDesc() {
+		final var sql = capture(() -> scheduledJobRepository.findFirstByOrderByFetchedEndDateDesc());
+
+		assertThat(explain(sql, 1)).containsExactly("idx_fetched_end_date");
+	}
+
+	@Test
+	void findUncompressedHistoryBillingRecordWrappers() {
+		final var sql = capture(() -> historyRepository.findUncompressedBillingRecordWrappers("history-1", 10));
+
+		assertThat(explain(sql, "history-1", 10)).containsExactly("PRIMARY");
+	}
+
+	@Test
+	void findUncompressedFalloutBillingRecordWrappers() {
+		final var sql = capture(() -> falloutRepository.findUncompressedBillingRecordWrappers("fallout-1", 10));
+
+		assertThat(explain(sql, "fallout-1", 10)).containsExactly("PRIMARY");
+	}
+
+	@Test
+	void findUncompressedFalloutOpenEInstances() {
+		final var sql = capture(() -> falloutRepository.findUncompressedOpenEInstances("fallout-1", 10));
+
+		assertThat(explain(sql, "fallout-1", 10)).containsExactly("PRIMARY");
+	}
+
+	@Test
+	void findClaimableScheduledBillingIds() {
+		final var sql = capture(() -> scheduledBillingRepository.findClaimableIds(DUE_DATE, NOW, 10));
+
+		assertThat(explain(sql, DUE_DATE, NOW, 10)).containsExactly("idx_next_scheduled_billing_paused");
+	}
+
+	@Test
+	void claimScheduledBillings() {
+		final var sql = capture(() -> scheduledBillingRepository.claim(List.of("billing-1", "billing-2"), "instance", NOW.atZone(ZoneId.systemDefault()).toOffsetDateTime()));
+
+		assertThat(explain(sql, "instance", NOW, "billing-1", "billing-2")).containsExactly("PRIMARY");
+	}
+
+	// Runs the repository call in a transaction and returns the single statement it sent
+	private String capture(Runnable repositoryCall) {
+		StatementRecorder.STATEMENTS.clear();
+		new TransactionTemplate(transactionManager).executeWithoutResult(_ -> repositoryCall.run());
+
+		assertThat(StatementRecorder.STATEMENTS).hasSize(1);
+		return StatementRecorder.STATEMENTS.getFirst();
+	}
+
+	// Returns the key chosen by the optimizer for each table in the plan
+	private List<String> explain(String sql, Object... parameters) {
+		assertThat(sql.chars().filter(c -> c == '?')).as(sql).hasSize(parameters.length);
+
+		return jdbcTemplate.query("EXPLAIN " + sql, (resultSet, _) -> resultSet.getString("key"), parameters);
+	}
+
+	/**
+	 * Records the SQL of the statements Hibernate prepares.
+	 */
+	public static class StatementRecorder implements StatementInspector {
+
+		private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
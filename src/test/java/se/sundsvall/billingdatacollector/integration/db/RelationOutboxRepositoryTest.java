@@ -0,0 +1,81 @@
+package se.sundsvall.billingdatacollector.integration.db;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/truncate.sql",
+	"/db/testdata.sql"
+})
+class RelationOutboxRepositoryTest {
+
+	@Autowired
+	private RelationOutboxRepository repository;
+
+	@Test
+	void saveSetsCreatedAndNextAttemptAt() {
+		final var saved = repository.saveAndFlush(createEntity("2026-00001", null));
+
+		assertThat(repository.findById(saved.getId())).hasValueSatisfying(entity -> {
+			assertThat(entity.getMunicipalityId()).isEqualTo("2281");
+			assertThat(entity.getContractId()).isEqualTo("2026-00001");
+			assertThat(entity.getBillingRecordId()).isEqualTo("billingRecordId");
+			assertThat(entity.getAttempts()).isZero();
+			assertThat(entity.isParked()).isFalse();
+			assertThat(entity.getCreated()).isNotNull();
+			assertThat(entity.getNextAttemptAt()).isEqualTo(entity.getCreated());
+		});
+	}
+
+	@Test
+	void findByParkedFalseAndNextAttemptAtLessThanEqual() {
+		final var now = OffsetDateTime.now();
+		final var parked = createEntity("2026-00005", now.minusMinutes(20));
+		parked.setParked(true);
+		repository.saveAllAndFlush(List.of(
+			createEntity("2026-00001", now.minusMinutes(1)),
+			createEntity("2026-00002", now.minusMinutes(10)),
+			createEntity("2026-00003", now.minusMinutes(5)),
+			createEntity("2026-00004", now.plusMinutes(5)),
+			parked));
+
+		assertThat(repository.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(now, Limit.of(10)))
+			.extracting(RelationOutboxEntity::getContractId)
+			.containsExactly("2026-00002", "2026-00003", "2026-00001");
+		assertThat(repository.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(now, Limit.of(2)))
+			.extracting(RelationOutboxEntity::getContractId)
+			.containsExactly("2026-00002", "2026-00003");
+	}
+
+	@Test
+	void countByParkedTrue() {
+		final var parked = createEntity("2026-00002", null);
+		parked.setParked(true);
+		repository.saveAllAndFlush(List.of(createEntity("2026-00001", null), parked));
+
+		assertThat(repository.countByParkedTrue()).isOne();
+	}
+
+	private static RelationOutboxEntity createEntity(String contractId, OffsetDateTime nextAttemptAt) {
+		return RelationOutboxEntity.builder()
+			.withMunicipalityId("2281")
+			.withContractId(contractId)
+			.withBillingRecordId("billingRecordId")
+			.withNextAttemptAt(nextAttemptAt)
+			.build();
+	}
+}
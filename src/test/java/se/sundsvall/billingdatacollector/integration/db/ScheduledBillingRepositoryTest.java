@@ -1,6 +1,7 @@
 package se.sundsvall.billingdatacollector.integration.db;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -38,7 +40,7 @@ class ScheduledBillingRepositoryTest {
 	void findReadyForBilling() {
 		final var today = LocalDate.now();
 
-		final var result = repository.findAllByPausedFalseAndNextScheduledBillingLessThanEqual(today);
+		final var result = repository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "", Limit.of(10));
 
 		assertThat(result)
 			.isNotNull()
@@ -47,6 +49,43 @@ class ScheduledBillingRepositoryTest {
 			.allMatch(entity -> entity.getNextScheduledBilling().isBefore(today));
 	}
 
+	@Test
+	void findReadyForBillingByPage() {
+		final var today = LocalDate.now();
+
+		final var firstPage = repository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "", Limit.of(1));
+		final var secondPage = repository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, firstPage.getLast().getId(), Limit.of(1));
+		final var thirdPage = repository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, secondPage.getLast().getId(), Limit.of(1));
+
+		assertThat(firstPage).extracting(ScheduledBillingEntity::getId).containsExactly("a1b2c3d4-e5f6-7890-abcd-ef1234567890");
+		assertThat(secondPage).extracting(ScheduledBillingEntity::getId).containsExactly("f0882f1d-06bc-47fd-b017-1d8307f5ce95");
+		assertThat(thirdPage).isEmpty();
+	}
+
+	@Test
+	void countReadyForBilling() {
+		assertThat(repository.countByPausedFalseAndNextScheduledBillingLessThanEqual(LocalDate.now())).isEqualTo(2);
+	}
+
+	@Test
+	void findClaimableIdsAndClaim() {
+		final var today = LocalDate.now();
+		final var now = LocalDateTime.now();
+
+		final var claimable = repository.findClaimableIds(today, now, 10);
+		final var claimed = repository.claim(claimable, "instance-1", OffsetDateTime.now().plusMinutes(30));
+
+		assertThat(claimable).containsExactly("a1b2c3d4-e5f6-7890-abcd-ef1234567890", "f0882f1d-06bc-47fd-b017-1d8307f5ce95");
+		assertThat(claimed).isEqualTo(2);
+		assertThat(repository.findAllById(claimable)).allSatisfy(entity -> {
+			assertThat(entity.getClaimedBy()).isEqualTo("instance-1");
+			assertThat(entity.getClaimedUntil()).isAfter(OffsetDateTime.now());
+		});
+		// Claimed rows aren't claimable until the claim has expired
+		assertThat(repository.findClaimableIds(today, now, 10)).isEmpty();
+		assertThat(repository.findClaimableIds(today, now.plusHours(1), 10)).hasSize(2);
+	}
+
 	@Test
 	void existsByMunicipalityIdAndExternalIdAndSource() {
 		final var externalId = "2026-00001";
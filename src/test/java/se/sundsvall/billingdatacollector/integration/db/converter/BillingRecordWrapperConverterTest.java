@@ -123,4 +123,18 @@ class BillingRecordWrapperConverterTest {
 				assertThat(exception.getMessage()).contains("Unable to deserialize billing data wrapper");
 			});
 	}
+
+	@Test
+	void convertCompressed(@Load("/billingpreprocessor/billing-record.json") String recordAsJson) throws JSONException {
+		final var compressingConverter = new BillingRecordWrapperConverter(true);
+		final var wrapper = converter.convertToEntityAttribute(recordAsJson);
+
+		final var stored = compressingConverter.convertToDatabaseColumn(wrapper);
+
+		assertThat(stored).startsWith(CompressedText.PREFIX);
+		JSONAssert.assertEquals(recordAsJson, CompressedText.decompress(stored), true);
+		// Compressed and uncompressed values are read by both converters
+		assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(wrapper);
+		assertThat(compressingConverter.convertToEntityAttribute(recordAsJson)).isEqualTo(wrapper);
+	}
 }
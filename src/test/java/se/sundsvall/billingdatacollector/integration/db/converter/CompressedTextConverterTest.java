@@ -0,0 +1,31 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedTextConverterTest {
+
+	private static final String XML = "<FlowInstance><Values><Name>Kalle Anka</Name></Values></FlowInstance>";
+
+	@Test
+	void convertToDatabaseColumn() {
+		assertThat(new CompressedTextConverter().convertToDatabaseColumn(XML)).isEqualTo(XML);
+		assertThat(new CompressedTextConverter(false).convertToDatabaseColumn(XML)).isEqualTo(XML);
+		assertThat(new CompressedTextConverter(true).convertToDatabaseColumn(XML)).startsWith(CompressedText.PREFIX);
+	}
+
+	@Test
+	void convertToDatabaseColumn_shouldReturnNull_whenAttributeIsNull() {
+		assertThat(new CompressedTextConverter(true).convertToDatabaseColumn(null)).isNull();
+	}
+
+	@Test
+	void convertToEntityAttribute() {
+		final var converter = new CompressedTextConverter();
+
+		assertThat(converter.convertToEntityAttribute(XML)).isEqualTo(XML);
+		assertThat(converter.convertToEntityAttribute(CompressedText.compress(XML))).isEqualTo(XML);
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+	}
+}
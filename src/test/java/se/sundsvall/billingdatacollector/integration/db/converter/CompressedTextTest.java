@@ -0,0 +1,48 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CompressedTextTest {
+
+	private static final String TEXT = "<FlowInstance><Values><Name>Kalle Änka</Name></Values></FlowInstance>".repeat(20);
+
+	@Test
+	void compressAndDecompress() {
+		final var compressed = CompressedText.compress(TEXT);
+
+		assertThat(compressed).startsWith(CompressedText.PREFIX).hasSizeLessThan(TEXT.length());
+		assertThat(CompressedText.isCompressed(compressed)).isTrue();
+		assertThat(CompressedText.decompress(compressed)).isEqualTo(TEXT);
+	}
+
+	@Test
+	void compressAlreadyCompressedValue() {
+		final var compressed = CompressedText.compress(TEXT);
+
+		assertThat(CompressedText.compress(compressed)).isEqualTo(compressed);
+	}
+
+	@Test
+	void decompressUncompressedValue() {
+		assertThat(CompressedText.isCompressed(TEXT)).isFalse();
+		assertThat(CompressedText.decompress(TEXT)).isEqualTo(TEXT);
+	}
+
+	@Test
+	void nullValue() {
+		assertThat(CompressedText.isCompressed(null)).isFalse();
+		assertThat(CompressedText.compress(null)).isNull();
+		assertThat(CompressedText.decompress(null)).isNull();
+	}
+
+	@Test
+	void decompressCorruptValue() {
+		assertThatExceptionOfType(PersistenceException.class)
+			.isThrownBy(() -> CompressedText.decompress(CompressedText.PREFIX + "not gzip"))
+			.withMessage("Unable to decompress value");
+	}
+}
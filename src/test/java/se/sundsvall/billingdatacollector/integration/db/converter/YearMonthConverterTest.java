@@ -0,0 +1,32 @@
+package se.sundsvall.billingdatacollector.integration.db.converter;
+
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YearMonthConverterTest {
+
+	private final YearMonthConverter converter = new YearMonthConverter();
+
+	@Test
+	void convertToDatabaseColumn() {
+		assertThat(converter.convertToDatabaseColumn(YearMonth.of(2025, 10))).isEqualTo("2025-10");
+		assertThat(converter.convertToDatabaseColumn(YearMonth.of(2025, 1))).isEqualTo("2025-01");
+	}
+
+	@Test
+	void convertToDatabaseColumnWithNull() {
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+	}
+
+	@Test
+	void convertToEntityAttribute() {
+		assertThat(converter.convertToEntityAttribute("2025-10")).isEqualTo(YearMonth.of(2025, 10));
+	}
+
+	@Test
+	void convertToEntityAttributeWithNull() {
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+	}
+}
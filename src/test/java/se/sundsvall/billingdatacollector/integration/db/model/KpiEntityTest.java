@@ -0,0 +1,80 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.UUID;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.hamcrest.CoreMatchers.allOf;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_2020;
+
+class KpiEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+		registerValueGenerator(() -> YearMonth.now().plusMonths(new Random().nextInt(1000)), YearMonth.class);
+		registerValueGenerator(() -> BigDecimal.valueOf(new Random().nextInt(100000), 2), BigDecimal.class);
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(KpiEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var id = UUID.randomUUID().toString();
+		final var baseYear = KPI_2020;
+		final var period = YearMonth.of(2025, 10);
+		final var kpiValue = new BigDecimal("412.34");
+		final var created = OffsetDateTime.now();
+
+		final var entity = KpiEntity.builder()
+			.withId(id)
+			.withBaseYear(baseYear)
+			.withPeriod(period)
+			.withKpiValue(kpiValue)
+			.withCreated(created)
+			.build();
+
+		assertThat(entity).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(entity.getId()).isEqualTo(id);
+		assertThat(entity.getBaseYear()).isEqualTo(baseYear);
+		assertThat(entity.getPeriod()).isEqualTo(period);
+		assertThat(entity.getKpiValue()).isEqualTo(kpiValue);
+		assertThat(entity.getCreated()).isEqualTo(created);
+	}
+
+	@Test
+	void testNoDirt() {
+		assertThat(KpiEntity.builder().build()).hasAllNullFieldsOrProperties();
+		assertThat(new KpiEntity()).hasAllNullFieldsOrProperties();
+	}
+
+	@Test
+	void testPrePersist() {
+		final var entity = new KpiEntity();
+		entity.prePersist();
+		assertThat(entity.getCreated()).isCloseTo(OffsetDateTime.now(), within(5, ChronoUnit.SECONDS));
+		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("created");
+	}
+}
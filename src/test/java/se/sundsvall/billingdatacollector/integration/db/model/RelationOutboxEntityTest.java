@@ -0,0 +1,100 @@
+package se.sundsvall.billingdatacollector.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.UUID;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class RelationOutboxEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(RelationOutboxEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var id = UUID.randomUUID().toString();
+		final var municipalityId = "2281";
+		final var contractId = "2026-00001";
+		final var billingRecordId = UUID.randomUUID().toString();
+		final var attempts = 3;
+		final var nextAttemptAt = OffsetDateTime.now().plusMinutes(4);
+		final var parked = true;
+		final var lastError = "Service Unavailable";
+		final var created = OffsetDateTime.now();
+
+		final var entity = RelationOutboxEntity.builder()
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withContractId(contractId)
+			.withBillingRecordId(billingRecordId)
+			.withAttempts(attempts)
+			.withNextAttemptAt(nextAttemptAt)
+			.withParked(parked)
+			.withLastError(lastError)
+			.withCreated(created)
+			.build();
+
+		assertThat(entity).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(entity.getId()).isEqualTo(id);
+		assertThat(entity.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(entity.getContractId()).isEqualTo(contractId);
+		assertThat(entity.getBillingRecordId()).isEqualTo(billingRecordId);
+		assertThat(entity.getAttempts()).isEqualTo(attempts);
+		assertThat(entity.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+		assertThat(entity.isParked()).isEqualTo(parked);
+		assertThat(entity.getLastError()).isEqualTo(lastError);
+		assertThat(entity.getCreated()).isEqualTo(created);
+	}
+
+	@Test
+	void testNoDirt() {
+		assertThat(RelationOutboxEntity.builder().build())
+			.hasAllNullFieldsOrPropertiesExcept("attempts", "parked")
+			.extracting("attempts", "parked").containsExactly(0, false);
+		assertThat(new RelationOutboxEntity())
+			.hasAllNullFieldsOrPropertiesExcept("attempts", "parked")
+			.extracting("attempts", "parked").containsExactly(0, false);
+	}
+
+	@Test
+	void testPrePersist() {
+		final var entity = new RelationOutboxEntity();
+		entity.prePersist();
+		assertThat(entity.getCreated()).isCloseTo(OffsetDateTime.now(), within(5, ChronoUnit.SECONDS));
+		assertThat(entity.getNextAttemptAt()).isEqualTo(entity.getCreated());
+		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("attempts", "parked", "created", "nextAttemptAt");
+	}
+
+	@Test
+	void testPrePersistKeepsNextAttemptAt() {
+		final var nextAttemptAt = OffsetDateTime.now().plusHours(1);
+		final var entity = RelationOutboxEntity.builder().withNextAttemptAt(nextAttemptAt).build();
+		entity.prePersist();
+		assertThat(entity.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+	}
+}
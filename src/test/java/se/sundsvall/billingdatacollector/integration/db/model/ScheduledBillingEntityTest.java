@@ -50,6 +50,8 @@ class ScheduledBillingEntityTest {
 		final var nextScheduledBilling = LocalDate.now().plusMonths(1);
 		final var invoicedIn = InvoicedIn.ADVANCE;
 		final var paused = true;
+		final var claimedBy = "instance-1";
+		final var claimedUntil = OffsetDateTime.now().plusMinutes(30);
 
 		final var entity = ScheduledBillingEntity.builder()
 			.withId(id)
@@ -62,6 +64,8 @@ class ScheduledBillingEntityTest {
 			.withNextScheduledBilling(nextScheduledBilling)
 			.withInvoicedIn(invoicedIn)
 			.withPaused(paused)
+			.withClaimedBy(claimedBy)
+			.withClaimedUntil(claimedUntil)
 			.build();
 
 		assertThat(entity).isNotNull().hasNoNullFieldsOrProperties();
@@ -75,6 +79,8 @@ class ScheduledBillingEntityTest {
 		assertThat(entity.getNextScheduledBilling()).isEqualTo(nextScheduledBilling);
 		assertThat(entity.getInvoicedIn()).isEqualTo(invoicedIn);
 		assertThat(entity.isPaused()).isEqualTo(paused);
+		assertThat(entity.getClaimedBy()).isEqualTo(claimedBy);
+		assertThat(entity.getClaimedUntil()).isEqualTo(claimedUntil);
 	}
 
 	@Test
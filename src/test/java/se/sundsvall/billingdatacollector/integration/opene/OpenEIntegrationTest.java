@@ -1,11 +1,16 @@
 package se.sundsvall.billingdatacollector.integration.opene;
 
+import feign.Request;
+import feign.Response;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.billingdatacollector.integration.opene.util.OpenEDocument;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 import se.sundsvall.billingdatacollector.service.DbService;
 import se.sundsvall.dept44.problem.ThrowableProblem;
@@ -19,6 +24,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 
 @ExtendWith({
@@ -56,10 +62,58 @@ class OpenEIntegrationTest {
 		verifyNoMoreInteractions(mockMapper);
 	}
 
+	@Test
+	void testStreamFlowInstanceIds(@Load("/open-e/flow-instances.xml") final String xml) {
+		when(mockOpenEClient.getErrandsAsStream("123", "2024-04-25", "2024-04-25")).thenReturn(createResponse(200, xml.getBytes(ISO_8859_1)));
+		final List<String> result = new ArrayList<>();
+
+		openEIntegration.streamFlowInstanceIds("123", "2024-04-25", "2024-04-25", result::add);
+
+		assertThat(result).containsExactly("123456", "234567", "345678");
+		verify(mockOpenEClient).getErrandsAsStream("123", "2024-04-25", "2024-04-25");
+		verifyNoMoreInteractions(mockOpenEClient, mockMapper);
+	}
+
+	@Test
+	void testStreamFlowInstanceIds_notFound() {
+		when(mockOpenEClient.getErrandsAsStream("123", "2024-04-25", "2024-04-25")).thenReturn(createResponse(404, new byte[0]));
+		final List<String> result = new ArrayList<>();
+
+		openEIntegration.streamFlowInstanceIds("123", "2024-04-25", "2024-04-25", result::add);
+
+		assertThat(result).isEmpty();
+		verify(mockOpenEClient).getErrandsAsStream("123", "2024-04-25", "2024-04-25");
+		verifyNoMoreInteractions(mockOpenEClient, mockMapper);
+	}
+
+	@Test
+	void testStreamFlowInstanceIds_errorFromOpenE() {
+		when(mockOpenEClient.getErrandsAsStream("123", "2024-04-25", "2024-04-25")).thenReturn(createResponse(500, new byte[0]));
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> openEIntegration.streamFlowInstanceIds("123", "2024-04-25", "2024-04-25", flowInstanceId -> {}))
+			.satisfies(throwableProblem -> {
+				assertThat(throwableProblem.getStatus()).isEqualTo(BAD_GATEWAY);
+				assertThat(throwableProblem.getTitle()).isEqualTo("Couldn't get flowInstanceIds from OpenE");
+				assertThat(throwableProblem.getDetail()).isEqualTo("OpenE responded with status: 500");
+			});
+
+		verify(mockOpenEClient).getErrandsAsStream("123", "2024-04-25", "2024-04-25");
+		verifyNoMoreInteractions(mockOpenEClient, mockMapper);
+	}
+
+	private static Response createResponse(int status, byte[] body) {
+		return Response.builder()
+			.status(status)
+			.request(Request.create(Request.HttpMethod.GET, "http://open-e.nosuchhost.com", Map.of(), null, null, null))
+			.body(body)
+			.build();
+	}
+
 	@Test
 	void testGetBillingRecord(@Load("/open-e/flow-instance.internal.organization.xml") final String xml) {
 		when(mockOpenEClient.getErrand("123456")).thenReturn(xml.getBytes(ISO_8859_1));
-		when(mockMapper.mapToBillingRecordWrapper(any(byte[].class))).thenReturn(BillingRecordWrapper.builder().build());
+		when(mockMapper.mapToBillingRecordWrapper(any(OpenEDocument.class))).thenReturn(BillingRecordWrapper.builder().build());
 
 		final var result = openEIntegration.getBillingRecord("123456");
 		assertThat(result).isNotNull();
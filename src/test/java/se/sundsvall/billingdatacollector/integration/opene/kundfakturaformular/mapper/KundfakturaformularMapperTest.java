@@ -233,9 +233,9 @@ class KundfakturaformularMapperTest {
 
 	@Test
 	void test404FromOpenE_shouldThrowException() {
-		// We should have bailed out before this, maybe corrupt xml could cause this exception though
+		// We should have bailed out before this, the (lenient) parser accepts the html but it's not a flow instance
 		final var openEFile = TestDataFactory.readBytesFromOpenEFile("flow-instance.404.xml");
 		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> mapper.mapToBillingRecordWrapper(openEFile))
-			.satisfies(e -> assertThat(e.getMessage()).contains("Error parsing xml"));
+			.satisfies(e -> assertThat(e.getMessage()).contains("Namespace mismatch: expected http://www.oeplatform.org/version/2.0/schemas/flowinstance but found null"));
 	}
 }
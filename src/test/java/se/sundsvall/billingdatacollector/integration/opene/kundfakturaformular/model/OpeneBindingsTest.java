@@ -0,0 +1,65 @@
+package se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.OpeneBindings.Binding;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.BarakningarExtern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpeneBindingsTest {
+
+	@Test
+	void bindingsCoverAllModelClasses() {
+		assertThat(OpeneBindings.getBindings()).containsOnlyKeys(
+			"AktivitetskontoIntern", "AnsvarIntern", "BerakningarIntern", "BerakningIntern", "ProjektkontoIntern", "SummeringIntern", "UnderkontoIntern", "VerksamhetIntern",
+			"AktivitetskontoExtern", "AnsvarExtern", "BarakningarExtern", "BerakningarExtern", "BerakningExtern", "MomssatsExtern", "ObjektkontoExtern", "ProjektkontoExtern",
+			"SummeringExtern", "UnderkontoExtern", "VerksamhetExtern");
+	}
+
+	@Test
+	void bindingsCoverAllSetters() {
+		OpeneBindings.getBindings().values().forEach(binding -> {
+			final var expectedProperties = Arrays.stream(binding.type().getMethods())
+				.filter(method -> method.getName().startsWith("set"))
+				.filter(method -> method.getParameterCount() == 1 && method.getParameterTypes()[0] == String.class)
+				.map(Method::getName)
+				.map(name -> name.substring("set".length()))
+				.toList();
+
+			assertThat(binding.getSetters().keySet()).as(binding.name()).containsExactlyInAnyOrderElementsOf(expectedProperties);
+			assertThat(binding.newInstance()).isInstanceOf(binding.type());
+		});
+	}
+
+	@Test
+	void forNode() {
+		final var binding = OpeneBindings.forNode("BarakningarExtern");
+
+		assertThat(binding).isPresent();
+		assertThat(binding.get().type()).isEqualTo(BarakningarExtern.class);
+	}
+
+	@Test
+	void forUnknownNode() {
+		assertThat(OpeneBindings.forNode("Unknown")).isEmpty();
+		assertThat(OpeneBindings.forNode("barakningarExtern")).isEmpty();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void set() {
+		final var binding = (Binding<BarakningarExtern>) OpeneBindings.forNode("BarakningarExtern").orElseThrow();
+		final var object = binding.newInstance();
+
+		assertThat(binding.set(object, "QueryID", "1")).isTrue();
+		assertThat(binding.set(object, "Name", "name")).isTrue();
+		assertThat(binding.set(object, "FakturatextExtern", "text")).isTrue();
+		assertThat(binding.set(object, "AntalExtern", "2")).isTrue();
+		assertThat(binding.set(object, "APrisExtern", "3")).isTrue();
+		assertThat(binding.set(object, "Unknown", "value")).isFalse();
+
+		assertThat(object).isEqualTo(new BarakningarExtern("1", "name", "text", "2", "3"));
+	}
+}
@@ -0,0 +1,65 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class FlowInstanceIdStreamReaderTest {
+
+	@Test
+	void read(@Load("/open-e/flow-instances.xml") final String xml) {
+		final List<String> result = new ArrayList<>();
+
+		FlowInstanceIdStreamReader.read(new ByteArrayInputStream(xml.getBytes(ISO_8859_1)), result::add);
+
+		assertThat(result).containsExactly("123456", "234567", "345678");
+	}
+
+	@Test
+	void readOnlyMatchesFullPath() {
+		final var xml = """
+			<?xml version="1.0" encoding="ISO-8859-1"?>
+			<FlowInstances>
+				<flowInstanceID>1</flowInstanceID>
+				<FlowInstance>
+					<flowInstanceID> 2 </flowInstanceID>
+					<Other><flowInstanceID>3</flowInstanceID></Other>
+				</FlowInstance>
+				<Other><FlowInstance><flowInstanceID>4</flowInstanceID></FlowInstance></Other>
+				<FlowInstance><flowInstanceID>5</flowInstanceID></FlowInstance>
+			</FlowInstances>
+			""";
+		final List<String> result = new ArrayList<>();
+
+		FlowInstanceIdStreamReader.read(new ByteArrayInputStream(xml.getBytes(ISO_8859_1)), result::add);
+
+		assertThat(result).containsExactly("2", "5");
+	}
+
+	@Test
+	void readEmptyList() {
+		final List<String> result = new ArrayList<>();
+
+		FlowInstanceIdStreamReader.read(new ByteArrayInputStream("<FlowInstances/>".getBytes(ISO_8859_1)), result::add);
+
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void readInvalidXml() {
+		final var inputStream = new ByteArrayInputStream("<FlowInstances><FlowInstance>".getBytes(ISO_8859_1));
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> FlowInstanceIdStreamReader.read(inputStream, flowInstanceId -> {}))
+			.withMessage("Error parsing xml");
+	}
+}
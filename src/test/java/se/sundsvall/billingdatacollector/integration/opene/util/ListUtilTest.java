@@ -0,0 +1,147 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.BerakningExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.MomssatsExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.external.SummeringExtern;
+import se.sundsvall.billingdatacollector.integration.opene.kundfakturaformular.model.internal.BerakningIntern;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class ListUtilTest {
+
+	private final ListUtil listUtil = new ListUtil();
+
+	@Test
+	void parseListsExternal(@Load("/open-e/flow-instance.external.person.xml") final String xml) {
+		// Act
+		final var collections = listUtil.parseLists(OpenEDocument.parse(xml.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(collections.getBerakningExternMap()).containsOnlyKeys(1);
+		assertThat(collections.getBerakningExternMap().get(1))
+			.extracting(BerakningExtern::getQueryID, BerakningExtern::getFakturatextExtern, BerakningExtern::getAntalExtern, BerakningExtern::getAPrisExtern)
+			.containsExactly("63614", "Slutfaktura 1st. pengavalv", "1", "24000,00");
+		assertThat(collections.getSummeringExternMap().get(1))
+			.extracting(SummeringExtern::getQueryID, SummeringExtern::getTotSummeringExtern)
+			.containsExactly("63618", "15000,00 SEK");
+		assertThat(collections.getMomssatsExternMap().get(1))
+			.extracting(MomssatsExtern::getQueryID, MomssatsExtern::getValue)
+			.containsExactly("63619", "25");
+		assertThat(collections.getBerakningInternMap()).isEmpty();
+	}
+
+	@Test
+	void parseListsInternal(@Load("/open-e/flow-instance.internal.organization.xml") final String xml) {
+		// Act
+		final var collections = listUtil.parseLists(OpenEDocument.parse(xml.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(collections.getBerakningInternMap()).containsKey(2);
+		assertThat(collections.getBerakningInternMap().get(2))
+			.extracting(BerakningIntern::getQueryID, BerakningIntern::getFakturatextIntern, BerakningIntern::getAntalIntern, BerakningIntern::getAPrisIntern)
+			.containsExactly("17058", "Bra fakturatext2", "1", "234.56");
+		assertThat(collections.getBerakningExternMap()).isEmpty();
+	}
+
+	@Test
+	void parseListsWithPrefixedNamespace() {
+		final var xml = """
+			<oep:FlowInstance xmlns:oep="http://www.oeplatform.org/version/2.0/schemas/flowinstance">
+				<oep:Values>
+					<oep:MomssatsExtern1>
+						<oep:QueryID>63619</oep:QueryID>
+						<oep:Value>25</oep:Value>
+					</oep:MomssatsExtern1>
+				</oep:Values>
+			</oep:FlowInstance>
+			""";
+
+		// Act
+		final var collections = listUtil.parseLists(OpenEDocument.parse(xml.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(collections.getMomssatsExternMap().get(1))
+			.extracting(MomssatsExtern::getQueryID, MomssatsExtern::getValue)
+			.containsExactly("63619", "25");
+	}
+
+	@Test
+	void parseListsIgnoresValuesInOtherNamespace() {
+		// Values elements declared in another namespace, both by prefix and by default namespace, come before the real one
+		final var xml = """
+			<FlowInstance xmlns="http://www.oeplatform.org/version/2.0/schemas/flowinstance">
+				<Header>
+					<other:Values xmlns:other="http://other.namespace">
+						<MomssatsExtern1><QueryID>1</QueryID><Value>6</Value></MomssatsExtern1>
+					</other:Values>
+					<Attachment xmlns="http://other.namespace">
+						<Values>
+							<MomssatsExtern1><QueryID>2</QueryID><Value>12</Value></MomssatsExtern1>
+						</Values>
+					</Attachment>
+				</Header>
+				<Values>
+					<MomssatsExtern1><QueryID>63619</QueryID><Value>25</Value></MomssatsExtern1>
+				</Values>
+			</FlowInstance>
+			""";
+
+		// Act
+		final var collections = listUtil.parseLists(OpenEDocument.parse(xml.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(collections.getMomssatsExternMap()).containsOnlyKeys(1);
+		assertThat(collections.getMomssatsExternMap().get(1))
+			.extracting(MomssatsExtern::getQueryID, MomssatsExtern::getValue)
+			.containsExactly("63619", "25");
+	}
+
+	@Test
+	void parseListsWithNamespaceOnlyDeclaredOnChild() {
+		// Only the namespace of the root element is checked, just as before
+		final var xml = """
+			<FlowInstance>
+				<Values xmlns="http://www.oeplatform.org/version/2.0/schemas/flowinstance">
+					<MomssatsExtern1><QueryID>63619</QueryID><Value>25</Value></MomssatsExtern1>
+				</Values>
+			</FlowInstance>
+			""";
+		final var document = OpenEDocument.parse(xml.getBytes(UTF_8));
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> listUtil.parseLists(document))
+			.withMessage("Namespace mismatch: expected http://www.oeplatform.org/version/2.0/schemas/flowinstance but found null");
+	}
+
+	@Test
+	void parseListsWithoutValues() {
+		final var xml = """
+			<FlowInstance xmlns="http://www.oeplatform.org/version/2.0/schemas/flowinstance">
+				<Header/>
+			</FlowInstance>
+			""";
+
+		// Act
+		final var collections = listUtil.parseLists(OpenEDocument.parse(xml.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(collections.getMomssatsExternMap()).isEmpty();
+		assertThat(collections.getBerakningExternMap()).isEmpty();
+	}
+
+	@Test
+	void parseListsWithWrongNamespace(@Load("/open-e/misc.xml") final String xml) {
+		final var document = OpenEDocument.parse(xml.getBytes(UTF_8));
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> listUtil.parseLists(document))
+			.withMessageStartingWith("Namespace mismatch");
+	}
+}
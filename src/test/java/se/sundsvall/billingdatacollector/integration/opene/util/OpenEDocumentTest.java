@@ -0,0 +1,43 @@
+package se.sundsvall.billingdatacollector.integration.opene.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.billingdatacollector.integration.opene.util.annotation.XPath;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class OpenEDocumentTest {
+
+	@Test
+	void parse(@Load("/open-e/misc.xml") final String xml) {
+		final var bytes = xml.getBytes(UTF_8);
+
+		final var document = OpenEDocument.parse(bytes);
+
+		assertThat(document.xml()).isSameAs(bytes);
+		assertThat(document.document()).isNotNull();
+		assertThat(document.document().children().first().tagName()).isEqualTo("menu");
+	}
+
+	@Test
+	void getString(@Load("/open-e/misc.xml") final String xml) {
+		final var document = OpenEDocument.parse(xml.getBytes(UTF_8));
+
+		assertThat(document.getString("/menu/dish[1]/name")).isEqualTo("Waffles");
+		assertThat(document.getString("/menu/dish[2]/name")).isEqualTo("Cheeseburger");
+		assertThat(document.getString("/menu/dish[3]/name")).isNull();
+	}
+
+	@Test
+	void extractValue(@Load("/open-e/misc.xml") final String xml) {
+		final var document = OpenEDocument.parse(xml.getBytes(UTF_8));
+
+		assertThat(document.extractValue(Dish.class)).isEqualTo(new Dish("Waffles", 650));
+	}
+
+	record Dish(@XPath("/menu/dish[1]/name") String name, @XPath("/menu/dish[1]/calories") Integer calories) {}
+}
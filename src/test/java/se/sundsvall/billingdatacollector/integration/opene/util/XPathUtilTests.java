@@ -1,5 +1,7 @@
 package se.sundsvall.billingdatacollector.integration.opene.util;
 
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -21,10 +23,12 @@ import static org.mockito.Mockito.mockStatic;
 class XPathUtilTests {
 
 	private byte[] xml;
+	private Document document;
 
 	@BeforeEach
 	void setUp(@Load("/open-e/misc.xml") final String xml) {
 		this.xml = xml.getBytes(UTF_8);
+		this.document = XPathUtil.parseXmlDocument(this.xml);
 	}
 
 	@Test
@@ -68,14 +72,14 @@ class XPathUtilTests {
 		final var dummyStringValue = "someStringValue";
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
 
-			mockXPathUtil.when(() -> XPathUtil.getString(xml, "/some/path")).thenReturn(dummyStringValue);
+			mockXPathUtil.when(() -> XPathUtil.getString(document, "/some/path")).thenReturn(dummyStringValue);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", String.class)).isEqualTo(dummyStringValue);
+			assertThat(XPathUtil.getValue(document, "/some/path", String.class)).isEqualTo(dummyStringValue);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.getString(xml, "/some/path"));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.getString(document, "/some/path"));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -85,13 +89,13 @@ class XPathUtilTests {
 		final var dummyIntegerValue = 12345;
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
-			mockXPathUtil.when(() -> XPathUtil.getInteger(xml, "/some/path")).thenReturn(dummyIntegerValue);
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.getInteger(document, "/some/path")).thenReturn(dummyIntegerValue);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", Integer.class)).isEqualTo(dummyIntegerValue);
+			assertThat(XPathUtil.getValue(document, "/some/path", Integer.class)).isEqualTo(dummyIntegerValue);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.getInteger(xml, "/some/path"));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.getInteger(document, "/some/path"));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -101,13 +105,13 @@ class XPathUtilTests {
 		final var dummyBooleanValue = true;
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
-			mockXPathUtil.when(() -> XPathUtil.getBoolean(xml, "/some/path")).thenReturn(dummyBooleanValue);
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.getBoolean(document, "/some/path")).thenReturn(dummyBooleanValue);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", Boolean.class)).isEqualTo(dummyBooleanValue);
+			assertThat(XPathUtil.getValue(document, "/some/path", Boolean.class)).isEqualTo(dummyBooleanValue);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.getBoolean(xml, "/some/path"));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.getBoolean(document, "/some/path"));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -117,13 +121,13 @@ class XPathUtilTests {
 		final var dummyDoubleValue = 123.45;
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
-			mockXPathUtil.when(() -> XPathUtil.getDouble(xml, "/some/path")).thenReturn(dummyDoubleValue);
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.getDouble(document, "/some/path")).thenReturn(dummyDoubleValue);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", Double.class)).isEqualTo(dummyDoubleValue);
+			assertThat(XPathUtil.getValue(document, "/some/path", Double.class)).isEqualTo(dummyDoubleValue);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.getDouble(xml, "/some/path"));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.getDouble(document, "/some/path"));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -133,13 +137,13 @@ class XPathUtilTests {
 		final var dummyFloatValue = 123.45f;
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
-			mockXPathUtil.when(() -> XPathUtil.getFloat(xml, "/some/path")).thenReturn(dummyFloatValue);
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.getFloat(document, "/some/path")).thenReturn(dummyFloatValue);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", Float.class)).isEqualTo(dummyFloatValue);
+			assertThat(XPathUtil.getValue(document, "/some/path", Float.class)).isEqualTo(dummyFloatValue);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.getFloat(xml, "/some/path"));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.getFloat(document, "/some/path"));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -149,13 +153,13 @@ class XPathUtilTests {
 		final var dummyDish = new DishAsRecord("someDummyValue");
 
 		try (var mockXPathUtil = mockStatic(XPathUtil.class)) {
-			mockXPathUtil.when(() -> XPathUtil.getValue(any(), any(String.class), any())).thenCallRealMethod();
-			mockXPathUtil.when(() -> XPathUtil.extractValue(xml, DishAsRecord.class)).thenReturn(dummyDish);
+			mockXPathUtil.when(() -> XPathUtil.getValue(any(Element.class), any(String.class), any())).thenCallRealMethod();
+			mockXPathUtil.when(() -> XPathUtil.extractValue(document, DishAsRecord.class)).thenReturn(dummyDish);
 
-			assertThat(XPathUtil.getValue(xml, "/some/path", DishAsRecord.class)).isEqualTo(dummyDish);
+			assertThat(XPathUtil.getValue(document, "/some/path", DishAsRecord.class)).isEqualTo(dummyDish);
 
-			mockXPathUtil.verify(() -> XPathUtil.getValue(any(), any(String.class), any()));
-			mockXPathUtil.verify(() -> XPathUtil.extractValue(xml, DishAsRecord.class));
+			mockXPathUtil.verify(() -> XPathUtil.getValue(any(Element.class), any(String.class), any()));
+			mockXPathUtil.verify(() -> XPathUtil.extractValue(document, DishAsRecord.class));
 			mockXPathUtil.verifyNoMoreInteractions();
 		}
 	}
@@ -171,6 +175,19 @@ class XPathUtilTests {
 		assertThat(third).isNull();
 	}
 
+	@Test
+	void getStringFromParsedDocument() {
+		assertThat(XPathUtil.getString(document, "/menu/dish[1]/name")).isEqualTo("Waffles");
+		assertThat(XPathUtil.getString(document, "/menu/dish[2]/name")).isEqualTo("Cheeseburger");
+		assertThat(XPathUtil.getString(document, "/menu/dish[3]/name")).isNull();
+	}
+
+	@Test
+	void extractValueFromParsedDocument() {
+		assertThat(XPathUtil.extractValue(document, DishAsClass.class)).satisfies(dish -> assertThat(dish.name).isEqualTo("Waffles"));
+		assertThat(XPathUtil.extractValue(document, DishAsRecord.class)).satisfies(dish -> assertThat(dish.name).isEqualTo("Cheeseburger"));
+	}
+
 	@Test
 	void getInteger() {
 		final var first = XPathUtil.getInteger(xml, "/menu/dish[1]/calories");
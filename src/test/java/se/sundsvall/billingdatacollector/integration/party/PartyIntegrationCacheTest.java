@@ -0,0 +1,109 @@
+package se.sundsvall.billingdatacollector.integration.party;
+
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration
+@ExtendWith(SpringExtension.class)
+class PartyIntegrationCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PARTY_ID = "partyId";
+	private static final String TYPE = "ORGANIZATION";
+	private static final String LEGAL_ID = "5591628136";
+	private static final Object KEY = SimpleKeyGenerator.generateKey(MUNICIPALITY_ID, PARTY_ID, TYPE);
+
+	private PartyIntegration partyIntegrationMock;
+
+	@Autowired
+	private PartyIntegration partyIntegration;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	// Provides a mock implementation for the integration and a cache manager
+	@EnableCaching
+	@Configuration
+	public static class CachingTestConfig {
+
+		@Bean
+		PartyIntegration partyIntegrationMockImplementation() {
+			return mock(PartyIntegration.class);
+		}
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("legalId", "legalIdNotFound");
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		// PartyIntegration is a proxy around our mock. So, in order to use Mockito validations, we retrieve the actual mock
+		// via AopTestUtils.getTargetObject
+		partyIntegrationMock = AopTestUtils.getTargetObject(partyIntegration);
+
+		// reset(mock) and clear the caches between each test because CachingTestConfig only loads once
+		reset(partyIntegrationMock);
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	@Test
+	void testCachingOfFoundLegalId() {
+		when(partyIntegrationMock.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE))
+			.thenReturn(Optional.of(LEGAL_ID))
+			.thenThrow(new RuntimeException("Result should be cached!"));
+
+		// First call should trigger logic in wrapped service class
+		final var result1 = partyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+		verify(partyIntegrationMock).getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+
+		// Second call should go directly to cache and not reach mock
+		final var result2 = partyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+		verifyNoMoreInteractions(partyIntegrationMock);
+
+		assertThat(result1).hasValue(LEGAL_ID);
+		assertThat(result2).hasValue(LEGAL_ID);
+		assertThat(cacheManager.getCache("legalId").get(KEY)).isNotNull();
+		assertThat(cacheManager.getCache("legalIdNotFound").get(KEY)).isNull();
+	}
+
+	@Test
+	void testCachingOfMissingLegalId() {
+		when(partyIntegrationMock.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE))
+			.thenReturn(Optional.empty())
+			.thenThrow(new RuntimeException("Result should be cached!"));
+
+		// First call should trigger logic in wrapped service class
+		final var result1 = partyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+		verify(partyIntegrationMock).getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+
+		// Second call should go directly to cache and not reach mock
+		final var result2 = partyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, TYPE);
+		verifyNoMoreInteractions(partyIntegrationMock);
+
+		assertThat(result1).isEmpty();
+		assertThat(result2).isEmpty();
+		assertThat(cacheManager.getCache("legalId").get(KEY)).isNull();
+		assertThat(cacheManager.getCache("legalIdNotFound").get(KEY)).isNotNull();
+	}
+}
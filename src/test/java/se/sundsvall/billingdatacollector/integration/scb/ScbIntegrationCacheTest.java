@@ -2,6 +2,9 @@ package se.sundsvall.billingdatacollector.integration.scb;
 
 import java.math.BigDecimal;
 import java.time.YearMonth;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.AopTestUtils;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -87,4 +91,37 @@ class ScbIntegrationCacheTest {
 		assertThat(result1).isSameAs(result2);
 	}
 
+	@Test
+	void testConcurrentCallsShareOneLoad() throws Exception {
+		final var kpiBase = KPI_80;
+		final var yearMonth = YearMonth.of(2020, 10);
+		final var loadStarted = new CountDownLatch(1);
+		final var releaseLoad = new CountDownLatch(1);
+
+		reset(scbIntegrationMock);
+		when(scbIntegrationMock.getKPI(kpiBase, yearMonth)).thenAnswer(invocation -> {
+			loadStarted.countDown();
+			releaseLoad.await(5, SECONDS);
+			return KPI_VALUE;
+		});
+
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var futures = IntStream.range(0, 5)
+				.mapToObj(i -> executor.submit(() -> scbIntegration.getKPI(kpiBase, yearMonth)))
+				.toList();
+
+			// Let the other calls queue up behind the one loading the value
+			assertThat(loadStarted.await(5, SECONDS)).isTrue();
+			Thread.sleep(100);
+			releaseLoad.countDown();
+
+			for (final var future : futures) {
+				assertThat(future.get(5, SECONDS)).isEqualTo(KPI_VALUE);
+			}
+		}
+
+		verify(scbIntegrationMock).getKPI(kpiBase, yearMonth);
+		verifyNoMoreInteractions(scbIntegrationMock);
+	}
+
 }
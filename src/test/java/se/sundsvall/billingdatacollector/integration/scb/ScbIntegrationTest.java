@@ -1,10 +1,13 @@
 package se.sundsvall.billingdatacollector.integration.scb;
 
 import generated.se.sundsvall.scb.Dataset;
+import generated.se.sundsvall.scb.VariableSelection;
 import generated.se.sundsvall.scb.VariablesSelection;
 import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -14,19 +17,35 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import se.sundsvall.billingdatacollector.integration.db.KpiRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.KpiEntity;
 import se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear;
+import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.ThrowableProblem;
 
 import static java.math.RoundingMode.HALF_EVEN;
 import static org.apache.commons.lang3.RandomUtils.secureStrong;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_NOT_SUPPORTED;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
 
 @ExtendWith(MockitoExtension.class)
 class ScbIntegrationTest {
@@ -36,18 +55,36 @@ class ScbIntegrationTest {
 	@Mock
 	private ScbClient scbClientMock;
 
+	@Mock
+	private KpiRepository kpiRepositoryMock;
+
+	@Mock
+	private CacheManager cacheManagerMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
 	@Mock
 	private KPIBaseYear kpiBaseYearMock;
 
 	@Captor
 	private ArgumentCaptor<VariablesSelection> variablesSelectionCaptor;
 
+	@Captor
+	private ArgumentCaptor<KpiEntity> kpiEntityCaptor;
+
+	@Captor
+	private ArgumentCaptor<TransactionDefinition> transactionDefinitionCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<KpiEntity>> kpiEntitiesCaptor;
+
 	@InjectMocks
 	private ScbIntegration integration;
 
 	@AfterEach
 	void verifyNoMoreMockInteractions() {
-		verifyNoMoreInteractions(scbClientMock, kpiBaseYearMock);
+		verifyNoMoreInteractions(scbClientMock, kpiRepositoryMock, cacheManagerMock, kpiBaseYearMock);
 	}
 
 	@Test
@@ -66,10 +103,17 @@ class ScbIntegrationTest {
 		final var result = integration.getKPI(kpiBaseYearMock, yearMonth);
 
 		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
 		verify(kpiBaseYearMock).getTableIdReference();
 		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), variablesSelectionCaptor.capture());
+		verify(kpiRepositoryMock).saveAndFlush(kpiEntityCaptor.capture());
 
 		assertThat(result).isEqualTo(BigDecimal.valueOf(value).setScale(2, HALF_EVEN));
+		assertThat(kpiEntityCaptor.getValue()).satisfies(entity -> {
+			assertThat(entity.getBaseYear()).isEqualTo(kpiBaseYearMock);
+			assertThat(entity.getPeriod()).isEqualTo(yearMonth);
+			assertThat(entity.getKpiValue()).isEqualTo(result);
+		});
 		assertThat(variablesSelectionCaptor.getValue()).satisfies(variableSelection -> {
 			assertThat(variableSelection).hasAllNullFieldsOrPropertiesExcept("selection");
 			assertThat(variableSelection.getSelection()).hasSize(2)
@@ -100,10 +144,324 @@ class ScbIntegrationTest {
 		final var e = assertThrows(ThrowableProblem.class, () -> integration.getKPI(kpiBaseYearMock, yearMonth));
 
 		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
 		verify(kpiBaseYearMock).getTableIdReference();
 		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), variablesSelectionCaptor.capture());
+		verify(kpiRepositoryMock, never()).saveAndFlush(any());
 
 		assertThat(e.getStatus()).isEqualTo(NOT_FOUND);
 		assertThat(e.getDetail()).isEqualTo("KPI based on %s for period %s was not found".formatted(name, yearMonth));
 	}
+
+	@Test
+	void getKPIWhenStored() {
+		// Arrange
+		final var yearMonth = YearMonth.now();
+		final var value = BigDecimal.valueOf(412.34);
+
+		when(kpiRepositoryMock.findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth)).thenReturn(Optional.of(KpiEntity.builder()
+			.withKpiValue(value)
+			.build()));
+
+		// Act
+		final var result = integration.getKPI(kpiBaseYearMock, yearMonth);
+
+		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
+
+		assertThat(result).isEqualTo(value);
+	}
+
+	@Test
+	void getKPIWhenReadingStoredValueFails() {
+		// Arrange
+		final var yearMonth = YearMonth.now();
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var name = RandomStringUtils.secureStrong().next(10);
+		final var dataSet = new Dataset()
+			.addValueItem(412.34);
+
+		when(kpiRepositoryMock.findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth)).thenThrow(new IllegalStateException("database unavailable"));
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(kpiBaseYearMock.name()).thenReturn(name);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+
+		// Act
+		final var result = integration.getKPI(kpiBaseYearMock, yearMonth);
+
+		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(kpiBaseYearMock).name();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+		verify(kpiRepositoryMock).saveAndFlush(any(KpiEntity.class));
+		verify(transactionManagerMock).rollback(any());
+
+		assertThat(result).isEqualTo(new BigDecimal("412.34"));
+	}
+
+	@Test
+	void getKPIReadsWithoutTransactionAndStoresInOwnTransaction() {
+		// Arrange
+		final var yearMonth = YearMonth.now();
+		final var dataSet = new Dataset()
+			.addValueItem(412.34);
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn("tableId");
+		when(scbClientMock.getKPI(eq("tableId"), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+
+		// Act
+		integration.getKPI(kpiBaseYearMock, yearMonth);
+
+		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(scbClientMock).getKPI(eq("tableId"), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+		verify(kpiRepositoryMock).saveAndFlush(any(KpiEntity.class));
+		verify(transactionManagerMock, times(2)).getTransaction(transactionDefinitionCaptor.capture());
+		assertThat(transactionDefinitionCaptor.getAllValues()).satisfiesExactly(
+			read -> {
+				assertThat(read.getPropagationBehavior()).isEqualTo(PROPAGATION_NOT_SUPPORTED);
+				assertThat(read.isReadOnly()).isTrue();
+			},
+			write -> {
+				assertThat(write.getPropagationBehavior()).isEqualTo(PROPAGATION_REQUIRES_NEW);
+				assertThat(write.isReadOnly()).isFalse();
+			});
+	}
+
+	@Test
+	void getKPIWhenStoringValueFails() {
+		// Arrange
+		final var yearMonth = YearMonth.now();
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var name = RandomStringUtils.secureStrong().next(10);
+		final var dataSet = new Dataset()
+			.addValueItem(412.34);
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(kpiBaseYearMock.name()).thenReturn(name);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+		when(kpiRepositoryMock.saveAndFlush(any(KpiEntity.class))).thenThrow(new IllegalStateException("duplicate entry"));
+
+		// Act
+		final var result = integration.getKPI(kpiBaseYearMock, yearMonth);
+
+		// Assert & verify
+		verify(kpiRepositoryMock).findByBaseYearAndPeriod(kpiBaseYearMock, yearMonth);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(kpiBaseYearMock).name();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+		verify(kpiRepositoryMock).saveAndFlush(any(KpiEntity.class));
+		verify(transactionManagerMock).rollback(any());
+
+		assertThat(result).isEqualTo(new BigDecimal("412.34"));
+	}
+
+	@Test
+	void getKPIsReadsCacheAndDatabaseBeforeSCB() {
+		// Arrange
+		final var cached = YearMonth.of(2024, 9);
+		final var stored = YearMonth.of(2024, 10);
+		final var fetched = YearMonth.of(2024, 11);
+		final var unpublished = YearMonth.of(2024, 12);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var cache = new ConcurrentMapCache("kpiData");
+		cache.put(SimpleKeyGenerator.generateKey(kpiBaseYearMock, cached), new BigDecimal("410.00"));
+		final var dataSet = new Dataset()
+			.addValueItem(412.345)
+			.addValueItem(null);
+
+		when(cacheManagerMock.getCache("kpiData")).thenReturn(cache);
+		when(kpiRepositoryMock.findByBaseYearAndPeriodBetween(kpiBaseYearMock, cached, unpublished)).thenReturn(List.of(KpiEntity.builder()
+			.withPeriod(stored)
+			.withKpiValue(new BigDecimal("411.00"))
+			.build()));
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+
+		// Act
+		final var result = integration.getKPIs(kpiBaseYearMock, cached, unpublished);
+
+		// Assert & verify
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, cached, unpublished);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), variablesSelectionCaptor.capture());
+		verify(kpiRepositoryMock).saveAllAndFlush(kpiEntitiesCaptor.capture());
+
+		assertThat(result).containsExactly(
+			entry(cached, new BigDecimal("410.00")),
+			entry(stored, new BigDecimal("411.00")),
+			entry(fetched, new BigDecimal("412.34")));
+		assertThat(variablesSelectionCaptor.getValue().getSelection())
+			.filteredOn(item -> "Tid".equals(item.getVariableCode()))
+			.singleElement()
+			.satisfies(item -> assertThat(item.getValueCodes()).containsExactly("2024M11", "2024M12"));
+		assertThat(kpiEntitiesCaptor.getValue()).singleElement().satisfies(entity -> {
+			assertThat(entity.getBaseYear()).isEqualTo(kpiBaseYearMock);
+			assertThat(entity.getPeriod()).isEqualTo(fetched);
+			assertThat(entity.getKpiValue()).isEqualTo(new BigDecimal("412.34"));
+		});
+		assertThat(cache.get(SimpleKeyGenerator.generateKey(kpiBaseYearMock, stored), BigDecimal.class)).isEqualTo(new BigDecimal("411.00"));
+		assertThat(cache.get(SimpleKeyGenerator.generateKey(kpiBaseYearMock, fetched), BigDecimal.class)).isEqualTo(new BigDecimal("412.34"));
+		assertThat(cache.get(SimpleKeyGenerator.generateKey(kpiBaseYearMock, unpublished))).isNull();
+	}
+
+	@Test
+	void getKPIsWhenAllCached() {
+		// Arrange
+		final var period = YearMonth.of(2024, 10);
+		final var cache = new ConcurrentMapCache("kpiData");
+		cache.put(SimpleKeyGenerator.generateKey(kpiBaseYearMock, period), new BigDecimal("411.00"));
+
+		when(cacheManagerMock.getCache("kpiData")).thenReturn(cache);
+
+		// Act
+		final var result = integration.getKPIs(kpiBaseYearMock, period, period);
+
+		// Assert & verify
+		verify(cacheManagerMock).getCache("kpiData");
+
+		assertThat(result).containsExactly(entry(period, new BigDecimal("411.00")));
+	}
+
+	@Test
+	void getKPIsWhenNotFound() {
+		// Arrange
+		final var fromPeriod = YearMonth.of(2024, 10);
+		final var toPeriod = YearMonth.of(2024, 11);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var name = RandomStringUtils.secureStrong().next(10);
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(kpiBaseYearMock.name()).thenReturn(name);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(new Dataset());
+
+		// Act
+		final var e = assertThrows(ThrowableProblem.class, () -> integration.getKPIs(kpiBaseYearMock, fromPeriod, toPeriod));
+
+		// Assert & verify
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, fromPeriod, toPeriod);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(kpiBaseYearMock).name();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+
+		assertThat(e.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(e.getDetail()).isEqualTo("KPI based on %s for periods %s to %s was not found".formatted(name, fromPeriod, toPeriod));
+	}
+
+	@Test
+	void getKPIsDoesNotAskSCBForCurrentOrFuturePeriods() {
+		// Arrange
+		final var lastMonth = YearMonth.now().minusMonths(1);
+		final var toPeriod = YearMonth.now().plusMonths(1);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var dataSet = new Dataset()
+			.addValueItem(411.0);
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+
+		// Act
+		final var result = integration.getKPIs(kpiBaseYearMock, lastMonth, toPeriod);
+
+		// Assert & verify
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, lastMonth, toPeriod);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), variablesSelectionCaptor.capture());
+		verify(kpiRepositoryMock).saveAllAndFlush(any());
+
+		assertThat(result).containsExactly(entry(lastMonth, new BigDecimal("411.00")));
+		assertThat(variablesSelectionCaptor.getValue().getSelection())
+			.filteredOn(item -> "Tid".equals(item.getVariableCode()))
+			.singleElement()
+			.satisfies(item -> assertThat(item.getValueCodes()).containsExactly(lastMonth.format(DateTimeFormatter.ofPattern("yyyy'M'MM"))));
+	}
+
+	@Test
+	void getKPIsWhenSCBRejectsPeriod() {
+		// Arrange
+		final var published = YearMonth.of(2024, 10);
+		final var unpublished = YearMonth.of(2024, 11);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var name = RandomStringUtils.secureStrong().next(10);
+		final var rejected = Problem.valueOf(BAD_REQUEST, "Non-existent value 2024M11 for variable Tid");
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(kpiBaseYearMock.name()).thenReturn(name);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class)))
+			.thenThrow(rejected)
+			.thenReturn(new Dataset().addValueItem(411.0))
+			.thenThrow(rejected);
+
+		// Act
+		final var result = integration.getKPIs(kpiBaseYearMock, published, unpublished);
+
+		// Assert & verify, the range is rejected and then each period is fetched on its own
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, published, unpublished);
+		verify(kpiBaseYearMock, times(3)).getTableIdReference();
+		verify(kpiBaseYearMock, times(2)).name();
+		verify(scbClientMock, times(3)).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), variablesSelectionCaptor.capture());
+		verify(kpiRepositoryMock).saveAllAndFlush(kpiEntitiesCaptor.capture());
+
+		assertThat(result).containsExactly(entry(published, new BigDecimal("411.00")));
+		assertThat(variablesSelectionCaptor.getAllValues())
+			.flatExtracting(selection -> selection.getSelection().stream().filter(item -> "Tid".equals(item.getVariableCode())).toList())
+			.extracting(VariableSelection::getValueCodes)
+			.containsExactly(List.of("2024M10", "2024M11"), List.of("2024M10"), List.of("2024M11"));
+		assertThat(kpiEntitiesCaptor.getValue()).singleElement().satisfies(entity -> assertThat(entity.getPeriod()).isEqualTo(published));
+	}
+
+	@Test
+	void getKPIsWhenSCBFails() {
+		// Arrange
+		final var fromPeriod = YearMonth.of(2024, 10);
+		final var toPeriod = YearMonth.of(2024, 11);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var unavailable = Problem.valueOf(SERVICE_UNAVAILABLE, "SCB is down");
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenThrow(unavailable);
+
+		// Act
+		final var e = assertThrows(ThrowableProblem.class, () -> integration.getKPIs(kpiBaseYearMock, fromPeriod, toPeriod));
+
+		// Assert & verify, a server error is not retried one period at a time
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, fromPeriod, toPeriod);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+
+		assertThat(e).isSameAs(unavailable);
+	}
+
+	@Test
+	void getKPIsWhenSCBReturnsUnexpectedNumberOfValues() {
+		// Arrange
+		final var fromPeriod = YearMonth.of(2024, 10);
+		final var toPeriod = YearMonth.of(2024, 12);
+		final var tableId = RandomStringUtils.secureStrong().next(10);
+		final var dataSet = new Dataset()
+			.addValueItem(411.0)
+			.addValueItem(412.0);
+
+		when(kpiBaseYearMock.getTableIdReference()).thenReturn(tableId);
+		when(scbClientMock.getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class))).thenReturn(dataSet);
+
+		// Act
+		final var e = assertThrows(ThrowableProblem.class, () -> integration.getKPIs(kpiBaseYearMock, fromPeriod, toPeriod));
+
+		// Assert & verify
+		verify(cacheManagerMock).getCache("kpiData");
+		verify(kpiRepositoryMock).findByBaseYearAndPeriodBetween(kpiBaseYearMock, fromPeriod, toPeriod);
+		verify(kpiBaseYearMock).getTableIdReference();
+		verify(scbClientMock).getKPI(eq(tableId), eq(LANGUAGE), eq(FORMAT), any(VariablesSelection.class));
+
+		assertThat(e.getStatus()).isEqualTo(BAD_GATEWAY);
+		assertThat(e.getDetail()).isEqualTo("Expected 3 KPI values from SCB but got 2");
+	}
 }
@@ -0,0 +1,101 @@
+package se.sundsvall.billingdatacollector.integration.scb;
+
+import generated.se.sundsvall.scb.Dataset;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.KpiRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.KpiEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_80;
+
+/**
+ * Verifies that looking up a KPI during a billing never makes the billing fail, also when the KPI can't be stored. The
+ * transactions are committed for real, so the test runs outside of a transaction and truncates the tables afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Import(ScbIntegration.class)
+@Transactional(propagation = NOT_SUPPORTED)
+@Sql(scripts = "/db/truncate.sql")
+@Sql(scripts = "/db/truncate.sql", executionPhase = AFTER_TEST_METHOD)
+class ScbIntegrationTransactionTest {
+
+	private static final YearMonth PERIOD = YearMonth.of(2025, 10);
+	private static final BigDecimal KPI_VALUE = new BigDecimal("412.34");
+
+	@MockitoBean
+	private ScbClient scbClientMock;
+
+	@MockitoBean
+	private CacheManager cacheManagerMock;
+
+	@Autowired
+	private ScbIntegration scbIntegration;
+
+	@Autowired
+	private KpiRepository kpiRepository;
+
+	@Autowired
+	private HistoryRepository historyRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void getKPIWhenStoredByOtherInstanceDuringBilling() {
+		// Arrange
+		final var otherInstance = new TransactionTemplate(transactionManager);
+		otherInstance.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+
+		// Another instance stores the same KPI while it is fetched from SCB, so storing it here violates uq_base_year_period
+		when(scbClientMock.getKPI(anyString(), anyString(), anyString(), any())).thenAnswer(_ -> {
+			otherInstance.executeWithoutResult(_ -> kpiRepository.saveAndFlush(KpiEntity.builder()
+				.withBaseYear(KPI_80)
+				.withPeriod(PERIOD)
+				.withKpiValue(KPI_VALUE)
+				.build()));
+			return new Dataset().addValueItem(KPI_VALUE.doubleValue());
+		});
+
+		// Act
+		final var result = new TransactionTemplate(transactionManager).execute(_ -> {
+			final var kpi = scbIntegration.getKPI(KPI_80, PERIOD);
+			historyRepository.save(HistoryEntity.builder()
+				.withMunicipalityId("2281")
+				.withContractId("2024-12345")
+				.build());
+			return kpi;
+		});
+
+		// Assert
+		assertThat(result).isEqualByComparingTo(KPI_VALUE);
+		assertThat(historyRepository.findAll()).extracting(HistoryEntity::getContractId).containsExactly("2024-12345");
+		assertThat(kpiRepository.findAll()).singleElement().satisfies(entity -> {
+			assertThat(entity.getBaseYear()).isEqualTo(KPI_80);
+			assertThat(entity.getPeriod()).isEqualTo(PERIOD);
+		});
+	}
+}
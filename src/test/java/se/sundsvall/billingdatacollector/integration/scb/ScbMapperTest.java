@@ -2,7 +2,10 @@ package se.sundsvall.billingdatacollector.integration.scb;
 
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import se.sundsvall.dept44.problem.ThrowableProblem;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,9 +32,33 @@ class ScbMapperTest {
 
 	@Test
 	void toVariablesSelectionFromNull() {
-		final var exception = assertThrows(ThrowableProblem.class, () -> ScbMapper.toVariablesSelection(null));
+		final var exception = assertThrows(ThrowableProblem.class, () -> ScbMapper.toVariablesSelection((YearMonth) null));
 
 		assertThat(exception.getStatus()).isEqualTo(INTERNAL_SERVER_ERROR);
 		assertThat(exception.getDetail()).isEqualTo("Period must be provided");
 	}
+
+	@Test
+	void toVariablesSelectionFromPeriods() {
+		final var result = ScbMapper.toVariablesSelection(List.of(YearMonth.of(2024, 11), YearMonth.of(2023, 10), YearMonth.of(2024, 1)));
+
+		assertThat(result).isNotNull();
+		assertThat(result.getPlacement()).isNull();
+		assertThat(result.getSelection()).hasSize(2).satisfiesExactlyInAnyOrder(selection -> {
+			assertThat(selection.getVariableCode()).isEqualTo("ContentsCode");
+			assertThat(selection.getValueCodes()).containsExactly("000004VU");
+		}, selection -> {
+			assertThat(selection.getVariableCode()).isEqualTo("Tid");
+			assertThat(selection.getValueCodes()).containsExactly("2023M10", "2024M01", "2024M11");
+		});
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	void toVariablesSelectionFromNullOrEmptyPeriods(List<YearMonth> periods) {
+		final var exception = assertThrows(ThrowableProblem.class, () -> ScbMapper.toVariablesSelection(periods));
+
+		assertThat(exception.getStatus()).isEqualTo(INTERNAL_SERVER_ERROR);
+		assertThat(exception.getDetail()).isEqualTo("Periods must be provided");
+	}
 }
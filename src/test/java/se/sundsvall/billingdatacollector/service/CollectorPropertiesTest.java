@@ -0,0 +1,29 @@
+package se.sundsvall.billingdatacollector.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.billingdatacollector.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class CollectorPropertiesTest {
+
+	@Autowired
+	private CollectorProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.parallel().enabled()).isFalse();
+		assertThat(properties.parallel().openE()).isEqualTo(2);
+		assertThat(properties.parallel().party()).isEqualTo(3);
+		assertThat(properties.parallel().billingPreprocessor()).isEqualTo(4);
+		assertThat(properties.streaming().enabled()).isFalse();
+		assertThat(properties.streaming().chunkSize()).isEqualTo(100);
+		assertThat(properties.writeBehind().enabled()).isFalse();
+		assertThat(properties.writeBehind().batchSize()).isEqualTo(25);
+	}
+}
@@ -1,11 +1,14 @@
 package se.sundsvall.billingdatacollector.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,7 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import se.sundsvall.billingdatacollector.TestDataFactory;
-import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorClient;
+import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorIntegration;
 import se.sundsvall.billingdatacollector.integration.opene.OpenEIntegration;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 import se.sundsvall.billingdatacollector.service.decorator.BillingRecordDecorator;
@@ -24,8 +27,11 @@ import wiremock.com.google.common.collect.Sets;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,7 +47,7 @@ class CollectorServiceTest {
 	private OpenEIntegration mockOpenEIntegration;
 
 	@Mock
-	private BillingPreprocessorClient mockBillingPreprocessorClient;
+	private BillingPreprocessorIntegration mockBillingPreprocessorIntegration;
 
 	@Mock
 	private BillingRecordDecorator mockDecorator;
@@ -63,7 +69,17 @@ class CollectorServiceTest {
 	@BeforeEach
 	void setUp() {
 		when(mockDecorator.getSupportedFamilyId()).thenReturn(SUPPORTED_FAMILY_ID);
-		collectorService = new CollectorService(mockDbService, mockOpenEIntegration, mockBillingPreprocessorClient, List.of(mockDecorator));
+		collectorService = createCollectorService(false, false);
+	}
+
+	private CollectorService createCollectorService(boolean parallel, boolean streaming) {
+		return createCollectorService(parallel, streaming, false);
+	}
+
+	private CollectorService createCollectorService(boolean parallel, boolean streaming, boolean writeBehind) {
+		return new CollectorService(mockDbService, mockOpenEIntegration, mockBillingPreprocessorIntegration, List.of(mockDecorator),
+			new CollectorProperties(new CollectorProperties.Parallel(parallel, 2, 2, 2), new CollectorProperties.Streaming(streaming, 2),
+				new CollectorProperties.WriteBehind(writeBehind, 3)));
 	}
 
 	@Test
@@ -72,7 +88,7 @@ class CollectorServiceTest {
 		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
 		when(mockOpenEIntegration.getBillingRecord(SUPPORTED_FAMILY_ID)).thenReturn(Optional.of(billingRecordWrapper));
 		doNothing().when(mockDecorator).decorate(any(BillingRecordWrapper.class));
-		when(mockBillingPreprocessorClient.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
 		doNothing().when(mockDbService).saveToHistory(any(BillingRecordWrapper.class), ArgumentMatchers.any());
 
 		// Act
@@ -82,15 +98,15 @@ class CollectorServiceTest {
 		verify(mockOpenEIntegration).getBillingRecord(SUPPORTED_FAMILY_ID);
 		verify(mockDecorator).decorate(billingRecordWrapper);
 		verify(mockDbService).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
-		verify(mockBillingPreprocessorClient).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDecorator, mockBillingPreprocessorClient);
+		verify(mockBillingPreprocessorIntegration).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
 	void testTriggerBilling_shouldSaveToFallout_whenPreprocessorException() {
 		// Arrange
 		when(mockOpenEIntegration.getBillingRecord(SUPPORTED_FAMILY_ID)).thenReturn(Optional.of(TestDataFactory.createKundfakturaBillingRecordWrapper(true)));
-		when(mockBillingPreprocessorClient.createBillingRecord(eq(SUNDSVALLS_MUNICIPALITY_ID), any())).thenThrow(new RuntimeException("Something went wrong"));
+		when(mockBillingPreprocessorIntegration.createBillingRecord(eq(SUNDSVALLS_MUNICIPALITY_ID), any())).thenThrow(new RuntimeException("Something went wrong"));
 		doNothing().when(mockDecorator).decorate(any(BillingRecordWrapper.class));
 
 		// Act
@@ -98,10 +114,10 @@ class CollectorServiceTest {
 
 		// Assert
 		verify(mockOpenEIntegration).getBillingRecord(SUPPORTED_FAMILY_ID);
-		verify(mockBillingPreprocessorClient).createBillingRecord(eq(SUNDSVALLS_MUNICIPALITY_ID), any());
+		verify(mockBillingPreprocessorIntegration).createBillingRecord(eq(SUNDSVALLS_MUNICIPALITY_ID), any());
 		verify(mockDbService, times(0)).saveToHistory(any(BillingRecordWrapper.class), any());
 		verify(mockDbService).saveFailedBillingRecord(any(BillingRecordWrapper.class), anyString());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -112,10 +128,10 @@ class CollectorServiceTest {
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID_2, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
 		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
-		when(mockDbService.hasAlreadyBeenProcessed(anyString(), anyString())).thenReturn(false);
+		when(mockDbService.findAlreadyProcessed(anyString(), anyCollection())).thenReturn(Set.of());
 		doNothing().when(mockDbService).saveToHistory(any(BillingRecordWrapper.class), ArgumentMatchers.any());
 		doNothing().when(mockDecorator).decorate(any(BillingRecordWrapper.class));
-		when(mockBillingPreprocessorClient.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
 
 		// Act
 		collectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
@@ -125,11 +141,177 @@ class CollectorServiceTest {
 		verify(mockOpenEIntegration, times(1)).getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString());
 		verify(mockOpenEIntegration, times(2)).getBillingRecord(FLOW_INSTANCE_IDS.getFirst());
 		verify(mockOpenEIntegration, times(2)).getBillingRecord(FLOW_INSTANCE_IDS.getLast());
-		verify(mockDbService, times(4)).hasAlreadyBeenProcessed(anyString(), anyString());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, FLOW_INSTANCE_IDS);
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID_2, FLOW_INSTANCE_IDS);
+		verify(mockDbService, times(4)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
+		verify(mockDecorator, times(4)).decorate(billingRecordWrapper);
+		verify(mockBillingPreprocessorIntegration, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verifyNoMoreInteractions(mockDbService, mockOpenEIntegration, mockDecorator, mockBillingPreprocessorIntegration);
+	}
+
+	@Test
+	void testTriggerBillingBetweenDates_parallel_shouldTriggerBillingForAllUnprocessedOnce() {
+		// Arrange
+		final var parallelCollectorService = createCollectorService(true, false);
+		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
+		final var receivedFlowInstanceIds = List.of("1", "2", "3", "2", "4", "5", "6");
+		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(Set.of(SUPPORTED_FAMILY_ID));
+		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString())).thenReturn(receivedFlowInstanceIds);
+		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
+		when(mockDbService.findAlreadyProcessed(eq(SUPPORTED_FAMILY_ID), anyCollection())).thenReturn(Set.of("3"));
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		final var result = parallelCollectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
+
+		// Assert
+		assertThat(result).containsExactly("1", "2", "4", "5", "6");
+		verify(mockOpenEIntegration).getSupportedFamilyIds();
+		verify(mockOpenEIntegration).getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2", "3", "4", "5", "6"));
+		result.forEach(flowInstanceId -> verify(mockOpenEIntegration).getBillingRecord(flowInstanceId));
+		verify(mockDecorator, times(5)).decorate(billingRecordWrapper);
+		verify(mockBillingPreprocessorIntegration, times(5)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verify(mockDbService, times(5)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
+	}
+
+	@Test
+	void testTriggerBillingBetweenDates_streaming_shouldTriggerBillingInChunks() {
+		// Arrange
+		final var streamingCollectorService = createCollectorService(false, true);
+		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
+		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(Set.of(SUPPORTED_FAMILY_ID));
+		doAnswer(invocation -> {
+			final Consumer<String> consumer = invocation.getArgument(3);
+			List.of("1", "2", "2", "3", "4", "5").forEach(consumer);
+			return null;
+		}).when(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
+		when(mockDbService.findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2"))).thenReturn(Set.of());
+		// "2" was triggered in the previous chunk, so only "3" is checked, which was billed in an earlier run
+		when(mockDbService.findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("3"))).thenReturn(Set.of("3"));
+		when(mockDbService.findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("4", "5"))).thenReturn(Set.of());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		final var result = streamingCollectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
+
+		// Assert
+		assertThat(result).containsExactly("1", "2", "4", "5");
+		verify(mockOpenEIntegration).getSupportedFamilyIds();
+		verify(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("3"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("4", "5"));
+		result.forEach(flowInstanceId -> verify(mockOpenEIntegration).getBillingRecord(flowInstanceId));
+		verify(mockDecorator, times(4)).decorate(billingRecordWrapper);
+		verify(mockBillingPreprocessorIntegration, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
 		verify(mockDbService, times(4)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
+	}
+
+	@Test
+	void testTriggerBillingBetweenDates_streamingInParallel_shouldTriggerIdInMoreThanOneChunkOnce() {
+		// Arrange
+		final var streamingCollectorService = createCollectorService(true, true);
+		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
+		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(Set.of(SUPPORTED_FAMILY_ID));
+		doAnswer(invocation -> {
+			final Consumer<String> consumer = invocation.getArgument(3);
+			List.of("1", "2", "3", "1", "4", "2").forEach(consumer);
+			return null;
+		}).when(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
+		// The history of the ids billed in earlier chunks is not saved yet
+		when(mockDbService.findAlreadyProcessed(eq(SUPPORTED_FAMILY_ID), anyCollection())).thenReturn(Set.of());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		final var result = streamingCollectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
+
+		// Assert
+		assertThat(result).containsExactly("1", "2", "3", "4");
+		verify(mockOpenEIntegration).getSupportedFamilyIds();
+		verify(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("3"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("4"));
+		result.forEach(flowInstanceId -> verify(mockOpenEIntegration).getBillingRecord(flowInstanceId));
 		verify(mockDecorator, times(4)).decorate(billingRecordWrapper);
-		verify(mockBillingPreprocessorClient, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
-		verifyNoMoreInteractions(mockDbService, mockOpenEIntegration, mockDecorator, mockBillingPreprocessorClient);
+		verify(mockBillingPreprocessorIntegration, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verify(mockDbService, times(4)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
+	}
+
+	@Test
+	void testTriggerBillingBetweenDates_streamingFails_shouldTriggerBillingForTheIdsRead() {
+		// Arrange
+		final var streamingCollectorService = createCollectorService(false, true);
+		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
+		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(Set.of(SUPPORTED_FAMILY_ID));
+		doAnswer(invocation -> {
+			final Consumer<String> consumer = invocation.getArgument(3);
+			List.of("1", "2", "3").forEach(consumer);
+			throw new UncheckedIOException(new IOException("Connection reset"));
+		}).when(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
+		when(mockDbService.findAlreadyProcessed(eq(SUPPORTED_FAMILY_ID), anyCollection())).thenReturn(Set.of());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		final var result = streamingCollectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
+
+		// Assert
+		assertThat(result).containsExactly("1", "2", "3");
+		verify(mockOpenEIntegration).getSupportedFamilyIds();
+		verify(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("3"));
+		result.forEach(flowInstanceId -> verify(mockOpenEIntegration).getBillingRecord(flowInstanceId));
+		verify(mockDecorator, times(3)).decorate(billingRecordWrapper);
+		verify(mockBillingPreprocessorIntegration, times(3)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verify(mockDbService, times(3)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
+	}
+
+	@Test
+	void testTriggerBillingBetweenDates_writeBehind_shouldSaveRecordsPerChunk() {
+		// Arrange
+		final var writeBehindCollectorService = createCollectorService(false, true, true);
+		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
+		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(Set.of(SUPPORTED_FAMILY_ID));
+		doAnswer(invocation -> {
+			final Consumer<String> consumer = invocation.getArgument(3);
+			List.of("1", "2", "3", "4", "5").forEach(consumer);
+			return null;
+		}).when(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
+		when(mockDbService.findAlreadyProcessed(eq(SUPPORTED_FAMILY_ID), anyCollection())).thenReturn(Set.of());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any()))
+			.thenReturn(ResponseEntity.ok().build())
+			.thenThrow(new RuntimeException("Something went wrong"))
+			.thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		final var result = writeBehindCollectorService.triggerBillingBetweenDates(START_DATE, END_DATE, Set.of());
+
+		// Assert
+		assertThat(result).containsExactly("1", "2", "3", "4", "5");
+		verify(mockOpenEIntegration).getSupportedFamilyIds();
+		verify(mockOpenEIntegration).streamFlowInstanceIds(eq(SUPPORTED_FAMILY_ID), eq(START_DATE.toString()), eq(END_DATE.toString()), any());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("1", "2"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("3", "4"));
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, List.of("5"));
+		result.forEach(flowInstanceId -> verify(mockOpenEIntegration).getBillingRecord(flowInstanceId));
+		verify(mockDecorator, times(5)).decorate(billingRecordWrapper);
+		verify(mockBillingPreprocessorIntegration, times(5)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		// The records of each chunk are saved together when the chunk is done
+		verify(mockDbService).saveAll(argThat(history -> history.size() == 1 && "1".equals(history.getFirst().getFlowInstanceId())),
+			argThat(fallouts -> fallouts.size() == 1 && "2".equals(fallouts.getFirst().getFlowInstanceId())));
+		verify(mockDbService).saveAll(argThat(history -> history.size() == 2), eq(List.of()));
+		verify(mockDbService).saveAll(argThat(history -> history.size() == 1 && "5".equals(history.getFirst().getFlowInstanceId())), eq(List.of()));
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -140,10 +322,10 @@ class CollectorServiceTest {
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID_2, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
 		when(mockOpenEIntegration.getBillingRecord(anyString())).thenReturn(Optional.of(billingRecordWrapper));
-		when(mockDbService.hasAlreadyBeenProcessed(anyString(), anyString())).thenReturn(false);
+		when(mockDbService.findAlreadyProcessed(anyString(), anyCollection())).thenReturn(Set.of());
 		doNothing().when(mockDbService).saveToHistory(any(BillingRecordWrapper.class), ArgumentMatchers.any());
 		doNothing().when(mockDecorator).decorate(any(BillingRecordWrapper.class));
-		when(mockBillingPreprocessorClient.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
 
 		// Act
 		collectorService.triggerBillingBetweenDates(START_DATE, END_DATE, WANTED_FAMILY_IDS);
@@ -153,11 +335,12 @@ class CollectorServiceTest {
 		verify(mockOpenEIntegration).getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString());
 		verify(mockOpenEIntegration, times(2)).getBillingRecord(FLOW_INSTANCE_IDS.getFirst());
 		verify(mockOpenEIntegration, times(2)).getBillingRecord(FLOW_INSTANCE_IDS.getLast());
-		verify(mockDbService, times(4)).hasAlreadyBeenProcessed(anyString(), anyString());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, FLOW_INSTANCE_IDS);
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID_2, FLOW_INSTANCE_IDS);
 		verify(mockDbService, times(4)).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
 		verify(mockDecorator, times(4)).decorate(billingRecordWrapper);
-		verify(mockBillingPreprocessorClient, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verify(mockBillingPreprocessorIntegration, times(4)).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -166,7 +349,7 @@ class CollectorServiceTest {
 		final var billingRecordWrapper = TestDataFactory.createKundfakturaBillingRecordWrapper(true);
 		billingRecordWrapper.setFamilyId("not_found");	// "Create" a familyId that has no decorator
 		when(mockOpenEIntegration.getBillingRecord(SUPPORTED_FAMILY_ID)).thenReturn(Optional.of(billingRecordWrapper));
-		when(mockBillingPreprocessorClient.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockBillingPreprocessorIntegration.createBillingRecord(any(), any())).thenReturn(ResponseEntity.ok().build());
 		doNothing().when(mockDbService).saveToHistory(any(BillingRecordWrapper.class), ArgumentMatchers.any());
 
 		// Act
@@ -175,9 +358,9 @@ class CollectorServiceTest {
 		// Assert
 		verify(mockOpenEIntegration).getBillingRecord(SUPPORTED_FAMILY_ID);
 		verify(mockDecorator, times(0)).decorate(billingRecordWrapper);
-		verify(mockBillingPreprocessorClient).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
+		verify(mockBillingPreprocessorIntegration).createBillingRecord(SUNDSVALLS_MUNICIPALITY_ID, billingRecordWrapper.getBillingRecord());
 		verify(mockDbService).saveToHistory(billingRecordWrapper, ResponseEntity.ok().build());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -192,7 +375,7 @@ class CollectorServiceTest {
 		// Assert
 		verify(mockOpenEIntegration).getSupportedFamilyIds();
 		verify(mockOpenEIntegration).getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -210,7 +393,7 @@ class CollectorServiceTest {
 			});
 
 		verify(mockOpenEIntegration).getSupportedFamilyIds();
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 
 	@Test
@@ -219,7 +402,7 @@ class CollectorServiceTest {
 		when(mockOpenEIntegration.getSupportedFamilyIds()).thenReturn(SUPPORTED_FAMILY_IDS);
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
 		when(mockOpenEIntegration.getFlowInstanceIds(SUPPORTED_FAMILY_ID_2, START_DATE.toString(), END_DATE.toString())).thenReturn(FLOW_INSTANCE_IDS);
-		when(mockDbService.hasAlreadyBeenProcessed(anyString(), anyString())).thenReturn(true);
+		when(mockDbService.findAlreadyProcessed(anyString(), anyCollection())).thenReturn(Set.copyOf(FLOW_INSTANCE_IDS));
 
 		// Act
 		collectorService.triggerBillingBetweenDates(START_DATE, END_DATE, WANTED_FAMILY_IDS);
@@ -227,8 +410,9 @@ class CollectorServiceTest {
 		// Assert
 		verify(mockOpenEIntegration).getSupportedFamilyIds();
 		verify(mockOpenEIntegration, times(1)).getFlowInstanceIds(SUPPORTED_FAMILY_ID, START_DATE.toString(), END_DATE.toString());
-		verify(mockDbService, times(4)).hasAlreadyBeenProcessed(anyString(), anyString());
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID, FLOW_INSTANCE_IDS);
+		verify(mockDbService).findAlreadyProcessed(SUPPORTED_FAMILY_ID_2, FLOW_INSTANCE_IDS);
 		verify(mockDbService, times(0)).saveToHistory(any(BillingRecordWrapper.class), ArgumentMatchers.any());
-		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorClient);
+		verifyNoMoreInteractions(mockOpenEIntegration, mockDbService, mockDecorator, mockBillingPreprocessorIntegration);
 	}
 }
@@ -2,19 +2,19 @@ package se.sundsvall.billingdatacollector.service;
 
 import generated.se.sundsvall.billingpreprocessor.BillingRecord;
 import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
@@ -23,13 +23,19 @@ import se.sundsvall.billingdatacollector.integration.db.FalloutRepository;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
 import se.sundsvall.billingdatacollector.integration.db.ScheduledJobRepository;
 import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
 import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.HistorySummary;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledJobEntity;
 import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -149,31 +155,90 @@ class DbServiceTest {
 		verifyNoMoreInteractions(mockFalloutRepository);
 	}
 
-	@ParameterizedTest
-	@MethodSource("processedParameters")
-	void testHasAlreadyBeenProcessed(boolean historyExists, boolean falloutExists, boolean expectedOutcome) {
+	@Test
+	void testSaveAll() {
 		// Arrange
-		when(mockHistoryRepository.existsByFamilyIdAndFlowInstanceId(FAMILY_ID, FLOW_INSTANCE_ID)).thenReturn(historyExists);
-		when(mockFalloutRepository.existsByFamilyIdAndFlowInstanceId(FAMILY_ID, FLOW_INSTANCE_ID)).thenReturn(falloutExists);
+		final var history = List.of(HistoryEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("1").build(), HistoryEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("2").build());
+		final var newFallout = FalloutEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("3").build();
+		final var existingFallout = FalloutEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("4").build();
+		when(mockFalloutRepository.findFlowInstanceIdsWithBillingRecordWrapper(FAMILY_ID, Set.of("3", "4"))).thenReturn(Set.of("4"));
 
 		// Act
-		final boolean result = dbService.hasAlreadyBeenProcessed(FAMILY_ID, FLOW_INSTANCE_ID);
+		dbService.saveAll(history, List.of(newFallout, existingFallout));
 
 		// Assert
-		assertThat(result).isEqualTo(expectedOutcome);
-		verify(mockHistoryRepository).existsByFamilyIdAndFlowInstanceId(FAMILY_ID, FLOW_INSTANCE_ID);
-		verify(mockFalloutRepository).existsByFamilyIdAndFlowInstanceId(FAMILY_ID, FLOW_INSTANCE_ID);
-		verifyNoMoreInteractions(mockFalloutRepository);
-		verifyNoMoreInteractions(mockHistoryRepository);
+		verify(mockHistoryRepository).saveAll(history);
+		verify(mockFalloutRepository).findFlowInstanceIdsWithBillingRecordWrapper(FAMILY_ID, Set.of("3", "4"));
+		verify(mockFalloutRepository).saveAll(List.of(newFallout));
+		verifyNoMoreInteractions(mockHistoryRepository, mockFalloutRepository);
+	}
+
+	@Test
+	void testSaveAll_shouldSaveFirstRecordPerFlowInstanceAndCheckFalloutsPerFamilyId() {
+		// Arrange
+		final var history = HistoryEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("1").build();
+		final var duplicateHistory = HistoryEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("1").build();
+		final var fallout = FalloutEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("2").build();
+		final var duplicateFallout = FalloutEntity.builder().withFamilyId(FAMILY_ID).withFlowInstanceId("2").build();
+		final var otherFamilyFallout = FalloutEntity.builder().withFamilyId("otherFamilyId").withFlowInstanceId("2").build();
+		when(mockFalloutRepository.findFlowInstanceIdsWithBillingRecordWrapper(FAMILY_ID, Set.of("2"))).thenReturn(Set.of());
+		when(mockFalloutRepository.findFlowInstanceIdsWithBillingRecordWrapper("otherFamilyId", Set.of("2"))).thenReturn(Set.of());
+
+		// Act
+		dbService.saveAll(List.of(history, duplicateHistory), List.of(fallout, duplicateFallout, otherFamilyFallout));
+
+		// Assert
+		verify(mockHistoryRepository).saveAll(List.of(history));
+		verify(mockFalloutRepository).findFlowInstanceIdsWithBillingRecordWrapper(FAMILY_ID, Set.of("2"));
+		verify(mockFalloutRepository).findFlowInstanceIdsWithBillingRecordWrapper("otherFamilyId", Set.of("2"));
+		verify(mockFalloutRepository).saveAll(List.of(fallout, otherFamilyFallout));
+		verifyNoMoreInteractions(mockHistoryRepository, mockFalloutRepository);
+	}
+
+	@Test
+	void testFindAlreadyProcessed() {
+		// Arrange
+		final var flowInstanceIds = List.of("1", "2", "3", "4");
+		when(mockHistoryRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds)).thenReturn(Set.of("1", "2"));
+		when(mockFalloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds)).thenReturn(Set.of("2", "3"));
+
+		// Act
+		final var result = dbService.findAlreadyProcessed(FAMILY_ID, flowInstanceIds);
+
+		// Assert
+		assertThat(result).containsExactlyInAnyOrder("1", "2", "3");
+		verify(mockHistoryRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds);
+		verify(mockFalloutRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds);
+		verifyNoMoreInteractions(mockFalloutRepository, mockHistoryRepository);
+	}
+
+	@Test
+	void testFindAlreadyProcessed_shouldQueryInChunks() {
+		// Arrange
+		final var flowInstanceIds = IntStream.range(0, DbService.PROCESSED_CHECK_CHUNK_SIZE + 1).mapToObj(String::valueOf).toList();
+		when(mockHistoryRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(eq(FAMILY_ID), anyCollection())).thenReturn(Set.of("0"));
+		when(mockFalloutRepository.findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(eq(FAMILY_ID), anyCollection())).thenReturn(Set.of(String.valueOf(DbService.PROCESSED_CHECK_CHUNK_SIZE)));
+
+		// Act
+		final var result = dbService.findAlreadyProcessed(FAMILY_ID, flowInstanceIds);
+
+		// Assert
+		assertThat(result).containsExactlyInAnyOrder("0", String.valueOf(DbService.PROCESSED_CHECK_CHUNK_SIZE));
+		verify(mockHistoryRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds.subList(0, DbService.PROCESSED_CHECK_CHUNK_SIZE));
+		verify(mockHistoryRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds.subList(DbService.PROCESSED_CHECK_CHUNK_SIZE, flowInstanceIds.size()));
+		verify(mockFalloutRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds.subList(0, DbService.PROCESSED_CHECK_CHUNK_SIZE));
+		verify(mockFalloutRepository).findFlowInstanceIdsByFamilyIdAndFlowInstanceIdIn(FAMILY_ID, flowInstanceIds.subList(DbService.PROCESSED_CHECK_CHUNK_SIZE, flowInstanceIds.size()));
+		verifyNoMoreInteractions(mockFalloutRepository, mockHistoryRepository);
 	}
 
-	private static Stream<Arguments> processedParameters() {
-		// Arguments.of(historyExists, falloutExists, expected), i.e. only false when both are false
-		return Stream.of(
-			Arguments.of(true, false, true),
-			Arguments.of(false, true, true),
-			Arguments.of(true, true, true),
-			Arguments.of(false, false, false));
+	@Test
+	void testFindAlreadyProcessed_noFlowInstanceIds() {
+		// Act
+		final var result = dbService.findAlreadyProcessed(FAMILY_ID, List.of());
+
+		// Assert
+		assertThat(result).isEmpty();
+		verifyNoMoreInteractions(mockFalloutRepository, mockHistoryRepository);
 	}
 
 	@Test
@@ -225,57 +290,78 @@ class DbServiceTest {
 	@Test
 	void testGetHistory() {
 		// Arrange
-		when(mockHistoryRepository.findAllByFlowInstanceIdIn(anyList())).thenReturn(List.of(HistoryEntity.builder().build()));
+		when(mockHistoryRepository.findSummariesByFlowInstanceIdIn(anyList())).thenReturn(List.of(mock(HistorySummary.class)));
 
 		// Act
 		final var result = dbService.getHistory(List.of("flowInstanceId"));
 
 		// Assert
 		assertThat(result).hasSize(1);
-		verify(mockHistoryRepository).findAllByFlowInstanceIdIn(List.of("flowInstanceId"));
+		verify(mockHistoryRepository).findSummariesByFlowInstanceIdIn(List.of("flowInstanceId"));
 		verifyNoMoreInteractions(mockHistoryRepository);
 	}
 
 	@Test
 	void testGetFallouts() {
 		// Arrange
-		when(mockFalloutRepository.findAllByFlowInstanceIdIn(anyList())).thenReturn(List.of(FalloutEntity.builder().build()));
+		when(mockFalloutRepository.findSummariesByFlowInstanceIdIn(anyList())).thenReturn(List.of(mock(FalloutSummary.class)));
 
 		// Act
 		final var result = dbService.getFallouts(List.of("flowInstanceId"));
 
 		// Assert
 		assertThat(result).hasSize(1);
-		verify(mockFalloutRepository).findAllByFlowInstanceIdIn(List.of("flowInstanceId"));
+		verify(mockFalloutRepository).findSummariesByFlowInstanceIdIn(List.of("flowInstanceId"));
+		verifyNoMoreInteractions(mockFalloutRepository);
+	}
+
+	@Test
+	void testGetMunicipalityIdsWithUnreportedFallouts() {
+		// Arrange
+		when(mockFalloutRepository.findMunicipalityIdsByReportedIsFalse()).thenReturn(List.of("2281"));
+
+		// Act
+		final var result = dbService.getMunicipalityIdsWithUnreportedFallouts();
+
+		// Assert
+		assertThat(result).containsExactly("2281");
+		verify(mockFalloutRepository).findMunicipalityIdsByReportedIsFalse();
 		verifyNoMoreInteractions(mockFalloutRepository);
 	}
 
 	@Test
 	void testGetUnreportedFallouts() {
 		// Arrange
-		when(mockFalloutRepository.findAllByReportedIsFalse()).thenReturn(List.of(FalloutEntity.builder().build()));
+		when(mockFalloutRepository.findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "lastId", Limit.of(10))).thenReturn(List.of(mock(FalloutSummary.class)));
 
 		// Act
-		final var result = dbService.getUnreportedFallouts();
+		final var result = dbService.getUnreportedFallouts("2281", "lastId", 10);
 
 		// Assert
 		assertThat(result).hasSize(1);
-		verify(mockFalloutRepository).findAllByReportedIsFalse();
+		verify(mockFalloutRepository).findSummariesByMunicipalityIdAndReportedIsFalseAndIdGreaterThanOrderByIdAsc("2281", "lastId", Limit.of(10));
 		verifyNoMoreInteractions(mockFalloutRepository);
 	}
 
 	@Test
-	void testMarkAllFalloutsAsReported() {
+	void testMarkFalloutsAsReported() {
 		// Arrange
-		final var entities = List.of(FalloutEntity.builder().build());
-		when(mockFalloutRepository.findAllByReportedIsFalse()).thenReturn(entities);
+		final var ids = List.of("id-1", "id-2");
+		when(mockFalloutRepository.markAsReported(eq(ids), any(OffsetDateTime.class))).thenReturn(2);
 
 		// Act
-		dbService.markAllFalloutsAsReported();
+		final var result = dbService.markFalloutsAsReported(ids);
 
 		// Assert
-		verify(mockFalloutRepository).findAllByReportedIsFalse();
-		verify(mockFalloutRepository).saveAllAndFlush(entities);
+		assertThat(result).isEqualTo(2);
+		verify(mockFalloutRepository).markAsReported(eq(ids), any(OffsetDateTime.class));
+		verifyNoMoreInteractions(mockFalloutRepository);
+	}
+
+	@Test
+	void testMarkFalloutsAsReported_noIds() {
+		assertThat(dbService.markFalloutsAsReported(List.of())).isZero();
+
 		verifyNoMoreInteractions(mockFalloutRepository);
 	}
 
@@ -0,0 +1,167 @@
+package se.sundsvall.billingdatacollector.service;
+
+import generated.se.sundsvall.billingpreprocessor.BillingRecord;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.HistoryEntity;
+import se.sundsvall.billingdatacollector.model.BillingRecordWrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryWriterTest {
+
+	private static final ResponseEntity<Void> RESPONSE = ResponseEntity.created(URI.create("/2281/billingrecords/id")).build();
+
+	@Mock
+	private DbService dbServiceMock;
+
+	@Captor
+	private ArgumentCaptor<List<HistoryEntity>> historyCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<FalloutEntity>> falloutCaptor;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(dbServiceMock);
+	}
+
+	@Test
+	void saveWhenNotBuffering() {
+		// Arrange
+		final var writer = new HistoryWriter(dbServiceMock, false, 10);
+		final var wrapper = createWrapper("1");
+		final var failedWrapper = createWrapper("2");
+
+		// Act
+		writer.saveToHistory(wrapper, RESPONSE);
+		writer.saveFailedBillingRecord(failedWrapper, "error");
+		writer.close();
+
+		// Verify
+		verify(dbServiceMock).saveToHistory(wrapper, RESPONSE);
+		verify(dbServiceMock).saveFailedBillingRecord(failedWrapper, "error");
+	}
+
+	@Test
+	void saveWhenBatchIsFull() {
+		// Arrange
+		final var writer = new HistoryWriter(dbServiceMock, true, 2);
+
+		// Act
+		writer.saveToHistory(createWrapper("1"), RESPONSE);
+		writer.saveFailedBillingRecord(createWrapper("2"), "error");
+		writer.saveToHistory(createWrapper("3"), RESPONSE);
+
+		// Verify, the third record is still buffered
+		verify(dbServiceMock).saveAll(historyCaptor.capture(), falloutCaptor.capture());
+		assertThat(historyCaptor.getValue()).singleElement().satisfies(entity -> {
+			assertThat(entity.getFlowInstanceId()).isEqualTo("1");
+			assertThat(entity.getLocation()).isEqualTo("/2281/billingrecords/id");
+		});
+		assertThat(falloutCaptor.getValue()).singleElement().satisfies(entity -> {
+			assertThat(entity.getFlowInstanceId()).isEqualTo("2");
+			assertThat(entity.getErrorMessage()).isEqualTo("error");
+		});
+
+		// Act
+		writer.close();
+
+		// Verify
+		verify(dbServiceMock).saveAll(argThat(entities -> entities.size() == 1 && "3".equals(entities.getFirst().getFlowInstanceId())), eq(List.of()));
+	}
+
+	@Test
+	void saveWhenFlushed() {
+		// Arrange
+		final var writer = new HistoryWriter(dbServiceMock, true, 10);
+
+		// Act
+		writer.saveToHistory(createWrapper("1"), RESPONSE);
+		writer.saveToHistory(createWrapper("2"), RESPONSE);
+		writer.flush();
+		writer.flush();
+		writer.close();
+
+		// Verify, nothing is saved when the buffer is empty
+		verify(dbServiceMock).saveAll(historyCaptor.capture(), eq(List.of()));
+		assertThat(historyCaptor.getValue()).extracting(HistoryEntity::getFlowInstanceId).containsExactly("1", "2");
+	}
+
+	@Test
+	void saveOneAtATimeWhenBatchFails() {
+		// Arrange
+		final var writer = new HistoryWriter(dbServiceMock, true, 10);
+		final var failingWrapper = createWrapper("failing");
+		doAnswer(invocation -> {
+			final List<HistoryEntity> history = invocation.getArgument(0);
+			final List<FalloutEntity> fallouts = invocation.getArgument(1);
+			if (history.size() + fallouts.size() > 1) {
+				throw new RuntimeException("Batch failed");
+			}
+			if (history.size() == 1 && "failing".equals(history.getFirst().getFlowInstanceId())) {
+				throw new RuntimeException("Data too long");
+			}
+			return null;
+		}).when(dbServiceMock).saveAll(anyList(), anyList());
+
+		// Act
+		writer.saveToHistory(createWrapper("1"), RESPONSE);
+		writer.saveToHistory(failingWrapper, RESPONSE);
+		writer.saveFailedBillingRecord(createWrapper("3"), "error");
+		writer.flush();
+
+		// Verify
+		verify(dbServiceMock).saveAll(argThat(entities -> entities.size() == 2), argThat(entities -> entities.size() == 1));
+		verify(dbServiceMock).saveAll(argThat(entities -> entities.size() == 1 && "1".equals(entities.getFirst().getFlowInstanceId())), eq(List.of()));
+		verify(dbServiceMock).saveAll(argThat(entities -> entities.size() == 1 && "failing".equals(entities.getFirst().getFlowInstanceId())), eq(List.of()));
+		verify(dbServiceMock).saveAll(eq(List.of()), argThat(entities -> entities.size() == 1 && "3".equals(entities.getFirst().getFlowInstanceId())));
+		verify(dbServiceMock).saveFailedBillingRecord(failingWrapper, "Data too long");
+	}
+
+	@Test
+	void saveOneAtATimeContinuesWhenFalloutFails() {
+		// Arrange
+		final var writer = new HistoryWriter(dbServiceMock, true, 10);
+		doThrow(new RuntimeException("Database down")).when(dbServiceMock).saveAll(anyList(), anyList());
+		doThrow(new RuntimeException("Database down")).when(dbServiceMock).saveFailedBillingRecord(any(), any());
+		final var wrapper = createWrapper("1");
+
+		// Act
+		writer.saveToHistory(wrapper, RESPONSE);
+		writer.saveFailedBillingRecord(createWrapper("2"), "error");
+		writer.close();
+
+		// Verify, the batch is tried and then each record on its own
+		verify(dbServiceMock, times(3)).saveAll(anyList(), anyList());
+		verify(dbServiceMock).saveFailedBillingRecord(wrapper, "Database down");
+	}
+
+	private static BillingRecordWrapper createWrapper(String flowInstanceId) {
+		return BillingRecordWrapper.builder()
+			.withFamilyId("familyId")
+			.withFlowInstanceId(flowInstanceId)
+			.withMunicipalityId("2281")
+			.withBillingRecord(new BillingRecord())
+			.build();
+	}
+}
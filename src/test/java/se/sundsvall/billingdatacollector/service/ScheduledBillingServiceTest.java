@@ -1,6 +1,10 @@
 package se.sundsvall.billingdatacollector.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -10,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import se.sundsvall.billingdatacollector.api.model.BillingSource;
@@ -21,7 +26,9 @@ import se.sundsvall.dept44.problem.ThrowableProblem;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -224,17 +231,78 @@ class ScheduledBillingServiceTest {
 	}
 
 	@Test
-	void testGetDueScheduledBillings_success() {
+	void testGetDueScheduledBillings_firstPage() {
 		var entity = createScheduledBillingEntity();
 		var today = LocalDate.now();
 
-		when(mockRepository.findAllByPausedFalseAndNextScheduledBillingLessThanEqual(today))
+		when(mockRepository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "", Limit.of(10)))
 			.thenReturn(List.of(entity));
 
-		var result = service.getDueScheduledBillings();
+		var result = service.getDueScheduledBillings(today, null, 10);
 
 		assertThat(result).hasSize(1).containsExactly(entity);
-		verify(mockRepository).findAllByPausedFalseAndNextScheduledBillingLessThanEqual(today);
+		verify(mockRepository).findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "", Limit.of(10));
+		verifyNoMoreInteractions(mockRepository);
+	}
+
+	@Test
+	void testGetDueScheduledBillings_nextPage() {
+		var entity = createScheduledBillingEntity();
+		var today = LocalDate.now();
+
+		when(mockRepository.findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "last-id", Limit.of(10)))
+			.thenReturn(List.of(entity));
+
+		var result = service.getDueScheduledBillings(today, "last-id", 10);
+
+		assertThat(result).hasSize(1).containsExactly(entity);
+		verify(mockRepository).findByPausedFalseAndNextScheduledBillingLessThanEqualAndIdGreaterThanOrderByIdAsc(today, "last-id", Limit.of(10));
+		verifyNoMoreInteractions(mockRepository);
+	}
+
+	@Test
+	void testCountDueScheduledBillings() {
+		var today = LocalDate.now();
+
+		when(mockRepository.countByPausedFalseAndNextScheduledBillingLessThanEqual(today)).thenReturn(3L);
+
+		var result = service.countDueScheduledBillings(today);
+
+		assertThat(result).isEqualTo(3L);
+		verify(mockRepository).countByPausedFalseAndNextScheduledBillingLessThanEqual(today);
+		verifyNoMoreInteractions(mockRepository);
+	}
+
+	@Test
+	void testClaimDueScheduledBillings() {
+		var entity = createScheduledBillingEntity();
+		var today = LocalDate.now();
+		var lease = Duration.ofMinutes(30);
+		var claimedUntilCaptor = ArgumentCaptor.forClass(OffsetDateTime.class);
+
+		when(mockRepository.findClaimableIds(eq(today), any(LocalDateTime.class), eq(10))).thenReturn(List.of(ID));
+		when(mockRepository.findAllById(List.of(ID))).thenReturn(List.of(entity));
+
+		var result = service.claimDueScheduledBillings(today, "instance-1", lease, 10);
+
+		assertThat(result).containsExactly(entity);
+		verify(mockRepository).findClaimableIds(eq(today), any(LocalDateTime.class), eq(10));
+		verify(mockRepository).claim(eq(List.of(ID)), eq("instance-1"), claimedUntilCaptor.capture());
+		verify(mockRepository).findAllById(List.of(ID));
+		verifyNoMoreInteractions(mockRepository);
+		assertThat(claimedUntilCaptor.getValue()).isCloseTo(OffsetDateTime.now().plus(lease), within(5, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void testClaimDueScheduledBillings_nothingToClaim() {
+		var today = LocalDate.now();
+
+		when(mockRepository.findClaimableIds(eq(today), any(LocalDateTime.class), eq(10))).thenReturn(List.of());
+
+		var result = service.claimDueScheduledBillings(today, "instance-1", Duration.ofMinutes(30), 10);
+
+		assertThat(result).isEmpty();
+		verify(mockRepository).findClaimableIds(eq(today), any(LocalDateTime.class), eq(10));
 		verifyNoMoreInteractions(mockRepository);
 	}
 
@@ -0,0 +1,83 @@
+package se.sundsvall.billingdatacollector.service.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import se.sundsvall.billingdatacollector.service.ScheduledBillingService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies that when claiming is enabled, the billing tick is scheduled without the ShedLock lock on the job name, so
+ * that every instance takes part in it. Runs the REAL {@link BillingScheduler} proxy against the REAL lock provider.
+ */
+@SpringBootTest(properties = {
+	"scheduler.billing.cron=0 0 */2 * * *",
+	"scheduler.billing.claim.enabled=true",
+	"spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+	"spring.datasource.url=jdbc:tc:mariadb:10.6.4:////",
+	"server.shutdown=immediate",
+	"spring.lifecycle.timeout-per-shutdown-phase=0s"
+})
+@ActiveProfiles("junit")
+class BillingSchedulerClaimTest {
+
+	private static final String JOB_NAME = "scheduled-billing";
+
+	@MockitoBean
+	private ScheduledBillingService scheduledBillingServiceMock;
+
+	@Autowired
+	private BillingScheduler billingScheduler;
+
+	@Autowired
+	private LockProvider lockProvider;
+
+	@Autowired
+	private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+	@Test
+	void onlyTheClaimingTickIsScheduled() {
+		final var billingTasks = scheduledTaskHolders.stream()
+			.flatMap(holder -> holder.getScheduledTasks().stream())
+			.map(ScheduledTask::getTask)
+			.filter(task -> task.toString().contains(BillingScheduler.class.getName()))
+			.toList();
+
+		assertThat(billingTasks).singleElement().satisfies(task -> {
+			assertThat(task.toString()).contains("createClaimedBillingRecords");
+			assertThat(task).isInstanceOfSatisfying(CronTask.class, cronTask -> assertThat(cronTask.getExpression()).isEqualTo("0 0 */2 * * *"));
+		});
+	}
+
+	@Test
+	void claimingTickRunsWhileAnotherInstanceHoldsTheLock() {
+		// Arrange, another instance is running the tick
+		final SimpleLock lock = lockProvider.lock(new LockConfiguration(Instant.now(), JOB_NAME, Duration.ofMinutes(5), Duration.ZERO)).orElseThrow();
+
+		try {
+			// Act
+			billingScheduler.createClaimedBillingRecords();
+
+			// Verify
+			verify(scheduledBillingServiceMock).claimDueScheduledBillings(any(), eq("junit"), eq(Duration.ofMinutes(10)), anyInt());
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package se.sundsvall.billingdatacollector.service.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.config.EmbeddedValueResolver;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.expression.StandardBeanExpressionResolver;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.scheduling.annotation.Scheduled.CRON_DISABLED;
+
+/**
+ * Verifies that exactly one of the billing entry points is scheduled, depending on whether claiming is enabled. The
+ * cron expressions are resolved the same way as the scheduling annotation processor does it.
+ */
+class BillingSchedulerCronTest {
+
+	private static final String CRON = "0 0 */2 * * *";
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+		"true  | -             | 0 0 */2 * * *",
+		"false | 0 0 */2 * * * | -"
+	})
+	void cronIsResolvedByClaimEnabled(String claimEnabled, String expectedLockedCron, String expectedClaimingCron) {
+		final var environment = new MockEnvironment()
+			.withProperty("scheduler.billing.cron", CRON)
+			.withProperty("scheduler.billing.claim.enabled", claimEnabled);
+
+		assertThat(resolve(BillingScheduler.LOCKED_CRON, environment)).isEqualTo(expectedLockedCron);
+		assertThat(resolve(BillingScheduler.CLAIMING_CRON, environment)).isEqualTo(expectedClaimingCron);
+	}
+
+	@Test
+	void cronIsLockedWhenClaimEnabledIsNotSet() {
+		final var environment = new MockEnvironment().withProperty("scheduler.billing.cron", CRON);
+
+		assertThat(resolve(BillingScheduler.LOCKED_CRON, environment)).isEqualTo(CRON);
+		assertThat(resolve(BillingScheduler.CLAIMING_CRON, environment)).isEqualTo(CRON_DISABLED);
+	}
+
+	@Test
+	void bothEntryPointsAreDisabledWhenCronIsDisabled() {
+		final var environment = new MockEnvironment().withProperty("scheduler.billing.cron", CRON_DISABLED);
+
+		for (final var claimEnabled : new String[] {
+			"true", "false"
+		}) {
+			environment.setProperty("scheduler.billing.claim.enabled", claimEnabled);
+			assertThat(resolve(BillingScheduler.LOCKED_CRON, environment)).isEqualTo(CRON_DISABLED);
+			assertThat(resolve(BillingScheduler.CLAIMING_CRON, environment)).isEqualTo(CRON_DISABLED);
+		}
+	}
+
+	private static String resolve(String value, MockEnvironment environment) {
+		final var beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver());
+		beanFactory.addEmbeddedValueResolver(environment::resolveRequiredPlaceholders);
+		return new EmbeddedValueResolver(beanFactory).resolveStringValue(value);
+	}
+}
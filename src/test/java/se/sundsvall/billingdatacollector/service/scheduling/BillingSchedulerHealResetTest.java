@@ -15,6 +15,8 @@ import se.sundsvall.dept44.scheduling.health.Dept44CompositeHealthContributor;
 import se.sundsvall.dept44.scheduling.health.Dept44HealthUtility;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,7 +49,7 @@ class BillingSchedulerHealResetTest {
 		@Primary
 		ScheduledBillingService mockScheduledBillingService() {
 			final var mock = Mockito.mock(ScheduledBillingService.class);
-			when(mock.getDueScheduledBillings()).thenReturn(List.of()); // clean tick — no rows to process
+			when(mock.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of()); // clean tick — no rows to process
 			return mock;
 		}
 	}
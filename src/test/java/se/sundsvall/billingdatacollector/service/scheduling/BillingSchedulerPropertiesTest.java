@@ -0,0 +1,29 @@
+package se.sundsvall.billingdatacollector.service.scheduling;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.billingdatacollector.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class BillingSchedulerPropertiesTest {
+
+	@Autowired
+	private BillingSchedulerProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.pageSize()).isEqualTo(50);
+		assertThat(properties.maximumExecutionTime()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(properties.parallel().enabled()).isFalse();
+		assertThat(properties.parallel().workers()).isEqualTo(3);
+		assertThat(properties.claim().enabled()).isFalse();
+		assertThat(properties.claim().instanceId()).isEqualTo("junit");
+		assertThat(properties.claim().lease()).isEqualTo(Duration.ofMinutes(10));
+	}
+}
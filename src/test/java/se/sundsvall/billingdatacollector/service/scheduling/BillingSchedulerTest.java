@@ -1,5 +1,6 @@
 package se.sundsvall.billingdatacollector.service.scheduling;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
@@ -7,6 +8,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,8 @@ import org.springframework.test.util.ReflectionTestUtils;
 import se.sundsvall.billingdatacollector.api.model.BillingSource;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
 import se.sundsvall.billingdatacollector.service.ScheduledBillingService;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties.Claim;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties.Parallel;
 import se.sundsvall.billingdatacollector.service.source.BillingResult;
 import se.sundsvall.billingdatacollector.service.source.BillingSourceHandler;
 import se.sundsvall.dept44.scheduling.health.Dept44HealthUtility;
@@ -24,9 +29,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -40,6 +50,11 @@ class BillingSchedulerTest {
 	private static final String EXTERNAL_ID = "test-external-id";
 	private static final LocalDate NEXT_SCHEDULED_BILLING = LocalDate.of(2026, 6, 1);
 	private static final LocalDate NEXT_SLOT = LocalDate.of(2026, 9, 1);
+	private static final int PAGE_SIZE = 20;
+	private static final String INSTANCE_ID = "instance-1";
+	private static final Duration LEASE = Duration.ofMinutes(10);
+	private static final Duration MAXIMUM_EXECUTION_TIME = Duration.ofMinutes(30);
+	private static final Claim NO_CLAIM = new Claim(false, INSTANCE_ID, LEASE);
 
 	@Mock
 	private Dept44HealthUtility mockDept44HealthUtility;
@@ -55,15 +70,20 @@ class BillingSchedulerTest {
 	@BeforeEach
 	void setUp() {
 		Map<String, BillingSourceHandler> handlerMap = Map.of("contract", mockContractHandler);
-		billingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, handlerMap);
-		ReflectionTestUtils.setField(billingScheduler, "jobName", JOB_NAME);
+		billingScheduler = createBillingScheduler(handlerMap, false);
+	}
+
+	private BillingScheduler createBillingScheduler(Map<String, BillingSourceHandler> handlerMap, boolean parallel) {
+		var scheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, handlerMap, new BillingSchedulerProperties(PAGE_SIZE, MAXIMUM_EXECUTION_TIME, new Parallel(parallel, 2), NO_CLAIM));
+		ReflectionTestUtils.setField(scheduler, "jobName", JOB_NAME);
+		return scheduler;
 	}
 
 	@Test
 	void createBillingRecords_whenSentWithNextSlot_advancesEntity() {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
 
 		billingScheduler.createBillingRecords();
@@ -80,7 +100,7 @@ class BillingSchedulerTest {
 	void createBillingRecords_whenSentWithNullNextSlot_deletesEntity() {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(null));
 
 		billingScheduler.createBillingRecords();
@@ -97,7 +117,7 @@ class BillingSchedulerTest {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 		var lastBilledBefore = entity.getLastBilled();
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity))
 			.thenReturn(new BillingResult.Skipped("period extends past contract end date"));
 
@@ -116,7 +136,7 @@ class BillingSchedulerTest {
 	void createBillingRecords_whenFailed_marksUnhealthy_andLeavesEntity() {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity))
 			.thenReturn(new BillingResult.Failed("billing-preprocessor unavailable"));
 
@@ -134,7 +154,7 @@ class BillingSchedulerTest {
 	void createBillingRecords_shouldSetUnhealthy_whenNoHandlerFound() {
 		var entity = createScheduledBillingEntity(BillingSource.OPENE);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 
 		billingScheduler.createBillingRecords();
 
@@ -148,7 +168,7 @@ class BillingSchedulerTest {
 	void createBillingRecords_shouldSetUnhealthy_whenHandlerThrowsException() {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity))
 			.thenThrow(new RuntimeException("Test exception"));
 
@@ -169,7 +189,7 @@ class BillingSchedulerTest {
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 		var fatal = new Error("simulated fatal error");
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity)).thenThrow(fatal);
 
 		assertThatThrownBy(() -> billingScheduler.createBillingRecords()).isSameAs(fatal);
@@ -181,11 +201,12 @@ class BillingSchedulerTest {
 
 	@Test
 	void createBillingRecords_shouldHealAndDoNoEntityWork_whenNoDueBillings() {
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(Collections.emptyList());
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(Collections.emptyList());
 
 		billingScheduler.createBillingRecords();
 
-		verify(mockScheduledBillingService).getDueScheduledBillings();
+		verify(mockScheduledBillingService).countDueScheduledBillings(any());
+		verify(mockScheduledBillingService).getDueScheduledBillings(any(), isNull(), eq(PAGE_SIZE));
 		// An empty tick is failure-free and must still heal a previously
 		// unhealthy indicator (e.g. after the data behind a failure was fixed).
 		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
@@ -203,20 +224,260 @@ class BillingSchedulerTest {
 		// so the reset to healthy can only come from the scheduler.
 		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
 
-		when(mockScheduledBillingService.getDueScheduledBillings()).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
+		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+
+		billingScheduler.createBillingRecords();
+
+		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorUnhealthy(any(), any());
+	}
+
+	@Test
+	void createBillingRecords_parallel_tallyOutcomesOfAllEntities() {
+		var parallelScheduler = createBillingScheduler(Map.of("contract", mockContractHandler), true);
+		var sentEntity = createScheduledBillingEntity(BillingSource.CONTRACT, "sent");
+		var skippedEntity = createScheduledBillingEntity(BillingSource.CONTRACT, "skipped");
+		var failedEntity = createScheduledBillingEntity(BillingSource.CONTRACT, "failed");
+
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(sentEntity, skippedEntity, failedEntity));
+		when(mockContractHandler.sendBillingRecords(sentEntity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+		when(mockContractHandler.sendBillingRecords(skippedEntity)).thenReturn(new BillingResult.Skipped("contract no longer billable"));
+		when(mockContractHandler.sendBillingRecords(failedEntity)).thenReturn(new BillingResult.Failed("billing-preprocessor unavailable"));
+
+		parallelScheduler.createBillingRecords();
+
+		assertThat(sentEntity.getNextScheduledBilling()).isEqualTo(NEXT_SLOT);
+		verify(mockScheduledBillingService).countDueScheduledBillings(any());
+		verify(mockScheduledBillingService).getDueScheduledBillings(any(), isNull(), eq(PAGE_SIZE));
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(sentEntity);
+		verify(mockScheduledBillingService).deleteScheduledBillingEntity(skippedEntity);
+		verify(mockDept44HealthUtility).setHealthIndicatorUnhealthy(eq(JOB_NAME), contains("billing-preprocessor unavailable"));
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorHealthy(any());
+		verifyNoMoreInteractions(mockScheduledBillingService, mockDept44HealthUtility);
+	}
+
+	@Test
+	void createBillingRecords_parallel_whenFailureFree_healsIndicator() {
+		var parallelScheduler = createBillingScheduler(Map.of("contract", mockContractHandler), true);
+		var entities = IntStream.range(0, 10)
+			.mapToObj(i -> createScheduledBillingEntity(BillingSource.CONTRACT, "external-id-" + i))
+			.toList();
+		var inFlight = new AtomicInteger();
+		var maxInFlight = new AtomicInteger();
+
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(entities);
+		when(mockContractHandler.sendBillingRecords(any())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			inFlight.decrementAndGet();
+			return new BillingResult.Sent(NEXT_SLOT);
+		});
+
+		parallelScheduler.createBillingRecords();
+
+		// Never more than the configured number of workers at a time
+		assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+		entities.forEach(entity -> verify(mockScheduledBillingService).saveScheduledBillingEntity(entity));
+		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorUnhealthy(any(), any());
+	}
+
+	@Test
+	void createBillingRecords_parallel_whenSaveThrowsException_marksUnhealthy() {
+		var parallelScheduler = createBillingScheduler(Map.of("contract", mockContractHandler), true);
+		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
+
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
+		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+		doThrow(new RuntimeException("Test exception")).when(mockScheduledBillingService).saveScheduledBillingEntity(entity);
+
+		parallelScheduler.createBillingRecords();
+
+		verify(mockDept44HealthUtility).setHealthIndicatorUnhealthy(eq(JOB_NAME), contains("Test exception"));
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorHealthy(any());
+	}
+
+	@Test
+	void createBillingRecords_parallel_whenHandlerThrowsError_marksUnhealthy_andRethrows() {
+		var parallelScheduler = createBillingScheduler(Map.of("contract", mockContractHandler), true);
+		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
+		var fatal = new Error("simulated fatal error");
+
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
+		when(mockContractHandler.sendBillingRecords(entity)).thenThrow(fatal);
+
+		assertThatThrownBy(parallelScheduler::createBillingRecords).isSameAs(fatal);
+
+		verify(mockDept44HealthUtility).setHealthIndicatorUnhealthy(eq(JOB_NAME), contains("Fatal error"));
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorHealthy(any());
+		verify(mockScheduledBillingService, never()).saveScheduledBillingEntity(any());
+	}
+
+	@Test
+	void createBillingRecords_processesAllPages() {
+		var pagingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(2, MAXIMUM_EXECUTION_TIME, new Parallel(false, 1), NO_CLAIM));
+		ReflectionTestUtils.setField(pagingScheduler, "jobName", JOB_NAME);
+		var entity1 = createScheduledBillingEntity(BillingSource.CONTRACT, "1");
+		var entity2 = createScheduledBillingEntity(BillingSource.CONTRACT, "2");
+		var entity3 = createScheduledBillingEntity(BillingSource.CONTRACT, "3");
+		var today = LocalDate.now();
+
+		when(mockScheduledBillingService.countDueScheduledBillings(today)).thenReturn(3L);
+		when(mockScheduledBillingService.getDueScheduledBillings(today, null, 2)).thenReturn(List.of(entity1, entity2));
+		when(mockScheduledBillingService.getDueScheduledBillings(today, "id-2", 2)).thenReturn(List.of(entity3));
+		when(mockContractHandler.sendBillingRecords(any())).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+
+		pagingScheduler.createBillingRecords();
+
+		verify(mockScheduledBillingService).countDueScheduledBillings(today);
+		verify(mockScheduledBillingService).getDueScheduledBillings(today, null, 2);
+		verify(mockScheduledBillingService).getDueScheduledBillings(today, "id-2", 2);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity1);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity2);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity3);
+		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
+		verify(mockContractHandler).prefetch(List.of(entity1, entity2));
+		verify(mockContractHandler).prefetch(List.of(entity3));
+		verify(mockContractHandler, times(3)).sendBillingRecords(any());
+		verify(mockContractHandler).clearPrefetched();
+		verifyNoMoreInteractions(mockScheduledBillingService, mockDept44HealthUtility, mockContractHandler);
+	}
+
+	@Test
+	void createBillingRecords_whenPrefetchFails_stillProcessesPage() {
+		var entity = createScheduledBillingEntity(BillingSource.CONTRACT);
+
+		when(mockScheduledBillingService.getDueScheduledBillings(any(), any(), anyInt())).thenReturn(List.of(entity));
+		doThrow(new IllegalStateException("prefetch failed")).when(mockContractHandler).prefetch(List.of(entity));
 		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
 
 		billingScheduler.createBillingRecords();
 
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity);
+		verify(mockContractHandler).clearPrefetched();
+		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
+		verify(mockDept44HealthUtility, never()).setHealthIndicatorUnhealthy(any(), any());
+	}
+
+	@Test
+	void createBillingRecords_whenLastPageIsFull_readsOneMorePage() {
+		var pagingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(1, MAXIMUM_EXECUTION_TIME, new Parallel(false, 1), NO_CLAIM));
+		ReflectionTestUtils.setField(pagingScheduler, "jobName", JOB_NAME);
+		var entity = createScheduledBillingEntity(BillingSource.CONTRACT, "1");
+		var today = LocalDate.now();
+
+		when(mockScheduledBillingService.getDueScheduledBillings(today, null, 1)).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(today, "id-1", 1)).thenReturn(List.of());
+		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Skipped("contract no longer billable"));
+
+		pagingScheduler.createBillingRecords();
+
+		verify(mockScheduledBillingService).countDueScheduledBillings(today);
+		verify(mockScheduledBillingService).getDueScheduledBillings(today, null, 1);
+		verify(mockScheduledBillingService).getDueScheduledBillings(today, "id-1", 1);
+		verify(mockScheduledBillingService).deleteScheduledBillingEntity(entity);
+		verifyNoMoreInteractions(mockScheduledBillingService);
+	}
+
+	@Test
+	void createClaimedBillingRecords_claimsPagesUntilNothingIsLeft() {
+		var claimingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(2, MAXIMUM_EXECUTION_TIME, new Parallel(false, 1), new Claim(true, INSTANCE_ID, LEASE)));
+		ReflectionTestUtils.setField(claimingScheduler, "jobName", JOB_NAME);
+		var entity1 = createScheduledBillingEntity(BillingSource.CONTRACT, "1");
+		var entity2 = createScheduledBillingEntity(BillingSource.CONTRACT, "2");
+		var entity3 = createScheduledBillingEntity(BillingSource.CONTRACT, "3");
+		entity1.setClaimedBy(INSTANCE_ID);
+		entity1.setClaimedUntil(OffsetDateTime.now().plus(LEASE));
+		var today = LocalDate.now();
+
+		when(mockScheduledBillingService.claimDueScheduledBillings(today, INSTANCE_ID, LEASE, 2))
+			.thenReturn(List.of(entity1, entity2))
+			.thenReturn(List.of(entity3));
+		when(mockContractHandler.sendBillingRecords(entity1)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+		when(mockContractHandler.sendBillingRecords(entity2)).thenReturn(new BillingResult.Skipped("contract no longer billable"));
+		when(mockContractHandler.sendBillingRecords(entity3)).thenReturn(new BillingResult.Failed("billing-preprocessor unavailable"));
+
+		claimingScheduler.createClaimedBillingRecords();
+
+		// An advanced row is released, a failed row stays claimed until the lease has expired
+		assertThat(entity1.getClaimedBy()).isNull();
+		assertThat(entity1.getClaimedUntil()).isNull();
+		verify(mockScheduledBillingService).countDueScheduledBillings(today);
+		verify(mockScheduledBillingService, times(2)).claimDueScheduledBillings(today, INSTANCE_ID, LEASE, 2);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity1);
+		verify(mockScheduledBillingService).deleteScheduledBillingEntity(entity2);
+		verify(mockDept44HealthUtility).setHealthIndicatorUnhealthy(eq(JOB_NAME), contains("billing-preprocessor unavailable"));
+		verifyNoMoreInteractions(mockScheduledBillingService, mockDept44HealthUtility);
+	}
+
+	@Test
+	void createClaimedBillingRecords_whenMaximumExecutionTimeIsExceeded_stopsClaimingAndMarksUnhealthy() {
+		var claimingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(2, Duration.ZERO, new Parallel(false, 1), new Claim(true, INSTANCE_ID, LEASE)));
+		ReflectionTestUtils.setField(claimingScheduler, "jobName", JOB_NAME);
+		var entity1 = createScheduledBillingEntity(BillingSource.CONTRACT, "1");
+		var entity2 = createScheduledBillingEntity(BillingSource.CONTRACT, "2");
+		var today = LocalDate.now();
+
+		when(mockScheduledBillingService.claimDueScheduledBillings(today, INSTANCE_ID, LEASE, 2)).thenReturn(List.of(entity1, entity2));
+		when(mockContractHandler.sendBillingRecords(any())).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+
+		claimingScheduler.createClaimedBillingRecords();
+
+		// The page being processed is finished, but no further page is claimed
+		verify(mockScheduledBillingService).countDueScheduledBillings(today);
+		verify(mockScheduledBillingService).claimDueScheduledBillings(today, INSTANCE_ID, LEASE, 2);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity1);
+		verify(mockScheduledBillingService).saveScheduledBillingEntity(entity2);
+		verify(mockDept44HealthUtility).setHealthIndicatorUnhealthy(eq(JOB_NAME), contains("maximum execution time"));
+		verifyNoMoreInteractions(mockScheduledBillingService, mockDept44HealthUtility);
+	}
+
+	@Test
+	void createBillingRecords_whenMaximumExecutionTimeIsExceeded_leavesItToTheSchedulingAnnotation() {
+		var pagingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(1, Duration.ZERO, new Parallel(false, 1), NO_CLAIM));
+		ReflectionTestUtils.setField(pagingScheduler, "jobName", JOB_NAME);
+		var entity = createScheduledBillingEntity(BillingSource.CONTRACT, "1");
+		var today = LocalDate.now();
+
+		when(mockScheduledBillingService.getDueScheduledBillings(today, null, 1)).thenReturn(List.of(entity));
+		when(mockScheduledBillingService.getDueScheduledBillings(today, "id-1", 1)).thenReturn(List.of());
+		when(mockContractHandler.sendBillingRecords(entity)).thenReturn(new BillingResult.Sent(NEXT_SLOT));
+
+		pagingScheduler.createBillingRecords();
+
+		verify(mockScheduledBillingService).getDueScheduledBillings(today, "id-1", 1);
 		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
 		verify(mockDept44HealthUtility, never()).setHealthIndicatorUnhealthy(any(), any());
 	}
 
+	@Test
+	void createClaimedBillingRecords_withoutInstanceId_usesRandomInstanceId() {
+		var claimingScheduler = new BillingScheduler(mockDept44HealthUtility, mockScheduledBillingService, Map.of("contract", mockContractHandler),
+			new BillingSchedulerProperties(2, MAXIMUM_EXECUTION_TIME, new Parallel(false, 1), new Claim(true, " ", LEASE)));
+		ReflectionTestUtils.setField(claimingScheduler, "jobName", JOB_NAME);
+
+		claimingScheduler.createClaimedBillingRecords();
+
+		verify(mockScheduledBillingService).claimDueScheduledBillings(any(), argThat(instanceId -> !instanceId.isBlank()), eq(LEASE), eq(2));
+		verify(mockDept44HealthUtility).setHealthIndicatorHealthy(JOB_NAME);
+		verifyNoInteractions(mockContractHandler);
+	}
+
 	private ScheduledBillingEntity createScheduledBillingEntity(BillingSource source) {
+		return createScheduledBillingEntity(source, EXTERNAL_ID);
+	}
+
+	private ScheduledBillingEntity createScheduledBillingEntity(BillingSource source, String externalId) {
 		return ScheduledBillingEntity.builder()
-			.withId("test-id")
+			.withId("id-" + externalId)
 			.withMunicipalityId(MUNICIPALITY_ID)
-			.withExternalId(EXTERNAL_ID)
+			.withExternalId(externalId)
 			.withSource(source)
 			.withBillingDaysOfMonth(Set.of(1))
 			.withBillingMonths(Set.of(3, 6, 9, 12))
@@ -0,0 +1,123 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import se.sundsvall.billingdatacollector.integration.db.FalloutRepository;
+import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.converter.CompressedText;
+import se.sundsvall.billingdatacollector.integration.db.model.StoredText;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_BILLING_RECORD_WRAPPER;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_OPENE_INSTANCE;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.HISTORY_BILLING_RECORD_WRAPPER;
+
+@ExtendWith(MockitoExtension.class)
+class CompressionMigrationHandlerTest {
+
+	private static final String JSON = "{\"familyId\":\"358\"}";
+	private static final String XML = "<FlowInstance/>";
+
+	@Mock
+	private HistoryRepository historyRepositoryMock;
+
+	@Mock
+	private FalloutRepository falloutRepositoryMock;
+
+	@Mock
+	private JdbcTemplate jdbcTemplateMock;
+
+	@Captor
+	private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+	@InjectMocks
+	private CompressionMigrationHandler handler;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(historyRepositoryMock, falloutRepositoryMock, jdbcTemplateMock);
+	}
+
+	@Test
+	void compressHistoryBillingRecordWrappers() {
+		when(historyRepositoryMock.findUncompressedBillingRecordWrappers("", 10)).thenReturn(List.of(storedText("id-1", JSON), storedText("id-2", JSON)));
+
+		final var lastId = handler.compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "", 10);
+
+		assertThat(lastId).hasValue("id-2");
+		verify(historyRepositoryMock).findUncompressedBillingRecordWrappers("", 10);
+		verify(jdbcTemplateMock).batchUpdate(eq("UPDATE history SET billing_record_wrapper = ? WHERE id = ?"), batchArgsCaptor.capture());
+		assertThat(batchArgsCaptor.getValue()).containsExactly(
+			new Object[] {
+				CompressedText.compress(JSON), "id-1"
+			},
+			new Object[] {
+				CompressedText.compress(JSON), "id-2"
+			});
+	}
+
+	@Test
+	void compressFalloutBillingRecordWrappers() {
+		when(falloutRepositoryMock.findUncompressedBillingRecordWrappers("id-1", 10)).thenReturn(List.of(storedText("id-2", JSON)));
+
+		final var lastId = handler.compressNextBatch(FALLOUT_BILLING_RECORD_WRAPPER, "id-1", 10);
+
+		assertThat(lastId).hasValue("id-2");
+		verify(falloutRepositoryMock).findUncompressedBillingRecordWrappers("id-1", 10);
+		verify(jdbcTemplateMock).batchUpdate(eq("UPDATE fallout SET billing_record_wrapper = ? WHERE id = ?"), batchArgsCaptor.capture());
+		assertThat(batchArgsCaptor.getValue()).containsExactly(new Object[] {
+			CompressedText.compress(JSON), "id-2"
+		});
+	}
+
+	@Test
+	void compressFalloutOpenEInstances() {
+		when(falloutRepositoryMock.findUncompressedOpenEInstances("", 10)).thenReturn(List.of(storedText("id-1", XML)));
+
+		final var lastId = handler.compressNextBatch(FALLOUT_OPENE_INSTANCE, "", 10);
+
+		assertThat(lastId).hasValue("id-1");
+		verify(falloutRepositoryMock).findUncompressedOpenEInstances("", 10);
+		verify(jdbcTemplateMock).batchUpdate(eq("UPDATE fallout SET opene_instance = ? WHERE id = ?"), batchArgsCaptor.capture());
+		assertThat(batchArgsCaptor.getValue()).containsExactly(new Object[] {
+			CompressedText.compress(XML), "id-1"
+		});
+	}
+
+	@Test
+	void compressWhenNothingIsLeft() {
+		when(historyRepositoryMock.findUncompressedBillingRecordWrappers("id-2", 10)).thenReturn(List.of());
+
+		final var lastId = handler.compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "id-2", 10);
+
+		assertThat(lastId).isEmpty();
+		verify(historyRepositoryMock).findUncompressedBillingRecordWrappers("id-2", 10);
+	}
+
+	private static StoredText storedText(String id, String content) {
+		return new StoredText() {
+
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getContent() {
+				return content;
+			}
+		};
+	}
+}
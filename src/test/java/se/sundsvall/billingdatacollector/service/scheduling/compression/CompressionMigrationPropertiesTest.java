@@ -0,0 +1,22 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.billingdatacollector.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class CompressionMigrationPropertiesTest {
+
+	@Autowired
+	private CompressionMigrationProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.batchSize()).isEqualTo(50);
+	}
+}
@@ -0,0 +1,54 @@
+package se.sundsvall.billingdatacollector.service.scheduling.compression;
+
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_BILLING_RECORD_WRAPPER;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.FALLOUT_OPENE_INSTANCE;
+import static se.sundsvall.billingdatacollector.service.scheduling.compression.CompressionMigrationHandler.CompressedColumn.HISTORY_BILLING_RECORD_WRAPPER;
+
+@ExtendWith(MockitoExtension.class)
+class CompressionMigrationSchedulerTest {
+
+	private static final CompressionMigrationProperties PROPERTIES = new CompressionMigrationProperties(2);
+
+	@Mock
+	private CompressionMigrationHandler compressionMigrationHandlerMock;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(compressionMigrationHandlerMock);
+	}
+
+	@Test
+	void compressStoredValues() {
+		final var scheduler = new CompressionMigrationScheduler(compressionMigrationHandlerMock, PROPERTIES, true);
+		when(compressionMigrationHandlerMock.compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "", 2)).thenReturn(Optional.of("id-2"));
+		when(compressionMigrationHandlerMock.compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "id-2", 2)).thenReturn(Optional.of("id-3"));
+		when(compressionMigrationHandlerMock.compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "id-3", 2)).thenReturn(Optional.empty());
+		when(compressionMigrationHandlerMock.compressNextBatch(FALLOUT_BILLING_RECORD_WRAPPER, "", 2)).thenReturn(Optional.empty());
+		when(compressionMigrationHandlerMock.compressNextBatch(FALLOUT_OPENE_INSTANCE, "", 2)).thenReturn(Optional.empty());
+
+		scheduler.compressStoredValues();
+
+		verify(compressionMigrationHandlerMock).compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "", 2);
+		verify(compressionMigrationHandlerMock).compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "id-2", 2);
+		verify(compressionMigrationHandlerMock).compressNextBatch(HISTORY_BILLING_RECORD_WRAPPER, "id-3", 2);
+		verify(compressionMigrationHandlerMock).compressNextBatch(FALLOUT_BILLING_RECORD_WRAPPER, "", 2);
+		verify(compressionMigrationHandlerMock).compressNextBatch(FALLOUT_OPENE_INSTANCE, "", 2);
+	}
+
+	@Test
+	void compressStoredValuesWhenCompressionIsDisabled() {
+		final var scheduler = new CompressionMigrationScheduler(compressionMigrationHandlerMock, PROPERTIES, false);
+
+		scheduler.compressStoredValues();
+	}
+}
@@ -9,13 +9,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import se.sundsvall.billingdatacollector.integration.db.model.FalloutEntity;
+import se.sundsvall.billingdatacollector.integration.db.model.FalloutSummary;
 import se.sundsvall.billingdatacollector.integration.messaging.FalloutMessageProperties;
 import se.sundsvall.billingdatacollector.integration.messaging.MessagingClient;
 import se.sundsvall.billingdatacollector.service.DbService;
+import se.sundsvall.dept44.problem.ThrowableProblem;
 
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -24,6 +31,8 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class FalloutJobHandlerTest {
 
+	private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
 	@Mock
 	private MessagingClient mockMessagingClient;
 
@@ -77,7 +86,7 @@ class FalloutJobHandlerTest {
 		// Arrange
 		when(mockProperties.sender()).thenReturn("sender");
 		when(mockProperties.recipients()).thenReturn(List.of("recipient"));
-		when(mockDbService.getUnreportedFallouts()).thenReturn(List.of());
+		when(mockDbService.getMunicipalityIdsWithUnreportedFallouts()).thenReturn(List.of());
 
 		// Act
 		jobHandler.handleFallout();
@@ -85,7 +94,7 @@ class FalloutJobHandlerTest {
 		// Assert
 		verify(mockProperties).sender();
 		verify(mockProperties).recipients();
-		verify(mockDbService).getUnreportedFallouts();
+		verify(mockDbService).getMunicipalityIdsWithUnreportedFallouts();
 		verifyNoMoreInteractions(mockProperties, mockDbService);
 		verifyNoInteractions(mockMessagingClient, mockFalloutMapper);
 	}
@@ -95,9 +104,12 @@ class FalloutJobHandlerTest {
 		// Arrange
 		when(mockProperties.sender()).thenReturn("sender");
 		when(mockProperties.recipients()).thenReturn(List.of("recipient"));
-		when(mockDbService.getUnreportedFallouts()).thenReturn(List.of(FalloutEntity.builder().withMunicipalityId("2281").build()));
+		when(mockProperties.maxRowsPerMail()).thenReturn(10);
+		when(mockDbService.getMunicipalityIdsWithUnreportedFallouts()).thenReturn(List.of("2281"));
+		when(mockDbService.getUnreportedFallouts("2281", "", 10)).thenReturn(List.of(createSummary("id-1", "2281")));
 		when(mockFalloutMapper.createEmailBatchRequest(Mockito.anyList())).thenReturn(new EmailBatchRequest());
 		when(mockMessagingClient.sendEmailBatch(any(), any(EmailBatchRequest.class))).thenReturn(new MessageBatchResult());
+		when(mockDbService.markFalloutsAsReported(List.of("id-1"))).thenReturn(1);
 
 		// Act
 		jobHandler.handleFallout();
@@ -105,10 +117,102 @@ class FalloutJobHandlerTest {
 		// Assert
 		verify(mockProperties).sender();
 		verify(mockProperties).recipients();
-		verify(mockDbService).getUnreportedFallouts();
+		verify(mockProperties, times(2)).maxRowsPerMail();
+		verify(mockDbService).getMunicipalityIdsWithUnreportedFallouts();
+		verify(mockDbService).getUnreportedFallouts("2281", "", 10);
 		verify(mockMessagingClient).sendEmailBatch(eq("2281"), any(EmailBatchRequest.class));
-		verify(mockDbService).markAllFalloutsAsReported();
+		verify(mockDbService).markFalloutsAsReported(List.of("id-1"));
 		verify(mockFalloutMapper).createEmailBatchRequest(Mockito.anyList());
 		verifyNoMoreInteractions(mockProperties, mockDbService, mockFalloutMapper, mockFalloutMailTemplate, mockMessagingClient);
 	}
+
+	@Test
+	void testHandleFallout_shouldSendOneMailPerPageAndMunicipality() {
+		// Arrange
+		final var mail1 = new EmailBatchRequest().subject("1");
+		final var mail2 = new EmailBatchRequest().subject("2");
+		final var mail3 = new EmailBatchRequest().subject("3");
+		when(mockProperties.sender()).thenReturn("sender");
+		when(mockProperties.recipients()).thenReturn(List.of("recipient"));
+		when(mockProperties.maxRowsPerMail()).thenReturn(2);
+		when(mockDbService.getMunicipalityIdsWithUnreportedFallouts()).thenReturn(List.of("2260", "2281"));
+		when(mockDbService.getUnreportedFallouts("2260", "", 2)).thenReturn(List.of(createSummary("id-1", "2260")));
+		when(mockDbService.getUnreportedFallouts("2281", "", 2)).thenReturn(List.of(createSummary("id-2", "2281"), createSummary("id-3", "2281")));
+		when(mockDbService.getUnreportedFallouts("2281", "id-3", 2)).thenReturn(List.of(createSummary("id-4", "2281")));
+		when(mockFalloutMapper.createEmailBatchRequest(Mockito.anyList())).thenReturn(mail1, mail2, mail3);
+		when(mockMessagingClient.sendEmailBatch(any(), any(EmailBatchRequest.class))).thenReturn(new MessageBatchResult());
+
+		// Act
+		jobHandler.handleFallout();
+
+		// Assert
+		final var inOrder = inOrder(mockDbService, mockMessagingClient);
+		inOrder.verify(mockMessagingClient).sendEmailBatch("2260", mail1);
+		inOrder.verify(mockDbService).markFalloutsAsReported(List.of("id-1"));
+		inOrder.verify(mockMessagingClient).sendEmailBatch("2281", mail2);
+		inOrder.verify(mockDbService).markFalloutsAsReported(List.of("id-2", "id-3"));
+		inOrder.verify(mockMessagingClient).sendEmailBatch("2281", mail3);
+		inOrder.verify(mockDbService).markFalloutsAsReported(List.of("id-4"));
+		verify(mockFalloutMapper, times(3)).createEmailBatchRequest(Mockito.anyList());
+		verifyNoMoreInteractions(mockFalloutMapper, mockMessagingClient);
+	}
+
+	@Test
+	void testHandleFallout_shouldNotMarkFalloutsAsReported_whenMailFails() {
+		// Arrange
+		when(mockProperties.sender()).thenReturn("sender");
+		when(mockProperties.recipients()).thenReturn(List.of("recipient"));
+		when(mockProperties.maxRowsPerMail()).thenReturn(10);
+		when(mockDbService.getMunicipalityIdsWithUnreportedFallouts()).thenReturn(List.of("2281"));
+		when(mockDbService.getUnreportedFallouts("2281", "", 10)).thenReturn(List.of(createSummary("id-1", "2281")));
+		when(mockFalloutMapper.createEmailBatchRequest(Mockito.anyList())).thenReturn(new EmailBatchRequest());
+		when(mockMessagingClient.sendEmailBatch(any(), any(EmailBatchRequest.class))).thenThrow(new RuntimeException("Messaging down"));
+
+		// Act & Assert
+		assertThatExceptionOfType(RuntimeException.class).isThrownBy(jobHandler::handleFallout);
+
+		verify(mockDbService).getMunicipalityIdsWithUnreportedFallouts();
+		verify(mockDbService).getUnreportedFallouts("2281", "", 10);
+		verifyNoMoreInteractions(mockDbService);
+	}
+
+	@Test
+	void testHandleFallout_shouldContinueWithNextMunicipality_whenMailFails() {
+		// Arrange
+		final var failingMail = new EmailBatchRequest().subject("1");
+		final var mail = new EmailBatchRequest().subject("2");
+		when(mockProperties.sender()).thenReturn("sender");
+		when(mockProperties.recipients()).thenReturn(List.of("recipient"));
+		when(mockProperties.maxRowsPerMail()).thenReturn(10);
+		when(mockDbService.getMunicipalityIdsWithUnreportedFallouts()).thenReturn(List.of("2260", "2281"));
+		when(mockDbService.getUnreportedFallouts("2260", "", 10)).thenReturn(List.of(createSummary("id-1", "2260")));
+		when(mockDbService.getUnreportedFallouts("2281", "", 10)).thenReturn(List.of(createSummary("id-2", "2281")));
+		when(mockFalloutMapper.createEmailBatchRequest(Mockito.anyList())).thenReturn(failingMail, mail);
+		when(mockMessagingClient.sendEmailBatch("2260", failingMail)).thenThrow(new RuntimeException("Messaging down"));
+		when(mockMessagingClient.sendEmailBatch("2281", mail)).thenReturn(new MessageBatchResult());
+		when(mockDbService.markFalloutsAsReported(List.of("id-2"))).thenReturn(1);
+
+		// Act & Assert
+		assertThatExceptionOfType(ThrowableProblem.class).isThrownBy(jobHandler::handleFallout)
+			.withMessageContaining("Failed to report fallouts for municipalities: [2260]");
+
+		verify(mockDbService).getMunicipalityIdsWithUnreportedFallouts();
+		verify(mockDbService).getUnreportedFallouts("2260", "", 10);
+		verify(mockDbService).getUnreportedFallouts("2281", "", 10);
+		verify(mockMessagingClient).sendEmailBatch("2260", failingMail);
+		verify(mockMessagingClient).sendEmailBatch("2281", mail);
+		verify(mockDbService).markFalloutsAsReported(List.of("id-2"));
+		verify(mockFalloutMapper, times(2)).createEmailBatchRequest(Mockito.anyList());
+		verifyNoMoreInteractions(mockDbService, mockFalloutMapper, mockMessagingClient);
+	}
+
+	private static FalloutSummary createSummary(String id, String municipalityId) {
+		return PROJECTION_FACTORY.createProjection(FalloutSummary.class, FalloutEntity.builder()
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withFamilyId("358")
+			.withFlowInstanceId("flowInstanceId-" + id)
+			.withRequestId("requestId")
+			.build());
+	}
 }
@@ -0,0 +1,70 @@
+package se.sundsvall.billingdatacollector.service.scheduling.kpi;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.billingdatacollector.integration.scb.ScbIntegration;
+
+import static java.time.Month.OCTOBER;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_2020;
+import static se.sundsvall.billingdatacollector.integration.scb.model.KPIBaseYear.KPI_80;
+
+@ExtendWith(MockitoExtension.class)
+class KpiWarmUpSchedulerTest {
+
+	private static final YearMonth PERIOD = YearMonth.of(LocalDate.now().getYear() - 1, OCTOBER);
+
+	@Mock
+	private ScbIntegration scbIntegrationMock;
+
+	@Test
+	void warmUp() {
+		when(scbIntegrationMock.getKPI(KPI_80, PERIOD)).thenReturn(BigDecimal.TEN);
+		when(scbIntegrationMock.getKPI(KPI_2020, PERIOD)).thenReturn(BigDecimal.ONE);
+
+		new KpiWarmUpScheduler(scbIntegrationMock, false).warmUp();
+
+		verify(scbIntegrationMock).getKPI(KPI_80, PERIOD);
+		verify(scbIntegrationMock).getKPI(KPI_2020, PERIOD);
+		verifyNoMoreInteractions(scbIntegrationMock);
+	}
+
+	@Test
+	void warmUpContinuesWhenSCBFails() {
+		when(scbIntegrationMock.getKPI(KPI_80, PERIOD)).thenThrow(new RuntimeException("SCB unavailable"));
+		when(scbIntegrationMock.getKPI(KPI_2020, PERIOD)).thenReturn(BigDecimal.ONE);
+
+		new KpiWarmUpScheduler(scbIntegrationMock, false).warmUp();
+
+		verify(scbIntegrationMock).getKPI(KPI_80, PERIOD);
+		verify(scbIntegrationMock).getKPI(KPI_2020, PERIOD);
+		verifyNoMoreInteractions(scbIntegrationMock);
+	}
+
+	@Test
+	void warmUpOnStartup() {
+		when(scbIntegrationMock.getKPI(KPI_80, PERIOD)).thenReturn(BigDecimal.TEN);
+		when(scbIntegrationMock.getKPI(KPI_2020, PERIOD)).thenReturn(BigDecimal.ONE);
+
+		new KpiWarmUpScheduler(scbIntegrationMock, true).warmUpOnStartup();
+
+		verify(scbIntegrationMock).getKPI(KPI_80, PERIOD);
+		verify(scbIntegrationMock).getKPI(KPI_2020, PERIOD);
+		verifyNoMoreInteractions(scbIntegrationMock);
+	}
+
+	@Test
+	void warmUpOnStartupWhenDisabled() {
+		new KpiWarmUpScheduler(scbIntegrationMock, false).warmUpOnStartup();
+
+		verifyNoInteractions(scbIntegrationMock);
+	}
+}
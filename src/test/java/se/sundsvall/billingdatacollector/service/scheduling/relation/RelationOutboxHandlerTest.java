@@ -0,0 +1,248 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import generated.se.sundsvall.relation.Relation;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
+import se.sundsvall.billingdatacollector.integration.relation.RelationClient;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.scheduling.health.Dept44HealthUtility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@ExtendWith(MockitoExtension.class)
+class RelationOutboxHandlerTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String JOB_NAME = "relation-outbox";
+	private static final int MAX_ATTEMPTS = 5;
+
+	@Mock
+	private RelationOutboxRepository relationOutboxRepositoryMock;
+
+	@Mock
+	private RelationClient relationClientMock;
+
+	@Mock
+	private Dept44HealthUtility dept44HealthUtilityMock;
+
+	@Captor
+	private ArgumentCaptor<Relation> relationCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<RelationOutboxEntity>> entitiesCaptor;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(relationOutboxRepositoryMock, relationClientMock, dept44HealthUtilityMock);
+	}
+
+	@Test
+	void createDueRelations() {
+		// Arrange
+		final var handler = createHandler(10);
+		final var entity = createEntity("id", 0);
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of(entity));
+		when(relationClientMock.createRelation(eq(MUNICIPALITY_ID), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		handler.createDueRelations();
+
+		// Assert & verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), relationCaptor.capture());
+		verify(relationOutboxRepositoryMock).deleteAllByIdInBatch(List.of("id"));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorHealthy(JOB_NAME);
+		assertThat(relationCaptor.getValue()).satisfies(relation -> {
+			assertThat(relation.getType()).isEqualTo("LINK");
+			assertThat(relation.getSource().getService()).isEqualTo("contract");
+			assertThat(relation.getSource().getType()).isEqualTo("contract");
+			assertThat(relation.getSource().getResourceId()).isEqualTo("contractId");
+			assertThat(relation.getTarget().getService()).isEqualTo("billingpreprocessor");
+			assertThat(relation.getTarget().getType()).isEqualTo("billing-record");
+			assertThat(relation.getTarget().getResourceId()).isEqualTo("billingRecordId");
+		});
+	}
+
+	@Test
+	void createDueRelationsWhenNothingIsDue() {
+		// Arrange
+		final var handler = createHandler(10);
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of());
+
+		// Act
+		handler.createDueRelations();
+
+		// Verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorHealthy(JOB_NAME);
+	}
+
+	@Test
+	void createDueRelationsReadsBatchesUntilAllDueAreHandled() {
+		// Arrange
+		final var handler = createHandler(2);
+		final var firstBatch = IntStream.range(0, 2).mapToObj(i -> createEntity("id" + i, 0)).toList();
+		final var secondBatch = List.of(createEntity("id2", 0));
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(2)))).thenReturn(firstBatch, secondBatch);
+		when(relationClientMock.createRelation(eq(MUNICIPALITY_ID), any())).thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		handler.createDueRelations();
+
+		// Verify
+		verify(relationOutboxRepositoryMock, times(2)).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(2)));
+		verify(relationClientMock, times(3)).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(relationOutboxRepositoryMock).deleteAllByIdInBatch(List.of("id0", "id1"));
+		verify(relationOutboxRepositoryMock).deleteAllByIdInBatch(List.of("id2"));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorHealthy(JOB_NAME);
+	}
+
+	@Test
+	void createDueRelationsWhenRelationFails() {
+		// Arrange
+		final var handler = createHandler(10);
+		final var failing = createEntity("failing", 0);
+		final var succeeding = createEntity("succeeding", 0);
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of(failing, succeeding));
+		when(relationClientMock.createRelation(eq(MUNICIPALITY_ID), any()))
+			.thenThrow(Problem.valueOf(SERVICE_UNAVAILABLE, "Relation is down"))
+			.thenReturn(ResponseEntity.ok().build());
+
+		// Act
+		handler.createDueRelations();
+
+		// Assert & verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationClientMock, times(2)).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(relationOutboxRepositoryMock).deleteAllByIdInBatch(List.of("succeeding"));
+		verify(relationOutboxRepositoryMock).saveAll(entitiesCaptor.capture());
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorHealthy(JOB_NAME);
+		assertThat(entitiesCaptor.getValue()).singleElement().satisfies(entity -> {
+			assertThat(entity.getId()).isEqualTo("failing");
+			assertThat(entity.getAttempts()).isEqualTo(1);
+			assertThat(entity.isParked()).isFalse();
+			assertThat(entity.getNextAttemptAt()).isCloseTo(OffsetDateTime.now().plusMinutes(1), within(5, ChronoUnit.SECONDS));
+			assertThat(entity.getLastError()).contains("Relation is down");
+		});
+	}
+
+	@Test
+	void createDueRelationsBacksOffUpToMaxBackoff() {
+		// Arrange
+		final var handler = createHandler(10, Duration.ofMinutes(5));
+		final var secondAttempt = createEntity("secondAttempt", 1);
+		final var fourthAttempt = createEntity("fourthAttempt", 3);
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of(secondAttempt, fourthAttempt));
+		when(relationClientMock.createRelation(eq(MUNICIPALITY_ID), any())).thenThrow(new RuntimeException());
+
+		// Act
+		handler.createDueRelations();
+
+		// Assert & verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationClientMock, times(2)).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(relationOutboxRepositoryMock).saveAll(List.of(secondAttempt, fourthAttempt));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorHealthy(JOB_NAME);
+		assertThat(secondAttempt.getAttempts()).isEqualTo(2);
+		assertThat(secondAttempt.getNextAttemptAt()).isCloseTo(OffsetDateTime.now().plusMinutes(2), within(5, ChronoUnit.SECONDS));
+		assertThat(fourthAttempt.getAttempts()).isEqualTo(4);
+		assertThat(fourthAttempt.getNextAttemptAt()).isCloseTo(OffsetDateTime.now().plusMinutes(5), within(5, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void createDueRelationsParksRelationAfterMaxAttempts() {
+		// Arrange
+		final var handler = createHandler(10);
+		final var nextAttemptAt = OffsetDateTime.now().minusMinutes(1);
+		final var lastAttempt = createEntity("lastAttempt", MAX_ATTEMPTS - 1);
+		lastAttempt.setNextAttemptAt(nextAttemptAt);
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of(lastAttempt));
+		when(relationClientMock.createRelation(eq(MUNICIPALITY_ID), any())).thenThrow(Problem.valueOf(SERVICE_UNAVAILABLE, "Relation is down"));
+		when(relationOutboxRepositoryMock.countByParkedTrue()).thenReturn(1L);
+
+		// Act
+		handler.createDueRelations();
+
+		// Assert & verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(relationOutboxRepositoryMock).saveAll(List.of(lastAttempt));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorUnhealthy(JOB_NAME, "1 relation(s) could not be created and have been parked");
+		assertThat(lastAttempt.isParked()).isTrue();
+		assertThat(lastAttempt.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+		assertThat(lastAttempt.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+		assertThat(lastAttempt.getLastError()).contains("Relation is down");
+	}
+
+	@Test
+	void createDueRelationsParksRelationWithoutBillingRecordId() {
+		// Arrange
+		final var handler = createHandler(10);
+		final var withoutBillingRecordId = createEntity("withoutBillingRecordId", 0);
+		withoutBillingRecordId.setBillingRecordId("");
+		when(relationOutboxRepositoryMock.findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)))).thenReturn(List.of(withoutBillingRecordId));
+		when(relationOutboxRepositoryMock.countByParkedTrue()).thenReturn(1L);
+
+		// Act
+		handler.createDueRelations();
+
+		// Assert & verify
+		verify(relationOutboxRepositoryMock).findByParkedFalseAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(any(), eq(Limit.of(10)));
+		verify(relationOutboxRepositoryMock).saveAll(List.of(withoutBillingRecordId));
+		verify(relationOutboxRepositoryMock).countByParkedTrue();
+		verify(dept44HealthUtilityMock).setHealthIndicatorUnhealthy(JOB_NAME, "1 relation(s) could not be created and have been parked");
+		assertThat(withoutBillingRecordId.isParked()).isTrue();
+		assertThat(withoutBillingRecordId.getAttempts()).isZero();
+		assertThat(withoutBillingRecordId.getLastError()).isEqualTo("No billing record id");
+	}
+
+	private RelationOutboxHandler createHandler(int batchSize) {
+		return createHandler(batchSize, Duration.ofHours(1));
+	}
+
+	private RelationOutboxHandler createHandler(int batchSize, Duration maxBackoff) {
+		final var handler = new RelationOutboxHandler(relationOutboxRepositoryMock, relationClientMock,
+			new RelationOutboxProperties(batchSize, Duration.ofMinutes(1), maxBackoff, MAX_ATTEMPTS), dept44HealthUtilityMock);
+		ReflectionTestUtils.setField(handler, "jobName", JOB_NAME);
+		return handler;
+	}
+
+	private static RelationOutboxEntity createEntity(String id, int attempts) {
+		return RelationOutboxEntity.builder()
+			.withId(id)
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withContractId("contractId")
+			.withBillingRecordId("billingRecordId")
+			.withAttempts(attempts)
+			.build();
+	}
+}
@@ -0,0 +1,26 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.billingdatacollector.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class RelationOutboxPropertiesTest {
+
+	@Autowired
+	private RelationOutboxProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.batchSize()).isEqualTo(20);
+		assertThat(properties.initialBackoff()).isEqualTo(Duration.ofMinutes(2));
+		assertThat(properties.maxBackoff()).isEqualTo(Duration.ofHours(1));
+		assertThat(properties.maxAttempts()).isEqualTo(5);
+	}
+}
@@ -0,0 +1,28 @@
+package se.sundsvall.billingdatacollector.service.scheduling.relation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RelationOutboxSchedulerTest {
+
+	@Mock
+	private RelationOutboxHandler relationOutboxHandlerMock;
+
+	@InjectMocks
+	private RelationOutboxScheduler relationOutboxScheduler;
+
+	@Test
+	void createRelations() {
+		relationOutboxScheduler.createRelations();
+
+		verify(relationOutboxHandlerMock).createDueRelations();
+		verifyNoMoreInteractions(relationOutboxHandlerMock);
+	}
+}
@@ -6,30 +6,42 @@ import generated.se.sundsvall.contract.IntervalType;
 import generated.se.sundsvall.contract.InvoicedIn;
 import generated.se.sundsvall.contract.Invoicing;
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import se.sundsvall.billingdatacollector.api.model.BillingSource;
-import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorClient;
+import se.sundsvall.billingdatacollector.integration.billingpreprocessor.BillingPreprocessorIntegration;
 import se.sundsvall.billingdatacollector.integration.contract.ContractIntegration;
 import se.sundsvall.billingdatacollector.integration.db.HistoryRepository;
+import se.sundsvall.billingdatacollector.integration.db.RelationOutboxRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.RelationOutboxEntity;
 import se.sundsvall.billingdatacollector.integration.db.model.ScheduledBillingEntity;
-import se.sundsvall.billingdatacollector.integration.relation.RelationClient;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties.Claim;
+import se.sundsvall.billingdatacollector.service.scheduling.BillingSchedulerProperties.Parallel;
 import se.sundsvall.billingdatacollector.service.source.BillingResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -48,28 +60,38 @@ class ContractBillingHandlerTest {
 	private ContractMapper contractMapperMock;
 
 	@Mock
-	private BillingPreprocessorClient billingPreprocessorClientMock;
+	private BillingPreprocessorIntegration billingPreprocessorIntegrationMock;
 
 	@Mock
 	private HistoryRepository historyRepositoryMock;
 
 	@Mock
-	private RelationClient relationClientMock;
+	private RelationOutboxRepository relationOutboxRepositoryMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
 
 	@Mock
 	private BillingRecord billingRecordMock;
 
-	@InjectMocks
+	@Captor
+	private ArgumentCaptor<RelationOutboxEntity> relationOutboxCaptor;
+
 	private ContractBillingHandler handler;
 
+	@BeforeEach
+	void setUp() {
+		handler = createHandler(8);
+	}
+
 	@AfterEach
 	void verifyNoMoreMockInteractions() {
 		verifyNoMoreInteractions(
 			contractIntegrationMock,
 			contractMapperMock,
-			billingPreprocessorClientMock,
+			billingPreprocessorIntegrationMock,
 			historyRepositoryMock,
-			relationClientMock);
+			relationOutboxRepositoryMock);
 	}
 
 	/**
@@ -88,9 +110,53 @@ class ContractBillingHandlerTest {
 
 		assertThat(result).isInstanceOf(BillingResult.Sent.class);
 		assertThat(((BillingResult.Sent) result).nextSlot()).isEqualTo(LocalDate.of(2026, 9, 1));
-		verify(billingPreprocessorClientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
-		verify(historyRepositoryMock).saveAndFlush(any());
-		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock).save(relationOutboxCaptor.capture());
+		assertThat(relationOutboxCaptor.getValue()).satisfies(outbox -> {
+			assertThat(outbox.getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(outbox.getContractId()).isEqualTo(CONTRACT_ID);
+			assertThat(outbox.getBillingRecordId()).isEqualTo("abc-123");
+			assertThat(outbox.getAttempts()).isZero();
+		});
+	}
+
+	@Test
+	void sendBillingRecords_savesInTransactionAfterCallingOtherServices() {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+		var contract = contract(IntervalType.QUARTERLY, InvoicedIn.ADVANCE, LocalDate.of(2027, 3, 14));
+
+		stubSuccessfulPipeline(entity, contract);
+
+		handler.sendBillingRecords(entity);
+
+		// The KPI values are looked up when mapping the contract, outside of the transaction
+		var inOrder = inOrder(contractIntegrationMock, contractMapperMock, billingPreprocessorIntegrationMock, transactionManagerMock, historyRepositoryMock, relationOutboxRepositoryMock);
+		inOrder.verify(contractIntegrationMock).getContract(MUNICIPALITY_ID, CONTRACT_ID);
+		inOrder.verify(contractMapperMock).createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling());
+		inOrder.verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		inOrder.verify(transactionManagerMock).getTransaction(any());
+		inOrder.verify(historyRepositoryMock).save(any());
+		inOrder.verify(relationOutboxRepositoryMock).save(any());
+		inOrder.verify(transactionManagerMock).commit(any());
+	}
+
+	@Test
+	void sendBillingRecords_whenResponseHasNoLocation_savesHistoryWithoutRelation() {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+		var contract = contract(IntervalType.QUARTERLY, InvoicedIn.ADVANCE, LocalDate.of(2027, 3, 14));
+		when(contractIntegrationMock.getContract(MUNICIPALITY_ID, CONTRACT_ID)).thenReturn(Optional.of(contract));
+		when(contractMapperMock.createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling()))
+			.thenReturn(billingRecordMock);
+		when(billingPreprocessorIntegrationMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock))
+			.thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+
+		var result = handler.sendBillingRecords(entity);
+
+		assertThat(result).isInstanceOf(BillingResult.Sent.class);
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock, never()).save(any());
 	}
 
 	/**
@@ -109,9 +175,9 @@ class ContractBillingHandlerTest {
 
 		assertThat(result).isInstanceOf(BillingResult.Sent.class);
 		assertThat(((BillingResult.Sent) result).nextSlot()).isNull();
-		verify(billingPreprocessorClientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
-		verify(historyRepositoryMock).saveAndFlush(any());
-		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock).save(any());
 	}
 
 	/**
@@ -129,7 +195,7 @@ class ContractBillingHandlerTest {
 		var result = handler.sendBillingRecords(entity);
 
 		assertThat(result).isInstanceOf(BillingResult.Skipped.class);
-		verifyNoInteractions(billingPreprocessorClientMock, historyRepositoryMock);
+		verifyNoInteractions(billingPreprocessorIntegrationMock, historyRepositoryMock);
 		verify(contractMapperMock, never()).createBillingRecord(any(), any(), any());
 	}
 
@@ -156,9 +222,9 @@ class ContractBillingHandlerTest {
 
 		assertThat(result).isInstanceOf(BillingResult.Sent.class);
 		assertThat(((BillingResult.Sent) result).nextSlot()).isNull();
-		verify(billingPreprocessorClientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
-		verify(historyRepositoryMock).saveAndFlush(any());
-		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock).save(any());
 	}
 
 	@Test
@@ -173,7 +239,7 @@ class ContractBillingHandlerTest {
 			.contains(CONTRACT_ID)
 			.contains("404")
 			.contains("TERMINATED");
-		verifyNoInteractions(billingPreprocessorClientMock, historyRepositoryMock);
+		verifyNoInteractions(billingPreprocessorIntegrationMock, historyRepositoryMock);
 	}
 
 	@Test
@@ -185,7 +251,7 @@ class ContractBillingHandlerTest {
 		var result = handler.sendBillingRecords(entity);
 
 		assertThat(result).isInstanceOf(BillingResult.Skipped.class);
-		verifyNoInteractions(billingPreprocessorClientMock, historyRepositoryMock);
+		verifyNoInteractions(billingPreprocessorIntegrationMock, historyRepositoryMock);
 	}
 
 	@Test
@@ -199,9 +265,9 @@ class ContractBillingHandlerTest {
 
 		assertThat(result).isInstanceOf(BillingResult.Sent.class);
 		assertThat(((BillingResult.Sent) result).nextSlot()).isEqualTo(LocalDate.of(2026, 9, 1));
-		verify(billingPreprocessorClientMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
-		verify(historyRepositoryMock).saveAndFlush(any());
-		verify(relationClientMock).createRelation(eq(MUNICIPALITY_ID), any());
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock).save(any());
 	}
 
 	@Test
@@ -212,13 +278,124 @@ class ContractBillingHandlerTest {
 		when(contractIntegrationMock.getContract(MUNICIPALITY_ID, CONTRACT_ID)).thenReturn(Optional.of(contract));
 		when(contractMapperMock.createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling()))
 			.thenReturn(billingRecordMock);
-		when(billingPreprocessorClientMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock))
+		when(billingPreprocessorIntegrationMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock))
 			.thenThrow(new RuntimeException("preprocessor down"));
 
 		var result = handler.sendBillingRecords(entity);
 
 		assertThat(result).isInstanceOf(BillingResult.Failed.class);
-		verifyNoInteractions(historyRepositoryMock, relationClientMock);
+		verifyNoInteractions(historyRepositoryMock, relationOutboxRepositoryMock);
+	}
+
+	@Test
+	void sendBillingRecords_whenContractPrefetched_usesPrefetchedContractOnce() {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+		var contract = contract(IntervalType.QUARTERLY, InvoicedIn.ADVANCE, null);
+
+		stubSuccessfulPipeline(entity, contract);
+
+		handler.prefetch(List.of(entity));
+		var first = handler.sendBillingRecords(entity);
+		var second = handler.sendBillingRecords(entity);
+
+		assertThat(first).isInstanceOf(BillingResult.Sent.class);
+		assertThat(second).isInstanceOf(BillingResult.Sent.class);
+		// Once by the prefetch, once when processing the entity a second time
+		verify(contractIntegrationMock, times(2)).getContract(MUNICIPALITY_ID, CONTRACT_ID);
+		verify(contractMapperMock, times(2)).createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling());
+		verify(billingPreprocessorIntegrationMock, times(2)).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock, times(2)).save(any());
+		verify(relationOutboxRepositoryMock, times(2)).save(any());
+	}
+
+	@Test
+	void sendBillingRecords_whenPrefetchFailed_fetchesContractAgain() {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+		var contract = contract(IntervalType.QUARTERLY, InvoicedIn.ADVANCE, null);
+
+		when(contractIntegrationMock.getContract(MUNICIPALITY_ID, CONTRACT_ID))
+			.thenThrow(new RuntimeException("contract service unavailable"))
+			.thenReturn(Optional.of(contract));
+		when(contractMapperMock.createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling()))
+			.thenReturn(billingRecordMock);
+		when(billingPreprocessorIntegrationMock.createBillingRecord(MUNICIPALITY_ID, billingRecordMock))
+			.thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+
+		handler.prefetch(List.of(entity));
+		var result = handler.sendBillingRecords(entity);
+
+		assertThat(result).isInstanceOf(BillingResult.Sent.class);
+		verify(contractIntegrationMock, times(2)).getContract(MUNICIPALITY_ID, CONTRACT_ID);
+		verify(contractMapperMock).createBillingRecord(MUNICIPALITY_ID, contract, entity.getNextScheduledBilling());
+		verify(billingPreprocessorIntegrationMock).createBillingRecord(MUNICIPALITY_ID, billingRecordMock);
+		verify(historyRepositoryMock).save(any());
+		verify(relationOutboxRepositoryMock).save(any());
+	}
+
+	@Test
+	void clearPrefetched_dropsPrefetchedContracts() {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+
+		when(contractIntegrationMock.getContract(MUNICIPALITY_ID, CONTRACT_ID)).thenReturn(Optional.empty());
+
+		handler.prefetch(List.of(entity));
+		handler.clearPrefetched();
+		var result = handler.sendBillingRecords(entity);
+
+		assertThat(result).isInstanceOf(BillingResult.Failed.class);
+		// The prefetch may still be running when the contract is fetched again
+		verify(contractIntegrationMock, timeout(1000).times(2)).getContract(MUNICIPALITY_ID, CONTRACT_ID);
+	}
+
+	@Test
+	void prefetch_fetchesAtMostTwiceTheNumberOfWorkersAhead() {
+		var windowedHandler = createHandler(1);
+		var entities = List.of(quarterlyEntity("2026-00001"), quarterlyEntity("2026-00002"), quarterlyEntity("2026-00003"));
+
+		when(contractIntegrationMock.getContract(eq(MUNICIPALITY_ID), any())).thenReturn(Optional.empty());
+
+		windowedHandler.prefetch(entities);
+
+		verify(contractIntegrationMock, timeout(1000)).getContract(MUNICIPALITY_ID, "2026-00001");
+		verify(contractIntegrationMock, timeout(1000)).getContract(MUNICIPALITY_ID, "2026-00002");
+		verify(contractIntegrationMock, never()).getContract(MUNICIPALITY_ID, "2026-00003");
+
+		// Using a prefetched contract starts fetching the next one
+		var result = windowedHandler.sendBillingRecords(entities.getFirst());
+
+		assertThat(result).isInstanceOf(BillingResult.Failed.class);
+		verify(contractIntegrationMock, timeout(1000)).getContract(MUNICIPALITY_ID, "2026-00003");
+		windowedHandler.clearPrefetched();
+	}
+
+	@Test
+	void prefetch_whenEntityIsProcessedBeforeItsTurn_doesNotPrefetchIt() {
+		var windowedHandler = createHandler(1);
+		var entities = List.of(quarterlyEntity("2026-00001"), quarterlyEntity("2026-00002"), quarterlyEntity("2026-00003"));
+
+		when(contractIntegrationMock.getContract(eq(MUNICIPALITY_ID), any())).thenReturn(Optional.empty());
+
+		windowedHandler.prefetch(entities);
+		windowedHandler.sendBillingRecords(entities.getLast());
+		windowedHandler.sendBillingRecords(entities.getFirst());
+		windowedHandler.sendBillingRecords(entities.get(1));
+
+		// Each contract is fetched once, the last one directly instead of ahead of time
+		verify(contractIntegrationMock, timeout(1000)).getContract(MUNICIPALITY_ID, "2026-00001");
+		verify(contractIntegrationMock, timeout(1000)).getContract(MUNICIPALITY_ID, "2026-00002");
+		verify(contractIntegrationMock).getContract(MUNICIPALITY_ID, "2026-00003");
+	}
+
+	private ContractBillingHandler createHandler(int workers) {
+		return new ContractBillingHandler(contractIntegrationMock, contractMapperMock, billingPreprocessorIntegrationMock, historyRepositoryMock,
+			relationOutboxRepositoryMock, new BillingSchedulerProperties(500, Duration.ofMinutes(30), new Parallel(true, workers), new Claim(false, null, Duration.ofMinutes(30))),
+			transactionManagerMock);
+	}
+
+	private static ScheduledBillingEntity quarterlyEntity(String externalId) {
+		var entity = quarterlyEntity(LocalDate.of(2026, 6, 1));
+		entity.setExternalId(externalId);
+		return entity;
 	}
 
 	private void stubSuccessfulPipeline(ScheduledBillingEntity entity, Contract contract) {
@@ -227,7 +404,7 @@ class ContractBillingHandlerTest {
 			.thenReturn(billingRecordMock);
 		var headers = new HttpHeaders();
 		headers.setLocation(URI.create("http://billing-preprocessor/billing-records/abc-123"));
-		when(billingPreprocessorClientMock.createBillingRecord(eq(MUNICIPALITY_ID), eq(billingRecordMock)))
+		when(billingPreprocessorIntegrationMock.createBillingRecord(eq(MUNICIPALITY_ID), eq(billingRecordMock)))
 			.thenReturn(ResponseEntity.status(HttpStatus.CREATED).headers(headers).build());
 	}
 
@@ -0,0 +1,118 @@
+package se.sundsvall.billingdatacollector.service.source.contract;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.billingdatacollector.integration.db.CounterpartMappingRepository;
+import se.sundsvall.billingdatacollector.integration.db.model.CounterpartMappingEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CounterpartMappingIndexTest {
+
+	private static final String LEGAL_ID = "11223344-5566";
+	private static final String STAKEHOLDER_TYPE = "ORGANIZATION";
+	private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+	@Mock
+	private CounterpartMappingRepository mockRepository;
+
+	@Test
+	void findByLegalId_selectsLongestMatchingPattern() {
+		when(mockRepository.findAll()).thenReturn(Arrays.asList(
+			pattern("1122", "SHORT"),
+			pattern("2233", "NOT_MATCHING"),
+			pattern("11223344", "LONG"),
+			pattern("112233449", "NOT_MATCHING"),
+			null));
+		var index = new CounterpartMappingIndex(mockRepository, TIME_TO_LIVE);
+
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("LONG");
+		assertThat(index.findByLegalId("1122-0000")).hasValue("SHORT");
+		assertThat(index.findByLegalId("9999")).isEmpty();
+		assertThat(index.findByLegalId("112")).isEmpty();
+		verify(mockRepository).findAll();
+		verifyNoMoreInteractions(mockRepository);
+	}
+
+	@Test
+	void findByLegalId_patternExactMatch() {
+		when(mockRepository.findAll()).thenReturn(List.of(
+			pattern("1122", "NOT_MATCHING"),
+			pattern("112233445566", "EXACT")));
+		var index = new CounterpartMappingIndex(mockRepository, TIME_TO_LIVE);
+
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("EXACT");
+	}
+
+	@Test
+	void findByStakeholderType() {
+		when(mockRepository.findAll()).thenReturn(List.of(
+			pattern("1122", "PATTERN"),
+			stakeholderType(STAKEHOLDER_TYPE, "TYPE")));
+		var index = new CounterpartMappingIndex(mockRepository, TIME_TO_LIVE);
+
+		assertThat(index.findByStakeholderType(STAKEHOLDER_TYPE)).hasValue("TYPE");
+		assertThat(index.findByStakeholderType("PERSON")).isEmpty();
+		verify(mockRepository).findAll();
+		verifyNoMoreInteractions(mockRepository);
+	}
+
+	@Test
+	void reloadsWhenExpired() {
+		when(mockRepository.findAll())
+			.thenReturn(List.of(pattern("1122", "BEFORE")))
+			.thenReturn(List.of(pattern("1122", "AFTER")));
+		var index = new CounterpartMappingIndex(mockRepository, Duration.ZERO);
+
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("BEFORE");
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("AFTER");
+		verify(mockRepository, times(2)).findAll();
+	}
+
+	@Test
+	void keepsMappingsWhenReloadFails() {
+		when(mockRepository.findAll())
+			.thenReturn(List.of(pattern("1122", "KEPT")))
+			.thenThrow(new IllegalStateException("database unavailable"));
+		var index = new CounterpartMappingIndex(mockRepository, Duration.ZERO);
+
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("KEPT");
+		assertThat(index.findByLegalId(LEGAL_ID)).hasValue("KEPT");
+		verify(mockRepository, times(2)).findAll();
+	}
+
+	@Test
+	void throwsWhenFirstLoadFails() {
+		when(mockRepository.findAll()).thenThrow(new IllegalStateException("database unavailable"));
+		var index = new CounterpartMappingIndex(mockRepository, TIME_TO_LIVE);
+
+		assertThatThrownBy(() -> index.findByLegalId(LEGAL_ID))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("database unavailable");
+	}
+
+	private static CounterpartMappingEntity pattern(String legalIdPattern, String counterpart) {
+		return CounterpartMappingEntity.builder()
+			.withLegalIdPattern(legalIdPattern)
+			.withCounterpart(counterpart)
+			.build();
+	}
+
+	private static CounterpartMappingEntity stakeholderType(String stakeholderType, String counterpart) {
+		return CounterpartMappingEntity.builder()
+			.withStakeholderType(stakeholderType)
+			.withCounterpart(counterpart)
+			.build();
+	}
+}
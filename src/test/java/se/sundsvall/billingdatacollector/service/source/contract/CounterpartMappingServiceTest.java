@@ -1,14 +1,11 @@
 package se.sundsvall.billingdatacollector.service.source.contract;
 
-import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import se.sundsvall.billingdatacollector.integration.db.CounterpartMappingRepository;
-import se.sundsvall.billingdatacollector.integration.db.model.CounterpartMappingEntity;
 import se.sundsvall.billingdatacollector.integration.party.PartyIntegration;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.ThrowableProblem;
@@ -31,7 +28,7 @@ class CounterpartMappingServiceTest {
 	private static final String MUNICIPALITY_ID = "municipalityId";
 
 	@Mock
-	private CounterpartMappingRepository mockRepository;
+	private CounterpartMappingIndex mockCounterpartMappingIndex;
 
 	@Mock
 	private PartyIntegration mockPartyIntegration;
@@ -40,89 +37,51 @@ class CounterpartMappingServiceTest {
 	private CounterpartMappingService service;
 
 	@Test
-	void findCounterpart_patternExactMatch() {
-		var patternEntity1 = CounterpartMappingEntity.builder()
-			.withId("id-1")
-			.withLegalIdPattern("1122")
-			.withCounterpart("NOT_MATCHING")
-			.build();
-		var patternEntity2 = CounterpartMappingEntity.builder()
-			.withId("id-2")
-			.withLegalIdPattern("2233")
-			.withCounterpart("NOT_MATCHING")
-			.build();
-		var patternEntity3 = CounterpartMappingEntity.builder()
-			.withId("id-3")
-			.withLegalIdPattern("112233445566")
-			.withCounterpart(COUNTERPART)
-			.build();
-
+	void findCounterpart_patternMatch() {
 		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.of(LEGAL_ID));
-		when(mockRepository.findAll()).thenReturn(List.of(patternEntity1, patternEntity2, patternEntity3));
+		when(mockCounterpartMappingIndex.findByLegalId(LEGAL_ID)).thenReturn(Optional.of(COUNTERPART));
 
 		var result = service.findCounterpart(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
 
 		assertThat(result).isEqualTo(COUNTERPART);
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verify(mockRepository).findAll();
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
+		verify(mockCounterpartMappingIndex).findByLegalId(LEGAL_ID);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex, mockPartyIntegration);
 	}
 
 	@Test
-	void findCounterpart_patternMatch() {
-		var patternEntity1 = CounterpartMappingEntity.builder()
-			.withId("id-1")
-			.withLegalIdPattern("1122")
-			.withCounterpart(COUNTERPART)
-			.build();
-		var patternEntity2 = CounterpartMappingEntity.builder()
-			.withId("id-2")
-			.withLegalIdPattern("2233")
-			.withCounterpart("NOT_MATCHING")
-			.build();
-		var patternEntity3 = CounterpartMappingEntity.builder()
-			.withId("id-3")
-			.withLegalIdPattern("2233445566")
-			.withCounterpart("NOT_MATCHING")
-			.build();
-
+	void findCounterpart_patternDoesNotMatch_fallsBackToStakeholderType() {
 		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.of(LEGAL_ID));
-		when(mockRepository.findAll()).thenReturn(List.of(patternEntity1, patternEntity2, patternEntity3));
+		when(mockCounterpartMappingIndex.findByLegalId(LEGAL_ID)).thenReturn(Optional.empty());
+		when(mockCounterpartMappingIndex.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.of(COUNTERPART));
 
 		var result = service.findCounterpart(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
 
 		assertThat(result).isEqualTo(COUNTERPART);
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verify(mockRepository).findAll();
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
+		verify(mockCounterpartMappingIndex).findByLegalId(LEGAL_ID);
+		verify(mockCounterpartMappingIndex).findByStakeholderType(STAKEHOLDER_TYPE);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex, mockPartyIntegration);
 	}
 
 	@Test
-	void findCounterpart_stakeholderTypeFallback() {
-		var typeEntity = CounterpartMappingEntity.builder()
-			.withId("id-1")
-			.withStakeholderType(STAKEHOLDER_TYPE)
-			.withCounterpart(COUNTERPART)
-			.build();
-
-		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.of(LEGAL_ID));
-		when(mockRepository.findAll()).thenReturn(List.of());
-		when(mockRepository.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.of(typeEntity));
+	void findCounterpart_noLegalId_fallsBackToStakeholderType() {
+		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.empty());
+		when(mockCounterpartMappingIndex.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.of(COUNTERPART));
 
 		var result = service.findCounterpart(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
 
 		assertThat(result).isEqualTo(COUNTERPART);
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verify(mockRepository).findAll();
-		verify(mockRepository).findByStakeholderType(STAKEHOLDER_TYPE);
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
+		verify(mockCounterpartMappingIndex).findByStakeholderType(STAKEHOLDER_TYPE);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex, mockPartyIntegration);
 	}
 
 	@Test
 	void findCounterpart_noMatch_throwsNotFound() {
 		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.of(LEGAL_ID));
-		when(mockRepository.findAll()).thenReturn(List.of());
-		when(mockRepository.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.empty());
+		when(mockCounterpartMappingIndex.findByLegalId(LEGAL_ID)).thenReturn(Optional.empty());
+		when(mockCounterpartMappingIndex.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> service.findCounterpart(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE))
 			.isInstanceOf(ThrowableProblem.class)
@@ -130,9 +89,9 @@ class CounterpartMappingServiceTest {
 			.hasMessage("No counterpart found for partyId: " + PARTY_ID + " or stakeholderType: " + STAKEHOLDER_TYPE);
 
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verify(mockRepository).findAll();
-		verify(mockRepository).findByStakeholderType(STAKEHOLDER_TYPE);
-		verifyNoMoreInteractions(mockRepository);
+		verify(mockCounterpartMappingIndex).findByLegalId(LEGAL_ID);
+		verify(mockCounterpartMappingIndex).findByStakeholderType(STAKEHOLDER_TYPE);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex);
 	}
 
 	@Test
@@ -144,33 +103,7 @@ class CounterpartMappingServiceTest {
 			.hasFieldOrPropertyWithValue("status", NOT_FOUND);
 
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, null);
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
-	}
-
-	@Test
-	void findCounterpart_patternDoesNotMatch_fallsBackToStakeholderType() {
-		var patternEntity = CounterpartMappingEntity.builder()
-			.withId("id-1")
-			.withLegalIdPattern("9999")
-			.withCounterpart("COUNTERPART_PATTERN")
-			.build();
-		var typeEntity = CounterpartMappingEntity.builder()
-			.withId("id-2")
-			.withStakeholderType(STAKEHOLDER_TYPE)
-			.withCounterpart(COUNTERPART)
-			.build();
-
-		when(mockPartyIntegration.getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE)).thenReturn(Optional.of(LEGAL_ID));
-		when(mockRepository.findAll()).thenReturn(List.of(patternEntity));
-		when(mockRepository.findByStakeholderType(STAKEHOLDER_TYPE)).thenReturn(Optional.of(typeEntity));
-
-		var result = service.findCounterpart(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-
-		assertThat(result).isEqualTo(COUNTERPART);
-		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verify(mockRepository).findAll();
-		verify(mockRepository).findByStakeholderType(STAKEHOLDER_TYPE);
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex, mockPartyIntegration);
 	}
 
 	@Test
@@ -185,6 +118,6 @@ class CounterpartMappingServiceTest {
 			.hasFieldOrPropertyWithValue("status", INTERNAL_SERVER_ERROR);
 
 		verify(mockPartyIntegration).getLegalId(MUNICIPALITY_ID, PARTY_ID, STAKEHOLDER_TYPE);
-		verifyNoMoreInteractions(mockRepository, mockPartyIntegration);
+		verifyNoMoreInteractions(mockCounterpartMappingIndex, mockPartyIntegration);
 	}
 }
@@ -6,6 +6,8 @@ import generated.se.sundsvall.contract.Fees;
 import generated.se.sundsvall.contract.IntervalType;
 import generated.se.sundsvall.contract.InvoicedIn;
 import generated.se.sundsvall.contract.Invoicing;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -144,6 +146,14 @@ class ContractUtilTest {
 			Arguments.of("IndexType is present with KPI 2020 as lower case", new Fees().indexType("kpi 2020"), KPIBaseYear.KPI_2020));
 	}
 
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"2026-01-01", "2026-10-31", "2026-12-31"
+	})
+	void getIndexPeriod(LocalDate scheduledDate) {
+		assertThat(ContractUtil.getIndexPeriod(scheduledDate)).isEqualTo(YearMonth.of(2025, 10));
+	}
+
 	@Test
 	void getExtraParameterFromNull() {
 		final var e = assertThrows(ThrowableProblem.class, () -> ContractUtil.getExtraParameter(null, null, null));
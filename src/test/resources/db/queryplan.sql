@@ -0,0 +1,18 @@
+INSERT INTO history (id, municipality_id, family_id, flow_instance_id, created)
+SELECT CONCAT('history-', seq), '2281', CONCAT('family-', seq MOD 10), CONCAT('flow-', seq), NOW()
+FROM seq_1_to_2000;
+
+INSERT INTO fallout (id, municipality_id, family_id, flow_instance_id, reported, created)
+SELECT CONCAT('fallout-', seq), IF(seq MOD 2 = 0, '2281', '2260'), CONCAT('family-', seq MOD 10), CONCAT('flow-', seq), seq > 20, NOW()
+FROM seq_1_to_2000;
+
+INSERT INTO scheduled_job_log (id, municipality_id, fetched_start_date, fetched_end_date, processed)
+SELECT CONCAT('job-', seq), '2281', DATE('2020-01-01') + INTERVAL seq DAY, DATE('2020-01-01') + INTERVAL seq DAY, NOW()
+FROM seq_1_to_2000;
+
+-- One scheduled billing a day from 2020-01-02, so only a few are due at the start of the period
+INSERT INTO scheduled_billing (id, municipality_id, external_id, source, billing_days_of_month, billing_months, next_scheduled_billing, paused)
+SELECT CONCAT('billing-', seq), '2281', CONCAT('contract-', seq), 'CONTRACT', '1', '1', DATE('2020-01-01') + INTERVAL seq DAY, seq MOD 50 = 0
+FROM seq_1_to_2000;
+
+ANALYZE TABLE history, fallout, scheduled_job_log, scheduled_billing;
@@ -35,14 +35,38 @@
         primary key (id)
     ) engine=InnoDB;
 
+    create table kpi (
+        kpi_value decimal(6,2) not null,
+        period varchar(7) not null,
+        created datetime(6),
+        base_year enum ('KPI_80','KPI_2020') not null,
+        id varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table relation_outbox (
+        attempts integer not null,
+        municipality_id varchar(4) not null,
+        parked bit not null,
+        created datetime(6),
+        next_attempt_at datetime(6),
+        last_error varchar(1024),
+        billing_record_id varchar(255) not null,
+        contract_id varchar(255) not null,
+        id varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table scheduled_billing (
         municipality_id varchar(4) not null,
         next_scheduled_billing date,
         paused bit not null,
+        claimed_until datetime(6),
         last_billed datetime(6),
         external_id varchar(64) not null,
         billing_days_of_month varchar(255) not null,
         billing_months varchar(255) not null,
+        claimed_by varchar(255),
         id varchar(255) not null,
         invoiced_in enum ('ADVANCE','ARREARS'),
         source enum ('CONTRACT','OPENE') not null,
@@ -64,8 +88,8 @@
     alter table if exists counterpart_mapping
        add constraint uq_legal_id_pattern unique (legal_id_pattern);
 
-    create index idx_family_id
-       on fallout (family_id);
+    create index idx_family_id_flow_instance_id
+       on fallout (family_id, flow_instance_id);
 
     create index idx_flow_instance_id
        on fallout (flow_instance_id);
@@ -73,8 +97,11 @@
     create index idx_municipality_id
        on fallout (municipality_id);
 
-    create index idx_family_id
-       on history (family_id);
+    create index idx_reported_municipality_id
+       on fallout (reported, municipality_id);
+
+    create index idx_family_id_flow_instance_id
+       on history (family_id, flow_instance_id);
 
     create index idx_flow_instance_id
        on history (flow_instance_id);
@@ -85,6 +112,12 @@
     create index idx_municipality_id
        on history (municipality_id);
 
+    alter table if exists kpi
+       add constraint uq_base_year_period unique (base_year, period);
+
+    create index idx_parked_next_attempt_at
+       on relation_outbox (parked, next_attempt_at);
+
     create index idx_municipality_id_external_id_source
        on scheduled_billing (municipality_id, external_id, source);
 
@@ -96,3 +129,6 @@
 
     create index idx_municipality_id 
        on scheduled_job_log (municipality_id);
+
+    create index idx_fetched_end_date 
+       on scheduled_job_log (fetched_end_date);
@@ -4,3 +4,5 @@ truncate table scheduled_job_log;
 truncate table shedlock;
 truncate table scheduled_billing;
 truncate table counterpart_mapping;
+truncate table kpi;
+truncate table relation_outbox;